@@ -0,0 +1,135 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BigDecimal128Benchmark {
+
+  private static final int LENGTH = 1024;
+
+  private static final int MASK = LENGTH - 1;
+
+  // one bit for the sign
+  private static final int MAX_BITS = 119;
+
+  @Param({"COMPACT", "NON_COMPACT", "MIXED_SCALES", "BOUNDARY"})
+  public ValueShape shape;
+
+  private BigDecimal[] bigDecimals;
+  private BigDecimal128[] values;
+  private BigDecimal128[] others;
+  private BigDecimal128[] copies;
+  private int[] scales;
+  private int index;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42L);
+    this.bigDecimals = this.shape.values(random, LENGTH, MAX_BITS, 2);
+    BigDecimal[] otherBigDecimals = this.shape.values(random, LENGTH, MAX_BITS, 2);
+    this.values = new BigDecimal128[LENGTH];
+    this.others = new BigDecimal128[LENGTH];
+    this.copies = new BigDecimal128[LENGTH];
+    this.scales = new int[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      this.values[i] = BigDecimal128.valueOf(this.bigDecimals[i]);
+      this.others[i] = BigDecimal128.valueOf(otherBigDecimals[i]);
+      this.copies[i] = BigDecimal128.valueOf(this.bigDecimals[i]);
+      this.scales[i] = largestScale(this.values[i]);
+    }
+    this.index = 0;
+  }
+
+  /**
+   * Returns the largest scale the value can be set to without overflow.
+   */
+  private static int largestScale(BigDecimal128 value) {
+    for (int scale = BigDecimal128.MAX_SCALE; scale > 0; scale--) {
+      try {
+        value.withScale(scale);
+        return scale;
+      } catch (ArithmeticException e) {
+        // try the next smaller one
+      }
+    }
+    return 0;
+  }
+
+  private int nextIndex() {
+    int i = this.index;
+    this.index = (i + 1) & MASK;
+    return i;
+  }
+
+  @Benchmark
+  public BigDecimal toBigDecimal() {
+    return this.values[this.nextIndex()].toBigDecimal();
+  }
+
+  @Benchmark
+  public BigDecimal128 valueOf() {
+    return BigDecimal128.valueOf(this.bigDecimals[this.nextIndex()]);
+  }
+
+  @Benchmark
+  public BigDecimal128 add() {
+    int i = this.nextIndex();
+    return this.values[i].add(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal128 subtract() {
+    int i = this.nextIndex();
+    return this.values[i].subtract(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal128 negate() {
+    return this.values[this.nextIndex()].negate();
+  }
+
+  @Benchmark
+  public int compareTo() {
+    int i = this.nextIndex();
+    return this.values[i].compareTo(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal128 withScale() {
+    int i = this.nextIndex();
+    return this.values[i].withScale(this.scales[i]);
+  }
+
+  @Benchmark
+  public boolean equalsSame() {
+    int i = this.nextIndex();
+    return this.values[i].equals(this.copies[i]);
+  }
+
+  @Benchmark
+  public boolean equalsDifferent() {
+    int i = this.nextIndex();
+    return this.values[i].equals(this.others[i]);
+  }
+
+  @Benchmark
+  public int hashCodeValue() {
+    return this.values[this.nextIndex()].hashCode();
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BigDecimal64Benchmark {
+
+  private static final int LENGTH = 1024;
+
+  private static final int MASK = LENGTH - 1;
+
+  // 2^59 is less than 999999999999.999999 at scale 6
+  private static final int MAX_BITS = 59;
+
+  // there are no non-compact values
+  @Param({"COMPACT", "MIXED_SCALES", "BOUNDARY"})
+  public ValueShape shape;
+
+  private BigDecimal[] bigDecimals;
+  private Long[] values;
+  private long[] longValues;
+  private long[] others;
+  private int index;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42L);
+    this.bigDecimals = this.shape.values(random, LENGTH, MAX_BITS, 6);
+    this.values = new Long[LENGTH];
+    this.longValues = new long[LENGTH];
+    this.others = new long[LENGTH];
+    BigDecimal[] otherBigDecimals = this.shape.values(random, LENGTH, MAX_BITS, 6);
+    for (int i = 0; i < LENGTH; i++) {
+      this.others[i] = BigDecimal64.toLongValue(otherBigDecimals[i]);
+      this.values[i] = BigDecimal64.toLong(this.bigDecimals[i]);
+      this.longValues[i] = BigDecimal64.toLongValue(this.bigDecimals[i]);
+    }
+    this.index = 0;
+  }
+
+  private int nextIndex() {
+    int i = this.index;
+    this.index = (i + 1) & MASK;
+    return i;
+  }
+
+  @Benchmark
+  public Long toLong() {
+    return BigDecimal64.toLong(this.bigDecimals[this.nextIndex()]);
+  }
+
+  @Benchmark
+  public long toLongValue() {
+    return BigDecimal64.toLongValue(this.bigDecimals[this.nextIndex()]);
+  }
+
+  @Benchmark
+  public BigDecimal toBigDecimal() {
+    return BigDecimal64.toBigDecimal(this.values[this.nextIndex()]);
+  }
+
+  @Benchmark
+  public BigDecimal toBigDecimalPrimitive() {
+    return BigDecimal64.toBigDecimal(this.longValues[this.nextIndex()]);
+  }
+
+  @Benchmark
+  public long add() {
+    int i = this.nextIndex();
+    return BigDecimal64.add(this.longValues[i], this.others[i]);
+  }
+
+  @Benchmark
+  public long subtract() {
+    int i = this.nextIndex();
+    return BigDecimal64.subtract(this.longValues[i], this.others[i]);
+  }
+
+  @Benchmark
+  public int compare() {
+    int i = this.nextIndex();
+    return BigDecimal64.compare(this.longValues[i], this.others[i]);
+  }
+
+  @Benchmark
+  public long multiply() {
+    // 1.5 so that the result does not overflow
+    return BigDecimal64.multiply(this.longValues[this.nextIndex()], 1_500_000L, RoundingMode.HALF_EVEN);
+  }
+
+  @Benchmark
+  public long divide() {
+    int i = this.nextIndex();
+    // 3 so that the result has to be rounded
+    return BigDecimal64.divide(this.longValues[i], 3_000_000L, RoundingMode.HALF_EVEN);
+  }
+
+  @Benchmark
+  public long rescale() {
+    return BigDecimal64.rescale(this.longValues[this.nextIndex()], 2, RoundingMode.HALF_UP);
+  }
+
+}
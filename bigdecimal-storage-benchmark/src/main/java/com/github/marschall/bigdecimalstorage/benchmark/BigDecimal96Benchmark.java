@@ -1,12 +1,14 @@
 package com.github.marschall.bigdecimalstorage.benchmark;
 
 import java.math.BigDecimal;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -15,28 +17,119 @@ import com.github.marschall.bigdecimalstorage.BigDecimal96;
 
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
-@State(Scope.Benchmark)
+@State(Scope.Thread)
 public class BigDecimal96Benchmark {
 
+  private static final int LENGTH = 1024;
 
-  private BigDecimal bigDecimal;
-  private BigDecimal96 bigDecimal96;
+  private static final int MASK = LENGTH - 1;
+
+  // one bit for the sign
+  private static final int MAX_BITS = 87;
+
+  @Param({"COMPACT", "NON_COMPACT", "MIXED_SCALES", "BOUNDARY"})
+  public ValueShape shape;
+
+  private BigDecimal[] bigDecimals;
+  private BigDecimal96[] values;
+  private BigDecimal96[] others;
+  private BigDecimal96[] copies;
+  private int[] scales;
+  private int index;
 
   @Setup
   public void setup() {
-    this.bigDecimal = new BigDecimal("1234567890123.123456");
-    this.bigDecimal96 = BigDecimal96.valueOf(this.bigDecimal);
+    Random random = new Random(42L);
+    this.bigDecimals = this.shape.values(random, LENGTH, MAX_BITS, 2);
+    BigDecimal[] otherBigDecimals = this.shape.values(random, LENGTH, MAX_BITS, 2);
+    this.values = new BigDecimal96[LENGTH];
+    this.others = new BigDecimal96[LENGTH];
+    this.copies = new BigDecimal96[LENGTH];
+    this.scales = new int[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      this.values[i] = BigDecimal96.valueOf(this.bigDecimals[i]);
+      this.others[i] = BigDecimal96.valueOf(otherBigDecimals[i]);
+      this.copies[i] = BigDecimal96.valueOf(this.bigDecimals[i]);
+      this.scales[i] = largestScale(this.values[i]);
+    }
+    this.index = 0;
+  }
+
+  /**
+   * Returns the largest scale the value can be set to without overflow.
+   */
+  private static int largestScale(BigDecimal96 value) {
+    for (int scale = BigDecimal96.MAX_SCALE; scale > 0; scale--) {
+      try {
+        value.withScale(scale);
+        return scale;
+      } catch (ArithmeticException e) {
+        // try the next smaller one
+      }
+    }
+    return 0;
+  }
+
+  private int nextIndex() {
+    int i = this.index;
+    this.index = (i + 1) & MASK;
+    return i;
   }
 
   @Benchmark
   public BigDecimal toBigDecimal() {
-    return this.bigDecimal96.toBigDecimal();
+    return this.values[this.nextIndex()].toBigDecimal();
   }
 
   @Benchmark
   public BigDecimal96 valueOf() {
-    return BigDecimal96.valueOf(this.bigDecimal);
+    return BigDecimal96.valueOf(this.bigDecimals[this.nextIndex()]);
+  }
+
+  @Benchmark
+  public BigDecimal96 add() {
+    int i = this.nextIndex();
+    return this.values[i].add(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal96 subtract() {
+    int i = this.nextIndex();
+    return this.values[i].subtract(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal96 negate() {
+    return this.values[this.nextIndex()].negate();
+  }
+
+  @Benchmark
+  public int compareTo() {
+    int i = this.nextIndex();
+    return this.values[i].compareTo(this.others[i]);
   }
 
+  @Benchmark
+  public BigDecimal96 withScale() {
+    int i = this.nextIndex();
+    return this.values[i].withScale(this.scales[i]);
+  }
+
+  @Benchmark
+  public boolean equalsSame() {
+    int i = this.nextIndex();
+    return this.values[i].equals(this.copies[i]);
+  }
+
+  @Benchmark
+  public boolean equalsDifferent() {
+    int i = this.nextIndex();
+    return this.values[i].equals(this.others[i]);
+  }
+
+  @Benchmark
+  public int hashCodeValue() {
+    return this.values[this.nextIndex()].hashCode();
+  }
 
 }
@@ -0,0 +1,91 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Sort;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class BigDecimal96SortBenchmark {
+
+  // one bit for the sign
+  private static final int MAX_BITS = 87;
+
+  @Param({"1000000"})
+  public int length;
+
+  @Param({"COMPACT", "NON_COMPACT", "MIXED_SCALES"})
+  public ValueShape shape;
+
+  private BigDecimal96[] values;
+  private BigDecimal96[] copy;
+  private ByteBuffer unsorted;
+  private BigDecimal96Array array;
+
+  @Setup
+  public void setup() {
+    BigDecimal[] bigDecimals = this.shape.values(new Random(42L), this.length, MAX_BITS, 2);
+    this.values = new BigDecimal96[this.length];
+    this.array = new BigDecimal96Array(this.length);
+    for (int i = 0; i < this.length; i++) {
+      this.values[i] = BigDecimal96.valueOf(bigDecimals[i]);
+      this.array.set(i, this.values[i]);
+    }
+    this.unsorted = ByteBuffer.allocateDirect(this.length * BigDecimal96.BYTES);
+    this.array.putTo(0, this.unsorted, 0, this.length);
+    this.copy = new BigDecimal96[this.length];
+  }
+
+  @Setup(Level.Invocation)
+  public void reset() {
+    this.array.getFrom(this.unsorted, 0, 0, this.length);
+    System.arraycopy(this.values, 0, this.copy, 0, this.length);
+  }
+
+  @Benchmark
+  public BigDecimal96[] objectSort() {
+    Arrays.sort(this.copy);
+    return this.copy;
+  }
+
+  @Benchmark
+  public BigDecimal96[] parallelObjectSort() {
+    Arrays.parallelSort(this.copy);
+    return this.copy;
+  }
+
+  @Benchmark
+  public BigDecimal96Array radixSort() {
+    BigDecimal96Sort.sort(this.array);
+    return this.array;
+  }
+
+  @Benchmark
+  public BigDecimal96Array parallelRadixSort() {
+    BigDecimal96Sort.parallelSort(this.array);
+    return this.array;
+  }
+
+  @Benchmark
+  public int[] sortedIndices() {
+    return BigDecimal96Sort.sortedIndices(this.array);
+  }
+
+}
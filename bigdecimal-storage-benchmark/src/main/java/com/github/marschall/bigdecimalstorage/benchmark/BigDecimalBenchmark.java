@@ -0,0 +1,90 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link BigDecimal} as a baseline for the other benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BigDecimalBenchmark {
+
+  private static final int LENGTH = 1024;
+
+  private static final int MASK = LENGTH - 1;
+
+  private static final int MAX_BITS = 87;
+
+  @Param({"COMPACT", "NON_COMPACT", "MIXED_SCALES", "BOUNDARY"})
+  public ValueShape shape;
+
+  private BigDecimal[] values;
+  private BigDecimal[] others;
+  private BigDecimal[] copies;
+  private int index;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42L);
+    this.values = this.shape.values(random, LENGTH, MAX_BITS, 2);
+    this.others = this.shape.values(random, LENGTH, MAX_BITS, 2);
+    this.copies = new BigDecimal[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      this.copies[i] = new BigDecimal(this.values[i].unscaledValue(), this.values[i].scale());
+    }
+    this.index = 0;
+  }
+
+  private int nextIndex() {
+    int i = this.index;
+    this.index = (i + 1) & MASK;
+    return i;
+  }
+
+  @Benchmark
+  public BigDecimal add() {
+    int i = this.nextIndex();
+    return this.values[i].add(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal subtract() {
+    int i = this.nextIndex();
+    return this.values[i].subtract(this.others[i]);
+  }
+
+  @Benchmark
+  public BigDecimal negate() {
+    return this.values[this.nextIndex()].negate();
+  }
+
+  @Benchmark
+  public int compareTo() {
+    int i = this.nextIndex();
+    return this.values[i].compareTo(this.others[i]);
+  }
+
+  @Benchmark
+  public boolean equalsSame() {
+    int i = this.nextIndex();
+    return this.values[i].equals(this.copies[i]);
+  }
+
+  @Benchmark
+  public int hashCodeValue() {
+    return this.values[this.nextIndex()].hashCode();
+  }
+
+}
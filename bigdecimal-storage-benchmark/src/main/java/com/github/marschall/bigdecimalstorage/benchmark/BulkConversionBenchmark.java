@@ -0,0 +1,115 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+import com.github.marschall.bigdecimalstorage.DecimalArrays;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BulkConversionBenchmark {
+
+  @Param({"10000"})
+  public int length;
+
+  private BigDecimal[] values;
+  private BigDecimal[] withInvalid;
+  private BigDecimal[] decoded;
+  private long[] longs;
+  private BigDecimal96Array array;
+  private long[] errors;
+
+  @Setup
+  public void setup() {
+    // amounts with two decimal places
+    Random random = new Random(42L);
+    this.values = new BigDecimal[this.length];
+    for (int i = 0; i < this.length; i++) {
+      this.values[i] = BigDecimal.valueOf(random.nextInt(100_000_000) - 50_000_000L, 2);
+    }
+    // every 100th value has too many decimal places
+    this.withInvalid = this.values.clone();
+    for (int i = 0; i < this.length; i += 100) {
+      this.withInvalid[i] = this.withInvalid[i].add(new BigDecimal("0.0000001"));
+    }
+    this.decoded = new BigDecimal[this.length];
+    this.longs = new long[this.length];
+    this.array = new BigDecimal96Array(this.length);
+    this.errors = new long[(this.length + 63) / 64];
+    DecimalArrays.encode(this.values, this.longs, 0, this.length, null);
+    DecimalArrays.encode(this.values, this.array, 0, this.length, null);
+  }
+
+  @Benchmark
+  public int encode64Bulk() {
+    return DecimalArrays.encode(this.values, this.longs, 0, this.length, this.errors);
+  }
+
+  @Benchmark
+  public long[] encode64PerElement() {
+    for (int i = 0; i < this.length; i++) {
+      this.longs[i] = BigDecimal64.toLongValue(this.values[i]);
+    }
+    return this.longs;
+  }
+
+  @Benchmark
+  public int encode96Bulk() {
+    return DecimalArrays.encode(this.values, this.array, 0, this.length, this.errors);
+  }
+
+  @Benchmark
+  public BigDecimal96Array encode96PerElement() {
+    for (int i = 0; i < this.length; i++) {
+      this.array.set(i, BigDecimal96.valueOf(this.values[i]));
+    }
+    return this.array;
+  }
+
+  @Benchmark
+  public int encode96BulkWithInvalid() {
+    return DecimalArrays.encode(this.withInvalid, this.array, 0, this.length, this.errors);
+  }
+
+  @Benchmark
+  public int encode96PerElementWithInvalid() {
+    int invalid = 0;
+    for (int i = 0; i < this.length; i++) {
+      try {
+        this.array.set(i, BigDecimal96.valueOf(this.withInvalid[i]));
+      } catch (IllegalArgumentException e) {
+        invalid += 1;
+      }
+    }
+    return invalid;
+  }
+
+  @Benchmark
+  public BigDecimal[] decode96Bulk() {
+    DecimalArrays.decode(this.array, this.decoded, 0, this.length);
+    return this.decoded;
+  }
+
+  @Benchmark
+  public BigDecimal[] decode96PerElement() {
+    for (int i = 0; i < this.length; i++) {
+      this.decoded[i] = this.array.toBigDecimal(i);
+    }
+    return this.decoded;
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Aggregations;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+import com.github.marschall.bigdecimalstorage.DecimalCollectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CollectorsBenchmark {
+
+  @Param({"100000"})
+  public int length;
+
+  private BigDecimal96Array array;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42L);
+    this.array = new BigDecimal96Array(this.length);
+    for (int i = 0; i < this.length; i++) {
+      this.array.set(i, random.nextInt(1_000_000) - 500_000L, 2);
+    }
+  }
+
+  @Benchmark
+  public BigDecimal summing() {
+    return this.array.stream().collect(DecimalCollectors.summing());
+  }
+
+  @Benchmark
+  public BigDecimal summingParallel() {
+    return this.array.stream().parallel().collect(DecimalCollectors.summing());
+  }
+
+  @Benchmark
+  public BigDecimal aggregations() {
+    // no objects per element, the lower bound for the collectors
+    return BigDecimal96Aggregations.sum(this.array);
+  }
+
+  @Benchmark
+  public BigDecimal reduceBigDecimal() {
+    return this.array.stream().map(BigDecimal96::toBigDecimal).reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+import com.github.marschall.bigdecimalstorage.BigDecimal96SummaryStatistics;
+import com.github.marschall.bigdecimalstorage.DecimalColumns;
+
+/**
+ * Compares {@link DecimalColumns} to plain loops. On Java 17 and later
+ * add {@code -jvmArgs --add-modules=jdk.incubator.vector} to measure the
+ * Vector API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ColumnsBenchmark {
+
+  @Param({"100000"})
+  public int length;
+
+  private long[] values;
+
+  private long[] bitmap;
+
+  private BigDecimal96Array array;
+
+  private long threshold;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42L);
+    this.values = new long[this.length];
+    for (int i = 0; i < this.length; i++) {
+      this.values[i] = random.nextInt(1_000_000_000) - 500_000_000L;
+    }
+    this.bitmap = new long[(this.length + 63) / 64];
+    this.array = new BigDecimal96Array(this.length);
+    for (int i = 0; i < this.length; i++) {
+      this.array.set(i, this.values[i], 2);
+    }
+    this.threshold = 100_000_000L;
+  }
+
+  @Benchmark
+  public long sum() {
+    return DecimalColumns.sum(this.values, 0, this.length);
+  }
+
+  @Benchmark
+  public long sumLoop() {
+    long sum = 0L;
+    for (long value : this.values) {
+      sum = BigDecimal64.add(sum, value);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public BigDecimal sumArray() {
+    return DecimalColumns.sum(this.array, 0, this.length);
+  }
+
+  @Benchmark
+  public BigDecimal sumArrayLoop() {
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+    for (int i = 0; i < this.length; i++) {
+      statistics.accept(this.array.get(i));
+    }
+    return statistics.getSum();
+  }
+
+  @Benchmark
+  public long max() {
+    return DecimalColumns.max(this.values, 0, this.length);
+  }
+
+  @Benchmark
+  public long maxLoop() {
+    long max = Long.MIN_VALUE;
+    for (long value : this.values) {
+      max = Math.max(max, value);
+    }
+    return max;
+  }
+
+  @Benchmark
+  public int greaterThan() {
+    return DecimalColumns.greaterThan(this.values, 0, this.length, this.threshold, this.bitmap);
+  }
+
+  @Benchmark
+  public int greaterThanLoop() {
+    long[] bits = this.bitmap;
+    int count = 0;
+    for (int i = 0; i < this.length; i++) {
+      if (this.values[i] > this.threshold) {
+        bits[i >>> 6] |= 1L << i;
+        count += 1;
+      } else {
+        bits[i >>> 6] &= ~(1L << i);
+      }
+    }
+    return count;
+  }
+
+}
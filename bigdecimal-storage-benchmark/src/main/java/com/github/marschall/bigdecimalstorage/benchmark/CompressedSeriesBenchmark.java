@@ -0,0 +1,76 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.marschall.bigdecimalstorage.CompressedDecimal64Series;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CompressedSeriesBenchmark {
+
+  @Param({"1000000"})
+  public int length;
+
+  private long[] values;
+  private long[] decoded;
+  private CompressedDecimal64Series series;
+
+  @Setup
+  public void setup() {
+    // a price with two decimal places that moves a few ticks at a time
+    Random random = new Random(42L);
+    this.values = new long[this.length];
+    long price = 1_234_560_000L;
+    for (int i = 0; i < this.length; i++) {
+      price += (random.nextInt(11) - 5) * 10_000L;
+      this.values[i] = price;
+    }
+    this.series = CompressedDecimal64Series.compress(this.values);
+    this.decoded = new long[this.length];
+  }
+
+  @Benchmark
+  public CompressedDecimal64Series compress() {
+    return CompressedDecimal64Series.compress(this.values);
+  }
+
+  @Benchmark
+  public long[] decode() {
+    this.series.decode(this.decoded, 0);
+    return this.decoded;
+  }
+
+  @Benchmark
+  public long sumDecodedBlocks() {
+    long[] block = new long[CompressedDecimal64Series.BLOCK_SIZE];
+    long sum = 0L;
+    for (int i = 0; i < this.series.blockCount(); i++) {
+      int count = this.series.decodeBlock(i, block, 0);
+      for (int j = 0; j < count; j++) {
+        sum += block[j];
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long sumUncompressed() {
+    long sum = 0L;
+    for (long value : this.values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.github.marschall.bigdecimalstorage.AtomicDecimal96;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.Decimal96Adder;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+public class Decimal96AdderBenchmark {
+
+  private static final BigDecimal96 INCREMENT = BigDecimal96.valueOf(new BigDecimal("12.34"));
+
+  private final Decimal96Adder adder = new Decimal96Adder();
+
+  private final AtomicReference<BigDecimal96> reference = new AtomicReference<>(BigDecimal96.ZERO);
+
+  private final AtomicDecimal96 atomicDecimal = new AtomicDecimal96();
+
+  private BigDecimal96 synchronizedSum = BigDecimal96.ZERO;
+
+  @Benchmark
+  public void adder() {
+    this.adder.add(INCREMENT);
+  }
+
+  @Benchmark
+  public void adderUnscaled() {
+    this.adder.add(1234L, 2);
+  }
+
+  @Benchmark
+  public BigDecimal96 atomicReference() {
+    return this.reference.accumulateAndGet(INCREMENT, BigDecimal96::add);
+  }
+
+  @Benchmark
+  public void atomicDecimal() {
+    this.atomicDecimal.add(INCREMENT);
+  }
+
+  @Benchmark
+  public synchronized BigDecimal96 synchronizedAdd() {
+    this.synchronizedSum = this.synchronizedSum.add(INCREMENT);
+    return this.synchronizedSum;
+  }
+
+}
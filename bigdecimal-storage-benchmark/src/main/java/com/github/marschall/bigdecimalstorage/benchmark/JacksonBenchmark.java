@@ -0,0 +1,82 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.jackson.BigDecimalStorageModule;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class JacksonBenchmark {
+
+  // one bit for the sign
+  private static final int MAX_BITS = 87;
+
+  @Param({"1000"})
+  public int length;
+
+  @Param({"COMPACT", "NON_COMPACT"})
+  public ValueShape shape;
+
+  private BigDecimal[] bigDecimals;
+  private BigDecimal96[] values;
+  private byte[] json;
+
+  private ObjectReader bigDecimalReader;
+  private ObjectWriter bigDecimalWriter;
+  private ObjectReader decimal96Reader;
+  private ObjectWriter decimal96Writer;
+
+  @Setup
+  public void setup() throws IOException {
+    this.bigDecimals = this.shape.values(new Random(42L), this.length, MAX_BITS, 2);
+    this.values = new BigDecimal96[this.length];
+    for (int i = 0; i < this.length; i++) {
+      this.values[i] = BigDecimal96.valueOf(this.bigDecimals[i]);
+    }
+    ObjectMapper mapper = new ObjectMapper().registerModule(new BigDecimalStorageModule());
+    this.bigDecimalReader = mapper.readerFor(BigDecimal[].class);
+    this.bigDecimalWriter = mapper.writerFor(BigDecimal[].class);
+    this.decimal96Reader = mapper.readerFor(BigDecimal96[].class);
+    this.decimal96Writer = mapper.writerFor(BigDecimal96[].class);
+    this.json = this.bigDecimalWriter.writeValueAsBytes(this.bigDecimals);
+  }
+
+  @Benchmark
+  public BigDecimal[] readBigDecimal() throws IOException {
+    return this.bigDecimalReader.readValue(this.json);
+  }
+
+  @Benchmark
+  public BigDecimal96[] readBigDecimal96() throws IOException {
+    return this.decimal96Reader.readValue(this.json);
+  }
+
+  @Benchmark
+  public byte[] writeBigDecimal() throws IOException {
+    // flattered by the string cache of BigDecimal as the same instances are written every time
+    return this.bigDecimalWriter.writeValueAsBytes(this.bigDecimals);
+  }
+
+  @Benchmark
+  public byte[] writeBigDecimal96() throws IOException {
+    return this.decimal96Writer.writeValueAsBytes(this.values);
+  }
+
+}
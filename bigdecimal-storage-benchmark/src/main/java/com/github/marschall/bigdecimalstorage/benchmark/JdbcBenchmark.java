@@ -0,0 +1,161 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+import com.github.marschall.bigdecimalstorage.jdbc.ColumnReader;
+import com.github.marschall.bigdecimalstorage.jdbc.DecimalJdbc;
+import com.github.marschall.bigdecimalstorage.jdbc.ParameterBinder;
+
+/**
+ * Compares reading and writing decimal columns of an in-memory H2
+ * database row by row with {@link BigDecimal} against the batch helpers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class JdbcBenchmark {
+
+  private static final String SELECT = "SELECT scaled, amount FROM decimals";
+
+  private static final String INSERT = "INSERT INTO copies VALUES (?, ?)";
+
+  @Param({"100000"})
+  public int rows;
+
+  @Param({"1000"})
+  public int batchSize;
+
+  private Connection connection;
+  private long[] scaled;
+  private BigDecimal[] bigDecimals;
+  private long[] longs;
+  private BigDecimal96Array array;
+
+  @Setup
+  public void setup() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:h2:mem:");
+    try (Statement statement = this.connection.createStatement()) {
+      statement.execute("CREATE TABLE decimals (scaled BIGINT, amount DECIMAL(18, 6))");
+      statement.execute("CREATE TABLE copies (scaled BIGINT, amount DECIMAL(18, 6))");
+    }
+    Random random = new Random(42L);
+    this.scaled = new long[this.rows];
+    for (int i = 0; i < this.rows; i++) {
+      // prices up to 10^6 with 6 decimal places
+      this.scaled[i] = random.nextInt(1_000_000) * 1_000_000L + random.nextInt(1_000_000);
+    }
+    try (PreparedStatement statement = this.connection.prepareStatement("INSERT INTO decimals VALUES (?, ?)")) {
+      DecimalJdbc.writeBatches(statement, ParameterBinder.scaledLongs(1, this.scaled)
+              .andThen(ParameterBinder.scaledLongsAsDecimals(2, this.scaled)), 0, this.rows, this.batchSize);
+    }
+    this.bigDecimals = new BigDecimal[this.rows];
+    this.longs = new long[this.rows];
+    this.array = new BigDecimal96Array(this.rows);
+  }
+
+  @Setup(Level.Invocation)
+  public void truncate() throws SQLException {
+    try (Statement statement = this.connection.createStatement()) {
+      statement.execute("TRUNCATE TABLE copies");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    this.connection.close();
+  }
+
+  @Benchmark
+  public long[] readBigDecimalsAndConvert() throws SQLException {
+    try (PreparedStatement statement = this.connection.prepareStatement(SELECT);
+         ResultSet resultSet = statement.executeQuery()) {
+      int i = 0;
+      while (resultSet.next()) {
+        this.bigDecimals[i++] = resultSet.getBigDecimal(2);
+      }
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.longs[i] = BigDecimal64.toLongValue(this.bigDecimals[i]);
+    }
+    return this.longs;
+  }
+
+  @Benchmark
+  public long[] readDecimalsAsScaledLongs() throws SQLException {
+    return this.readLongs(ColumnReader.decimalsAsScaledLongs(2, this.longs));
+  }
+
+  @Benchmark
+  public long[] readScaledLongs() throws SQLException {
+    return this.readLongs(ColumnReader.scaledLongs(1, this.longs));
+  }
+
+  @Benchmark
+  public BigDecimal96Array readDecimals() throws SQLException {
+    try (PreparedStatement statement = this.connection.prepareStatement(SELECT);
+         ResultSet resultSet = statement.executeQuery()) {
+      DecimalJdbc.readRows(resultSet, ColumnReader.decimals(2, this.array), 0, this.rows);
+    }
+    return this.array;
+  }
+
+  @Benchmark
+  public BigDecimal96Array readScaledLongsIntoArray() throws SQLException {
+    try (PreparedStatement statement = this.connection.prepareStatement(SELECT);
+         ResultSet resultSet = statement.executeQuery()) {
+      DecimalJdbc.readRows(resultSet, ColumnReader.scaledLongs(1, 6, this.array), 0, this.rows);
+    }
+    return this.array;
+  }
+
+  private long[] readLongs(ColumnReader reader) throws SQLException {
+    try (PreparedStatement statement = this.connection.prepareStatement(SELECT);
+         ResultSet resultSet = statement.executeQuery()) {
+      DecimalJdbc.readRows(resultSet, reader, 0, this.rows);
+    }
+    return this.longs;
+  }
+
+  @Benchmark
+  public long writeRowByRow() throws SQLException {
+    long updateCount = 0L;
+    try (PreparedStatement statement = this.connection.prepareStatement(INSERT)) {
+      for (int i = 0; i < this.rows; i++) {
+        statement.setLong(1, this.scaled[i]);
+        statement.setBigDecimal(2, BigDecimal64.toBigDecimal(this.scaled[i]));
+        updateCount += statement.executeUpdate();
+      }
+    }
+    return updateCount;
+  }
+
+  @Benchmark
+  public long writeBatches() throws SQLException {
+    try (PreparedStatement statement = this.connection.prepareStatement(INSERT)) {
+      return DecimalJdbc.writeBatches(statement, ParameterBinder.scaledLongs(1, this.scaled)
+              .andThen(ParameterBinder.scaledLongsAsDecimals(2, this.scaled)), 0, this.rows, this.batchSize);
+    }
+  }
+
+}
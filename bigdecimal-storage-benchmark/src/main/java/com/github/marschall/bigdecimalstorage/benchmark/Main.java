@@ -2,6 +2,7 @@ package com.github.marschall.bigdecimalstorage.benchmark;
 
 import static org.openjdk.jmh.results.format.ResultFormatType.TEXT;
 
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -15,6 +16,7 @@ public final class Main {
             .warmupIterations(5)
             .measurementIterations(5)
             .forks(3)
+            .addProfiler(GCProfiler.class)
             .resultFormat(TEXT)
             .output(args[0])
             .build();
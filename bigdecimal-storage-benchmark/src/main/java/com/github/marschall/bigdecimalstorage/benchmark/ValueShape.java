@@ -0,0 +1,115 @@
+package com.github.marschall.bigdecimalstorage.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * The distribution of the operands of a benchmark.
+ *
+ * <p>All shapes generate pairs of values that can be added or subtracted
+ * without overflowing the representation being benchmarked.</p>
+ */
+public enum ValueShape {
+
+  /**
+   * Values whose unscaled value fits into a long, all with the
+   * same scale.
+   */
+  COMPACT {
+
+    @Override
+    BigDecimal next(Random random, int maxBits, int scale) {
+      return new BigDecimal(randomUnscaled(random, Math.min(62, maxBits)), scale);
+    }
+
+  },
+
+  /**
+   * Values whose unscaled value does not fit into a long, all with the
+   * same scale.
+   */
+  NON_COMPACT {
+
+    @Override
+    BigDecimal next(Random random, int maxBits, int scale) {
+      if (maxBits <= 64) {
+        throw new IllegalArgumentException("no non-compact values for " + maxBits + " bits");
+      }
+      int bits = 65 + random.nextInt(maxBits - 65);
+      return new BigDecimal(randomUnscaled(random, bits), scale);
+    }
+
+  },
+
+  /**
+   * Values whose unscaled value fits into a long with scales from 0 to 6.
+   */
+  MIXED_SCALES {
+
+    @Override
+    BigDecimal next(Random random, int maxBits, int scale) {
+      BigDecimal value = new BigDecimal(randomUnscaled(random, Math.min(62, maxBits)), MAX_SCALE);
+      return value.setScale(random.nextInt(MAX_SCALE + 1), RoundingMode.DOWN);
+    }
+
+  },
+
+  /**
+   * Values close to the edges where the representation changes or
+   * overflows, all with the same scale.
+   */
+  BOUNDARY {
+
+    @Override
+    BigDecimal next(Random random, int maxBits, int scale) {
+      long offset = random.nextInt(1000);
+      BigInteger unscaled;
+      if ((maxBits > 64) && random.nextBoolean()) {
+        // compact / non-compact boundary
+        unscaled = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.valueOf(offset - 500L));
+      } else {
+        // half the largest magnitude so that a sum still fits
+        unscaled = BigInteger.ONE.shiftLeft(maxBits - 1).subtract(BigInteger.valueOf(offset + 1L));
+      }
+      if (random.nextBoolean()) {
+        unscaled = unscaled.negate();
+      }
+      return new BigDecimal(unscaled, scale);
+    }
+
+  };
+
+  private static final int MAX_SCALE = 6;
+
+  abstract BigDecimal next(Random random, int maxBits, int scale);
+
+  /**
+   * Generates random values.
+   *
+   * @param random the source of randomness
+   * @param length the number of values to generate
+   * @param maxBits the number of bits available for the magnitude of
+   *                the unscaled value
+   * @param scale the scale of the values, ignored by {@link #MIXED_SCALES}
+   * @return the generated values
+   */
+  BigDecimal[] values(Random random, int length, int maxBits, int scale) {
+    BigDecimal[] values = new BigDecimal[length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = this.next(random, maxBits, scale);
+    }
+    return values;
+  }
+
+  /**
+   * Generates a random signed value with a magnitude of up to one bit
+   * less than the given number of bits so that two of them can be added.
+   */
+  static BigInteger randomUnscaled(Random random, int bits) {
+    BigInteger magnitude = new BigInteger(bits - 1, random);
+    return random.nextBoolean() ? magnitude.negate() : magnitude;
+  }
+
+}
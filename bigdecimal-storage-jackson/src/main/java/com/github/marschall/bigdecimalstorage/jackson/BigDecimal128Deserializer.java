@@ -0,0 +1,51 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+
+/**
+ * Deserializes {@link BigDecimal128} from JSON numbers or strings.
+ *
+ * <p>The text of the number is parsed directly from the text buffer of
+ * the parser, no {@link java.math.BigDecimal} is created. Only numbers
+ * in exponent notation take the slower path through
+ * {@link java.math.BigDecimal}.</p>
+ */
+public final class BigDecimal128Deserializer extends StdScalarDeserializer<BigDecimal128> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The shared instance.
+   */
+  public static final BigDecimal128Deserializer INSTANCE = new BigDecimal128Deserializer();
+
+  private BigDecimal128Deserializer() {
+    super(BigDecimal128.class);
+  }
+
+  @Override
+  public BigDecimal128 deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (!JsonDecimals.isDecimal(token)) {
+      return (BigDecimal128) context.handleUnexpectedToken(BigDecimal128.class, parser);
+    }
+    CharSequence text = JsonDecimals.text(parser);
+    try {
+      try {
+        return BigDecimal128.parse(text, 0, text.length());
+      } catch (NumberFormatException e) {
+        // exponent notation or not a number at all
+        return BigDecimal128.valueOf(JsonDecimals.parseSlow(parser));
+      }
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      throw JsonDecimals.invalidFormat(parser, BigDecimal128.class, e);
+    }
+  }
+
+}
@@ -0,0 +1,35 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+
+/**
+ * Serializes {@link BigDecimal128} as JSON numbers, keeping the scale.
+ *
+ * <p>The digits are written directly to the generator, no
+ * {@link java.math.BigDecimal} or {@link String} is created.</p>
+ */
+public final class BigDecimal128Serializer extends StdScalarSerializer<BigDecimal128> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The shared instance.
+   */
+  public static final BigDecimal128Serializer INSTANCE = new BigDecimal128Serializer();
+
+  private BigDecimal128Serializer() {
+    super(BigDecimal128.class);
+  }
+
+  @Override
+  public void serialize(BigDecimal128 value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    char[] buffer = new char[BigDecimal128.MAX_TEXT_LENGTH];
+    generator.writeNumber(buffer, 0, value.getChars(buffer, 0));
+  }
+
+}
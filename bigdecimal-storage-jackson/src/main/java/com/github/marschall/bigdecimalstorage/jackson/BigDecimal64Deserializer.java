@@ -0,0 +1,60 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+
+/**
+ * Deserializes JSON numbers or strings into the {@code long}
+ * representation of {@link BigDecimal64}.
+ *
+ * <p>Because the Java type is simply {@code long} this deserializer is
+ * not registered by {@link BigDecimalStorageModule}, it has to be
+ * selected per property:</p>
+ * <pre><code>
+ * &#64;JsonDeserialize(using = BigDecimal64Deserializer.class)
+ * &#64;JsonSerialize(using = BigDecimal64Serializer.class)
+ * private long price;
+ * </code></pre>
+ *
+ * <p>The text of the number is parsed directly from the text buffer of
+ * the parser, no {@link java.math.BigDecimal} is created. Only numbers
+ * in exponent notation take the slower path through
+ * {@link java.math.BigDecimal}.</p>
+ */
+public final class BigDecimal64Deserializer extends StdScalarDeserializer<Long> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new deserializer. Public so that it can be referenced
+   * from annotations.
+   */
+  public BigDecimal64Deserializer() {
+    super(Long.class);
+  }
+
+  @Override
+  public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (!JsonDecimals.isDecimal(token)) {
+      return (Long) context.handleUnexpectedToken(Long.class, parser);
+    }
+    CharSequence text = JsonDecimals.text(parser);
+    try {
+      try {
+        return BigDecimal64.parseToLong(text, 0, text.length());
+      } catch (NumberFormatException e) {
+        // exponent notation or not a number at all
+        return BigDecimal64.toLongValue(JsonDecimals.parseSlow(parser));
+      }
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      throw JsonDecimals.invalidFormat(parser, Long.class, e);
+    }
+  }
+
+}
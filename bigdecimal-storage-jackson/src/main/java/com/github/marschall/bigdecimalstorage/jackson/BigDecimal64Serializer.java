@@ -0,0 +1,39 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+
+/**
+ * Serializes the {@code long} representation of {@link BigDecimal64} as
+ * JSON numbers.
+ *
+ * <p>Because the Java type is simply {@code long} this serializer is
+ * not registered by {@link BigDecimalStorageModule}, it has to be
+ * selected per property, see {@link BigDecimal64Deserializer}.</p>
+ *
+ * <p>The digits are written directly to the generator, no
+ * {@link java.math.BigDecimal} or {@link String} is created.</p>
+ */
+public final class BigDecimal64Serializer extends StdScalarSerializer<Long> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new serializer. Public so that it can be referenced
+   * from annotations.
+   */
+  public BigDecimal64Serializer() {
+    super(Long.class);
+  }
+
+  @Override
+  public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    char[] buffer = new char[BigDecimal64.MAX_TEXT_LENGTH];
+    generator.writeNumber(buffer, 0, BigDecimal64.getChars(value, buffer, 0));
+  }
+
+}
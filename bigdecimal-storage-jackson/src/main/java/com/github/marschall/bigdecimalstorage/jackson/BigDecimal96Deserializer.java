@@ -0,0 +1,51 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+
+/**
+ * Deserializes {@link BigDecimal96} from JSON numbers or strings.
+ *
+ * <p>The text of the number is parsed directly from the text buffer of
+ * the parser, no {@link java.math.BigDecimal} is created. Only numbers
+ * in exponent notation take the slower path through
+ * {@link java.math.BigDecimal}.</p>
+ */
+public final class BigDecimal96Deserializer extends StdScalarDeserializer<BigDecimal96> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The shared instance.
+   */
+  public static final BigDecimal96Deserializer INSTANCE = new BigDecimal96Deserializer();
+
+  private BigDecimal96Deserializer() {
+    super(BigDecimal96.class);
+  }
+
+  @Override
+  public BigDecimal96 deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (!JsonDecimals.isDecimal(token)) {
+      return (BigDecimal96) context.handleUnexpectedToken(BigDecimal96.class, parser);
+    }
+    CharSequence text = JsonDecimals.text(parser);
+    try {
+      try {
+        return BigDecimal96.parse(text, 0, text.length());
+      } catch (NumberFormatException e) {
+        // exponent notation or not a number at all
+        return BigDecimal96.valueOf(JsonDecimals.parseSlow(parser));
+      }
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      throw JsonDecimals.invalidFormat(parser, BigDecimal96.class, e);
+    }
+  }
+
+}
@@ -0,0 +1,35 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+
+/**
+ * Serializes {@link BigDecimal96} as JSON numbers, keeping the scale.
+ *
+ * <p>The digits are written directly to the generator, no
+ * {@link java.math.BigDecimal} or {@link String} is created.</p>
+ */
+public final class BigDecimal96Serializer extends StdScalarSerializer<BigDecimal96> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The shared instance.
+   */
+  public static final BigDecimal96Serializer INSTANCE = new BigDecimal96Serializer();
+
+  private BigDecimal96Serializer() {
+    super(BigDecimal96.class);
+  }
+
+  @Override
+  public void serialize(BigDecimal96 value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    char[] buffer = new char[BigDecimal96.MAX_TEXT_LENGTH];
+    generator.writeNumber(buffer, 0, value.getChars(buffer, 0));
+  }
+
+}
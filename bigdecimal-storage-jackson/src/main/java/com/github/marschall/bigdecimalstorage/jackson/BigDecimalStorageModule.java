@@ -0,0 +1,37 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+
+/**
+ * Registers the serializers and deserializers for {@link BigDecimal96}
+ * and {@link BigDecimal128}.
+ *
+ * <pre><code>
+ * ObjectMapper mapper = new ObjectMapper()
+ *     .registerModule(new BigDecimalStorageModule());
+ * </code></pre>
+ *
+ * <p>Values are written as JSON numbers and read from JSON numbers or
+ * strings. The {@code long} representation of
+ * {@link com.github.marschall.bigdecimalstorage.BigDecimal64} can not be
+ * registered by type, use {@link BigDecimal64Serializer} and
+ * {@link BigDecimal64Deserializer} on the properties.</p>
+ */
+public final class BigDecimalStorageModule extends SimpleModule {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new module.
+   */
+  public BigDecimalStorageModule() {
+    super(BigDecimalStorageModule.class.getSimpleName());
+    this.addSerializer(BigDecimal96.class, BigDecimal96Serializer.INSTANCE);
+    this.addDeserializer(BigDecimal96.class, BigDecimal96Deserializer.INSTANCE);
+    this.addSerializer(BigDecimal128.class, BigDecimal128Serializer.INSTANCE);
+    this.addDeserializer(BigDecimal128.class, BigDecimal128Deserializer.INSTANCE);
+  }
+
+}
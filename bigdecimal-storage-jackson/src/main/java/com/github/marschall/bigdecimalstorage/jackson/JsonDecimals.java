@@ -0,0 +1,58 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+/**
+ * Shared helpers of the serializers and deserializers.
+ */
+final class JsonDecimals {
+
+  private JsonDecimals() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Checks whether a token can be read as decimal, strings are accepted
+   * because some producers quote numbers to avoid precision loss.
+   */
+  static boolean isDecimal(JsonToken token) {
+    return (token == JsonToken.VALUE_NUMBER_INT)
+            || (token == JsonToken.VALUE_NUMBER_FLOAT)
+            || (token == JsonToken.VALUE_STRING);
+  }
+
+  /**
+   * Returns the text of the current token as a view of the text buffer
+   * of the parser, valid until the parser advances.
+   */
+  static CharSequence text(JsonParser parser) throws IOException {
+    // no copy, only a small wrapper that escape analysis can often remove
+    return CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+  }
+
+  /**
+   * Parses the text of the current token with {@link BigDecimal}, used
+   * only for exponent notation. Negative scales are normalized to 0 as
+   * the storage formats do not support them.
+   */
+  static BigDecimal parseSlow(JsonParser parser) throws IOException {
+    BigDecimal value = new BigDecimal(parser.getText());
+    if (value.scale() < 0) {
+      return value.setScale(0);
+    }
+    return value;
+  }
+
+  static InvalidFormatException invalidFormat(JsonParser parser, Class<?> targetType, RuntimeException cause) throws IOException {
+    InvalidFormatException exception = InvalidFormatException.from(parser, cause.getMessage(), parser.getText(), targetType);
+    exception.initCause(cause);
+    return exception;
+  }
+
+}
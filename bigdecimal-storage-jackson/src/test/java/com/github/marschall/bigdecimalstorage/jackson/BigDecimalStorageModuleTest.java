@@ -0,0 +1,106 @@
+package com.github.marschall.bigdecimalstorage.jackson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+
+class BigDecimalStorageModuleTest {
+
+  private ObjectMapper mapper;
+
+  @BeforeEach
+  void setUp() {
+    this.mapper = new ObjectMapper().registerModule(new BigDecimalStorageModule());
+  }
+
+  @Test
+  void roundTrip() throws IOException {
+    Order order = new Order();
+    order.price = BigDecimal96.valueOf(new BigDecimal("-1234567890123456789.125"));
+    order.total = BigDecimal128.valueOf(new BigDecimal("123456789012345678901234567890.000001"));
+    order.quantity = BigDecimal64.toLongValue(new BigDecimal("12.50"));
+
+    String json = this.mapper.writeValueAsString(order);
+    assertEquals("{\"price\":-1234567890123456789.125,"
+            + "\"total\":123456789012345678901234567890.000001,"
+            + "\"quantity\":12.500000}", json);
+
+    Order read = this.mapper.readValue(json, Order.class);
+    assertEquals(order.price, read.price);
+    assertEquals(order.total, read.total);
+    assertEquals(order.quantity, read.quantity);
+  }
+
+  @Test
+  void keepsScale() throws IOException {
+    Order order = this.mapper.readValue("{\"price\":1.500,\"total\":-0.10}", Order.class);
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("1.500")), order.price);
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-0.10")), order.total);
+    assertEquals("{\"price\":1.500,\"total\":-0.10,\"quantity\":0}", this.mapper.writeValueAsString(order));
+  }
+
+  @Test
+  void strings() throws IOException {
+    Order order = this.mapper.readValue("{\"price\":\"1.5\",\"total\":\"-7\",\"quantity\":\"0.000001\"}", Order.class);
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("1.5")), order.price);
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-7")), order.total);
+    assertEquals(1L, order.quantity);
+  }
+
+  @Test
+  void exponents() throws IOException {
+    Order order = this.mapper.readValue("{\"price\":1.5E2,\"total\":-7e-3,\"quantity\":1E+3}", Order.class);
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("150")), order.price);
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-0.007")), order.total);
+    assertEquals(1000_000000L, order.quantity);
+  }
+
+  @Test
+  void nullValues() throws IOException {
+    Order order = this.mapper.readValue("{\"price\":null,\"total\":null}", Order.class);
+    assertEquals(null, order.price);
+    assertEquals(null, order.total);
+  }
+
+  @Test
+  void outOfRange() {
+    assertThrows(InvalidFormatException.class, () -> this.mapper.readValue("{\"price\":1.1234567}", Order.class));
+    assertThrows(InvalidFormatException.class, () -> this.mapper.readValue("{\"price\":1E30}", Order.class));
+    assertThrows(InvalidFormatException.class, () -> this.mapper.readValue("{\"total\":\"10000000000000000000000000000000000000000\"}", Order.class));
+    assertThrows(InvalidFormatException.class, () -> this.mapper.readValue("{\"quantity\":10000000000000}", Order.class));
+    assertThrows(InvalidFormatException.class, () -> this.mapper.readValue("{\"price\":\"abc\"}", Order.class));
+  }
+
+  @Test
+  void unexpectedToken() {
+    assertThrows(MismatchedInputException.class, () -> this.mapper.readValue("{\"price\":true}", Order.class));
+    assertThrows(MismatchedInputException.class, () -> this.mapper.readValue("{\"quantity\":[]}", Order.class));
+  }
+
+  static final class Order {
+
+    public BigDecimal96 price;
+
+    public BigDecimal128 total;
+
+    @JsonSerialize(using = BigDecimal64Serializer.class)
+    @JsonDeserialize(using = BigDecimal64Deserializer.class)
+    public long quantity;
+
+  }
+
+}
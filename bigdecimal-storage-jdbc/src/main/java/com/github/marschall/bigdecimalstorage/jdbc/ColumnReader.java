@@ -0,0 +1,135 @@
+package com.github.marschall.bigdecimalstorage.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+import com.github.marschall.bigdecimalstorage.BigDecimal128Array;
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+
+/**
+ * Reads the columns of the current row of a {@link ResultSet} into
+ * arrays.
+ *
+ * <p>None of the targets can represent {@code NULL}, reading a
+ * {@code NULL} value fails with a {@link java.sql.SQLDataException}.</p>
+ *
+ * @see DecimalJdbc#readRows(ResultSet, ColumnReader, int, int)
+ */
+@FunctionalInterface
+public interface ColumnReader {
+
+  /**
+   * Reads the current row.
+   *
+   * @param resultSet the result set positioned on the row to read,
+   *                  not {@code null}
+   * @param index the index in the target arrays to read into
+   * @throws SQLException if reading fails
+   */
+  void read(ResultSet resultSet, int index) throws SQLException;
+
+  /**
+   * Returns a reader that first reads with this reader and then with an
+   * other one. Used to read several columns in one pass.
+   *
+   * @param after the reader to call second, not {@code null}
+   * @return the combined reader
+   */
+  default ColumnReader andThen(ColumnReader after) {
+    return (resultSet, index) -> {
+      this.read(resultSet, index);
+      after.read(resultSet, index);
+    };
+  }
+
+  /**
+   * Reads a column that already contains the long representation of
+   * {@link BigDecimal64}, for example a {@code BIGINT} column, using
+   * {@link ResultSet#getLong(int)} and no conversion.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @param target the array to read into, not {@code null}
+   * @return the reader
+   */
+  static ColumnReader scaledLongs(int columnIndex, long[] target) {
+    return (resultSet, index) -> {
+      long value = resultSet.getLong(columnIndex);
+      if ((value == 0L) && resultSet.wasNull()) {
+        throw DecimalJdbc.nullValue(columnIndex);
+      }
+      target[index] = value;
+    };
+  }
+
+  /**
+   * Reads a {@code DECIMAL} column into the long representation of
+   * {@link BigDecimal64}.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @param target the array to read into, not {@code null}
+   * @return the reader
+   * @throws IllegalArgumentException when reading if a value does not
+   *                                  fit into a {@link BigDecimal64}
+   * @see BigDecimal64#toLongValue(BigDecimal)
+   */
+  static ColumnReader decimalsAsScaledLongs(int columnIndex, long[] target) {
+    return (resultSet, index) -> target[index] = BigDecimal64.toLongValue(DecimalJdbc.getNonNull(resultSet, columnIndex));
+  }
+
+  /**
+   * Reads an integer column that contains unscaled values with a fixed
+   * scale, for example a {@code BIGINT} column with values in cents,
+   * using {@link ResultSet#getLong(int)} without creating an object per
+   * value.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @param scale the scale of the values, from 0 to
+   *              {@value BigDecimal96#MAX_SCALE}
+   * @param target the array to read into, not {@code null}
+   * @return the reader
+   * @throws IllegalArgumentException if the scale is not supported
+   */
+  static ColumnReader scaledLongs(int columnIndex, int scale, BigDecimal96Array target) {
+    if ((scale < 0) || (scale > BigDecimal96.MAX_SCALE)) {
+      throw new IllegalArgumentException("invalid scale");
+    }
+    return (resultSet, index) -> {
+      long value = resultSet.getLong(columnIndex);
+      if ((value == 0L) && resultSet.wasNull()) {
+        throw DecimalJdbc.nullValue(columnIndex);
+      }
+      target.set(index, value, scale);
+    };
+  }
+
+  /**
+   * Reads a {@code DECIMAL} column into a {@link BigDecimal96Array}.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @param target the array to read into, not {@code null}
+   * @return the reader
+   * @throws IllegalArgumentException when reading if a value does not
+   *                                  fit into a {@link BigDecimal96}
+   */
+  static ColumnReader decimals(int columnIndex, BigDecimal96Array target) {
+    return (resultSet, index) -> target.set(index, BigDecimal96.valueOf(DecimalJdbc.getNonNull(resultSet, columnIndex)));
+  }
+
+  /**
+   * Reads a {@code DECIMAL} column into a {@link BigDecimal128Array}.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @param target the array to read into, not {@code null}
+   * @return the reader
+   * @throws IllegalArgumentException when reading if a value does not
+   *                                  fit into a {@link BigDecimal128}
+   */
+  static ColumnReader decimals(int columnIndex, BigDecimal128Array target) {
+    return (resultSet, index) -> target.set(index, BigDecimal128.valueOf(DecimalJdbc.getNonNull(resultSet, columnIndex)));
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.github.marschall.bigdecimalstorage.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves decimal columns between JDBC and arrays in bulk.
+ *
+ * <p>Reading fills arrays row by row, the caller controls the cursor
+ * and the fetch size. Columns that already hold scaled longs are read
+ * with {@link ResultSet#getLong(int)} and need no conversion at all.
+ * Writing binds the rows and executes them in batches of a fixed size
+ * so that the driver does not have to buffer all rows.</p>
+ *
+ * <p>A typical load reads several columns in one pass:</p>
+ * <pre><code>
+ * ColumnReader reader = ColumnReader.scaledLongs(1, amounts)
+ *     .andThen(ColumnReader.decimals(2, prices));
+ * int read = DecimalJdbc.readRows(resultSet, reader, 0, amounts.length);
+ * </code></pre>
+ */
+public final class DecimalJdbc {
+
+  private DecimalJdbc() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Reads rows from a result set until it is exhausted or the maximum
+   * number of rows is reached.
+   *
+   * <p>Reading starts with the row after the current cursor position. It
+   * can be continued by calling this method again with an offset
+   * increased by the number of rows read.</p>
+   *
+   * @param resultSet the result set to read from, not {@code null}
+   * @param reader the reader for the columns of a row, not {@code null}
+   * @param offset the index in the target arrays of the first row
+   * @param maxRows the maximum number of rows to read
+   * @return the number of rows read, less than {@code maxRows} if the
+   *         result set is exhausted
+   * @throws SQLException if reading fails, the targets may then be
+   *                      partially filled
+   * @throws IllegalArgumentException if {@code offset} or
+   *                                  {@code maxRows} is negative
+   */
+  public static int readRows(ResultSet resultSet, ColumnReader reader, int offset, int maxRows) throws SQLException {
+    if ((offset < 0) || (maxRows < 0)) {
+      throw new IllegalArgumentException("offset: " + offset + ", maxRows: " + maxRows);
+    }
+    int rows = 0;
+    while ((rows < maxRows) && resultSet.next()) {
+      reader.read(resultSet, offset + rows);
+      rows += 1;
+    }
+    return rows;
+  }
+
+  /**
+   * Binds and executes rows in batches.
+   *
+   * <p>Every row is bound and added with
+   * {@link PreparedStatement#addBatch()}, every {@code batchSize} rows
+   * and after the last row the batch is executed. Transactions are left
+   * to the caller.</p>
+   *
+   * @param statement the statement to execute, not {@code null}
+   * @param binder the binder for the parameters of a row, not {@code null}
+   * @param offset the index in the source arrays of the first row
+   * @param length the number of rows to write
+   * @param batchSize the maximum number of rows per batch, positive
+   * @return the sum of all update counts, rows for which the driver
+   *         returns {@link Statement#SUCCESS_NO_INFO} are not counted
+   * @throws SQLException if binding or executing fails
+   * @throws IllegalArgumentException if {@code offset} or {@code length}
+   *                                  is negative or {@code batchSize}
+   *                                  is not positive
+   */
+  public static long writeBatches(PreparedStatement statement, ParameterBinder binder, int offset, int length, int batchSize) throws SQLException {
+    if ((offset < 0) || (length < 0) || (batchSize <= 0)) {
+      throw new IllegalArgumentException("offset: " + offset + ", length: " + length + ", batchSize: " + batchSize);
+    }
+    long updateCount = 0L;
+    int pending = 0;
+    for (int i = 0; i < length; i++) {
+      binder.bind(statement, offset + i);
+      statement.addBatch();
+      pending += 1;
+      if (pending == batchSize) {
+        updateCount += sum(statement.executeBatch());
+        pending = 0;
+      }
+    }
+    if (pending > 0) {
+      updateCount += sum(statement.executeBatch());
+    }
+    return updateCount;
+  }
+
+  private static long sum(int[] updateCounts) {
+    long sum = 0L;
+    for (int updateCount : updateCounts) {
+      if (updateCount > 0) {
+        sum += updateCount;
+      }
+    }
+    return sum;
+  }
+
+  static BigDecimal getNonNull(ResultSet resultSet, int columnIndex) throws SQLException {
+    BigDecimal value = resultSet.getBigDecimal(columnIndex);
+    if (value == null) {
+      throw nullValue(columnIndex);
+    }
+    return value;
+  }
+
+  static SQLDataException nullValue(int columnIndex) {
+    return new SQLDataException("NULL value in column: " + columnIndex);
+  }
+
+}
@@ -0,0 +1,89 @@
+package com.github.marschall.bigdecimalstorage.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal128Array;
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+
+/**
+ * Binds the parameters of a {@link PreparedStatement} from the elements
+ * of arrays.
+ *
+ * @see DecimalJdbc#writeBatches(PreparedStatement, ParameterBinder, int, int, int)
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+  /**
+   * Binds the parameters for one row.
+   *
+   * @param statement the statement to bind, not {@code null}
+   * @param index the index in the source arrays of the row to bind
+   * @throws SQLException if binding fails
+   */
+  void bind(PreparedStatement statement, int index) throws SQLException;
+
+  /**
+   * Returns a binder that first binds with this binder and then with an
+   * other one. Used to bind several parameters of a row.
+   *
+   * @param after the binder to call second, not {@code null}
+   * @return the combined binder
+   */
+  default ParameterBinder andThen(ParameterBinder after) {
+    return (statement, index) -> {
+      this.bind(statement, index);
+      after.bind(statement, index);
+    };
+  }
+
+  /**
+   * Binds the long representation of {@link BigDecimal64} as is using
+   * {@link PreparedStatement#setLong(int, long)}, for example for a
+   * {@code BIGINT} column.
+   *
+   * @param parameterIndex the index of the parameter, starting at 1
+   * @param values the values to bind, not {@code null}
+   * @return the binder
+   */
+  static ParameterBinder scaledLongs(int parameterIndex, long[] values) {
+    return (statement, index) -> statement.setLong(parameterIndex, values[index]);
+  }
+
+  /**
+   * Binds the long representation of {@link BigDecimal64} as a
+   * {@code DECIMAL} with a scale of 6.
+   *
+   * @param parameterIndex the index of the parameter, starting at 1
+   * @param values the values to bind, not {@code null}
+   * @return the binder
+   */
+  static ParameterBinder scaledLongsAsDecimals(int parameterIndex, long[] values) {
+    return (statement, index) -> statement.setBigDecimal(parameterIndex, BigDecimal64.toBigDecimal(values[index]));
+  }
+
+  /**
+   * Binds the elements of a {@link BigDecimal96Array} as {@code DECIMAL}.
+   *
+   * @param parameterIndex the index of the parameter, starting at 1
+   * @param values the values to bind, not {@code null}
+   * @return the binder
+   */
+  static ParameterBinder decimals(int parameterIndex, BigDecimal96Array values) {
+    return (statement, index) -> statement.setBigDecimal(parameterIndex, values.toBigDecimal(index));
+  }
+
+  /**
+   * Binds the elements of a {@link BigDecimal128Array} as {@code DECIMAL}.
+   *
+   * @param parameterIndex the index of the parameter, starting at 1
+   * @param values the values to bind, not {@code null}
+   * @return the binder
+   */
+  static ParameterBinder decimals(int parameterIndex, BigDecimal128Array values) {
+    return (statement, index) -> statement.setBigDecimal(parameterIndex, values.toBigDecimal(index));
+  }
+
+}
@@ -0,0 +1,131 @@
+package com.github.marschall.bigdecimalstorage.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.bigdecimalstorage.BigDecimal128;
+import com.github.marschall.bigdecimalstorage.BigDecimal128Array;
+import com.github.marschall.bigdecimalstorage.BigDecimal64;
+import com.github.marschall.bigdecimalstorage.BigDecimal96;
+import com.github.marschall.bigdecimalstorage.BigDecimal96Array;
+
+class DecimalJdbcTest {
+
+  private static final int ROWS = 1_000;
+
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:h2:mem:");
+    try (Statement statement = this.connection.createStatement()) {
+      statement.execute("CREATE TABLE decimals ("
+              + "id INTEGER PRIMARY KEY, "
+              + "scaled BIGINT, "
+              + "amount DECIMAL(18, 6), "
+              + "price DECIMAL(30, 6), "
+              + "total DECIMAL(38, 6))");
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    this.connection.close();
+  }
+
+  @Test
+  void roundTrip() throws SQLException {
+    int[] ids = new int[ROWS];
+    long[] scaled = new long[ROWS];
+    BigDecimal96Array prices = new BigDecimal96Array(ROWS);
+    BigDecimal128Array totals = new BigDecimal128Array(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      ids[i] = i;
+      scaled[i] = (i - 500) * 1_234_567L;
+      prices.set(i, BigDecimal96.valueOf(new BigDecimal("1234567890123456.12").multiply(BigDecimal.valueOf(i - 500))));
+      totals.set(i, BigDecimal128.valueOf(new BigDecimal("-0.000001").multiply(BigDecimal.valueOf(i))));
+    }
+
+    ParameterBinder binder = ((ParameterBinder) (statement, index) -> statement.setInt(1, ids[index]))
+            .andThen(ParameterBinder.scaledLongs(2, scaled))
+            .andThen(ParameterBinder.scaledLongsAsDecimals(3, scaled))
+            .andThen(ParameterBinder.decimals(4, prices))
+            .andThen(ParameterBinder.decimals(5, totals));
+    try (PreparedStatement statement = this.connection.prepareStatement("INSERT INTO decimals VALUES (?, ?, ?, ?, ?)")) {
+      assertEquals(ROWS, DecimalJdbc.writeBatches(statement, binder, 0, ROWS, 64));
+    }
+
+    long[] readScaled = new long[ROWS];
+    long[] readAmounts = new long[ROWS];
+    BigDecimal96Array readScaledArray = new BigDecimal96Array(ROWS);
+    BigDecimal96Array readPrices = new BigDecimal96Array(ROWS);
+    BigDecimal128Array readTotals = new BigDecimal128Array(ROWS);
+    ColumnReader reader = ColumnReader.scaledLongs(1, readScaled)
+            .andThen(ColumnReader.decimalsAsScaledLongs(2, readAmounts))
+            .andThen(ColumnReader.scaledLongs(1, 6, readScaledArray))
+            .andThen(ColumnReader.decimals(3, readPrices))
+            .andThen(ColumnReader.decimals(4, readTotals));
+    try (PreparedStatement statement = this.connection.prepareStatement("SELECT scaled, amount, price, total FROM decimals ORDER BY id");
+         ResultSet resultSet = statement.executeQuery()) {
+      // read in two parts
+      assertEquals(300, DecimalJdbc.readRows(resultSet, reader, 0, 300));
+      assertEquals(ROWS - 300, DecimalJdbc.readRows(resultSet, reader, 300, ROWS));
+      assertEquals(0, DecimalJdbc.readRows(resultSet, reader, ROWS, 10));
+    }
+
+    assertArrayEquals(scaled, readScaled);
+    assertArrayEquals(scaled, readAmounts);
+    for (int i = 0; i < ROWS; i++) {
+      assertEquals(BigDecimal96.valueOf(BigDecimal64.toBigDecimal(scaled[i]).setScale(6)), readScaledArray.get(i));
+      assertEquals(0, prices.compare(i, readPrices.get(i)));
+      assertEquals(0, totals.compare(i, readTotals.get(i)));
+    }
+  }
+
+  @Test
+  void nullValue() throws SQLException {
+    try (Statement statement = this.connection.createStatement()) {
+      statement.execute("INSERT INTO decimals (id) VALUES (1)");
+    }
+    long[] target = new long[1];
+    BigDecimal96Array array = new BigDecimal96Array(1);
+
+    for (ColumnReader reader : new ColumnReader[] {
+        ColumnReader.scaledLongs(1, target),
+        ColumnReader.scaledLongs(1, 2, array),
+        ColumnReader.decimalsAsScaledLongs(2, target),
+        ColumnReader.decimals(3, array)}) {
+      try (Statement statement = this.connection.createStatement();
+           ResultSet resultSet = statement.executeQuery("SELECT scaled, amount, price FROM decimals")) {
+        assertThrows(SQLDataException.class, () -> DecimalJdbc.readRows(resultSet, reader, 0, 1));
+      }
+    }
+  }
+
+  @Test
+  void invalidArguments() throws SQLException {
+    try (PreparedStatement statement = this.connection.prepareStatement("INSERT INTO decimals (id) VALUES (?)")) {
+      ParameterBinder binder = (s, index) -> s.setInt(1, index);
+
+      assertThrows(IllegalArgumentException.class, () -> DecimalJdbc.writeBatches(statement, binder, 0, 1, 0));
+      assertThrows(IllegalArgumentException.class, () -> DecimalJdbc.writeBatches(statement, binder, -1, 1, 1));
+      assertEquals(0L, DecimalJdbc.writeBatches(statement, binder, 0, 0, 1));
+    }
+    assertThrows(IllegalArgumentException.class, () -> ColumnReader.scaledLongs(1, BigDecimal96.MAX_SCALE + 1, new BigDecimal96Array(1)));
+  }
+
+}
@@ -0,0 +1,158 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A value in the long representation of {@link BigDecimal64} that may be
+ * updated atomically, similar to
+ * {@link java.util.concurrent.atomic.AtomicLong}.
+ *
+ * <p>All methods work directly on the long representation and do not
+ * allocate. Like for the arithmetic methods of {@link BigDecimal64} the
+ * arguments have to be in range, results that are out of range cause an
+ * {@link ArithmeticException} and leave the value unchanged.</p>
+ */
+public final class AtomicDecimal64 {
+
+  private static final AtomicLongFieldUpdater<AtomicDecimal64> VALUE = AtomicLongFieldUpdater.newUpdater(AtomicDecimal64.class, "value");
+
+  private volatile long value;
+
+  /**
+   * Creates a new instance with a value of zero.
+   */
+  public AtomicDecimal64() {
+    super();
+  }
+
+  /**
+   * Creates a new instance with the given initial value.
+   *
+   * @param initialValue the initial value in the long representation
+   */
+  public AtomicDecimal64(long initialValue) {
+    this.value = initialValue;
+  }
+
+  /**
+   * Returns the current value.
+   *
+   * @return the current value in the long representation
+   */
+  public long get() {
+    return this.value;
+  }
+
+  /**
+   * Sets the value.
+   *
+   * @param newValue the new value in the long representation
+   */
+  public void set(long newValue) {
+    this.value = newValue;
+  }
+
+  /**
+   * Sets the value and returns the previous value.
+   *
+   * @param newValue the new value in the long representation
+   * @return the previous value in the long representation
+   */
+  public long getAndSet(long newValue) {
+    return VALUE.getAndSet(this, newValue);
+  }
+
+  /**
+   * Sets the value to {@code newValue} if the current value is
+   * {@code expectedValue}.
+   *
+   * @param expectedValue the expected value in the long representation
+   * @param newValue the new value in the long representation
+   * @return {@code true} if successful, {@code false} if the current
+   *         value was not equal to {@code expectedValue}
+   */
+  public boolean compareAndSet(long expectedValue, long newValue) {
+    return VALUE.compareAndSet(this, expectedValue, newValue);
+  }
+
+  /**
+   * Adds to the value and returns the new value.
+   *
+   * @param delta the value to add in the long representation
+   * @return the new value in the long representation
+   * @throws ArithmeticException if the result is out of range
+   */
+  public long addAndGet(long delta) {
+    while (true) {
+      long current = this.value;
+      long next = BigDecimal64.add(current, delta);
+      if (VALUE.compareAndSet(this, current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Adds to the value and returns the previous value.
+   *
+   * @param delta the value to add in the long representation
+   * @return the previous value in the long representation
+   * @throws ArithmeticException if the result is out of range
+   */
+  public long getAndAdd(long delta) {
+    while (true) {
+      long current = this.value;
+      long next = BigDecimal64.add(current, delta);
+      if (VALUE.compareAndSet(this, current, next)) {
+        return current;
+      }
+    }
+  }
+
+  /**
+   * Updates the value with the result of a function applied to the
+   * current value and {@code x} and returns the new value. The function
+   * may be applied multiple times when there is contention, so it
+   * should not have side effects.
+   *
+   * <p>For example
+   * {@code accumulateAndGet(price, (balance, p) -> BigDecimal64.multiply(balance, p, RoundingMode.HALF_EVEN))}.</p>
+   *
+   * @param x the second argument of the function, in the long
+   *          representation
+   * @param accumulatorFunction the function, not {@code null}, applied to
+   *                            the current value and {@code x}
+   * @return the new value in the long representation
+   * @throws ArithmeticException if thrown by the function, the value is
+   *                             then unchanged
+   */
+  public long accumulateAndGet(long x, LongBinaryOperator accumulatorFunction) {
+    while (true) {
+      long current = this.value;
+      long next = accumulatorFunction.applyAsLong(current, x);
+      if (VALUE.compareAndSet(this, current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Converts the current value to a {@link BigDecimal}.
+   *
+   * @return the current value with a scale of 6, never {@code null}
+   * @see BigDecimal64#toBigDecimal(long)
+   */
+  public BigDecimal toBigDecimal() {
+    return BigDecimal64.toBigDecimal(this.value);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buffer = new StringBuilder(BigDecimal64.MAX_TEXT_LENGTH);
+    BigDecimal64.appendTo(this.value, buffer);
+    return buffer.toString();
+  }
+
+}
@@ -0,0 +1,290 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@link BigDecimal96} value that may be updated atomically, similar
+ * to {@link java.util.concurrent.atomic.AtomicLong}.
+ *
+ * <p>Values are compared numerically, {@code 1.0} and {@code 1.00} are
+ * the same value for {@link #compareAndSet(BigDecimal96, BigDecimal96)}.
+ * As long as the value fits into a long at a scale of
+ * {@value BigDecimal96#MAX_SCALE} it is kept as a primitive long that is
+ * updated with a compare and set, and {@link #get()} returns values with
+ * this scale. {@link #add(BigDecimal96)} then does not allocate.</p>
+ *
+ * <p>96 bit values can not be updated with a single compare and set of
+ * primitive fields. The first time the value does not fit into a long it
+ * is therefore changed to a reference to an immutable
+ * {@link BigDecimal96}. From then on all updates are compare and sets of
+ * this reference and allocate. This is assumed to happen rarely, for
+ * example for balances that exceed {@code 9223372036854.775807}.</p>
+ */
+public final class AtomicDecimal96 {
+
+  private static final int SCALE = BigDecimal96.MAX_SCALE;
+
+  private static final int COMPACT_HIGH_BITS = BigDecimal96.getHighByte(SCALE, BigDecimal96.COMPACT_ARRAY_LENGTH);
+
+  // the compact value once the value is in #inflated, also returned by #toCompact for values that do not fit
+  private static final long INFLATED = Long.MIN_VALUE;
+
+  private static final AtomicLongFieldUpdater<AtomicDecimal96> COMPACT = AtomicLongFieldUpdater.newUpdater(AtomicDecimal96.class, "compact");
+
+  private static final AtomicReferenceFieldUpdater<AtomicDecimal96, BigDecimal96> INFLATED_VALUE = AtomicReferenceFieldUpdater.newUpdater(AtomicDecimal96.class, BigDecimal96.class, "inflated");
+
+  // the unscaled value with a scale of 6 or INFLATED
+  private volatile long compact;
+
+  // null until the value first does not fit into compact, set before compact is set to INFLATED and never cleared afterwards
+  private volatile BigDecimal96 inflated;
+
+  /**
+   * Creates a new instance with a value of zero.
+   */
+  public AtomicDecimal96() {
+    super();
+  }
+
+  /**
+   * Creates a new instance with the given initial value.
+   *
+   * @param initialValue the initial value, not {@code null}
+   */
+  public AtomicDecimal96(BigDecimal96 initialValue) {
+    long c = toCompact(initialValue);
+    if (c == INFLATED) {
+      this.inflated = initialValue;
+    }
+    this.compact = c;
+  }
+
+  /**
+   * Converts a value to the unscaled long with a scale of 6.
+   *
+   * @return the unscaled value or {@link #INFLATED} if it does not fit
+   */
+  private static long toCompact(BigDecimal96 value) {
+    int highBits = value.getHighBits();
+    if (!BigDecimal96.isCompact(highBits)) {
+      // does not fit into a long at its own scale, even less so at a larger one
+      return INFLATED;
+    }
+    long lowBits = value.getLowBits();
+    int exponent = SCALE - BigDecimal96.getScale(highBits);
+    long lo = lowBits * DecimalMath.POWERS_OF_TEN[exponent];
+    long hi = DecimalMath.multiplyPow10High(lowBits >> 63, lowBits, exponent);
+    if (hi != (lo >> 63)) {
+      return INFLATED;
+    }
+    // Long.MIN_VALUE is INFLATED
+    return lo;
+  }
+
+  private static BigDecimal96 fromCompact(long c) {
+    return BigDecimal96.valueOf(COMPACT_HIGH_BITS, c);
+  }
+
+  /**
+   * Returns the current value.
+   *
+   * @return the current value, never {@code null}
+   */
+  public BigDecimal96 get() {
+    long c = this.compact;
+    if (c != INFLATED) {
+      return fromCompact(c);
+    }
+    return this.inflated;
+  }
+
+  /**
+   * Sets the value.
+   *
+   * @param newValue the new value, not {@code null}
+   */
+  public void set(BigDecimal96 newValue) {
+    while (true) {
+      long c = this.compact;
+      if (c == INFLATED) {
+        this.inflated = newValue;
+        return;
+      }
+      if (this.compareAndSetState(c, null, newValue)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sets the value to {@code newValue} if the current value is
+   * numerically equal to {@code expectedValue}.
+   *
+   * @param expectedValue the expected value, not {@code null}
+   * @param newValue the new value, not {@code null}
+   * @return {@code true} if successful, {@code false} if the current
+   *         value was not numerically equal to {@code expectedValue}
+   */
+  public boolean compareAndSet(BigDecimal96 expectedValue, BigDecimal96 newValue) {
+    long expectedCompact = toCompact(expectedValue);
+    while (true) {
+      long c = this.compact;
+      if (c != INFLATED) {
+        if (c != expectedCompact) {
+          return false;
+        }
+        if (this.compareAndSetState(c, null, newValue)) {
+          return true;
+        }
+        // the value changed concurrently or an other thread is inflating, check again
+      } else {
+        BigDecimal96 current = this.inflated;
+        if (!current.numericEquals(expectedValue)) {
+          return false;
+        }
+        if (INFLATED_VALUE.compareAndSet(this, current, newValue)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds to the value without returning a result. Does not allocate as
+   * long as the value fits into a long at a scale of
+   * {@value BigDecimal96#MAX_SCALE}.
+   *
+   * @param delta the value to add, not {@code null}
+   * @throws ArithmeticException if the result does not fit into a
+   *                             {@link BigDecimal96}, the value is then
+   *                             unchanged
+   */
+  public void add(BigDecimal96 delta) {
+    long d = toCompact(delta);
+    while (true) {
+      long c = this.compact;
+      if ((c != INFLATED) && (d != INFLATED)) {
+        long r = c + d;
+        // signed overflow if both operands have the same sign and the result has a different one
+        if ((((c ^ r) & (d ^ r)) >= 0L) && (r != INFLATED)) {
+          if (COMPACT.compareAndSet(this, c, r)) {
+            return;
+          }
+          continue;
+        }
+      }
+      BigDecimal96 current = c != INFLATED ? fromCompact(c) : this.inflated;
+      if (this.compareAndSetState(c, current, current.add(delta))) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Adds to the value and returns the new value.
+   *
+   * @param delta the value to add, not {@code null}
+   * @return the new value, never {@code null}
+   * @throws ArithmeticException if the result does not fit into a
+   *                             {@link BigDecimal96}, the value is then
+   *                             unchanged
+   */
+  public BigDecimal96 addAndGet(BigDecimal96 delta) {
+    return this.accumulateAndGet(delta, BigDecimal96::add);
+  }
+
+  /**
+   * Adds to the value and returns the previous value.
+   *
+   * @param delta the value to add, not {@code null}
+   * @return the previous value, never {@code null}
+   * @throws ArithmeticException if the result does not fit into a
+   *                             {@link BigDecimal96}, the value is then
+   *                             unchanged
+   */
+  public BigDecimal96 getAndAdd(BigDecimal96 delta) {
+    while (true) {
+      long c = this.compact;
+      BigDecimal96 current = c != INFLATED ? fromCompact(c) : this.inflated;
+      if (this.compareAndSetState(c, current, current.add(delta))) {
+        return current;
+      }
+    }
+  }
+
+  /**
+   * Updates the value with the result of a function applied to the
+   * current value and {@code x} and returns the new value. The function
+   * may be applied multiple times when there is contention, so it
+   * should not have side effects.
+   *
+   * @param x the second argument of the function, not {@code null}
+   * @param accumulatorFunction the function, not {@code null}, applied to
+   *                            the current value and {@code x}, must not
+   *                            return {@code null}
+   * @return the new value as returned by the function
+   * @throws ArithmeticException if thrown by the function, the value is
+   *                             then unchanged
+   */
+  public BigDecimal96 accumulateAndGet(BigDecimal96 x, BinaryOperator<BigDecimal96> accumulatorFunction) {
+    while (true) {
+      long c = this.compact;
+      BigDecimal96 current = c != INFLATED ? fromCompact(c) : this.inflated;
+      BigDecimal96 next = accumulatorFunction.apply(current, x);
+      if (this.compareAndSetState(c, current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Changes the value from a previously read state.
+   *
+   * @param c the compact value read
+   * @param current the inflated value read if {@code c} is
+   *                {@link #INFLATED}, ignored otherwise
+   * @param next the new value
+   * @return whether the value was changed, {@code false} if the state
+   *         changed concurrently
+   */
+  private boolean compareAndSetState(long c, BigDecimal96 current, BigDecimal96 next) {
+    if (c == INFLATED) {
+      return INFLATED_VALUE.compareAndSet(this, current, next);
+    }
+    long nextCompact = toCompact(next);
+    if (nextCompact != INFLATED) {
+      return COMPACT.compareAndSet(this, c, nextCompact);
+    }
+    return this.inflate(c, next);
+  }
+
+  /**
+   * Changes the value from a compact value to an inflated value.
+   *
+   * <p>The inflated value is published first and then the compact value
+   * is changed to {@link #INFLATED}. If the compact value changed in
+   * between the inflated value is cleared again. Readers only read the
+   * inflated value after they have seen {@link #INFLATED} so they never
+   * see a value that is cleared again.</p>
+   */
+  private boolean inflate(long c, BigDecimal96 next) {
+    if (!INFLATED_VALUE.compareAndSet(this, null, next)) {
+      // an other thread is inflating, give it a chance to finish or roll back
+      Thread.yield();
+      return false;
+    }
+    if (COMPACT.compareAndSet(this, c, INFLATED)) {
+      return true;
+    }
+    this.inflated = null;
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return this.get().toString();
+  }
+
+}
@@ -0,0 +1,240 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A fixed length array of {@link BigDecimal128} values.
+ *
+ * <p>Instead of one object per element the values are stored in
+ * two parallel {@code long[]} columns using the same bit
+ * layout as {@link BigDecimal128}. This results in a footprint of 16
+ * bytes per element and no pointer chasing when scanning.</p>
+ *
+ * <p>Only {@link #get(int)} and {@link #toBigDecimal(int)} allocate,
+ * all other operations work directly on the columns. Ranges can be
+ * copied from and to {@link ByteBuffer}s in bulk.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public final class BigDecimal128Array {
+
+  private static final long ZERO_HIGH_BITS = BigDecimal128.getHighByte(0, BigDecimal128.COMPACT_ARRAY_LENGTH);
+
+  private final long[] highBits;
+  private final long[] lowBits;
+
+  /**
+   * Creates a new array with all elements set to zero.
+   *
+   * @param length the number of elements
+   * @throws NegativeArraySizeException if {@code length} is negative
+   */
+  public BigDecimal128Array(int length) {
+    this.highBits = new long[length];
+    this.lowBits = new long[length];
+    // all bits 0 is not a valid value, the array length would be 0
+    Arrays.fill(this.highBits, ZERO_HIGH_BITS);
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the number of elements
+   */
+  public int length() {
+    return this.lowBits.length;
+  }
+
+  /**
+   * Returns the element at the given index.
+   *
+   * @param index the index of the element
+   * @return a new object representing the element, never {@code null}
+   */
+  public BigDecimal128 get(int index) {
+    return BigDecimal128.valueOf(this.highBits[index], this.lowBits[index]);
+  }
+
+  long getHighBits(int index) {
+    return this.highBits[index];
+  }
+
+  long getLowBits(int index) {
+    return this.lowBits[index];
+  }
+
+  void setBits(int index, long newHighBits, long newLowBits) {
+    this.highBits[index] = newHighBits;
+    this.lowBits[index] = newLowBits;
+  }
+
+  /**
+   * Converts the element at the given index to a {@link BigDecimal}.
+   *
+   * @param index the index of the element
+   * @return the element as a {@link BigDecimal}, never {@code null}
+   */
+  public BigDecimal toBigDecimal(int index) {
+    return this.get(index).toBigDecimal();
+  }
+
+  /**
+   * Returns a spliterator over all elements that creates the elements
+   * on demand. It splits in half for parallel streams.
+   *
+   * <p>Every element is read with {@link #get(int)} and therefore
+   * allocates a {@link BigDecimal128} unless the value is in the cache.</p>
+   *
+   * @return a spliterator over all elements, never {@code null}
+   */
+  public Spliterator<BigDecimal128> spliterator() {
+    return new IndexSpliterator<>(this::get, 0, this.length());
+  }
+
+  /**
+   * Returns a sequential stream over all elements that creates the
+   * elements on demand, use {@link Stream#parallel()} for a parallel
+   * stream.
+   *
+   * <p>Like {@link #spliterator()} this allocates per element.</p>
+   *
+   * @return a stream over all elements, never {@code null}
+   */
+  public Stream<BigDecimal128> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  /**
+   * Sets the element at the given index.
+   *
+   * @param index the index of the element
+   * @param value the new value, not {@code null}
+   */
+  public void set(int index, BigDecimal128 value) {
+    this.highBits[index] = value.getHighBits();
+    this.lowBits[index] = value.getLowBits();
+  }
+
+  /**
+   * Compares the element at the given index to a value.
+   *
+   * @param index the index of the element
+   * @param value the value to compare to, not {@code null}
+   * @return the comparison result as defined by {@link Comparable#compareTo(Object)}
+   */
+  public int compare(int index, BigDecimal128 value) {
+    return BigDecimal128.compare(this.highBits[index], this.lowBits[index], value.getHighBits(), value.getLowBits());
+  }
+
+  /**
+   * Compares two elements of this array.
+   *
+   * @param index1 the index of the first element
+   * @param index2 the index of the second element
+   * @return the comparison result as defined by {@link Comparable#compareTo(Object)}
+   */
+  public int compare(int index1, int index2) {
+    return BigDecimal128.compare(this.highBits[index1], this.lowBits[index1], this.highBits[index2], this.lowBits[index2]);
+  }
+
+  /**
+   * Adds a value to the element at the given index, in place.
+   *
+   * @param index the index of the element
+   * @param augend the value to add, not {@code null}
+   * @throws ArithmeticException if the result does not fit, in this
+   *                             case the element is unchanged
+   */
+  public void add(int index, BigDecimal128 augend) {
+    this.add(index, augend.getHighBits(), augend.getLowBits());
+  }
+
+  /**
+   * Adds an element of an other array to the element at the given
+   * index, in place.
+   *
+   * @param index the index of the element
+   * @param augends the array containing the value to add, not {@code null}
+   * @param augendIndex the index of the value to add in {@code augends}
+   * @throws ArithmeticException if the result does not fit, in this
+   *                             case the element is unchanged
+   */
+  public void add(int index, BigDecimal128Array augends, int augendIndex) {
+    this.add(index, augends.highBits[augendIndex], augends.lowBits[augendIndex]);
+  }
+
+  private void add(int index, long augendHighBits, long augendLowBits) {
+    long currentHighBits = this.highBits[index];
+    long currentLowBits = this.lowBits[index];
+    // compute the high bits first so that nothing is written in case of overflow
+    long resultHighBits = BigDecimal128.addHighBits(currentHighBits, currentLowBits, augendHighBits, augendLowBits);
+    long resultLowBits = BigDecimal128.addLowBits(currentHighBits, currentLowBits, augendHighBits, augendLowBits);
+    this.highBits[index] = resultHighBits;
+    this.lowBits[index] = resultLowBits;
+  }
+
+  /**
+   * Writes a range of elements into a buffer.
+   *
+   * <p>Each element is written as {@value BigDecimal128#BYTES} bytes in the
+   * format of {@link BigDecimal128#putTo(ByteBuffer, int)}, without any gaps.
+   * The position of the buffer is not changed.</p>
+   *
+   * @param index the index of the first element to write
+   * @param buffer the buffer to write to, not {@code null}
+   * @param offset the index in the buffer at which to write the first byte
+   * @param length the number of elements to write
+   * @throws IndexOutOfBoundsException if the range is outside of this
+   *                                   array or the buffer
+   * @throws java.nio.ReadOnlyBufferException if the buffer is read only
+   */
+  public void putTo(int index, ByteBuffer buffer, int offset, int length) {
+    this.checkRange(index, length);
+    checkBufferRange(buffer, offset, length);
+    for (int i = 0; i < length; i++) {
+      BigDecimal128.writeBits(buffer, offset + (i * BigDecimal128.BYTES), this.highBits[index + i], this.lowBits[index + i]);
+    }
+  }
+
+  /**
+   * Reads a range of elements from a buffer.
+   *
+   * <p>Each element is read as {@value BigDecimal128#BYTES} bytes in the
+   * format of {@link BigDecimal128#putTo(ByteBuffer, int)}, without any gaps.
+   * The position of the buffer is not changed.</p>
+   *
+   * @param buffer the buffer to read from, not {@code null}
+   * @param offset the index in the buffer from which to read the first byte
+   * @param index the index of the first element to read into
+   * @param length the number of elements to read
+   * @throws IndexOutOfBoundsException if the range is outside of this
+   *                                   array or the buffer
+   */
+  public void getFrom(ByteBuffer buffer, int offset, int index, int length) {
+    this.checkRange(index, length);
+    checkBufferRange(buffer, offset, length);
+    for (int i = 0; i < length; i++) {
+      int position = offset + (i * BigDecimal128.BYTES);
+      this.highBits[index + i] = BigDecimal128.readHighBits(buffer, position);
+      this.lowBits[index + i] = BigDecimal128.readLowBits(buffer, position);
+    }
+  }
+
+  private void checkRange(int index, int length) {
+    if ((index < 0) || (length < 0) || (index > (this.length() - length))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", array length: " + this.length());
+    }
+  }
+
+  private static void checkBufferRange(ByteBuffer buffer, int offset, int length) {
+    if ((offset < 0) || ((offset + ((long) length * BigDecimal128.BYTES)) > buffer.limit())) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", buffer limit: " + buffer.limit());
+    }
+  }
+
+}
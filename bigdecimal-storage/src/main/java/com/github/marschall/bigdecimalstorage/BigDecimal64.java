@@ -1,67 +1,449 @@
 package com.github.marschall.bigdecimalstorage;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.math.RoundingMode;
 
 /**
  * A 64bit decimal value with a fixed scale of 6.
+ *
+ * <p>Values are represented as the unscaled value in a primitive long, so
+ * {@code 1.5} is {@code 1500000L}. The range is from
+ * {@code -999999999999.999999} to {@code 999999999999.999999}.</p>
+ *
+ * <p>The arithmetic methods work directly on the long representation
+ * and do not allocate. Their arguments have to be in range, results that
+ * are out of range cause an {@link ArithmeticException}.</p>
+ *
+ * <p>Versions before 0.2.0 used a different long representation, use
+ * {@link #fromLegacyLong(long)} to read values stored by them.</p>
  */
 public final class BigDecimal64 {
 
   private static final int SCALE = 6;
 
-  private static final BigDecimal MAX_VALUE = new BigDecimal("999999999999.999999");
+  /**
+   * Values with more digits before the decimal point are out of range.
+   */
+  private static final int MAX_INTEGER_DIGITS = 12;
 
-  private static final BigDecimal MIN_VALUE = new BigDecimal("-999999999999.999999");
+  /**
+   * The largest value, {@code 999999999999.999999}, in the long representation.
+   */
+  public static final long MAX_VALUE = 999_999_999_999_999_999L;
 
+  /**
+   * The smallest value, {@code -999999999999.999999}, in the long representation.
+   */
+  public static final long MIN_VALUE = -MAX_VALUE;
+
+  /**
+   * The maximum number of characters of the text of any {@code long}, as
+   * written by {@link #getChars(long, char[], int)}.
+   */
+  public static final int MAX_TEXT_LENGTH = 21;
+
+  private static final long ONE = DecimalMath.POWERS_OF_TEN[SCALE];
+
+  /**
+   * Converts a {@link BigDecimal} to the long representation.
+   *
+   * @param bigDecimal the value to convert, may be {@code null}
+   * @return the unscaled value with a scale of 6, {@code null} if
+   *         {@code bigDecimal} is {@code null}
+   * @throws IllegalArgumentException if the scale is larger than 6 or
+   *                                  the value is out of range
+   * @see #toLongValue(BigDecimal)
+   */
   public static Long toLong(BigDecimal bigDecimal) {
     if (bigDecimal == null) {
       return null;
     }
-    if (bigDecimal.compareTo(MAX_VALUE) > 0) {
-      throw new IllegalArgumentException("value too large");
-    }
-    if (bigDecimal.compareTo(MIN_VALUE) < 0) {
-      throw new IllegalArgumentException("value too small");
-    }
+    return toLongValue(bigDecimal);
+  }
+
+  /**
+   * Converts a {@link BigDecimal} to the long representation.
+   *
+   * <p>Unlike {@link #toLong(BigDecimal)} the result is not boxed. If the
+   * scale of the argument is 0 nothing is allocated, otherwise at most
+   * one short lived {@link BigDecimal} is allocated.</p>
+   *
+   * @param bigDecimal the value to convert, not {@code null}
+   * @return the unscaled value with a scale of 6
+   * @throws IllegalArgumentException if the scale is larger than 6 or
+   *                                  the value is out of range
+   */
+  public static long toLongValue(BigDecimal bigDecimal) {
     int scale = bigDecimal.scale();
+    // does not allocate, unlike a comparison with a BigDecimal
+    // the precision of zero is 1 for every scale, 0E+13 is in range
+    if ((bigDecimal.signum() != 0) && ((bigDecimal.precision() - scale) > MAX_INTEGER_DIGITS)) {
+      throw outOfRange(bigDecimal.signum() < 0);
+    }
     if (scale > SCALE) {
       throw new IllegalArgumentException("scale too large");
     }
-    byte[] twosComplement = bigDecimal.movePointRight(SCALE).toBigInteger().toByteArray();
-    long value = 0L;
-    for (int i = 0; i < twosComplement.length; i++) {
-      int shift = 56 - (i * 8) - (64 - (twosComplement.length * 8));
-      value |= ((long) (twosComplement[i] & 0xFF)) << shift;
+    if (scale < 0) {
+      // rare, we do not care about the allocation
+      return bigDecimal.setScale(0).longValueExact() * DecimalMath.POWERS_OF_TEN[SCALE];
     }
-    return value;
+    // at most 18 digits so the multiplication can not overflow
+    // movePointRight(0) returns this, otherwise the result is compact
+    long unscaled = bigDecimal.movePointRight(scale).longValueExact();
+    return unscaled * DecimalMath.POWERS_OF_TEN[SCALE - scale];
   }
 
+  /**
+   * Converts the long representation to a {@link BigDecimal}.
+   *
+   * @param l the unscaled value with a scale of 6, may be {@code null}
+   * @return the value as a {@link BigDecimal}, {@code null} if
+   *         {@code l} is {@code null}
+   * @see #toBigDecimal(long)
+   */
   public static BigDecimal toBigDecimal(Long l) {
     if (l == null) {
       return null;
     }
-    long value = l;
+    return toBigDecimal(l.longValue());
+  }
+
+  /**
+   * Converts the long representation to a {@link BigDecimal}.
+   *
+   * <p>Unlike {@link #toBigDecimal(Long)} the argument is not boxed. Only
+   * the result is allocated.</p>
+   *
+   * @param value the unscaled value with a scale of 6
+   * @return the value as a {@link BigDecimal}, {@link BigDecimal#ZERO}
+   *         for 0
+   */
+  public static BigDecimal toBigDecimal(long value) {
+    if (value == 0L) {
+      return BigDecimal.ZERO;
+    }
+    return BigDecimal.valueOf(value, SCALE);
+  }
+
+  /**
+   * Converts a long stored by a version before 0.2.0 to a
+   * {@link BigDecimal}, exactly like {@code toBigDecimal} of these
+   * versions did.
+   *
+   * <p>These versions stored the two's complement bytes of the unscaled
+   * value without sign extension, for example {@code -1} was stored as
+   * {@code 0xF0BDC0L} instead of {@code -1000000L}. When reading, the
+   * leading non-zero byte was taken as the sign. This is ambiguous, a
+   * positive value with the high bit of its leading byte set, for example
+   * {@code 0.0002} stored as {@code 0xC8L}, was read as negative,
+   * {@code -0.000056}. Such values are returned the same way.</p>
+   *
+   * <p>To migrate stored values convert the result with
+   * {@link #toLongValue(BigDecimal)}.</p>
+   *
+   * @param value the long as stored by a version before 0.2.0
+   * @return the value as a {@link BigDecimal}, {@link BigDecimal#ZERO}
+   *         for 0
+   */
+  public static BigDecimal fromLegacyLong(long value) {
     if (value == 0L) {
       return BigDecimal.ZERO;
     }
-    byte[] twosComplement = new byte[getArraySize(value)];
-    for (int i = 0; i < twosComplement.length; i++) {
-      int shift = 56 - (i * 8) - (64 - (twosComplement.length * 8));
-      twosComplement[i] = (byte) ((value >>> shift) & 0xFF);
+    // the value was read from the fewest bytes that hold all set bits
+    int byteCount = ((64 - Long.numberOfLeadingZeros(value)) + 7) / 8;
+    int unusedBits = 64 - (byteCount * 8);
+    return BigDecimal.valueOf((value << unusedBits) >> unusedBits, SCALE);
+  }
+
+  /**
+   * Adds two values.
+   *
+   * @param augend the first value in the long representation
+   * @param addend the second value in the long representation
+   * @return the sum in the long representation
+   * @throws ArithmeticException if the result is out of range
+   */
+  public static long add(long augend, long addend) {
+    // the operands are less than 10^18 so this does not overflow a long
+    return checkRange(augend + addend);
+  }
+
+  /**
+   * Subtracts two values.
+   *
+   * @param minuend the value to subtract from in the long representation
+   * @param subtrahend the value to subtract in the long representation
+   * @return the difference in the long representation
+   * @throws ArithmeticException if the result is out of range
+   */
+  public static long subtract(long minuend, long subtrahend) {
+    // the operands are less than 10^18 so this does not overflow a long
+    return checkRange(minuend - subtrahend);
+  }
+
+  /**
+   * Multiplies two values and rounds the result to a scale of 6.
+   *
+   * @param multiplier the first value in the long representation
+   * @param multiplicand the second value in the long representation
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the product in the long representation
+   * @throws ArithmeticException if the result is out of range or
+   *                             rounding is necessary but
+   *                             {@code roundingMode} is
+   *                             {@link RoundingMode#UNNECESSARY}
+   */
+  public static long multiply(long multiplier, long multiplicand, RoundingMode roundingMode) {
+    boolean negative = (multiplier < 0L) != (multiplicand < 0L);
+    long a = Math.abs(multiplier);
+    long b = Math.abs(multiplicand);
+    // the product has a scale of 12, divide it by 10^6
+    long productHigh = DecimalMath.unsignedMultiplyHigh(a, b);
+    long productLow = a * b;
+    if (Long.compareUnsigned(productHigh, ONE) >= 0) {
+      // the quotient does not fit into 64 bits
+      throw new ArithmeticException("overflow");
+    }
+    long quotient = DecimalMath.divideUnsignedLow(productHigh, productLow, ONE);
+    long remainder = DecimalMath.remainderUnsigned(productHigh, productLow, ONE);
+    return fromMagnitude(negative, quotient, remainder, ONE, roundingMode);
+  }
+
+  /**
+   * Divides two values and rounds the result to a scale of 6.
+   *
+   * @param dividend the value to divide in the long representation
+   * @param divisor the value to divide by in the long representation
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the quotient in the long representation
+   * @throws ArithmeticException if {@code divisor} is zero, the result is
+   *                             out of range or rounding is necessary but
+   *                             {@code roundingMode} is
+   *                             {@link RoundingMode#UNNECESSARY}
+   */
+  public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+    if (divisor == 0L) {
+      throw new ArithmeticException("Division by zero");
+    }
+    boolean negative = (dividend < 0L) != (divisor < 0L);
+    long a = Math.abs(dividend);
+    long b = Math.abs(divisor);
+    // scale the dividend to 12 so the quotient has a scale of 6
+    long scaledHigh = DecimalMath.unsignedMultiplyHigh(a, ONE);
+    long scaledLow = a * ONE;
+    if (Long.compareUnsigned(scaledHigh, b) >= 0) {
+      // the quotient does not fit into 64 bits
+      throw new ArithmeticException("overflow");
+    }
+    long quotient = DecimalMath.divideUnsigned(scaledHigh, scaledLow, b);
+    long remainder = scaledLow - (quotient * b);
+    return fromMagnitude(negative, quotient, remainder, b, roundingMode);
+  }
+
+  /**
+   * Rounds a value to fewer decimal places. The result is still in the
+   * long representation with a scale of 6.
+   *
+   * @param value the value to round in the long representation
+   * @param scale the number of decimal places to keep, from 0 to 6
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the rounded value in the long representation
+   * @throws IllegalArgumentException if the scale is invalid
+   * @throws ArithmeticException if the result is out of range or
+   *                             rounding is necessary but
+   *                             {@code roundingMode} is
+   *                             {@link RoundingMode#UNNECESSARY}
+   */
+  public static long rescale(long value, int scale, RoundingMode roundingMode) {
+    if ((scale < 0) || (scale > SCALE)) {
+      throw new IllegalArgumentException("invalid scale");
+    }
+    if (scale == SCALE) {
+      return value;
+    }
+    long divisor = DecimalMath.POWERS_OF_TEN[SCALE - scale];
+    long magnitude = Math.abs(value);
+    long rounded = fromMagnitude(value < 0L, magnitude / divisor, magnitude % divisor, divisor, roundingMode);
+    return checkRange(rounded * divisor);
+  }
+
+  /**
+   * Applies the rounding mode to a truncated quotient and the sign.
+   */
+  private static long fromMagnitude(boolean negative, long quotient, long remainder, long divisor, RoundingMode roundingMode) {
+    long magnitude = quotient;
+    if (DecimalMath.needsIncrement(quotient, remainder, divisor, negative, roundingMode)) {
+      magnitude += 1L;
+    }
+    if (Long.compareUnsigned(magnitude, MAX_VALUE) > 0) {
+      throw new ArithmeticException("overflow");
     }
+    return negative ? -magnitude : magnitude;
+  }
 
-    return new BigDecimal(new BigInteger(twosComplement), SCALE);
+  /**
+   * Compares two values.
+   *
+   * @param x the first value in the long representation
+   * @param y the second value in the long representation
+   * @return the comparison result as defined by {@link Comparable#compareTo(Object)}
+   */
+  public static int compare(long x, long y) {
+    // the long representation preserves the order
+    return Long.compare(x, y);
   }
 
-  private static int getArraySize(long value) {
-    int numberOfLeadingZeros = Long.numberOfLeadingZeros(value);
-    int bitsSet = 64 - numberOfLeadingZeros;
-    int remainder = bitsSet % 8;
-    if (remainder == 0) {
-      return bitsSet / 8;
+  /**
+   * Returns the absolute value of a value, never out of range.
+   *
+   * @param value the value in the long representation
+   * @return the absolute value in the long representation
+   */
+  public static long abs(long value) {
+    return Math.abs(value);
+  }
+
+  /**
+   * Negates a value, never out of range.
+   *
+   * @param value the value in the long representation
+   * @return the negated value in the long representation
+   */
+  public static long negate(long value) {
+    return -value;
+  }
+
+  /**
+   * Returns the smaller of two values.
+   *
+   * @param x the first value in the long representation
+   * @param y the second value in the long representation
+   * @return the smaller value in the long representation
+   */
+  public static long min(long x, long y) {
+    return Math.min(x, y);
+  }
+
+  /**
+   * Returns the larger of two values.
+   *
+   * @param x the first value in the long representation
+   * @param y the second value in the long representation
+   * @return the larger value in the long representation
+   */
+  public static long max(long x, long y) {
+    return Math.max(x, y);
+  }
+
+  private static long checkRange(long value) {
+    if ((value > MAX_VALUE) || (value < MIN_VALUE)) {
+      throw new ArithmeticException("overflow");
+    }
+    return value;
+  }
+
+  /**
+   * Parses a decimal number directly from text into the long
+   * representation without creating a {@link BigDecimal}.
+   *
+   * <p>The syntax is an optional sign followed by digits with an optional
+   * decimal point, for example {@code "-1234567.125"}. Exponents are not
+   * supported. Parsing does not allocate.</p>
+   *
+   * @param text the text to parse, not {@code null}
+   * @param start the index of the first character to parse
+   * @param end the index after the last character to parse
+   * @return the parsed value with a scale of 6
+   * @throws NumberFormatException if the text is not a valid decimal number
+   * @throws IllegalArgumentException if the scale is larger than 6 or
+   *                                  the value is out of range
+   * @throws IndexOutOfBoundsException if {@code start} or {@code end}
+   *                                   are out of bounds
+   */
+  public static long parseToLong(CharSequence text, int start, int end) {
+    int scale = DecimalText.parseScale(text, start, end);
+    if (scale > SCALE) {
+      throw new IllegalArgumentException("scale too large");
+    }
+    long lo = DecimalText.parseLow(text, start, end);
+    long hi;
+    try {
+      hi = DecimalText.parseHigh(text, start, end, lo);
+      hi = DecimalMath.multiplyPow10High(hi, lo, SCALE - scale);
+    } catch (ArithmeticException e) {
+      throw outOfRange(text.charAt(start) == '-');
+    }
+    lo *= DecimalMath.POWERS_OF_TEN[SCALE - scale];
+    if ((hi != (lo >> 63)) || (lo > MAX_VALUE) || (lo < MIN_VALUE)) {
+      throw outOfRange(hi < 0L);
+    }
+    return lo;
+  }
+
+  private static IllegalArgumentException outOfRange(boolean negative) {
+    if (negative) {
+      return new IllegalArgumentException("value too small");
+    }
+    return new IllegalArgumentException("value too large");
+  }
+
+  /**
+   * Appends the same text as {@code toBigDecimal(value).toString()}
+   * without creating intermediate objects.
+   *
+   * @param value the value with a scale of 6
+   * @param buffer the buffer to append to, not {@code null}
+   */
+  public static void appendTo(long value, StringBuilder buffer) {
+    // consistent with #toBigDecimal(long)
+    if (value == 0L) {
+      buffer.append('0');
+      return;
+    }
+    DecimalText.appendTo(buffer, value >> 63, value, SCALE);
+  }
+
+  /**
+   * Appends the same text as {@code toBigDecimal(value).toString()}
+   * without creating intermediate objects.
+   *
+   * @param value the value with a scale of 6
+   * @param appendable where to append the text, not {@code null}
+   * @throws IOException if appending fails
+   */
+  public static void appendTo(long value, Appendable appendable) throws IOException {
+    // consistent with #toBigDecimal(long)
+    if (value == 0L) {
+      appendable.append('0');
+      return;
+    }
+    DecimalText.appendTo(appendable, value >> 63, value, SCALE);
+  }
+
+  /**
+   * Writes the same text as {@code toBigDecimal(value).toString()} into
+   * an array without creating intermediate objects.
+   *
+   * @param value the value with a scale of 6
+   * @param destination the array to write to, not {@code null}, at most
+   *                    {@value #MAX_TEXT_LENGTH} characters are written
+   * @param offset the index in the array of the first character to write
+   * @return the number of characters written
+   * @throws IndexOutOfBoundsException if the text does not fit into the
+   *                                   array, in this case some
+   *                                   characters may have been written
+   */
+  public static int getChars(long value, char[] destination, int offset) {
+    // consistent with #toBigDecimal(long)
+    if (value == 0L) {
+      if ((offset < 0) || (offset >= destination.length)) {
+        throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + destination.length);
+      }
+      destination[offset] = '0';
+      return 1;
     }
-    return ((bitsSet + 8) - remainder) / 8;
+    return DecimalText.getChars(value >> 63, value, SCALE, destination, offset);
   }
 
 }
@@ -1,12 +1,19 @@
 package com.github.marschall.bigdecimalstorage;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Comparator;
 
 /**
  * A 96 bit integer can hold a scale of up to 8 (4 bits) and a
@@ -14,17 +21,31 @@ import java.math.BigInteger;
  */
 public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializable {
 
-  // TODO ONE and ZERO constants
-
-  private static final int COMPACT_ARRAY_LENGTH = 8;
+  static final int COMPACT_ARRAY_LENGTH = 8;
 
   private static final long serialVersionUID = 2L;
 
+  /**
+   * The number of bytes used by {@link #putTo(ByteBuffer, int)}.
+   */
+  public static final int BYTES = 12;
+
+  /**
+   * The number of bytes used by {@link #putKeyTo(byte[], int)}.
+   */
+  public static final int KEY_BYTES = 15;
+
   /**
    * The largest supported scale.
    */
   public static final int MAX_SCALE = 6;
 
+  /**
+   * The maximum number of characters of the text of a value, as written
+   * by {@link #getChars(char[], int)}.
+   */
+  public static final int MAX_TEXT_LENGTH = 29;
+
   /**
    * The largest supported value.
    */
@@ -59,6 +80,51 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
       (byte) 0x00
   }));
 
+  /**
+   * The value 0 with a scale of 0.
+   */
+  public static final BigDecimal96 ZERO = new BigDecimal96(getHighByte(0, COMPACT_ARRAY_LENGTH), 0L);
+
+  /**
+   * The value 1 with a scale of 0.
+   */
+  public static final BigDecimal96 ONE = new BigDecimal96(getHighByte(0, COMPACT_ARRAY_LENGTH), 1L);
+
+  /**
+   * Orders values numerically, the same as
+   * {@link #compareTo(BigDecimal96)}. Values like {@code 1.0} and
+   * {@code 1.00} are equal, consistent with {@link #NUMERIC_EQUALITY}.
+   */
+  public static final Comparator<BigDecimal96> NUMERIC_ORDER = NumericOrder.INSTANCE;
+
+  /**
+   * Considers values equal if they are numerically equal, uses
+   * {@link #numericEquals(BigDecimal96)} and {@link #numericHashCode()}.
+   * Values like {@code 1.0} and {@code 1.00} are equal. Allows grouping
+   * by numeric value without converting to {@link BigDecimal}.
+   */
+  public static final HashingStrategy<BigDecimal96> NUMERIC_EQUALITY = NumericEquality.INSTANCE;
+
+  /**
+   * The system property that sets the capacity of the instance cache.
+   * The cache is disabled by default.
+   *
+   * <p>The cache is useful if a few distinct values make up most of the
+   * instances, for example prices. {@link #valueOf(BigDecimal)}, the
+   * arithmetic methods and the readers then return the cached instance
+   * instead of creating a new one. This reduces allocation and memory
+   * held by long lived data structures. See {@link DecimalCache} for the
+   * eviction policy.</p>
+   */
+  public static final String CACHE_SIZE_PROPERTY = "com.github.marschall.bigdecimalstorage.BigDecimal96.cacheSize";
+
+  private static final BigDecimal96[] CACHE;
+
+  static {
+    int capacity = DecimalCache.capacity(CACHE_SIZE_PROPERTY);
+    CACHE = capacity == 0 ? null : new BigDecimal96[capacity];
+  }
+
   // 4 scale bits
   // 4 length bits
   // the first 24 bits
@@ -66,24 +132,63 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
   // the last 64 bits
   private final long lowBits;
 
-  private BigDecimal96(int highBits, long lowBits) {
+  BigDecimal96(int highBits, long lowBits) {
     this.highBits = highBits;
     this.lowBits = lowBits;
   }
 
+  /**
+   * Returns an instance for the given bits, from the cache if enabled.
+   */
+  static BigDecimal96 valueOf(int highBits, long lowBits) {
+    BigDecimal96[] cache = CACHE;
+    if (cache == null) {
+      return new BigDecimal96(highBits, lowBits);
+    }
+    int index = DecimalCache.index(highBits, lowBits, cache.length - 1);
+    BigDecimal96 cached = cache[index];
+    if ((cached != null) && (cached.highBits == highBits) && (cached.lowBits == lowBits)) {
+      return cached;
+    }
+    BigDecimal96 value = new BigDecimal96(highBits, lowBits);
+    // racy but safe, see DecimalCache
+    cache[index] = value;
+    return value;
+  }
+
+  int getHighBits() {
+    return this.highBits;
+  }
+
+  long getLowBits() {
+    return this.lowBits;
+  }
+
   private int getScale() {
-    return (this.highBits >>> 28) & 0b1111;
+    return getScale(this.highBits);
+  }
+
+  static int getScale(int highBits) {
+    return (highBits >>> 28) & 0b1111;
   }
 
   private int getArrayLength() {
-    return (this.highBits >>> 24) & 0b1111;
+    return getArrayLength(this.highBits);
+  }
+
+  private static int getArrayLength(int highBits) {
+    return (highBits >>> 24) & 0b1111;
   }
 
   private boolean isCompact() {
-    return this.getArrayLength() == COMPACT_ARRAY_LENGTH;
+    return isCompact(this.highBits);
+  }
+
+  static boolean isCompact(int highBits) {
+    return getArrayLength(highBits) == COMPACT_ARRAY_LENGTH;
   }
 
-  private static int getHighByte(int scale, int arrayLength) {
+  static int getHighByte(int scale, int arrayLength) {
     return (Math.abs(scale) << 28) | (arrayLength << 24);
   }
 
@@ -110,6 +215,42 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
     }
   }
 
+  /**
+   * Parses a decimal number directly from text without creating a
+   * {@link BigDecimal}.
+   *
+   * <p>The syntax is an optional sign followed by digits with an optional
+   * decimal point, for example {@code "-1234567.125"}. Exponents are not
+   * supported. Parsing does not allocate except for the result.</p>
+   *
+   * @param text the text to parse, not {@code null}
+   * @param start the index of the first character to parse
+   * @param end the index after the last character to parse
+   * @return the parsed value
+   * @throws NumberFormatException if the text is not a valid decimal number
+   * @throws IllegalArgumentException if the scale is larger than
+   *                                  {@value #MAX_SCALE} or the
+   *                                  value does not fit into 88 bits
+   * @throws IndexOutOfBoundsException if {@code start} or {@code end}
+   *                                   are out of bounds
+   */
+  public static BigDecimal96 parse(CharSequence text, int start, int end) {
+    int scale = DecimalText.parseScale(text, start, end);
+    if (scale > MAX_SCALE) {
+      throw new IllegalArgumentException("maximum scale allowed is: " + MAX_SCALE);
+    }
+    long lowBits = DecimalText.parseLow(text, start, end);
+    try {
+      long hi = DecimalText.parseHigh(text, start, end, lowBits);
+      return valueOf(toHighBits(scale, hi, lowBits), lowBits);
+    } catch (ArithmeticException e) {
+      if (text.charAt(start) == '-') {
+        throw new IllegalArgumentException("value too small");
+      }
+      throw new IllegalArgumentException("value too large");
+    }
+  }
+
   private static boolean fitsInto64bit(BigDecimal bigDecimal, int scale) {
     // REVIEW some long of length 19 actually would fit
     int precision = bigDecimal.precision();
@@ -138,7 +279,7 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
     int highBits = getHighByte(Math.max(0, scale), COMPACT_ARRAY_LENGTH);
     long lowBits = unscaled.longValueExact();
 
-    return new BigDecimal96(highBits, lowBits);
+    return valueOf(highBits, lowBits);
   }
 
   private static BigDecimal96 fromTwosComplement(BigDecimal bigDecimal, int scale) {
@@ -168,7 +309,7 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
       long unsinedValue = 0xFF & twosComplement[i + (twosComplement.length - 8)];
       lowBits |= unsinedValue << (56 - (i * 8));
     }
-    return new BigDecimal96(highBits, lowBits);
+    return valueOf(highBits, lowBits);
   }
 
   private static final BigInteger unscaledValue(BigDecimal bigDecimal, int scale) {
@@ -179,109 +320,325 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
     }
   }
 
+  /**
+   * Returns the high 64 bits of the 128 bit two's complement of the
+   * unscaled value. The low 64 bits are always the low bits.
+   */
+  static long unscaledHigh(int highBits, long lowBits) {
+    if (isCompact(highBits)) {
+      return lowBits >> 63;
+    }
+    int shift = 64 - ((getArrayLength(highBits) - COMPACT_ARRAY_LENGTH) * 8);
+    return (((long) highBits) << shift) >> shift;
+  }
+
+  /**
+   * Returns the value of an unscaled value given as 128 bit two's
+   * complement.
+   *
+   * @throws ArithmeticException if the value does not fit into 88 bits
+   */
+  static BigDecimal96 fromUnscaled(long hi, long lo, int scale) {
+    return valueOf(toHighBits(scale, hi, lo), lo);
+  }
+
+  /**
+   * Computes the high bits of an unscaled value given as 128 bit two's
+   * complement. The low bits are always the low 64 bits of the unscaled
+   * value.
+   *
+   * @throws ArithmeticException if the value does not fit into 88 bits
+   */
+  static int toHighBits(int scale, long hi, long lo) {
+    if (hi == (lo >> 63)) {
+      return getHighByte(scale, COMPACT_ARRAY_LENGTH);
+    }
+    int significantBits = 65 - Long.numberOfLeadingZeros(hi ^ (hi >> 63));
+    int byteLength = (significantBits + 7) / 8;
+    if (byteLength > 3) {
+      throw new ArithmeticException("overflow");
+    }
+    int mask = (1 << (byteLength * 8)) - 1;
+    return getHighByte(scale, COMPACT_ARRAY_LENGTH + byteLength) | (((int) hi) & mask);
+  }
+
   public BigDecimal96 negate() {
     // we could also name the method negated() but BigDecimal calls the method negate()
     if (this.isCompact()) {
       if (this.lowBits == 0L) {
         return this;
       }
-      if (this.lowBits == Long.MIN_VALUE) {
-        return BigDecimal96.valueOf(BigDecimal.valueOf(Long.MIN_VALUE).negate());
+      if (this.lowBits != Long.MIN_VALUE) {
+        return valueOf(this.highBits, -this.lowBits);
       }
-      return new BigDecimal96(this.highBits, -this.lowBits);
-    }
-    try {
-      return BigDecimal96.valueOf(this.toBigDecimal().negate());
-    } catch (IllegalArgumentException e) {
-      throw new ArithmeticException();
     }
+    long hi = DecimalMath.negateHigh(unscaledHigh(this.highBits, this.lowBits), this.lowBits);
+    long lo = -this.lowBits;
+    return valueOf(toHighBits(this.getScale(), hi, lo), lo);
   }
 
   public BigDecimal96 add(BigDecimal96 augend) {
-    if (!this.isCompact() || !augend.isCompact()) {
-      // we assume this happens only very rarely if at all
-      return this.addUsingBigDecimalMath(augend);
-    }
-    int ourScale = this.getScale();
-    int theirScale = augend.getScale();
+    int resultHighBits = addHighBits(this.highBits, this.lowBits, augend.highBits, augend.lowBits);
+    long resultLowBits = addLowBits(this.highBits, this.lowBits, augend.highBits, augend.lowBits);
+    return valueOf(resultHighBits, resultLowBits);
+  }
+
+  /**
+   * Computes the high bits of the sum of two values given as raw bits.
+   *
+   * @param highBits1 the high bits of the first value
+   * @param lowBits1 the low bits of the first value
+   * @param highBits2 the high bits of the second value
+   * @param lowBits2 the low bits of the second value
+   * @return the high bits of the sum
+   * @throws ArithmeticException if the sum does not fit
+   */
+  static int addHighBits(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    int ourScale = getScale(highBits1);
+    int theirScale = getScale(highBits2);
     int operationScale = Math.max(ourScale, theirScale);
-    long a;
-    long b;
-    try {
-      if (ourScale < operationScale) {
-        a = pow10(this.lowBits, operationScale - ourScale);
-      } else {
-        a = this.lowBits;
-      }
-      if (theirScale < operationScale) {
-        b = pow10(augend.lowBits, operationScale - theirScale);
-      } else {
-        b = augend.lowBits;
+    if (isCompact(highBits1) && isCompact(highBits2)) {
+      try {
+        long a = DecimalMath.pow10(lowBits1, operationScale - ourScale);
+        long b = DecimalMath.pow10(lowBits2, operationScale - theirScale);
+        // only checks for overflow, the sum itself is computed by #addLowBits
+        Math.addExact(a, b);
+        return getHighByte(operationScale, COMPACT_ARRAY_LENGTH);
+      } catch (ArithmeticException e) {
+        // overflow, continue with 128 bit math
       }
-      long result = Math.addExact(a, b);
-      return new BigDecimal96(getHighByte(operationScale, COMPACT_ARRAY_LENGTH), result);
-    } catch (ArithmeticException e) {
-      // overflow we assume this happens only very rarely if at all
-      return this.addUsingBigDecimalMath(augend);
     }
+    long aLo = lowBits1 * DecimalMath.POWERS_OF_TEN[operationScale - ourScale];
+    long aHi = DecimalMath.multiplyPow10High(unscaledHigh(highBits1, lowBits1), lowBits1, operationScale - ourScale);
+    long bLo = lowBits2 * DecimalMath.POWERS_OF_TEN[operationScale - theirScale];
+    long bHi = DecimalMath.multiplyPow10High(unscaledHigh(highBits2, lowBits2), lowBits2, operationScale - theirScale);
+    return toHighBits(operationScale, DecimalMath.addHigh(aHi, aLo, bHi, bLo), aLo + bLo);
   }
 
-  private static long pow10(long l, int exponent) {
-    long result = l;
-    for (int i = 0; i < exponent; i++) {
-      result = Math.multiplyExact(result, 10L);
+  /**
+   * Computes the low bits of the sum of two values given as raw bits.
+   *
+   * <p>The low 64 bits of the two's complement of the sum only depend
+   * on the low 64 bits of the operands so no overflow checks are
+   * done here, {@link #addHighBits(int, long, int, long)} does them.</p>
+   *
+   * @param highBits1 the high bits of the first value
+   * @param lowBits1 the low bits of the first value
+   * @param highBits2 the high bits of the second value
+   * @param lowBits2 the low bits of the second value
+   * @return the low bits of the sum
+   */
+  static long addLowBits(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    int ourScale = getScale(highBits1);
+    int theirScale = getScale(highBits2);
+    int operationScale = Math.max(ourScale, theirScale);
+    return (lowBits1 * DecimalMath.POWERS_OF_TEN[operationScale - ourScale])
+            + (lowBits2 * DecimalMath.POWERS_OF_TEN[operationScale - theirScale]);
+  }
+
+  public BigDecimal96 subtract(BigDecimal96 subtrahend) {
+    int resultHighBits = subtractHighBits(this.highBits, this.lowBits, subtrahend.highBits, subtrahend.lowBits);
+    long resultLowBits = subtractLowBits(this.highBits, this.lowBits, subtrahend.highBits, subtrahend.lowBits);
+    return valueOf(resultHighBits, resultLowBits);
+  }
+
+  /**
+   * Computes the high bits of the difference of two values given as raw bits.
+   *
+   * @param highBits1 the high bits of the minuend
+   * @param lowBits1 the low bits of the minuend
+   * @param highBits2 the high bits of the subtrahend
+   * @param lowBits2 the low bits of the subtrahend
+   * @return the high bits of the difference
+   * @throws ArithmeticException if the difference does not fit
+   */
+  static int subtractHighBits(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    int ourScale = getScale(highBits1);
+    int theirScale = getScale(highBits2);
+    int operationScale = Math.max(ourScale, theirScale);
+    if (isCompact(highBits1) && isCompact(highBits2)) {
+      try {
+        long a = DecimalMath.pow10(lowBits1, operationScale - ourScale);
+        long b = DecimalMath.pow10(lowBits2, operationScale - theirScale);
+        // only checks for overflow, the difference itself is computed by #subtractLowBits
+        Math.subtractExact(a, b);
+        return getHighByte(operationScale, COMPACT_ARRAY_LENGTH);
+      } catch (ArithmeticException e) {
+        // overflow, continue with 128 bit math
+      }
     }
-    return result;
+    long aLo = lowBits1 * DecimalMath.POWERS_OF_TEN[operationScale - ourScale];
+    long aHi = DecimalMath.multiplyPow10High(unscaledHigh(highBits1, lowBits1), lowBits1, operationScale - ourScale);
+    long bLo = lowBits2 * DecimalMath.POWERS_OF_TEN[operationScale - theirScale];
+    long bHi = DecimalMath.multiplyPow10High(unscaledHigh(highBits2, lowBits2), lowBits2, operationScale - theirScale);
+    return toHighBits(operationScale, DecimalMath.subtractHigh(aHi, aLo, bHi, bLo), aLo - bLo);
   }
 
-  private BigDecimal96 addUsingBigDecimalMath(BigDecimal96 augend) {
-    try {
-      return BigDecimal96.valueOf(this.toBigDecimal().add(augend.toBigDecimal()));
-    } catch (IllegalArgumentException e) {
-      throw new ArithmeticException();
+  /**
+   * Computes the low bits of the difference of two values given as raw bits.
+   *
+   * @param highBits1 the high bits of the minuend
+   * @param lowBits1 the low bits of the minuend
+   * @param highBits2 the high bits of the subtrahend
+   * @param lowBits2 the low bits of the subtrahend
+   * @return the low bits of the difference
+   * @see #addLowBits(int, long, int, long)
+   */
+  static long subtractLowBits(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    int ourScale = getScale(highBits1);
+    int theirScale = getScale(highBits2);
+    int operationScale = Math.max(ourScale, theirScale);
+    return (lowBits1 * DecimalMath.POWERS_OF_TEN[operationScale - ourScale])
+            - (lowBits2 * DecimalMath.POWERS_OF_TEN[operationScale - theirScale]);
+  }
+
+  /**
+   * Returns the exact product of this value and an other value.
+   *
+   * <p>The scale of the result is the sum of the scales of the operands.
+   * If that is larger than {@value #MAX_SCALE} the result is reduced to
+   * {@value #MAX_SCALE} which is only possible if no rounding is
+   * necessary.</p>
+   *
+   * @param multiplicand the value to multiply with, not {@code null}
+   * @return the product
+   * @throws ArithmeticException if the product does not fit
+   */
+  public BigDecimal96 multiply(BigDecimal96 multiplicand) {
+    int productScale = Math.min(this.getScale() + multiplicand.getScale(), MAX_SCALE);
+    return this.multiply(multiplicand, productScale, RoundingMode.UNNECESSARY);
+  }
+
+  /**
+   * Returns the product of this value and an other value rounded to the
+   * given scale.
+   *
+   * @param multiplicand the value to multiply with, not {@code null}
+   * @param scale the scale of the result, from 0 to {@value #MAX_SCALE}
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the rounded product
+   * @throws IllegalArgumentException if the scale is not supported
+   * @throws ArithmeticException if the product does not fit or
+   *                             {@code roundingMode} is
+   *                             {@link RoundingMode#UNNECESSARY} and
+   *                             rounding is necessary
+   */
+  public BigDecimal96 multiply(BigDecimal96 multiplicand, int scale, RoundingMode roundingMode) {
+    if ((scale < 0) || (scale > MAX_SCALE)) {
+      throw new IllegalArgumentException("invalid scale");
+    }
+    if (!this.isCompact() || !multiplicand.isCompact()) {
+      // we assume this happens only very rarely if at all
+      return fromBigDecimal(this.toBigDecimal().multiply(multiplicand.toBigDecimal()).setScale(scale, roundingMode));
     }
+    boolean negative = (this.lowBits < 0L) != (multiplicand.lowBits < 0L);
+    long a = Math.abs(this.lowBits);
+    long b = Math.abs(multiplicand.lowBits);
+    // the product of two magnitudes of at most 2^63 always fits into a signed 128 bit value
+    long productLow = a * b;
+    long productHigh = DecimalMath.unsignedMultiplyHigh(a, b);
+    int productScale = this.getScale() + multiplicand.getScale();
+    if (scale >= productScale) {
+      int exponent = scale - productScale;
+      long hi = DecimalMath.multiplyPow10High(productHigh, productLow, exponent);
+      long lo = productLow * DecimalMath.POWERS_OF_TEN[exponent];
+      return fromMagnitude(negative, hi, lo, scale);
+    }
+    long divisor = DecimalMath.POWERS_OF_TEN[productScale - scale];
+    return divideAndRound(negative, productHigh, productLow, divisor, scale, roundingMode);
   }
 
-  public BigDecimal96 subtract(BigDecimal96 subtrahend) {
-    if (!this.isCompact() || !subtrahend.isCompact()) {
+  /**
+   * Returns the quotient of this value and an other value rounded to the
+   * given scale.
+   *
+   * @param divisor the value to divide by, not {@code null}
+   * @param scale the scale of the result, from 0 to {@value #MAX_SCALE}
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the rounded quotient
+   * @throws IllegalArgumentException if the scale is not supported
+   * @throws ArithmeticException if {@code divisor} is zero, the quotient
+   *                             does not fit or {@code roundingMode} is
+   *                             {@link RoundingMode#UNNECESSARY} and
+   *                             rounding is necessary
+   */
+  public BigDecimal96 divide(BigDecimal96 divisor, int scale, RoundingMode roundingMode) {
+    if ((scale < 0) || (scale > MAX_SCALE)) {
+      throw new IllegalArgumentException("invalid scale");
+    }
+    if (divisor.isCompact() && (divisor.lowBits == 0L)) {
+      throw new ArithmeticException("Division by zero");
+    }
+    if (!this.isCompact() || !divisor.isCompact()) {
       // we assume this happens only very rarely if at all
-      return this.subtractUsingBigDecimalMath(subtrahend);
+      return fromBigDecimal(this.toBigDecimal().divide(divisor.toBigDecimal(), scale, roundingMode));
     }
-    int ourScale = this.getScale();
-    int theirScale = subtrahend.getScale();
-    int operationScale = Math.max(ourScale, theirScale);
-    long a;
-    long b;
-    try {
-      if (ourScale < operationScale) {
-        a = pow10(this.lowBits, operationScale - ourScale);
-      } else {
-        a = this.lowBits;
-      }
-      if (theirScale < operationScale) {
-        b = pow10(subtrahend.lowBits, operationScale - theirScale);
-      } else {
-        b = subtrahend.lowBits;
+    boolean negative = (this.lowBits < 0L) != (divisor.lowBits < 0L);
+    long a = Math.abs(this.lowBits);
+    long b = Math.abs(divisor.lowBits);
+    // quotient = a * 10^exponent / b
+    int exponent = (scale + divisor.getScale()) - this.getScale();
+    if (exponent >= 0) {
+      long power = DecimalMath.POWERS_OF_TEN[exponent];
+      return divideAndRound(negative, DecimalMath.unsignedMultiplyHigh(a, power), a * power, b, scale, roundingMode);
+    }
+    long power = DecimalMath.POWERS_OF_TEN[-exponent];
+    if (DecimalMath.unsignedMultiplyHigh(b, power) != 0L) {
+      // the scaled divisor does not fit into 64 bits, we assume this is rare
+      return fromBigDecimal(this.toBigDecimal().divide(divisor.toBigDecimal(), scale, roundingMode));
+    }
+    return divideAndRound(negative, 0L, a, b * power, scale, roundingMode);
+  }
+
+  /**
+   * Divides an unsigned 128 bit magnitude, rounds the result and
+   * applies the sign.
+   */
+  private static BigDecimal96 divideAndRound(boolean negative, long hi, long lo, long divisor,
+          int scale, RoundingMode roundingMode) {
+    long quotientHigh = Long.divideUnsigned(hi, divisor);
+    long quotientLow = DecimalMath.divideUnsigned(Long.remainderUnsigned(hi, divisor), lo, divisor);
+    long remainder = lo - (quotientLow * divisor);
+    if (DecimalMath.needsIncrement(quotientLow, remainder, divisor, negative, roundingMode)) {
+      quotientLow += 1L;
+      if (quotientLow == 0L) {
+        quotientHigh += 1L;
       }
-      long result = Math.subtractExact(a, b);
-      return new BigDecimal96(getHighByte(operationScale, COMPACT_ARRAY_LENGTH), result);
-    } catch (ArithmeticException e) {
-      // overflow we assume this happens only very rarely if at all
-      return this.subtractUsingBigDecimalMath(subtrahend);
     }
+    return fromMagnitude(negative, quotientHigh, quotientLow, scale);
   }
 
-  private BigDecimal96 subtractUsingBigDecimalMath(BigDecimal96 subtrahend) {
+  /**
+   * Creates a value from a 128 bit magnitude and a sign.
+   */
+  private static BigDecimal96 fromMagnitude(boolean negative, long hi, long lo, int scale) {
+    if (negative) {
+      long negatedHi = DecimalMath.negateHigh(hi, lo);
+      long negatedLo = -lo;
+      return valueOf(toHighBits(scale, negatedHi, negatedLo), negatedLo);
+    }
+    return valueOf(toHighBits(scale, hi, lo), lo);
+  }
+
+  private static BigDecimal96 fromBigDecimal(BigDecimal bigDecimal) {
     try {
-      return BigDecimal96.valueOf(this.toBigDecimal().subtract(subtrahend.toBigDecimal()));
+      return BigDecimal96.valueOf(bigDecimal);
     } catch (IllegalArgumentException e) {
       throw new ArithmeticException();
     }
   }
 
-  BigDecimal96 withScale(int newScale) {
-    // TODO test for truncation with smaller scale
-    // TODO rename to setScale?
+  /**
+   * Returns a value numerically equal to this one with the given scale.
+   *
+   * @param newScale the scale of the result, from 0 to {@value #MAX_SCALE}
+   * @return a value with the given scale
+   * @throws IllegalArgumentException if the scale is not supported
+   * @throws ArithmeticException if the result does not fit or the new
+   *                             scale is smaller and rounding would be
+   *                             necessary
+   */
+  public BigDecimal96 withScale(int newScale) {
     if ((newScale < 0) || (newScale > MAX_SCALE)) {
       throw new IllegalArgumentException("invalid scale");
     }
@@ -289,24 +646,195 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
     if (currentScale == newScale) {
       return this;
     }
+    long hi = unscaledHigh(this.highBits, this.lowBits);
+    if (newScale > currentScale) {
+      int exponent = newScale - currentScale;
+      long newHi = DecimalMath.multiplyPow10High(hi, this.lowBits, exponent);
+      long newLo = this.lowBits * DecimalMath.POWERS_OF_TEN[exponent];
+      return valueOf(toHighBits(newScale, newHi, newLo), newLo);
+    }
+    long divisor = DecimalMath.POWERS_OF_TEN[currentScale - newScale];
     if (this.isCompact()) {
-      try {
-        long newValue = pow10(this.lowBits, newScale - currentScale);
-        return new BigDecimal96(getHighByte(newScale, COMPACT_ARRAY_LENGTH), newValue);
-      } catch (ArithmeticException e) {
-        // we assume this is rare
-        return this.withScaleUsingBigDecimalMath(newScale);
+      if ((this.lowBits % divisor) != 0L) {
+        throw new ArithmeticException("Rounding necessary");
+      }
+      return valueOf(getHighByte(newScale, COMPACT_ARRAY_LENGTH), this.lowBits / divisor);
+    }
+    boolean negative = hi < 0L;
+    long magnitudeHi = negative ? DecimalMath.negateHigh(hi, this.lowBits) : hi;
+    long magnitudeLo = negative ? -this.lowBits : this.lowBits;
+    if (DecimalMath.remainderUnsigned(magnitudeHi, magnitudeLo, divisor) != 0L) {
+      throw new ArithmeticException("Rounding necessary");
+    }
+    long quotientHi = Long.divideUnsigned(magnitudeHi, divisor);
+    long quotientLo = DecimalMath.divideUnsignedLow(magnitudeHi, magnitudeLo, divisor);
+    if (negative) {
+      long negatedHi = DecimalMath.negateHigh(quotientHi, quotientLo);
+      long negatedLo = -quotientLo;
+      return valueOf(toHighBits(newScale, negatedHi, negatedLo), negatedLo);
+    }
+    return valueOf(toHighBits(newScale, quotientHi, quotientLo), quotientLo);
+  }
+
+  /**
+   * Returns the numerically equal value with the smallest scale, the
+   * trailing zeros of the unscaled value are removed. Unlike
+   * {@link BigDecimal#stripTrailingZeros()} the scale does not become
+   * negative, {@code 100} stays {@code 100} and {@code 0.00} becomes
+   * {@code 0}.
+   *
+   * @return the canonical value, {@code this} if it already is canonical
+   */
+  public BigDecimal96 canonical() {
+    int zeros = strippableZeros(this.highBits, this.lowBits);
+    if (zeros == 0) {
+      return this;
+    }
+    return this.withScale(this.getScale() - zeros);
+  }
+
+  /**
+   * Returns the number of trailing zeros of the unscaled value that can
+   * be removed without the scale becoming negative.
+   */
+  private static int strippableZeros(int highBits, long lowBits) {
+    int scale = getScale(highBits);
+    int zeros = 0;
+    if (isCompact(highBits)) {
+      while ((zeros < scale) && ((lowBits % DecimalMath.POWERS_OF_TEN[zeros + 1]) == 0L)) {
+        zeros += 1;
+      }
+      return zeros;
+    }
+    long hi = unscaledHigh(highBits, lowBits);
+    boolean negative = hi < 0L;
+    long magnitudeHi = negative ? DecimalMath.negateHigh(hi, lowBits) : hi;
+    long magnitudeLo = negative ? -lowBits : lowBits;
+    while ((zeros < scale) && (DecimalMath.remainderUnsigned(magnitudeHi, magnitudeLo, DecimalMath.POWERS_OF_TEN[zeros + 1]) == 0L)) {
+      zeros += 1;
+    }
+    return zeros;
+  }
+
+  /**
+   * Checks whether this value is numerically equal to an other value.
+   * Unlike {@link #equals(Object)} values like {@code 1.0} and
+   * {@code 1.00} are equal.
+   *
+   * @param other the value to compare to, not {@code null}
+   * @return whether both values are numerically equal
+   * @see #numericHashCode()
+   */
+  public boolean numericEquals(BigDecimal96 other) {
+    if ((this.highBits == other.highBits) && (this.lowBits == other.lowBits)) {
+      return true;
+    }
+    if (this.getScale() == other.getScale()) {
+      // same scale but different bits
+      return false;
+    }
+    return compare(this.highBits, this.lowBits, other.highBits, other.lowBits) == 0;
+  }
+
+  /**
+   * Computes a hash code that is consistent with
+   * {@link #numericEquals(BigDecimal96)}, values like {@code 1.0} and
+   * {@code 1.00} have the same numeric hash code. This is the hash code
+   * of {@link #canonical()} but does not allocate.
+   *
+   * @return the numeric hash code
+   */
+  public int numericHashCode() {
+    int zeros = strippableZeros(this.highBits, this.lowBits);
+    int scale = this.getScale() - zeros;
+    long divisor = DecimalMath.POWERS_OF_TEN[zeros];
+    long hi;
+    long lo;
+    if (this.isCompact()) {
+      lo = this.lowBits / divisor;
+      hi = lo >> 63;
+    } else {
+      hi = unscaledHigh(this.highBits, this.lowBits);
+      boolean negative = hi < 0L;
+      long magnitudeHi = negative ? DecimalMath.negateHigh(hi, this.lowBits) : hi;
+      long magnitudeLo = negative ? -this.lowBits : this.lowBits;
+      long quotientHi = Long.divideUnsigned(magnitudeHi, divisor);
+      long quotientLo = DecimalMath.divideUnsignedLow(magnitudeHi, magnitudeLo, divisor);
+      hi = negative ? DecimalMath.negateHigh(quotientHi, quotientLo) : quotientHi;
+      lo = negative ? -quotientLo : quotientLo;
+    }
+    return DecimalMath.mix(hi ^ ((long) scale << 56), lo);
+  }
+
+  @Override
+  public int compareTo(BigDecimal96 o) {
+    if (o == this) {
+      return 0;
+    }
+    return compare(this.highBits, this.lowBits, o.highBits, o.lowBits);
+  }
+
+  /**
+   * Compares two values given as raw bits.
+   *
+   * @param highBits1 the high bits of the first value
+   * @param lowBits1 the low bits of the first value
+   * @param highBits2 the high bits of the second value
+   * @param lowBits2 the low bits of the second value
+   * @return the comparison result as defined by {@link Comparable#compareTo(Object)}
+   */
+  static int compare(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    if (isCompact(highBits1) && isCompact(highBits2)) {
+      return compareUsingLongMath(highBits1, lowBits1, highBits2, lowBits2);
+    }
+    return compareUsingInt128Math(highBits1, lowBits1, highBits2, lowBits2);
+  }
+
+  private static int compareUsingLongMath(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    int ourScale = getScale(highBits1);
+    int theirScale = getScale(highBits2);
+    int operationScale = Math.max(ourScale, theirScale);
+    long a;
+    long b;
+    try {
+      if (ourScale < operationScale) {
+        a = DecimalMath.pow10(lowBits1, operationScale - ourScale);
+      } else {
+        a = lowBits1;
       }
+      if (theirScale < operationScale) {
+        b = DecimalMath.pow10(lowBits2, operationScale - theirScale);
+      } else {
+        b = lowBits2;
+      }
+    } catch (ArithmeticException e) {
+      // overflow we assume this happens only very rarely if at all
+      return compareUsingInt128Math(highBits1, lowBits1, highBits2, lowBits2);
     }
-    return this.withScaleUsingBigDecimalMath(newScale);
+    return Long.compare(a, b);
   }
 
-  private BigDecimal96 withScaleUsingBigDecimalMath(int newScale) {
+  private static int compareUsingInt128Math(int highBits1, long lowBits1, int highBits2, long lowBits2) {
+    int ourScale = getScale(highBits1);
+    int theirScale = getScale(highBits2);
+    int operationScale = Math.max(ourScale, theirScale);
+    long aHi = unscaledHigh(highBits1, lowBits1);
+    long bHi = unscaledHigh(highBits2, lowBits2);
+    long aLo = lowBits1 * DecimalMath.POWERS_OF_TEN[operationScale - ourScale];
+    long bLo = lowBits2 * DecimalMath.POWERS_OF_TEN[operationScale - theirScale];
+    // only the operand with the smaller scale is multiplied, if that
+    // overflows 128 bits its magnitude is larger than the other operand
     try {
-      return BigDecimal96.valueOf(this.toBigDecimal().setScale(newScale));
-    } catch (IllegalArgumentException e) {
-      throw new ArithmeticException();
+      aHi = DecimalMath.multiplyPow10High(aHi, lowBits1, operationScale - ourScale);
+    } catch (ArithmeticException e) {
+      return aHi < 0L ? -1 : 1;
     }
+    try {
+      bHi = DecimalMath.multiplyPow10High(bHi, lowBits2, operationScale - theirScale);
+    } catch (ArithmeticException e) {
+      return bHi < 0L ? 1 : -1;
+    }
+    return DecimalMath.compare(aHi, aLo, bHi, bLo);
   }
 
   public BigDecimal toBigDecimal() {
@@ -362,88 +890,296 @@ public final class BigDecimal96 implements Comparable<BigDecimal96>, Serializabl
   }
 
   @Override
-  public int compareTo(BigDecimal96 o) {
-    if (o == this) {
-      return 0;
+  public String toString() {
+    StringBuilder buffer = new StringBuilder();
+    this.appendTo(buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * Appends the same text as {@link #toString()} without creating
+   * intermediate objects.
+   *
+   * @param buffer the buffer to append to, not {@code null}
+   */
+  public void appendTo(StringBuilder buffer) {
+    DecimalText.appendTo(buffer, unscaledHigh(this.highBits, this.lowBits), this.lowBits, this.getScale());
+  }
+
+  /**
+   * Appends the same text as {@link #toString()} without creating
+   * intermediate objects.
+   *
+   * @param appendable where to append the text, not {@code null}
+   * @throws IOException if appending fails
+   */
+  public void appendTo(Appendable appendable) throws IOException {
+    DecimalText.appendTo(appendable, unscaledHigh(this.highBits, this.lowBits), this.lowBits, this.getScale());
+  }
+
+  /**
+   * Writes the same text as {@link #toString()} into an array without
+   * creating intermediate objects.
+   *
+   * @param destination the array to write to, not {@code null}, at most
+   *                    {@value #MAX_TEXT_LENGTH} characters are written
+   * @param offset the index in the array of the first character to write
+   * @return the number of characters written
+   * @throws IndexOutOfBoundsException if the text does not fit into the
+   *                                   array, in this case some
+   *                                   characters may have been written
+   */
+  public int getChars(char[] destination, int offset) {
+    return DecimalText.getChars(unscaledHigh(this.highBits, this.lowBits), this.lowBits, this.getScale(), destination, offset);
+  }
+
+  /**
+   * Writes this value in a compact variable length format.
+   *
+   * <p>The value is written as one tag byte containing the scale and the
+   * length followed by the zigzag encoded unscaled value without leading
+   * zero bytes. Values of small magnitude need only a few bytes, for
+   * example {@code 1234.56} needs four bytes, and no value needs more
+   * than {@value #BYTES} bytes. Use {@link DecimalStreamWriter} to
+   * write many values including {@code null}.</p>
+   *
+   * @param out where to write the value to, not {@code null}
+   * @throws IOException if writing fails
+   * @see #readFrom(DataInput)
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    writeTo(out, this.highBits, this.lowBits, new byte[DecimalVarint.MAX_BYTES]);
+  }
+
+  static void writeTo(DataOutput out, int highBits, long lowBits, byte[] buffer) throws IOException {
+    int length = DecimalVarint.encode(buffer, getScale(highBits), unscaledHigh(highBits, lowBits), lowBits);
+    out.write(buffer, 0, length);
+  }
+
+  /**
+   * Reads a value written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in where to read the value from, not {@code null}
+   * @return the value read, never {@code null}
+   * @throws IOException if reading fails
+   * @throws StreamCorruptedException if the input does not contain a
+   *                                  valid value
+   */
+  public static BigDecimal96 readFrom(DataInput in) throws IOException {
+    int tag = in.readUnsignedByte();
+    if (tag == DecimalVarint.NULL_TAG) {
+      throw new StreamCorruptedException("unexpected null");
     }
-    if (this.isCompact() && o.isCompact()) {
-      return this.compareToUsingLongMath(o);
+    byte[] buffer = new byte[DecimalVarint.MAX_BYTES];
+    DecimalVarint.readValue(in, tag, MAX_SCALE, buffer);
+    return valueOf(readHighBits(tag, buffer), DecimalVarint.decodeLow(buffer));
+  }
+
+  /**
+   * Computes the high bits of a value read by
+   * {@link DecimalVarint#readValue(DataInput, int, int, byte[])}.
+   *
+   * @throws StreamCorruptedException if the value does not fit into 88 bits
+   */
+  static int readHighBits(int tag, byte[] buffer) throws StreamCorruptedException {
+    try {
+      return toHighBits(DecimalVarint.scale(tag), DecimalVarint.decodeHigh(buffer), DecimalVarint.decodeLow(buffer));
+    } catch (ArithmeticException e) {
+      throw new StreamCorruptedException("value too large");
     }
-    return this.compareToUsingBigDecimalMath(o);
   }
 
-  private int compareToUsingLongMath(BigDecimal96 o) {
-    int ourScale = this.getScale();
-    int theirScale = o.getScale();
-    int operationScale = Math.max(ourScale, theirScale);
-    long a;
-    long b;
+  /**
+   * Returns the order preserving binary key of this value.
+   *
+   * @return a new array with the key, never {@code null}
+   * @see #putKeyTo(byte[], int)
+   */
+  public byte[] toKey() {
+    byte[] key = new byte[KEY_BYTES];
+    this.putKeyTo(key, 0);
+    return key;
+  }
+
+  /**
+   * Writes the order preserving binary key of this value into an array.
+   *
+   * <p>The key has a fixed length of {@value #KEY_BYTES} bytes. Comparing
+   * two keys byte by byte as unsigned values gives the same order as
+   * {@link #compareTo(BigDecimal96)}. Values that are numerically equal
+   * but have different scales, like {@code 1.0} and {@code 1.00}, get
+   * different keys ordered by scale so that no information is lost.
+   * This allows sorted key value stores and indexes to do range scans
+   * without decoding the keys.</p>
+   *
+   * @param key the array to write to, not {@code null}
+   * @param offset the index in the array at which to write the first byte
+   * @throws IndexOutOfBoundsException if there are fewer than
+   *                                   {@value #KEY_BYTES} bytes after
+   *                                   {@code offset}
+   */
+  public void putKeyTo(byte[] key, int offset) {
+    DecimalKey.encode(key, offset, KEY_BYTES - 1, unscaledHigh(this.highBits, this.lowBits), this.lowBits, this.getScale());
+  }
+
+  /**
+   * Reads a value from an order preserving binary key.
+   *
+   * @param key the array to read from, not {@code null}
+   * @param offset the index in the array of the first byte of the key
+   * @return the value read, never {@code null}
+   * @throws IllegalArgumentException if the bytes are not a valid key
+   * @throws IndexOutOfBoundsException if there are fewer than
+   *                                   {@value #KEY_BYTES} bytes after
+   *                                   {@code offset}
+   * @see #putKeyTo(byte[], int)
+   */
+  public static BigDecimal96 fromKey(byte[] key, int offset) {
+    int scale = DecimalKey.decodeScale(key, offset, KEY_BYTES - 1);
+    long hi = DecimalKey.decodeHigh(key, offset, KEY_BYTES - 1);
+    long lo = DecimalKey.decodeLow(key, offset, KEY_BYTES - 1);
+    int highBits;
     try {
-      if (ourScale < operationScale) {
-        a = pow10(this.lowBits, operationScale - ourScale);
-      } else {
-        a = this.lowBits;
-      }
-      if (theirScale < operationScale) {
-        b = pow10(o.lowBits, operationScale - theirScale);
-      } else {
-        b = o.lowBits;
-      }
+      highBits = toHighBits(scale, hi, lo);
     } catch (ArithmeticException e) {
-      // overflow we assume this happens only very rarely if at all
-      return this.compareToUsingBigDecimalMath(o);
+      throw new IllegalArgumentException("invalid key", e);
     }
-    return Long.compare(a, b);
+    return valueOf(highBits, lo);
   }
 
-  private int compareToUsingBigDecimalMath(BigDecimal96 o) {
-    return this.toBigDecimal().compareTo(o.toBigDecimal());
+  /**
+   * Writes this value into a buffer.
+   *
+   * <p>The value is written as {@value #BYTES} bytes in big endian byte
+   * order, independent of the byte order of the buffer. This is the same
+   * format as used by serialization. The position of the buffer is not
+   * changed.</p>
+   *
+   * @param buffer the buffer to write to, not {@code null}
+   * @param offset the index in the buffer at which to write the first byte
+   * @throws IndexOutOfBoundsException if there are fewer than
+   *                                   {@value #BYTES} bytes after
+   *                                   {@code offset}
+   * @throws java.nio.ReadOnlyBufferException if the buffer is read only
+   */
+  public void putTo(ByteBuffer buffer, int offset) {
+    writeBits(buffer, offset, this.highBits, this.lowBits);
   }
 
-  @Override
-  public String toString() {
-    return this.toBigDecimal().toString();
+  /**
+   * Reads a value from a buffer.
+   *
+   * <p>The value is read as {@value #BYTES} bytes in big endian byte
+   * order, independent of the byte order of the buffer. The position of
+   * the buffer is not changed.</p>
+   *
+   * @param buffer the buffer to read from, not {@code null}
+   * @param offset the index in the buffer from which to read the first byte
+   * @return the value read, never {@code null}
+   * @throws IndexOutOfBoundsException if there are fewer than
+   *                                   {@value #BYTES} bytes after
+   *                                   {@code offset}
+   * @see #putTo(ByteBuffer, int)
+   */
+  public static BigDecimal96 getFrom(ByteBuffer buffer, int offset) {
+    return valueOf(readHighBits(buffer, offset), readLowBits(buffer, offset));
+  }
+
+  static void writeBits(ByteBuffer buffer, int offset, int highBits, long lowBits) {
+    if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+      buffer.putInt(offset, highBits);
+      buffer.putLong(offset + 4, lowBits);
+    } else {
+      buffer.putInt(offset, Integer.reverseBytes(highBits));
+      buffer.putLong(offset + 4, Long.reverseBytes(lowBits));
+    }
+  }
+
+  static int readHighBits(ByteBuffer buffer, int offset) {
+    int highBits = buffer.getInt(offset);
+    if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+      return highBits;
+    }
+    return Integer.reverseBytes(highBits);
+  }
+
+  static long readLowBits(ByteBuffer buffer, int offset) {
+    long lowBits = buffer.getLong(offset + 4);
+    if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+      return lowBits;
+    }
+    return Long.reverseBytes(lowBits);
   }
 
   private Object writeReplace() {
-    return new Ser96(this.highBits, this.lowBits);
+    return new Ser96(this);
+  }
+
+  enum NumericOrder implements Comparator<BigDecimal96> {
+
+    INSTANCE;
+
+    @Override
+    public int compare(BigDecimal96 o1, BigDecimal96 o2) {
+      return o1.compareTo(o2);
+    }
+
+  }
+
+  enum NumericEquality implements HashingStrategy<BigDecimal96> {
+
+    INSTANCE;
+
+    @Override
+    public int computeHashCode(BigDecimal96 object) {
+      return object.numericHashCode();
+    }
+
+    @Override
+    public boolean equals(BigDecimal96 object1, BigDecimal96 object2) {
+      return object1.numericEquals(object2);
+    }
+
   }
 
   /**
-   * Serialization proxy for {@link BigDecimal96}.
+   * Serialization proxy for {@link BigDecimal96}, uses the format of
+   * {@link BigDecimal96#writeTo(DataOutput)}.
+   *
+   * <p>Streams written by earlier versions of this proxy contain the bits
+   * in fixed size and have a different, implicit {@code serialVersionUID}.
+   * They can not be read, an {@link java.io.InvalidClassException} is
+   * thrown.</p>
    */
   static final class Ser96 implements Externalizable {
 
-    private int first;
-    private long second;
+    private static final long serialVersionUID = 2L;
+
+    private BigDecimal96 value;
 
     /**
      * Public default constructor for serialization.
      */
     public Ser96() {
-      this.first = 0;
-      this.second = 0L;
+      this.value = null;
     }
 
-    Ser96(int first, long second) {
-      this.first = first;
-      this.second = second;
+    Ser96(BigDecimal96 value) {
+      this.value = value;
     }
 
     private Object readResolve() {
-      return new BigDecimal96(this.first, this.second);
+      return this.value;
     }
 
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
-      out.writeInt(this.first);
-      out.writeLong(this.second);
+      this.value.writeTo(out);
     }
 
     @Override
     public void readExternal(ObjectInput in) throws IOException {
-      this.first = in.readInt();
-      this.second = in.readLong();
+      this.value = readFrom(in);
     }
 
   }
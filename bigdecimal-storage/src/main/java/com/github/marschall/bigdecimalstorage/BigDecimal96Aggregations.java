@@ -0,0 +1,156 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregations over all elements of a {@link BigDecimal96Array}.
+ *
+ * <p>Large arrays are split into blocks that are summarized in parallel
+ * on a {@link ForkJoinPool}. Every block works directly on the columns
+ * and does not allocate unless the 128 bit sum overflows, see
+ * {@link BigDecimal96SummaryStatistics}. The block results are then
+ * combined. The results are exact and do not depend on the parallelism
+ * used.</p>
+ *
+ * <p>Blocks in which all elements fit into a long and have the same scale
+ * are summarized with the column kernels of {@link DecimalColumns}, which
+ * are vectorized on Java 17 and later.</p>
+ */
+public final class BigDecimal96Aggregations {
+
+  /**
+   * Arrays up to this length are not split.
+   */
+  static final int THRESHOLD = 16 * 1024;
+
+  private BigDecimal96Aggregations() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Summarizes all elements of an array using the common pool.
+   *
+   * @param array the array to summarize, not {@code null}
+   * @return the statistics of all elements
+   */
+  public static BigDecimal96SummaryStatistics summarize(BigDecimal96Array array) {
+    return summarize(array, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Summarizes all elements of an array.
+   *
+   * @param array the array to summarize, not {@code null}
+   * @param pool the pool in which to run the parallel tasks, not {@code null}
+   * @return the statistics of all elements
+   */
+  public static BigDecimal96SummaryStatistics summarize(BigDecimal96Array array, ForkJoinPool pool) {
+    return summarize(array, pool, THRESHOLD);
+  }
+
+  static BigDecimal96SummaryStatistics summarize(BigDecimal96Array array, ForkJoinPool pool, int threshold) {
+    int length = array.length();
+    if (length <= threshold) {
+      // avoid the overhead of submitting a task
+      return summarizeRange(array, 0, length);
+    }
+    return pool.invoke(new SummarizeTask(array, 0, length, threshold));
+  }
+
+  /**
+   * Computes the exact sum of all elements of an array using the common pool.
+   *
+   * @param array the array to sum, not {@code null}
+   * @return the sum, zero if the array is empty
+   */
+  public static BigDecimal sum(BigDecimal96Array array) {
+    return summarize(array).getSum();
+  }
+
+  /**
+   * Finds the smallest element of an array using the common pool.
+   *
+   * @param array the array to search, not {@code null}
+   * @return the smallest element, {@code null} if the array is empty
+   */
+  public static BigDecimal96 min(BigDecimal96Array array) {
+    return summarize(array).getMin();
+  }
+
+  /**
+   * Finds the largest element of an array using the common pool.
+   *
+   * @param array the array to search, not {@code null}
+   * @return the largest element, {@code null} if the array is empty
+   */
+  public static BigDecimal96 max(BigDecimal96Array array) {
+    return summarize(array).getMax();
+  }
+
+  /**
+   * Computes the arithmetic mean of all elements of an array using the
+   * common pool.
+   *
+   * @param array the array to average, not {@code null}
+   * @param scale the scale of the result
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the average, {@code null} if the array is empty
+   */
+  public static BigDecimal average(BigDecimal96Array array, int scale, RoundingMode roundingMode) {
+    return summarize(array).getAverage(scale, roundingMode);
+  }
+
+  static BigDecimal96SummaryStatistics summarizeRange(BigDecimal96Array array, int from, int to) {
+    BigDecimal96SummaryStatistics statistics = DecimalColumns.summarizeCompact(array, from, to);
+    if (statistics != null) {
+      return statistics;
+    }
+    return summarizeEach(array, from, to);
+  }
+
+  static BigDecimal96SummaryStatistics summarizeEach(BigDecimal96Array array, int from, int to) {
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+    for (int i = from; i < to; i++) {
+      statistics.accept(array.getHighBits(i), array.getLowBits(i));
+    }
+    return statistics;
+  }
+
+  static final class SummarizeTask extends RecursiveTask<BigDecimal96SummaryStatistics> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BigDecimal96Array array;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    SummarizeTask(BigDecimal96Array array, int from, int to, int threshold) {
+      this.array = array;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected BigDecimal96SummaryStatistics compute() {
+      int length = this.to - this.from;
+      if (length <= this.threshold) {
+        return summarizeRange(this.array, this.from, this.to);
+      }
+      int middle = this.from + (length >>> 1);
+      SummarizeTask left = new SummarizeTask(this.array, this.from, middle, this.threshold);
+      SummarizeTask right = new SummarizeTask(this.array, middle, this.to, this.threshold);
+      left.fork();
+      BigDecimal96SummaryStatistics result = right.compute();
+      BigDecimal96SummaryStatistics leftResult = left.join();
+      leftResult.combine(result);
+      return leftResult;
+    }
+
+  }
+
+}
@@ -0,0 +1,187 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * A file of {@link BigDecimal96} values that is accessed through memory
+ * mapping.
+ *
+ * <p>Each value occupies a slot of {@value BigDecimal96#BYTES} bytes in
+ * the format of {@link BigDecimal96#putTo(ByteBuffer, int)}. A small
+ * header records the type and the number of values. Opening a file does
+ * not read the values, reads and scans are bound by the page cache.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public final class BigDecimal96ColumnFile implements Closeable {
+
+  private final MappedColumnFile file;
+
+  private BigDecimal96ColumnFile(MappedColumnFile file) {
+    this.file = file;
+  }
+
+  /**
+   * Creates a new, empty file.
+   *
+   * @param path the path of the file, must not exist
+   * @return the opened file, must be closed
+   * @throws IOException if the file can not be created
+   */
+  public static BigDecimal96ColumnFile create(Path path) throws IOException {
+    return create(path, MappedColumnFile.DEFAULT_SEGMENT_SIZE);
+  }
+
+  static BigDecimal96ColumnFile create(Path path, int segmentSize) throws IOException {
+    return new BigDecimal96ColumnFile(MappedColumnFile.create(path, BigDecimal96.BYTES, segmentSize));
+  }
+
+  /**
+   * Opens an existing file for reading and writing.
+   *
+   * @param path the path of the file
+   * @return the opened file, must be closed
+   * @throws IOException if the file can not be opened or is not a file
+   *                     of {@link BigDecimal96} values
+   */
+  public static BigDecimal96ColumnFile open(Path path) throws IOException {
+    return open(path, false, MappedColumnFile.DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Opens an existing file for reading only.
+   *
+   * @param path the path of the file
+   * @return the opened file, must be closed
+   * @throws IOException if the file can not be opened or is not a file
+   *                     of {@link BigDecimal96} values
+   */
+  public static BigDecimal96ColumnFile openReadOnly(Path path) throws IOException {
+    return open(path, true, MappedColumnFile.DEFAULT_SEGMENT_SIZE);
+  }
+
+  static BigDecimal96ColumnFile open(Path path, boolean readOnly, int segmentSize) throws IOException {
+    return new BigDecimal96ColumnFile(MappedColumnFile.open(path, BigDecimal96.BYTES, readOnly, segmentSize));
+  }
+
+  /**
+   * Returns the number of values in the file.
+   *
+   * @return the number of values
+   */
+  public long size() {
+    return this.file.size();
+  }
+
+  /**
+   * Reads the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value, never {@code null}
+   * @throws IOException if the file can not be mapped
+   * @throws IndexOutOfBoundsException if the index is outside of the file
+   */
+  public BigDecimal96 get(long index) throws IOException {
+    this.file.checkIndex(index);
+    return BigDecimal96.getFrom(this.file.segment(index, 1), this.file.offset(index));
+  }
+
+  /**
+   * Overwrites the value at the given index.
+   *
+   * @param index the index of the value
+   * @param value the new value, not {@code null}
+   * @throws IOException if the file can not be mapped
+   * @throws IndexOutOfBoundsException if the index is outside of the file
+   * @throws java.nio.ReadOnlyBufferException if the file was opened read only
+   */
+  public void set(long index, BigDecimal96 value) throws IOException {
+    this.file.checkWritable();
+    this.file.checkIndex(index);
+    value.putTo(this.file.segment(index, 1), this.file.offset(index));
+  }
+
+  /**
+   * Appends a value to the end of the file.
+   *
+   * @param value the value to append, not {@code null}
+   * @return the index of the appended value
+   * @throws IOException if the file can not be mapped
+   * @throws java.nio.ReadOnlyBufferException if the file was opened read only
+   */
+  public long append(BigDecimal96 value) throws IOException {
+    this.file.checkWritable();
+    long index = this.file.size();
+    value.putTo(this.file.segment(index, 1), this.file.offset(index));
+    this.file.setSize(index + 1L);
+    return index;
+  }
+
+  /**
+   * Appends a range of values to the end of the file.
+   *
+   * @param values the values to append, not {@code null}
+   * @param index the index of the first value in {@code values}
+   * @param length the number of values to append
+   * @throws IOException if the file can not be mapped
+   * @throws IndexOutOfBoundsException if the range is outside of {@code values}
+   * @throws java.nio.ReadOnlyBufferException if the file was opened read only
+   */
+  public void append(BigDecimal96Array values, int index, int length) throws IOException {
+    this.file.checkWritable();
+    if ((index < 0) || (length < 0) || (index > (values.length() - length))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", array length: " + values.length());
+    }
+    long position = this.file.size();
+    int written = 0;
+    while (written < length) {
+      int chunkLength = this.file.chunkLength(position, length - written);
+      values.putTo(index + written, this.file.segment(position, chunkLength), this.file.offset(position), chunkLength);
+      written += chunkLength;
+      position += chunkLength;
+    }
+    this.file.setSize(position);
+  }
+
+  /**
+   * Reads a range of values into an array.
+   *
+   * @param position the index of the first value in the file
+   * @param target the array to read into, not {@code null}
+   * @param index the index of the first element in {@code target}
+   * @param length the number of values to read
+   * @throws IOException if the file can not be mapped
+   * @throws IndexOutOfBoundsException if the range is outside of the
+   *                                   file or {@code target}
+   */
+  public void read(long position, BigDecimal96Array target, int index, int length) throws IOException {
+    this.file.checkRange(position, length);
+    if ((index < 0) || (index > (target.length() - length))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", array length: " + target.length());
+    }
+    long current = position;
+    int read = 0;
+    while (read < length) {
+      int chunkLength = this.file.chunkLength(current, length - read);
+      target.getFrom(this.file.segment(current, chunkLength), this.file.offset(current), index + read, chunkLength);
+      read += chunkLength;
+      current += chunkLength;
+    }
+  }
+
+  /**
+   * Forces all changes to be written to the storage device.
+   */
+  public void force() {
+    this.file.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.file.close();
+  }
+
+}
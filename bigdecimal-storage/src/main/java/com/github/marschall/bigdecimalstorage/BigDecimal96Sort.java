@@ -0,0 +1,386 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorting of {@link BigDecimal96Array}s in the order of
+ * {@link BigDecimal96#compareTo(BigDecimal96)}.
+ *
+ * <p>Instead of comparing elements, which has to align the scales for
+ * every comparison, every element is converted once into a 108 bit
+ * unsigned key: the unscaled value rescaled to
+ * {@value BigDecimal96#MAX_SCALE} plus 2^107. The keys are then sorted
+ * with a least significant digit radix sort with 8 bit digits. Digits
+ * that are the same for all elements are skipped, for typical data
+ * where all values fit into a long after rescaling at most 8 of the 14
+ * passes are done and the high part of the key is never moved.</p>
+ *
+ * <p>The sort is stable, elements that are numerically equal but have
+ * different scales keep their relative order. The result does not depend
+ * on whether the parallel mode is used.</p>
+ *
+ * <p>Sorting needs about 40 bytes of temporary memory per element.</p>
+ */
+public final class BigDecimal96Sort {
+
+  /**
+   * Arrays up to this length are not sorted in parallel.
+   */
+  static final int THRESHOLD = 64 * 1024;
+
+  private static final int DIGIT_BITS = 8;
+
+  private static final int RADIX = 1 << DIGIT_BITS;
+
+  private static final int DIGIT_MASK = RADIX - 1;
+
+  /**
+   * Number of digits in the low long of the key.
+   */
+  private static final int LOW_DIGITS = Long.SIZE / DIGIT_BITS;
+
+  /**
+   * Number of digits of the whole 108 bit key.
+   */
+  private static final int DIGITS = LOW_DIGITS + 6;
+
+  /**
+   * Added to the high long of the key to add 2^107 so that all keys are
+   * positive.
+   */
+  private static final long HIGH_BIAS = 1L << 43;
+
+  private BigDecimal96Sort() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Sorts all elements of an array into ascending order.
+   *
+   * @param array the array to sort, not {@code null}
+   */
+  public static void sort(BigDecimal96Array array) {
+    reorder(array, sortedIndices(array, null, Integer.MAX_VALUE), null, 1);
+  }
+
+  /**
+   * Sorts all elements of an array into ascending order, large arrays
+   * are sorted in parallel using the common pool.
+   *
+   * @param array the array to sort, not {@code null}
+   */
+  public static void parallelSort(BigDecimal96Array array) {
+    parallelSort(array, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Sorts all elements of an array into ascending order, large arrays
+   * are sorted in parallel.
+   *
+   * @param array the array to sort, not {@code null}
+   * @param pool the pool in which to run the parallel tasks, not {@code null}
+   */
+  public static void parallelSort(BigDecimal96Array array, ForkJoinPool pool) {
+    parallelSort(array, pool, THRESHOLD);
+  }
+
+  static void parallelSort(BigDecimal96Array array, ForkJoinPool pool, int threshold) {
+    int[] indices = sortedIndices(array, pool, threshold);
+    reorder(array, indices, pool, chunkCount(array.length(), pool, threshold));
+  }
+
+  /**
+   * Computes the permutation that sorts an array without modifying the
+   * array.
+   *
+   * @param array the array to sort, not {@code null}
+   * @return the indices of the elements in ascending order of the
+   *         elements, a new array, never {@code null}
+   */
+  public static int[] sortedIndices(BigDecimal96Array array) {
+    return sortedIndices(array, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Computes the permutation that sorts an array without modifying the
+   * array, large arrays are sorted in parallel using the common pool.
+   *
+   * @param array the array to sort, not {@code null}
+   * @return the indices of the elements in ascending order of the
+   *         elements, a new array, never {@code null}
+   */
+  public static int[] parallelSortedIndices(BigDecimal96Array array) {
+    return parallelSortedIndices(array, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Computes the permutation that sorts an array without modifying the
+   * array, large arrays are sorted in parallel.
+   *
+   * @param array the array to sort, not {@code null}
+   * @param pool the pool in which to run the parallel tasks, not {@code null}
+   * @return the indices of the elements in ascending order of the
+   *         elements, a new array, never {@code null}
+   */
+  public static int[] parallelSortedIndices(BigDecimal96Array array, ForkJoinPool pool) {
+    return sortedIndices(array, pool, THRESHOLD);
+  }
+
+  static int[] sortedIndices(BigDecimal96Array array, ForkJoinPool pool, int threshold) {
+    int length = array.length();
+    int chunkCount = chunkCount(length, pool, threshold);
+    RadixSort sort = new RadixSort(array, chunkCount, pool);
+    sort.run();
+    return sort.indices;
+  }
+
+  private static int chunkCount(int length, ForkJoinPool pool, int threshold) {
+    if ((pool == null) || (length <= threshold)) {
+      return 1;
+    }
+    // a few chunks per thread for load balancing
+    return (int) Math.max(1L, Math.min(length / threshold, pool.getParallelism() * 4L));
+  }
+
+  private static void reorder(BigDecimal96Array array, int[] indices, ForkJoinPool pool, int chunkCount) {
+    int length = array.length();
+    int[] highBits = new int[length];
+    long[] lowBits = new long[length];
+    forEachChunk(pool, chunkCount, chunk -> {
+      int to = chunkEnd(chunk, chunkCount, length);
+      for (int i = chunkStart(chunk, chunkCount, length); i < to; i++) {
+        int index = indices[i];
+        highBits[i] = array.getHighBits(index);
+        lowBits[i] = array.getLowBits(index);
+      }
+    });
+    array.copyFrom(highBits, lowBits);
+  }
+
+  static int chunkStart(int chunk, int chunkCount, int length) {
+    return (int) (((long) length * chunk) / chunkCount);
+  }
+
+  static int chunkEnd(int chunk, int chunkCount, int length) {
+    return chunkStart(chunk + 1, chunkCount, length);
+  }
+
+  private static void forEachChunk(ForkJoinPool pool, int chunkCount, IntConsumer action) {
+    if (chunkCount == 1) {
+      // avoid the overhead of submitting a task
+      action.accept(0);
+    } else {
+      pool.invoke(new ChunkTask(action, 0, chunkCount));
+    }
+  }
+
+  private static int digit(long[] keyLow, long[] keyHigh, int index, int digit) {
+    if (digit < LOW_DIGITS) {
+      return (int) (keyLow[index] >>> (digit * DIGIT_BITS)) & DIGIT_MASK;
+    }
+    return (int) (keyHigh[index] >>> ((digit - LOW_DIGITS) * DIGIT_BITS)) & DIGIT_MASK;
+  }
+
+  /**
+   * The state of a single sort, the keys and indices are swapped between
+   * the source and the target arrays after every pass.
+   */
+  static final class RadixSort {
+
+    private final BigDecimal96Array array;
+    private final int length;
+    private final int chunkCount;
+    private final ForkJoinPool pool;
+
+    private long[] keyLow;
+    private long[] keyHigh;
+    int[] indices;
+    private long[] targetKeyLow;
+    private long[] targetKeyHigh;
+    private int[] targetIndices;
+
+    // the counts of all digits, per chunk for the initial order
+    private final int[][] counts;
+
+    RadixSort(BigDecimal96Array array, int chunkCount, ForkJoinPool pool) {
+      this.array = array;
+      this.length = array.length();
+      this.chunkCount = chunkCount;
+      this.pool = pool;
+      this.keyLow = new long[this.length];
+      this.keyHigh = new long[this.length];
+      this.indices = new int[this.length];
+      this.counts = new int[chunkCount][DIGITS * RADIX];
+    }
+
+    void run() {
+      forEachChunk(this.pool, this.chunkCount, this::computeKeys);
+
+      // sum up the counts of all chunks to find the digits that need sorting
+      int[] totals = new int[DIGITS * RADIX];
+      for (int[] chunkCounts : this.counts) {
+        for (int i = 0; i < totals.length; i++) {
+          totals[i] += chunkCounts[i];
+        }
+      }
+      boolean[] needed = new boolean[DIGITS];
+      boolean highNeeded = false;
+      for (int digit = 0; digit < DIGITS; digit++) {
+        needed[digit] = !isSingleBucket(totals, digit);
+        if (needed[digit] && (digit >= LOW_DIGITS)) {
+          highNeeded = true;
+        }
+      }
+
+      boolean firstPass = true;
+      for (int digit = 0; digit < DIGITS; digit++) {
+        if (!needed[digit]) {
+          continue;
+        }
+        if (this.targetIndices == null) {
+          this.targetKeyLow = new long[this.length];
+          this.targetKeyHigh = highNeeded ? new long[this.length] : null;
+          this.targetIndices = new int[this.length];
+        }
+        int[][] offsets = this.offsets(digit, firstPass);
+        boolean moveHigh = highNeeded;
+        int pass = digit;
+        forEachChunk(this.pool, this.chunkCount, chunk -> this.scatter(chunk, pass, offsets[chunk], moveHigh));
+        this.swap();
+        firstPass = false;
+      }
+    }
+
+    private void computeKeys(int chunk) {
+      int[] chunkCounts = this.counts[chunk];
+      int to = chunkEnd(chunk, this.chunkCount, this.length);
+      for (int i = chunkStart(chunk, this.chunkCount, this.length); i < to; i++) {
+        int highBits = this.array.getHighBits(i);
+        long lowBits = this.array.getLowBits(i);
+        int exponent = BigDecimal96.MAX_SCALE - BigDecimal96.getScale(highBits);
+        // at most 107 bits, does not overflow
+        long hi = DecimalMath.multiplyPow10High(BigDecimal96.unscaledHigh(highBits, lowBits), lowBits, exponent) + HIGH_BIAS;
+        long lo = lowBits * DecimalMath.POWERS_OF_TEN[exponent];
+        this.keyLow[i] = lo;
+        this.keyHigh[i] = hi;
+        this.indices[i] = i;
+        for (int digit = 0; digit < LOW_DIGITS; digit++) {
+          chunkCounts[(digit * RADIX) + ((int) (lo >>> (digit * DIGIT_BITS)) & DIGIT_MASK)] += 1;
+        }
+        for (int digit = LOW_DIGITS; digit < DIGITS; digit++) {
+          chunkCounts[(digit * RADIX) + ((int) (hi >>> ((digit - LOW_DIGITS) * DIGIT_BITS)) & DIGIT_MASK)] += 1;
+        }
+      }
+    }
+
+    private boolean isSingleBucket(int[] totals, int digit) {
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        int count = totals[(digit * RADIX) + bucket];
+        if (count != 0) {
+          return count == this.length;
+        }
+      }
+      // empty array
+      return true;
+    }
+
+    /**
+     * Computes the index in the target of the first element of every
+     * bucket of every chunk.
+     */
+    private int[][] offsets(int digit, boolean firstPass) {
+      int[][] chunkCounts;
+      if (firstPass || (this.chunkCount == 1)) {
+        // the counts of the initial order are still valid, a single chunk
+        // does not change its counts
+        chunkCounts = new int[this.chunkCount][];
+        for (int chunk = 0; chunk < this.chunkCount; chunk++) {
+          chunkCounts[chunk] = new int[RADIX];
+          System.arraycopy(this.counts[chunk], digit * RADIX, chunkCounts[chunk], 0, RADIX);
+        }
+      } else {
+        // elements have moved between chunks, count again
+        int[][] recounted = new int[this.chunkCount][RADIX];
+        forEachChunk(this.pool, this.chunkCount, chunk -> {
+          int[] bucketCounts = recounted[chunk];
+          int to = chunkEnd(chunk, this.chunkCount, this.length);
+          for (int i = chunkStart(chunk, this.chunkCount, this.length); i < to; i++) {
+            bucketCounts[digit(this.keyLow, this.keyHigh, i, digit)] += 1;
+          }
+        });
+        chunkCounts = recounted;
+      }
+      // buckets in ascending order, within a bucket chunks in ascending
+      // order, this keeps the sort stable
+      int[][] offsets = new int[this.chunkCount][RADIX];
+      int offset = 0;
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        for (int chunk = 0; chunk < this.chunkCount; chunk++) {
+          offsets[chunk][bucket] = offset;
+          offset += chunkCounts[chunk][bucket];
+        }
+      }
+      return offsets;
+    }
+
+    private void scatter(int chunk, int digit, int[] offsets, boolean moveHigh) {
+      long[] sourceKeyLow = this.keyLow;
+      long[] sourceKeyHigh = this.keyHigh;
+      int[] sourceIndices = this.indices;
+      long[] destinationKeyLow = this.targetKeyLow;
+      long[] destinationKeyHigh = this.targetKeyHigh;
+      int[] destinationIndices = this.targetIndices;
+      int to = chunkEnd(chunk, this.chunkCount, this.length);
+      for (int i = chunkStart(chunk, this.chunkCount, this.length); i < to; i++) {
+        int position = offsets[digit(sourceKeyLow, sourceKeyHigh, i, digit)]++;
+        destinationKeyLow[position] = sourceKeyLow[i];
+        if (moveHigh) {
+          destinationKeyHigh[position] = sourceKeyHigh[i];
+        }
+        destinationIndices[position] = sourceIndices[i];
+      }
+    }
+
+    private void swap() {
+      long[] swapKeyLow = this.keyLow;
+      this.keyLow = this.targetKeyLow;
+      this.targetKeyLow = swapKeyLow;
+      long[] swapKeyHigh = this.keyHigh;
+      this.keyHigh = this.targetKeyHigh;
+      this.targetKeyHigh = swapKeyHigh;
+      int[] swapIndices = this.indices;
+      this.indices = this.targetIndices;
+      this.targetIndices = swapIndices;
+    }
+
+  }
+
+  static final class ChunkTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient IntConsumer action;
+    private final int from;
+    private final int to;
+
+    ChunkTask(IntConsumer action, int from, int to) {
+      this.action = action;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if ((this.to - this.from) == 1) {
+        this.action.accept(this.from);
+        return;
+      }
+      int middle = this.from + ((this.to - this.from) >>> 1);
+      invokeAll(new ChunkTask(this.action, this.from, middle), new ChunkTask(this.action, middle, this.to));
+    }
+
+  }
+
+}
@@ -0,0 +1,269 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Collects count, sum, minimum, maximum and average of
+ * {@link BigDecimal96} values, similar to
+ * {@link java.util.LongSummaryStatistics}.
+ *
+ * <p>The sum is kept exact as a 128 bit unscaled value at the largest
+ * scale seen so far. Values with a smaller scale are aligned when they
+ * are added, the sum is only rescaled when a larger scale is seen. Only
+ * if the 128 bit sum overflows it is moved into a {@link BigDecimal}.
+ * Adding values does therefore not allocate.</p>
+ *
+ * <p>Instances are not thread safe. For parallel use give every thread
+ * its own instance and {@link #combine(BigDecimal96SummaryStatistics)}
+ * them at the end.</p>
+ */
+public final class BigDecimal96SummaryStatistics {
+
+  private long count;
+
+  // the exact sum is overflow + (sumHigh, sumLow) / 10^scale
+  private int scale;
+  private long sumHigh;
+  private long sumLow;
+  private BigDecimal overflow;
+
+  // only valid if count > 0
+  private int minHighBits;
+  private long minLowBits;
+  private int maxHighBits;
+  private long maxLowBits;
+
+  /**
+   * Creates empty statistics.
+   */
+  public BigDecimal96SummaryStatistics() {
+    super();
+  }
+
+  /**
+   * Creates statistics of values that all have the same compact high
+   * bits from the 128 bit sum and the extremes of their low bits.
+   *
+   * @param count the number of values, at least 1
+   */
+  static BigDecimal96SummaryStatistics ofCompact(int highBits, long count, long sumHigh, long sumLow, long minLowBits, long maxLowBits) {
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+    statistics.count = count;
+    statistics.scale = BigDecimal96.getScale(highBits);
+    statistics.sumHigh = sumHigh;
+    statistics.sumLow = sumLow;
+    statistics.minHighBits = highBits;
+    statistics.minLowBits = minLowBits;
+    statistics.maxHighBits = highBits;
+    statistics.maxLowBits = maxLowBits;
+    return statistics;
+  }
+
+  /**
+   * Adds a value.
+   *
+   * @param value the value to add, not {@code null}
+   */
+  public void accept(BigDecimal96 value) {
+    this.accept(value.getHighBits(), value.getLowBits());
+  }
+
+  void accept(int highBits, long lowBits) {
+    if (this.count == 0L) {
+      this.minHighBits = highBits;
+      this.minLowBits = lowBits;
+      this.maxHighBits = highBits;
+      this.maxLowBits = lowBits;
+    } else {
+      if (BigDecimal96.compare(highBits, lowBits, this.minHighBits, this.minLowBits) < 0) {
+        this.minHighBits = highBits;
+        this.minLowBits = lowBits;
+      }
+      if (BigDecimal96.compare(highBits, lowBits, this.maxHighBits, this.maxLowBits) > 0) {
+        this.maxHighBits = highBits;
+        this.maxLowBits = lowBits;
+      }
+    }
+    this.count += 1L;
+
+    int valueScale = BigDecimal96.getScale(highBits);
+    if (valueScale > this.scale) {
+      this.rescale(valueScale);
+    }
+    long hi = BigDecimal96.unscaledHigh(highBits, lowBits);
+    long lo = lowBits;
+    if (valueScale < this.scale) {
+      // 88 bits times at most 10^6 always fits into 128 bits
+      int exponent = this.scale - valueScale;
+      hi = DecimalMath.multiplyPow10High(hi, lo, exponent);
+      lo *= DecimalMath.POWERS_OF_TEN[exponent];
+    }
+    this.addToSum(hi, lo);
+  }
+
+  /**
+   * Adds all values of other statistics to this one.
+   *
+   * @param other the other statistics, not {@code null}
+   */
+  public void combine(BigDecimal96SummaryStatistics other) {
+    if (other.count == 0L) {
+      return;
+    }
+    if (this.count == 0L) {
+      this.minHighBits = other.minHighBits;
+      this.minLowBits = other.minLowBits;
+      this.maxHighBits = other.maxHighBits;
+      this.maxLowBits = other.maxLowBits;
+    } else {
+      if (BigDecimal96.compare(other.minHighBits, other.minLowBits, this.minHighBits, this.minLowBits) < 0) {
+        this.minHighBits = other.minHighBits;
+        this.minLowBits = other.minLowBits;
+      }
+      if (BigDecimal96.compare(other.maxHighBits, other.maxLowBits, this.maxHighBits, this.maxLowBits) > 0) {
+        this.maxHighBits = other.maxHighBits;
+        this.maxLowBits = other.maxLowBits;
+      }
+    }
+    this.count += other.count;
+
+    if (other.scale > this.scale) {
+      this.rescale(other.scale);
+    }
+    long hi = other.sumHigh;
+    long lo = other.sumLow;
+    if (other.scale < this.scale) {
+      int exponent = this.scale - other.scale;
+      try {
+        hi = DecimalMath.multiplyPow10High(hi, lo, exponent);
+        lo *= DecimalMath.POWERS_OF_TEN[exponent];
+      } catch (ArithmeticException e) {
+        // we assume this happens only very rarely if at all
+        this.addToOverflow(DecimalMath.toBigDecimal(other.sumHigh, other.sumLow, other.scale));
+        hi = 0L;
+        lo = 0L;
+      }
+    }
+    this.addToSum(hi, lo);
+    if (other.overflow != null) {
+      this.addToOverflow(other.overflow);
+    }
+  }
+
+  private void rescale(int newScale) {
+    int exponent = newScale - this.scale;
+    try {
+      long newHigh = DecimalMath.multiplyPow10High(this.sumHigh, this.sumLow, exponent);
+      this.sumLow *= DecimalMath.POWERS_OF_TEN[exponent];
+      this.sumHigh = newHigh;
+    } catch (ArithmeticException e) {
+      // we assume this happens only very rarely if at all
+      this.spill();
+    }
+    this.scale = newScale;
+  }
+
+  private void addToSum(long hi, long lo) {
+    long newLow = this.sumLow + lo;
+    long newHigh = DecimalMath.addHigh(this.sumHigh, this.sumLow, hi, lo);
+    // signed overflow if both operands have the same sign and the result has a different one
+    if (((this.sumHigh ^ newHigh) & (hi ^ newHigh)) < 0L) {
+      // we assume this happens only very rarely if at all
+      this.spill();
+      this.sumHigh = hi;
+      this.sumLow = lo;
+    } else {
+      this.sumHigh = newHigh;
+      this.sumLow = newLow;
+    }
+  }
+
+  /**
+   * Moves the 128 bit sum into the {@link BigDecimal} overflow.
+   */
+  private void spill() {
+    this.addToOverflow(DecimalMath.toBigDecimal(this.sumHigh, this.sumLow, this.scale));
+    this.sumHigh = 0L;
+    this.sumLow = 0L;
+  }
+
+  private void addToOverflow(BigDecimal value) {
+    if (this.overflow == null) {
+      this.overflow = value;
+    } else {
+      this.overflow = this.overflow.add(value);
+    }
+  }
+
+  /**
+   * Returns the number of values added.
+   *
+   * @return the number of values added
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Returns the exact sum of all values added.
+   *
+   * @return the sum, zero if no values were added
+   */
+  public BigDecimal getSum() {
+    BigDecimal sum = DecimalMath.toBigDecimal(this.sumHigh, this.sumLow, this.scale);
+    if (this.overflow != null) {
+      return sum.add(this.overflow);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the smallest value added.
+   *
+   * @return the smallest value, {@code null} if no values were added
+   */
+  public BigDecimal96 getMin() {
+    if (this.count == 0L) {
+      return null;
+    }
+    return BigDecimal96.valueOf(this.minHighBits, this.minLowBits);
+  }
+
+  /**
+   * Returns the largest value added.
+   *
+   * @return the largest value, {@code null} if no values were added
+   */
+  public BigDecimal96 getMax() {
+    if (this.count == 0L) {
+      return null;
+    }
+    return BigDecimal96.valueOf(this.maxHighBits, this.maxLowBits);
+  }
+
+  /**
+   * Returns the arithmetic mean of all values added.
+   *
+   * @param scale the scale of the result
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return the average, {@code null} if no values were added
+   */
+  public BigDecimal getAverage(int scale, RoundingMode roundingMode) {
+    if (this.count == 0L) {
+      return null;
+    }
+    return this.getSum().divide(BigDecimal.valueOf(this.count), scale, roundingMode);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+            + "{count=" + this.count
+            + ", sum=" + this.getSum()
+            + ", min=" + this.getMin()
+            + ", max=" + this.getMax()
+            + '}';
+  }
+
+}
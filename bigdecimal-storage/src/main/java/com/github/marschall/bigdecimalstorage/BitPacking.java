@@ -0,0 +1,118 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.util.Arrays;
+
+/**
+ * Packs unsigned values of a fixed bit width without gaps into
+ * {@code long[]} words, least significant bit first. A value may span
+ * two words.
+ */
+final class BitPacking {
+
+  private BitPacking() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Returns the number of bits needed to represent an unsigned value.
+   *
+   * @param value the unsigned value
+   * @return the number of bits, from 0 to 64
+   */
+  static int bitWidth(long value) {
+    return 64 - Long.numberOfLeadingZeros(value);
+  }
+
+  /**
+   * Returns the number of words needed to pack values.
+   *
+   * @param count the number of values
+   * @param width the bit width of each value, from 0 to 64
+   * @return the number of words
+   */
+  static int wordCount(int count, int width) {
+    return (int) ((((long) count * width) + 63L) >>> 6);
+  }
+
+  /**
+   * Packs a value. The bits at the target position have to be zero.
+   *
+   * @param words the words to pack into
+   * @param wordOffset the index of the first word of the packed values
+   * @param width the bit width, from 1 to 64
+   * @param index the index of the value
+   * @param value the value, only the low {@code width} bits are used
+   */
+  static void pack(long[] words, int wordOffset, int width, int index, long value) {
+    long masked = value & mask(width);
+    long position = (long) index * width;
+    int word = wordOffset + (int) (position >>> 6);
+    int shift = (int) position & 63;
+    words[word] |= masked << shift;
+    if ((shift + width) > 64) {
+      words[word + 1] |= masked >>> (64 - shift);
+    }
+  }
+
+  /**
+   * Unpacks a value.
+   *
+   * @param words the words to unpack from
+   * @param wordOffset the index of the first word of the packed values
+   * @param width the bit width, from 0 to 64
+   * @param index the index of the value
+   * @return the unsigned value
+   */
+  static long unpack(long[] words, int wordOffset, int width, int index) {
+    if (width == 0) {
+      return 0L;
+    }
+    long position = (long) index * width;
+    int word = wordOffset + (int) (position >>> 6);
+    int shift = (int) position & 63;
+    long value = words[word] >>> shift;
+    if ((shift + width) > 64) {
+      value |= words[word + 1] << (64 - shift);
+    }
+    return value & mask(width);
+  }
+
+  /**
+   * Unpacks consecutive values starting with the first one.
+   *
+   * @param words the words to unpack from
+   * @param wordOffset the index of the first word of the packed values
+   * @param width the bit width, from 0 to 64
+   * @param count the number of values to unpack
+   * @param destination the array to unpack into
+   * @param offset the index in the array of the first value
+   */
+  static void unpack(long[] words, int wordOffset, int width, int count, long[] destination, int offset) {
+    if (width == 0) {
+      Arrays.fill(destination, offset, offset + count, 0L);
+      return;
+    }
+    long mask = mask(width);
+    int word = wordOffset;
+    int shift = 0;
+    for (int i = 0; i < count; i++) {
+      long value = words[word] >>> shift;
+      int end = shift + width;
+      if (end > 64) {
+        value |= words[word + 1] << (64 - shift);
+      }
+      destination[offset + i] = value & mask;
+      if (end >= 64) {
+        word += 1;
+        shift = end - 64;
+      } else {
+        shift = end;
+      }
+    }
+  }
+
+  private static long mask(int width) {
+    return width == 64 ? -1L : (1L << width) - 1L;
+  }
+
+}
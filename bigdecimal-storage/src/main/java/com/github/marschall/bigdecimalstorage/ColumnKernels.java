@@ -0,0 +1,74 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * Loops over ranges of primitive columns used by {@link DecimalColumns},
+ * for {@code long[]} columns and for the columns of a
+ * {@link BigDecimal96Array} in which all elements fit into a long and
+ * have the same scale.
+ *
+ * <p>The scalar implementation works on any Java version, the
+ * multi-release JAR contains an implementation for Java 17 that uses the
+ * Vector API if the {@code jdk.incubator.vector} module is present, see
+ * {@link ColumnKernelsLoader}. Both implementations have to return the
+ * same results for all inputs.</p>
+ *
+ * <p>All ranges are given as {@code from} inclusive and {@code to}
+ * exclusive and are already checked by the callers.</p>
+ */
+interface ColumnKernels {
+
+  /**
+   * Sums the upper and lower 32 bit halves of values separately so that
+   * the sums can not overflow for any values and any range, the exact
+   * 128 bit sum is {@code upper * 2^32 + lower}.
+   *
+   * @param result the array to store the sum of the signed upper halves
+   *               at index 0 and the sum of the unsigned lower halves at
+   *               index 1
+   */
+  void sumHalves(long[] values, int from, int to, long[] result);
+
+  /**
+   * Returns the smallest value of a range.
+   *
+   * @return the smallest value, {@link Long#MAX_VALUE} for an empty range
+   */
+  long min(long[] values, int from, int to);
+
+  /**
+   * Returns the largest value of a range.
+   *
+   * @return the largest value, {@link Long#MIN_VALUE} for an empty range
+   */
+  long max(long[] values, int from, int to);
+
+  /**
+   * Compares the values of a range of at most 64 values to a threshold.
+   *
+   * @return bit {@code i} is set if value {@code from + i} is greater
+   *         than the threshold
+   */
+  long greaterThan(long[] values, int from, int to, long threshold);
+
+  /**
+   * Compares the values of a range of at most 64 values to a threshold.
+   *
+   * @return bit {@code i} is set if value {@code from + i} is less than
+   *         the threshold
+   */
+  long lessThan(long[] values, int from, int to, long threshold);
+
+  /**
+   * Multiplies all values of a range in place, overflow has to be checked
+   * by the caller.
+   */
+  void multiply(long[] values, int from, int to, long factor);
+
+  /**
+   * Checks whether all values of a range are equal to a value.
+   *
+   * @return {@code true} if all values are equal, also for an empty range
+   */
+  boolean allEqual(int[] values, int from, int to, int value);
+
+}
@@ -0,0 +1,20 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * Chooses the implementation of {@link ColumnKernels}.
+ *
+ * <p>This version is used on Java 8 to 16 and always chooses the scalar
+ * implementation. The multi-release JAR contains a different version of
+ * this class for Java 17 and later.</p>
+ */
+final class ColumnKernelsLoader {
+
+  private ColumnKernelsLoader() {
+    throw new AssertionError("not instantiable");
+  }
+
+  static ColumnKernels load() {
+    return ScalarColumnKernels.INSTANCE;
+  }
+
+}
@@ -0,0 +1,326 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * An immutable, compressed series of values in the long representation
+ * of {@link BigDecimal64}, for example a price series.
+ *
+ * <p>The values are split into blocks of {@value #BLOCK_SIZE}. Each
+ * block is compressed with the smaller of two encodings:</p>
+ * <dl>
+ *   <dt>frame of reference</dt>
+ *   <dd>the minimum of the block followed by the offset of each value
+ *   from the minimum, suited for values in a narrow range</dd>
+ *   <dt>delta</dt>
+ *   <dd>the first value of the block followed by the zigzag encoded
+ *   difference of each value to its predecessor, suited for series
+ *   that change by only a few units between values</dd>
+ * </dl>
+ * <p>In both cases the offsets or differences are divided by the largest
+ * power of ten that divides all of them and then bit packed with the
+ * smallest width that fits all of them. Dividing removes the trailing
+ * zeros of values with fewer than six decimal places, for example a
+ * price with two decimal places only moves in steps of 10^4 in the long
+ * representation. A block of constant values needs no bits at all. A
+ * price series that moves by a few ticks typically needs less than one
+ * byte per value instead of eight.</p>
+ *
+ * <p>Blocks can be decoded independently, which gives random access to
+ * blocks and values. Any {@code long} values are supported, not only
+ * values between {@link BigDecimal64#MIN_VALUE} and
+ * {@link BigDecimal64#MAX_VALUE}.</p>
+ *
+ * <p>Instances are thread safe.</p>
+ */
+public final class CompressedDecimal64Series {
+
+  /**
+   * The number of values per block, all blocks but the last are full.
+   */
+  public static final int BLOCK_SIZE = 128;
+
+  private static final int DELTA = 0b1000_0000;
+
+  private static final int WIDTH_MASK = 0b0111_1111;
+
+  private static final int MAX_EXPONENT = DecimalMath.POWERS_OF_TEN.length - 1;
+
+  private final int length;
+
+  // the minimum for frame of reference, the first value for delta
+  private final long[] bases;
+
+  // encoding flag and bit width per block
+  private final byte[] headers;
+
+  // the power of ten all packed values are multiplied with per block
+  private final byte[] exponents;
+
+  // index of the first word per block, one more entry for the end
+  private final int[] wordOffsets;
+
+  private final long[] words;
+
+  private CompressedDecimal64Series(int length, long[] bases, byte[] headers, byte[] exponents, int[] wordOffsets, long[] words) {
+    this.length = length;
+    this.bases = bases;
+    this.headers = headers;
+    this.exponents = exponents;
+    this.wordOffsets = wordOffsets;
+    this.words = words;
+  }
+
+  /**
+   * Compresses all values of an array.
+   *
+   * @param values the values to compress, not {@code null}
+   * @return the compressed series, never {@code null}
+   */
+  public static CompressedDecimal64Series compress(long[] values) {
+    return compress(values, 0, values.length);
+  }
+
+  /**
+   * Compresses a range of values of an array.
+   *
+   * @param values the values to compress, not {@code null}
+   * @param offset the index of the first value to compress
+   * @param length the number of values to compress
+   * @return the compressed series, never {@code null}
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static CompressedDecimal64Series compress(long[] values, int offset, int length) {
+    if ((offset < 0) || (length < 0) || (offset > (values.length - length))) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + values.length);
+    }
+    int blockCount = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    long[] bases = new long[blockCount];
+    byte[] headers = new byte[blockCount];
+    byte[] exponents = new byte[blockCount];
+    int[] wordOffsets = new int[blockCount + 1];
+
+    // first pass chooses the encodings so that the words can be allocated exactly
+    int wordCount = 0;
+    for (int block = 0; block < blockCount; block++) {
+      int start = offset + (block * BLOCK_SIZE);
+      int count = Math.min(BLOCK_SIZE, (offset + length) - start);
+      int encoding = chooseEncoding(values, start, count);
+      int header = encoding & 0xFF;
+      headers[block] = (byte) header;
+      exponents[block] = (byte) (encoding >>> 8);
+      bases[block] = (header & DELTA) != 0 ? values[start] : min(values, start, count);
+      wordOffsets[block] = wordCount;
+      wordCount += BitPacking.wordCount(packedCount(header, count), header & WIDTH_MASK);
+    }
+    wordOffsets[blockCount] = wordCount;
+
+    long[] words = new long[wordCount];
+    for (int block = 0; block < blockCount; block++) {
+      int start = offset + (block * BLOCK_SIZE);
+      int count = Math.min(BLOCK_SIZE, (offset + length) - start);
+      int header = headers[block] & 0xFF;
+      int width = header & WIDTH_MASK;
+      if (width == 0) {
+        continue;
+      }
+      long factor = DecimalMath.POWERS_OF_TEN[exponents[block]];
+      if ((header & DELTA) != 0) {
+        for (int i = 1; i < count; i++) {
+          BitPacking.pack(words, wordOffsets[block], width, i - 1, zigzag((values[start + i] - values[(start + i) - 1]) / factor));
+        }
+      } else {
+        long base = bases[block];
+        for (int i = 0; i < count; i++) {
+          BitPacking.pack(words, wordOffsets[block], width, i, (values[start + i] - base) / factor);
+        }
+      }
+    }
+    return new CompressedDecimal64Series(length, bases, headers, exponents, wordOffsets, words);
+  }
+
+  /**
+   * Chooses the encoding of a block.
+   *
+   * @return the header in the low 8 bits and the exponent above
+   */
+  private static int chooseEncoding(long[] values, int start, int count) {
+    long min = min(values, start, count);
+    long max = values[start];
+    int frameExponent = MAX_EXPONENT;
+    int deltaExponent = MAX_EXPONENT;
+    for (int i = start; i < (start + count); i++) {
+      max = Math.max(max, values[i]);
+      frameExponent = commonExponent(frameExponent, values[i] - min);
+      if (i > start) {
+        // may overflow, the packed value then overflows the same way when decoding
+        deltaExponent = commonExponent(deltaExponent, values[i] - values[i - 1]);
+      }
+    }
+    long range = max - min;
+    if (range < 0L) {
+      // overflow, the offsets are only correct when treated as unsigned
+      frameExponent = 0;
+    }
+    long deltaFactor = DecimalMath.POWERS_OF_TEN[deltaExponent];
+    long deltaBits = 0L;
+    for (int i = start + 1; i < (start + count); i++) {
+      deltaBits |= zigzag((values[i] - values[i - 1]) / deltaFactor);
+    }
+    int frameWidth = BitPacking.bitWidth(Long.divideUnsigned(range, DecimalMath.POWERS_OF_TEN[frameExponent]));
+    int deltaWidth = BitPacking.bitWidth(deltaBits);
+    if (((long) deltaWidth * (count - 1)) < ((long) frameWidth * count)) {
+      return (deltaExponent << 8) | DELTA | deltaWidth;
+    }
+    return (frameExponent << 8) | frameWidth;
+  }
+
+  private static int commonExponent(int exponent, long value) {
+    int common = exponent;
+    while ((common > 0) && ((value % DecimalMath.POWERS_OF_TEN[common]) != 0L)) {
+      common -= 1;
+    }
+    return common;
+  }
+
+  private static int packedCount(int header, int count) {
+    // the first value of a delta block is the base
+    return (header & DELTA) != 0 ? count - 1 : count;
+  }
+
+  private static long min(long[] values, int start, int count) {
+    long min = values[start];
+    for (int i = start + 1; i < (start + count); i++) {
+      min = Math.min(min, values[i]);
+    }
+    return min;
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1L);
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return the number of values
+   */
+  public int length() {
+    return this.length;
+  }
+
+  /**
+   * Returns the number of blocks.
+   *
+   * @return the number of blocks
+   */
+  public int blockCount() {
+    return this.bases.length;
+  }
+
+  /**
+   * Returns the number of bytes used by the compressed values, excluding
+   * object headers.
+   *
+   * @return the number of bytes used
+   */
+  public long compressedSize() {
+    return (this.words.length * 8L) + (this.bases.length * (8L + 1L + 1L + 4L)) + 4L;
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * <p>Frame of reference blocks are accessed in constant time, delta
+   * blocks have to be decoded up to the index.</p>
+   *
+   * @param index the index of the value
+   * @return the value at the index
+   * @throws IndexOutOfBoundsException if the index is outside of the series
+   */
+  public long get(int index) {
+    if ((index < 0) || (index >= this.length)) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + this.length);
+    }
+    int block = index / BLOCK_SIZE;
+    int indexInBlock = index % BLOCK_SIZE;
+    int header = this.headers[block] & 0xFF;
+    int width = header & WIDTH_MASK;
+    int wordOffset = this.wordOffsets[block];
+    long factor = DecimalMath.POWERS_OF_TEN[this.exponents[block]];
+    long value = this.bases[block];
+    if ((header & DELTA) != 0) {
+      for (int i = 0; i < indexInBlock; i++) {
+        value += unzigzag(BitPacking.unpack(this.words, wordOffset, width, i)) * factor;
+      }
+      return value;
+    }
+    return value + (BitPacking.unpack(this.words, wordOffset, width, indexInBlock) * factor);
+  }
+
+  /**
+   * Decodes a block into an array.
+   *
+   * @param block the index of the block
+   * @param destination the array to decode into, not {@code null}
+   * @param offset the index in the array of the first value to decode
+   * @return the number of values decoded, {@value #BLOCK_SIZE} except
+   *         for the last block
+   * @throws IndexOutOfBoundsException if the block does not exist or the
+   *                                   values do not fit into the array
+   */
+  public int decodeBlock(int block, long[] destination, int offset) {
+    if ((block < 0) || (block >= this.blockCount())) {
+      throw new IndexOutOfBoundsException("block: " + block + ", block count: " + this.blockCount());
+    }
+    int count = this.blockLength(block);
+    if ((offset < 0) || (offset > (destination.length - count))) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", block length: " + count + ", array length: " + destination.length);
+    }
+    int header = this.headers[block] & 0xFF;
+    int width = header & WIDTH_MASK;
+    int wordOffset = this.wordOffsets[block];
+    long factor = DecimalMath.POWERS_OF_TEN[this.exponents[block]];
+    long base = this.bases[block];
+    // unpack first and then transform in place, both loops are simpler than a combined one
+    if ((header & DELTA) != 0) {
+      BitPacking.unpack(this.words, wordOffset, width, count - 1, destination, offset + 1);
+      long value = base;
+      destination[offset] = value;
+      for (int i = 1; i < count; i++) {
+        value += unzigzag(destination[offset + i]) * factor;
+        destination[offset + i] = value;
+      }
+    } else {
+      BitPacking.unpack(this.words, wordOffset, width, count, destination, offset);
+      for (int i = 0; i < count; i++) {
+        destination[offset + i] = base + (destination[offset + i] * factor);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Decodes all values into an array.
+   *
+   * @param destination the array to decode into, not {@code null}
+   * @param offset the index in the array of the first value to decode
+   * @throws IndexOutOfBoundsException if the values do not fit into the
+   *                                   array
+   */
+  public void decode(long[] destination, int offset) {
+    if ((offset < 0) || (offset > (destination.length - this.length))) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + this.length + ", array length: " + destination.length);
+    }
+    for (int block = 0; block < this.blockCount(); block++) {
+      this.decodeBlock(block, destination, offset + (block * BLOCK_SIZE));
+    }
+  }
+
+  private int blockLength(int block) {
+    return Math.min(BLOCK_SIZE, this.length - (block * BLOCK_SIZE));
+  }
+
+}
@@ -0,0 +1,222 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * An immutable, compressed series of {@link BigDecimal96} values.
+ *
+ * <p>The values are split into blocks of
+ * {@value CompressedDecimal64Series#BLOCK_SIZE}. When all values of a
+ * block fit into a long and have the same scale, which is the common
+ * case for prices and amounts, the scale is stored once in the block
+ * header and only the unscaled longs are kept, compressed like a
+ * {@link CompressedDecimal64Series}. Other blocks additionally keep the
+ * high 32 bits of each value uncompressed.</p>
+ *
+ * <p>Instances are thread safe.</p>
+ */
+public final class CompressedDecimal96Series {
+
+  private static final int BLOCK_SIZE = CompressedDecimal64Series.BLOCK_SIZE;
+
+  private static final byte MIXED_SCALES = -1;
+
+  // the low 64 bits of all values
+  private final CompressedDecimal64Series lowBits;
+
+  // the constant scale per block or MIXED_SCALES
+  private final byte[] scales;
+
+  // high bits of the blocks with mixed scales, BLOCK_SIZE entries per block
+  private final int[] highBits;
+
+  // index of the block in highBits per block, -1 for constant scales
+  private final int[] highBitsBlocks;
+
+  private CompressedDecimal96Series(CompressedDecimal64Series lowBits, byte[] scales, int[] highBits, int[] highBitsBlocks) {
+    this.lowBits = lowBits;
+    this.scales = scales;
+    this.highBits = highBits;
+    this.highBitsBlocks = highBitsBlocks;
+  }
+
+  /**
+   * Compresses a range of elements of an array.
+   *
+   * @param array the values to compress, not {@code null}
+   * @param index the index of the first element to compress
+   * @param length the number of elements to compress
+   * @return the compressed series, never {@code null}
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static CompressedDecimal96Series compress(BigDecimal96Array array, int index, int length) {
+    if ((index < 0) || (length < 0) || (index > (array.length() - length))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", array length: " + array.length());
+    }
+    long[] lows = new long[length];
+    for (int i = 0; i < length; i++) {
+      lows[i] = array.getLowBits(index + i);
+    }
+
+    int blockCount = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    byte[] scales = new byte[blockCount];
+    int[] highBitsBlocks = new int[blockCount];
+    int mixedBlocks = 0;
+    for (int block = 0; block < blockCount; block++) {
+      int start = index + (block * BLOCK_SIZE);
+      int count = Math.min(BLOCK_SIZE, (index + length) - start);
+      scales[block] = constantScale(array, start, count);
+      highBitsBlocks[block] = scales[block] == MIXED_SCALES ? mixedBlocks++ : -1;
+    }
+
+    int[] highBits = new int[mixedBlocks * BLOCK_SIZE];
+    for (int block = 0; block < blockCount; block++) {
+      if (highBitsBlocks[block] != -1) {
+        int start = index + (block * BLOCK_SIZE);
+        int count = Math.min(BLOCK_SIZE, (index + length) - start);
+        for (int i = 0; i < count; i++) {
+          highBits[(highBitsBlocks[block] * BLOCK_SIZE) + i] = array.getHighBits(start + i);
+        }
+      }
+    }
+    return new CompressedDecimal96Series(CompressedDecimal64Series.compress(lows), scales, highBits, highBitsBlocks);
+  }
+
+  private static byte constantScale(BigDecimal96Array array, int start, int count) {
+    int first = array.getHighBits(start);
+    if (!BigDecimal96.isCompact(first)) {
+      return MIXED_SCALES;
+    }
+    for (int i = start + 1; i < (start + count); i++) {
+      // compact values with the same scale have identical high bits
+      if (array.getHighBits(i) != first) {
+        return MIXED_SCALES;
+      }
+    }
+    return (byte) BigDecimal96.getScale(first);
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return the number of values
+   */
+  public int length() {
+    return this.lowBits.length();
+  }
+
+  /**
+   * Returns the number of blocks.
+   *
+   * @return the number of blocks
+   */
+  public int blockCount() {
+    return this.scales.length;
+  }
+
+  /**
+   * Returns the number of bytes used by the compressed values, excluding
+   * object headers.
+   *
+   * @return the number of bytes used
+   */
+  public long compressedSize() {
+    return this.lowBits.compressedSize() + (this.scales.length * (1L + 4L)) + (this.highBits.length * 4L);
+  }
+
+  /**
+   * Returns the scale shared by all values of a block.
+   *
+   * @param block the index of the block
+   * @return the scale of all values of the block or {@code -1} if the
+   *         values have different scales or do not fit into a long
+   * @throws IndexOutOfBoundsException if the block does not exist
+   */
+  public int blockScale(int block) {
+    return this.scales[block];
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value at the index, never {@code null}
+   * @throws IndexOutOfBoundsException if the index is outside of the series
+   */
+  public BigDecimal96 get(int index) {
+    long low = this.lowBits.get(index);
+    int block = index / BLOCK_SIZE;
+    return BigDecimal96.valueOf(this.highBits(block, index % BLOCK_SIZE), low);
+  }
+
+  private int highBits(int block, int indexInBlock) {
+    int scale = this.scales[block];
+    if (scale != MIXED_SCALES) {
+      return BigDecimal96.getHighByte(scale, BigDecimal96.COMPACT_ARRAY_LENGTH);
+    }
+    return this.highBits[(this.highBitsBlocks[block] * BLOCK_SIZE) + indexInBlock];
+  }
+
+  /**
+   * Decodes the unscaled values of a block with a constant scale into an
+   * array.
+   *
+   * @param block the index of the block
+   * @param destination the array to decode into, not {@code null}
+   * @param offset the index in the array of the first value to decode
+   * @return the number of values decoded
+   * @throws IllegalArgumentException if the block does not have a
+   *                                  constant scale
+   * @throws IndexOutOfBoundsException if the block does not exist or the
+   *                                   values do not fit into the array
+   * @see #blockScale(int)
+   */
+  public int decodeUnscaledBlock(int block, long[] destination, int offset) {
+    if (this.scales[block] == MIXED_SCALES) {
+      throw new IllegalArgumentException("block does not have a constant scale");
+    }
+    return this.lowBits.decodeBlock(block, destination, offset);
+  }
+
+  /**
+   * Decodes a block into an array.
+   *
+   * @param block the index of the block
+   * @param destination the array to decode into, not {@code null}
+   * @param index the index in the array of the first value to decode
+   * @return the number of values decoded
+   * @throws IndexOutOfBoundsException if the block does not exist or the
+   *                                   values do not fit into the array
+   */
+  public int decodeBlock(int block, BigDecimal96Array destination, int index) {
+    return this.decodeBlock(block, destination, index, new long[BLOCK_SIZE]);
+  }
+
+  private int decodeBlock(int block, BigDecimal96Array destination, int index, long[] buffer) {
+    int count = this.lowBits.decodeBlock(block, buffer, 0);
+    if ((index < 0) || (index > (destination.length() - count))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", block length: " + count + ", array length: " + destination.length());
+    }
+    for (int i = 0; i < count; i++) {
+      destination.setBits(index + i, this.highBits(block, i), buffer[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Decodes all values into an array.
+   *
+   * @param destination the array to decode into, not {@code null}
+   * @param index the index in the array of the first value to decode
+   * @throws IndexOutOfBoundsException if the values do not fit into the
+   *                                   array
+   */
+  public void decode(BigDecimal96Array destination, int index) {
+    if ((index < 0) || (index > (destination.length() - this.length()))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + this.length() + ", array length: " + destination.length());
+    }
+    long[] buffer = new long[BLOCK_SIZE];
+    for (int block = 0; block < this.blockCount(); block++) {
+      this.decodeBlock(block, destination, index + (block * BLOCK_SIZE), buffer);
+    }
+  }
+
+}
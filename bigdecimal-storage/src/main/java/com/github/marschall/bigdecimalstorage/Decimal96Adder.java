@@ -0,0 +1,410 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A sum of {@link BigDecimal96} values that is updated concurrently by
+ * many threads, similar to {@link java.util.concurrent.atomic.LongAdder}.
+ *
+ * <p>All values are aligned to a fixed scale of
+ * {@value BigDecimal96#MAX_SCALE} and kept as unscaled long partials.
+ * Updates first try a single base partial, only under contention
+ * additional cells are created, up to the number of processors, and
+ * each thread then updates a different cell. Once the cells are created
+ * updates do not allocate.</p>
+ *
+ * <p>When a value does not fit into a long at the fixed scale or adding
+ * it to a partial would overflow, the value is added to a wide 128 bit
+ * partial under a lock instead. This is assumed to happen rarely.</p>
+ *
+ * <p>Like for {@link java.util.concurrent.atomic.LongAdder}
+ * {@link #sum()} is not an atomic snapshot, concurrent updates may or
+ * may not be included.</p>
+ */
+public final class Decimal96Adder {
+
+  private static final int SCALE = BigDecimal96.MAX_SCALE;
+
+  private static final int MAX_CELLS = maxCells(Runtime.getRuntime().availableProcessors());
+
+  private static final AtomicLongFieldUpdater<Decimal96Adder> BASE = AtomicLongFieldUpdater.newUpdater(Decimal96Adder.class, "base");
+
+  private static final AtomicIntegerFieldUpdater<Decimal96Adder> CELLS_BUSY = AtomicIntegerFieldUpdater.newUpdater(Decimal96Adder.class, "cellsBusy");
+
+  /**
+   * Per thread index into the cells, changed on contention. Shared by
+   * all instances like the thread probe of
+   * {@link java.util.concurrent.atomic.LongAdder}.
+   */
+  private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[] {initialProbe()});
+
+  private volatile long base;
+
+  // power of two length, null until the first contention
+  private volatile Cell[] cells;
+
+  // spin lock for creating and resizing cells
+  private volatile int cellsBusy;
+
+  private final Object wideLock;
+
+  // guarded by wideLock, the exact sum is overflow + (wideHigh, wideLow)
+  private long wideHigh;
+  private long wideLow;
+  private BigDecimal overflow;
+
+  /**
+   * Creates a new adder with a sum of zero.
+   */
+  public Decimal96Adder() {
+    this.wideLock = new Object();
+  }
+
+  private static int maxCells(int processors) {
+    return Integer.highestOneBit(Math.max(processors, 2) - 1) << 1;
+  }
+
+  private static int initialProbe() {
+    int probe = DecimalMath.mix(Thread.currentThread().getId(), 0L);
+    // 0 is a fixed point of the xorshift in #advanceProbe
+    return probe == 0 ? 1 : probe;
+  }
+
+  /**
+   * Adds a value.
+   *
+   * @param value the value to add, not {@code null}
+   */
+  public void add(BigDecimal96 value) {
+    int highBits = value.getHighBits();
+    long lowBits = value.getLowBits();
+    int scale = BigDecimal96.getScale(highBits);
+    if (BigDecimal96.isCompact(highBits)) {
+      this.add(lowBits, scale);
+    } else {
+      // 88 bits times at most 10^6 always fits into 128 bits
+      int exponent = SCALE - scale;
+      long hi = DecimalMath.multiplyPow10High(BigDecimal96.unscaledHigh(highBits, lowBits), lowBits, exponent);
+      this.addWide(hi, lowBits * DecimalMath.POWERS_OF_TEN[exponent]);
+    }
+  }
+
+  /**
+   * Adds a value given as unscaled long and scale, like
+   * {@link BigDecimal#valueOf(long, int)}, without creating an object.
+   *
+   * @param unscaledValue the unscaled value
+   * @param scale the scale, from 0 to {@value BigDecimal96#MAX_SCALE}
+   * @throws IllegalArgumentException if the scale is not supported
+   */
+  public void add(long unscaledValue, int scale) {
+    if ((scale < 0) || (scale > SCALE)) {
+      throw new IllegalArgumentException("invalid scale");
+    }
+    int exponent = SCALE - scale;
+    long lo = unscaledValue * DecimalMath.POWERS_OF_TEN[exponent];
+    long hi = DecimalMath.multiplyPow10High(unscaledValue >> 63, unscaledValue, exponent);
+    if (hi != (lo >> 63)) {
+      this.addWide(hi, lo);
+    } else {
+      this.addCompact(lo);
+    }
+  }
+
+  private void addCompact(long x) {
+    Cell[] cs = this.cells;
+    if (cs == null) {
+      long b = this.base;
+      long r = b + x;
+      if (overflows(b, x, r)) {
+        this.addWide(x >> 63, x);
+        return;
+      }
+      if (BASE.compareAndSet(this, b, r)) {
+        return;
+      }
+    } else {
+      Cell c = cs[PROBE.get()[0] & (cs.length - 1)];
+      if (c != null) {
+        long v = c.value;
+        long r = v + x;
+        if (overflows(v, x, r)) {
+          this.addWide(x >> 63, x);
+          return;
+        }
+        if (Cell.VALUE.compareAndSet(c, v, r)) {
+          return;
+        }
+      }
+    }
+    this.addContended(x);
+  }
+
+  /**
+   * Slow path of {@link #addCompact(long)} that creates and grows the
+   * cells, modelled after {@code Striped64.longAccumulate}.
+   */
+  private void addContended(long x) {
+    int[] probe = PROBE.get();
+    int h = probe[0];
+    boolean collided = false;
+    while (true) {
+      Cell[] cs = this.cells;
+      if (cs != null) {
+        int index = h & (cs.length - 1);
+        Cell c = cs[index];
+        if (c == null) {
+          if ((this.cellsBusy == 0) && this.casCellsBusy()) {
+            boolean created = false;
+            try {
+              Cell[] rs = this.cells;
+              if ((rs != null) && (rs[h & (rs.length - 1)] == null)) {
+                rs[h & (rs.length - 1)] = new Cell(x);
+                created = true;
+              }
+            } finally {
+              this.cellsBusy = 0;
+            }
+            if (created) {
+              return;
+            }
+            // the slot was filled concurrently, retry
+            continue;
+          }
+          collided = false;
+        } else {
+          long v = c.value;
+          long r = v + x;
+          if (overflows(v, x, r)) {
+            this.addWide(x >> 63, x);
+            return;
+          }
+          if (Cell.VALUE.compareAndSet(c, v, r)) {
+            return;
+          }
+          if ((cs.length >= MAX_CELLS) || (this.cells != cs)) {
+            collided = false;
+          } else if (!collided) {
+            collided = true;
+          } else if ((this.cellsBusy == 0) && this.casCellsBusy()) {
+            try {
+              if (this.cells == cs) {
+                this.cells = Arrays.copyOf(cs, cs.length << 1);
+              }
+            } finally {
+              this.cellsBusy = 0;
+            }
+            collided = false;
+            // retry with the expanded cells
+            continue;
+          }
+        }
+        h = advanceProbe(h);
+        probe[0] = h;
+      } else if ((this.cellsBusy == 0) && (this.cells == null) && this.casCellsBusy()) {
+        boolean created = false;
+        try {
+          if (this.cells == null) {
+            Cell[] rs = new Cell[2];
+            rs[h & 1] = new Cell(x);
+            this.cells = rs;
+            created = true;
+          }
+        } finally {
+          this.cellsBusy = 0;
+        }
+        if (created) {
+          return;
+        }
+      } else {
+        // somebody else is creating the cells, fall back to the base
+        long b = this.base;
+        long r = b + x;
+        if (overflows(b, x, r)) {
+          this.addWide(x >> 63, x);
+          return;
+        }
+        if (BASE.compareAndSet(this, b, r)) {
+          return;
+        }
+      }
+    }
+  }
+
+  private boolean casCellsBusy() {
+    return CELLS_BUSY.compareAndSet(this, 0, 1);
+  }
+
+  private static int advanceProbe(int probe) {
+    // xorshift
+    int h = probe;
+    h ^= h << 13;
+    h ^= h >>> 17;
+    h ^= h << 5;
+    return h;
+  }
+
+  private static boolean overflows(long x, long y, long sum) {
+    // signed overflow if both operands have the same sign and the result has a different one
+    return ((x ^ sum) & (y ^ sum)) < 0L;
+  }
+
+  private void addWide(long hi, long lo) {
+    synchronized (this.wideLock) {
+      long newLow = this.wideLow + lo;
+      long newHigh = DecimalMath.addHigh(this.wideHigh, this.wideLow, hi, lo);
+      if (overflows(this.wideHigh, hi, newHigh)) {
+        // we assume this happens only very rarely if at all
+        this.spill();
+        this.wideHigh = hi;
+        this.wideLow = lo;
+      } else {
+        this.wideHigh = newHigh;
+        this.wideLow = newLow;
+      }
+    }
+  }
+
+  // guarded by wideLock
+  private void spill() {
+    BigDecimal wide = DecimalMath.toBigDecimal(this.wideHigh, this.wideLow, SCALE);
+    this.overflow = this.overflow == null ? wide : this.overflow.add(wide);
+    this.wideHigh = 0L;
+    this.wideLow = 0L;
+  }
+
+  /**
+   * Returns the current sum.
+   *
+   * @return the sum with a scale of {@value BigDecimal96#MAX_SCALE},
+   *         never {@code null}, use {@link BigDecimal96#canonical()} to
+   *         remove trailing zeros
+   * @throws ArithmeticException if the sum does not fit into a
+   *                             {@link BigDecimal96}
+   */
+  public BigDecimal96 sum() {
+    return this.sum(false);
+  }
+
+  /**
+   * Returns the current sum and resets the sum to zero. Only equivalent
+   * to {@link #sum()} followed by {@link #reset()} if there are no
+   * concurrent updates.
+   *
+   * @return the sum with a scale of {@value BigDecimal96#MAX_SCALE},
+   *         never {@code null}
+   * @throws ArithmeticException if the sum does not fit into a
+   *                             {@link BigDecimal96}, in this case the
+   *                             sum is still reset
+   */
+  public BigDecimal96 sumThenReset() {
+    return this.sum(true);
+  }
+
+  /**
+   * Resets the sum to zero. Only effective if there are no concurrent
+   * updates.
+   */
+  public void reset() {
+    this.sum(true);
+  }
+
+  private BigDecimal96 sum(boolean reset) {
+    long b = reset ? BASE.getAndSet(this, 0L) : this.base;
+    long hi = b >> 63;
+    long lo = b;
+    Cell[] cs = this.cells;
+    if (cs != null) {
+      for (Cell c : cs) {
+        if (c != null) {
+          long v = reset ? Cell.VALUE.getAndSet(c, 0L) : c.value;
+          // at most MAX_CELLS + 1 longs, can not overflow 128 bits
+          hi = DecimalMath.addHigh(hi, lo, v >> 63, v);
+          lo += v;
+        }
+      }
+    }
+    BigDecimal wideOverflow;
+    synchronized (this.wideLock) {
+      long newHigh = DecimalMath.addHigh(hi, lo, this.wideHigh, this.wideLow);
+      long newLow = lo + this.wideLow;
+      wideOverflow = this.overflow;
+      if (overflows(hi, this.wideHigh, newHigh)) {
+        BigDecimal wide = DecimalMath.toBigDecimal(this.wideHigh, this.wideLow, SCALE);
+        wideOverflow = wideOverflow == null ? wide : wideOverflow.add(wide);
+      } else {
+        hi = newHigh;
+        lo = newLow;
+      }
+      if (reset) {
+        this.wideHigh = 0L;
+        this.wideLow = 0L;
+        this.overflow = null;
+      }
+    }
+    if (wideOverflow != null) {
+      BigDecimal total = DecimalMath.toBigDecimal(hi, lo, SCALE).add(wideOverflow);
+      if (total.unscaledValue().bitLength() > 127) {
+        throw new ArithmeticException("overflow");
+      }
+      hi = total.unscaledValue().shiftRight(64).longValue();
+      lo = total.unscaledValue().longValue();
+    }
+    return BigDecimal96.fromUnscaled(hi, lo, SCALE);
+  }
+
+  /**
+   * Returns the current sum, unlike {@link #sum()} does not fail if the
+   * sum does not fit into a {@link BigDecimal96}.
+   */
+  private BigDecimal exactSum() {
+    long b = this.base;
+    long hi = b >> 63;
+    long lo = b;
+    Cell[] cs = this.cells;
+    if (cs != null) {
+      for (Cell c : cs) {
+        if (c != null) {
+          long v = c.value;
+          hi = DecimalMath.addHigh(hi, lo, v >> 63, v);
+          lo += v;
+        }
+      }
+    }
+    BigDecimal sum = DecimalMath.toBigDecimal(hi, lo, SCALE);
+    synchronized (this.wideLock) {
+      sum = sum.add(DecimalMath.toBigDecimal(this.wideHigh, this.wideLow, SCALE));
+      if (this.overflow != null) {
+        sum = sum.add(this.overflow);
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  public String toString() {
+    return this.exactSum().toString();
+  }
+
+  /**
+   * A partial sum, padded to avoid false sharing with other cells.
+   */
+  static final class Cell {
+
+    static final AtomicLongFieldUpdater<Cell> VALUE = AtomicLongFieldUpdater.newUpdater(Cell.class, "value");
+
+    // padding so that the values of different cells are not on the same cache line
+    long p0, p1, p2, p3, p4, p5, p6;
+    volatile long value;
+    long q0, q1, q2, q3, q4, q5, q6;
+
+    Cell(long value) {
+      this.value = value;
+    }
+
+  }
+
+}
@@ -0,0 +1,329 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from {@link BigDecimal96} keys to primitive long values.
+ *
+ * <p>Unlike a {@code HashMap<BigDecimal96, Long>} there is no object per
+ * entry. Keys are stored inline as their packed bits and values as
+ * primitives in parallel arrays, collisions are resolved with linear
+ * probing. The hash is a strong mix of all key bits.</p>
+ *
+ * <p>Keys are compared like {@link BigDecimal96#equals(Object)}, so
+ * {@code 1.0} and {@code 1.00} are different keys. To group by numeric
+ * value use {@link BigDecimal96#canonical()} keys.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public final class Decimal96ToLongMap {
+
+  // no valid value has high bits of 0 because the array length is at least 8
+  private static final int EMPTY = 0;
+
+  private static final int MIN_CAPACITY = 16;
+
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private int[] highBits;
+  private long[] lowBits;
+  private long[] values;
+  private int size;
+
+  /**
+   * Creates an empty map.
+   */
+  public Decimal96ToLongMap() {
+    this(0);
+  }
+
+  /**
+   * Creates an empty map that can hold the given number of entries
+   * without resizing.
+   *
+   * @param expectedSize the number of entries expected
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   *                                  or too large
+   */
+  public Decimal96ToLongMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("negative expected size");
+    }
+    this.allocate(capacityFor(expectedSize));
+  }
+
+  private static int capacityFor(int size) {
+    // load factor of 0.5
+    long needed = Math.max(MIN_CAPACITY, (long) size * 2L);
+    if (needed > MAX_CAPACITY) {
+      throw new IllegalArgumentException("too many entries: " + size);
+    }
+    int capacity = Integer.highestOneBit((int) needed);
+    return capacity == needed ? capacity : capacity << 1;
+  }
+
+  private void allocate(int capacity) {
+    this.highBits = new int[capacity];
+    this.lowBits = new long[capacity];
+    this.values = new long[capacity];
+  }
+
+  /**
+   * Returns the number of entries in this map.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks whether this map has no entries.
+   *
+   * @return whether this map has no entries
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Checks whether this map has an entry for a key.
+   *
+   * @param key the key to look up, not {@code null}
+   * @return whether there is an entry for {@code key}
+   */
+  public boolean containsKey(BigDecimal96 key) {
+    return this.indexOf(key.getHighBits(), key.getLowBits()) >= 0;
+  }
+
+  /**
+   * Returns the value for a key.
+   *
+   * @param key the key to look up, not {@code null}
+   * @param defaultValue the value to return if there is no entry
+   * @return the value for {@code key}, {@code defaultValue} if there is
+   *         no entry
+   */
+  public long getOrDefault(BigDecimal96 key, long defaultValue) {
+    return this.getOrDefault(key.getHighBits(), key.getLowBits(), defaultValue);
+  }
+
+  /**
+   * Returns the value for the key stored in an array without creating
+   * a key object.
+   *
+   * @param keys the array containing the key, not {@code null}
+   * @param index the index of the key in {@code keys}
+   * @param defaultValue the value to return if there is no entry
+   * @return the value for the key, {@code defaultValue} if there is no
+   *         entry
+   * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+   */
+  public long getOrDefault(BigDecimal96Array keys, int index, long defaultValue) {
+    return this.getOrDefault(keys.getHighBits(index), keys.getLowBits(index), defaultValue);
+  }
+
+  long getOrDefault(int keyHighBits, long keyLowBits, long defaultValue) {
+    int slot = this.indexOf(keyHighBits, keyLowBits);
+    if (slot < 0) {
+      return defaultValue;
+    }
+    return this.values[slot];
+  }
+
+  /**
+   * Sets the value for a key, replacing the previous value if any.
+   *
+   * @param key the key, not {@code null}
+   * @param value the new value
+   */
+  public void put(BigDecimal96 key, long value) {
+    this.put(key.getHighBits(), key.getLowBits(), value);
+  }
+
+  void put(int keyHighBits, long keyLowBits, long value) {
+    int slot = this.findSlot(keyHighBits, keyLowBits);
+    this.values[slot] = value;
+  }
+
+  /**
+   * Adds to the value of a key, a missing entry is treated as 0.
+   *
+   * @param key the key, not {@code null}
+   * @param increment the value to add
+   * @return the new value
+   */
+  public long addTo(BigDecimal96 key, long increment) {
+    return this.addTo(key.getHighBits(), key.getLowBits(), increment);
+  }
+
+  /**
+   * Adds to the value of the key stored in an array without creating
+   * a key object, a missing entry is treated as 0.
+   *
+   * @param keys the array containing the key, not {@code null}
+   * @param index the index of the key in {@code keys}
+   * @param increment the value to add
+   * @return the new value
+   * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+   */
+  public long addTo(BigDecimal96Array keys, int index, long increment) {
+    return this.addTo(keys.getHighBits(index), keys.getLowBits(index), increment);
+  }
+
+  long addTo(int keyHighBits, long keyLowBits, long increment) {
+    int slot = this.findSlot(keyHighBits, keyLowBits);
+    long value = this.values[slot] + increment;
+    this.values[slot] = value;
+    return value;
+  }
+
+  /**
+   * Removes the entry for a key.
+   *
+   * @param key the key, not {@code null}
+   * @return whether there was an entry for {@code key}
+   */
+  public boolean remove(BigDecimal96 key) {
+    int slot = this.indexOf(key.getHighBits(), key.getLowBits());
+    if (slot < 0) {
+      return false;
+    }
+    this.removeAt(slot);
+    return true;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    Arrays.fill(this.highBits, EMPTY);
+    Arrays.fill(this.lowBits, 0L);
+    Arrays.fill(this.values, 0L);
+    this.size = 0;
+  }
+
+  /**
+   * Calls a consumer for every entry in no particular order.
+   *
+   * <p>The map must not be modified by the consumer.</p>
+   *
+   * @param consumer the consumer to call, not {@code null}
+   */
+  public void forEach(EntryConsumer consumer) {
+    for (int i = 0; i < this.highBits.length; i++) {
+      if (this.highBits[i] != EMPTY) {
+        consumer.accept(BigDecimal96.valueOf(this.highBits[i], this.lowBits[i]), this.values[i]);
+      }
+    }
+  }
+
+  private int slot(int keyHighBits, long keyLowBits) {
+    return DecimalMath.mix(keyHighBits, keyLowBits) & (this.highBits.length - 1);
+  }
+
+  /**
+   * Returns the slot of a key, -1 if there is no entry.
+   */
+  private int indexOf(int keyHighBits, long keyLowBits) {
+    int mask = this.highBits.length - 1;
+    int slot = this.slot(keyHighBits, keyLowBits);
+    while (true) {
+      int slotHighBits = this.highBits[slot];
+      if (slotHighBits == EMPTY) {
+        return -1;
+      }
+      if ((slotHighBits == keyHighBits) && (this.lowBits[slot] == keyLowBits)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Returns the slot of a key, inserts an entry with value 0 if there is
+   * none.
+   */
+  private int findSlot(int keyHighBits, long keyLowBits) {
+    int mask = this.highBits.length - 1;
+    int slot = this.slot(keyHighBits, keyLowBits);
+    while (true) {
+      int slotHighBits = this.highBits[slot];
+      if (slotHighBits == EMPTY) {
+        break;
+      }
+      if ((slotHighBits == keyHighBits) && (this.lowBits[slot] == keyLowBits)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if ((this.size + 1) > (this.highBits.length >>> 1)) {
+      this.resize();
+      return this.findSlot(keyHighBits, keyLowBits);
+    }
+    this.highBits[slot] = keyHighBits;
+    this.lowBits[slot] = keyLowBits;
+    this.size += 1;
+    return slot;
+  }
+
+  private void resize() {
+    int[] oldHighBits = this.highBits;
+    long[] oldLowBits = this.lowBits;
+    long[] oldValues = this.values;
+    if (oldHighBits.length == MAX_CAPACITY) {
+      throw new IllegalStateException("map too large");
+    }
+    this.allocate(oldHighBits.length << 1);
+    int mask = this.highBits.length - 1;
+    for (int i = 0; i < oldHighBits.length; i++) {
+      if (oldHighBits[i] != EMPTY) {
+        int slot = this.slot(oldHighBits[i], oldLowBits[i]);
+        while (this.highBits[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        this.highBits[slot] = oldHighBits[i];
+        this.lowBits[slot] = oldLowBits[i];
+        this.values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void removeAt(int slot) {
+    // backward shift deletion, keeps the probe sequences intact without tombstones
+    int mask = this.highBits.length - 1;
+    int hole = slot;
+    int i = (slot + 1) & mask;
+    while (this.highBits[i] != EMPTY) {
+      int home = this.slot(this.highBits[i], this.lowBits[i]);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        this.highBits[hole] = this.highBits[i];
+        this.lowBits[hole] = this.lowBits[i];
+        this.values[hole] = this.values[i];
+        hole = i;
+      }
+      i = (i + 1) & mask;
+    }
+    this.highBits[hole] = EMPTY;
+    this.lowBits[hole] = 0L;
+    this.values[hole] = 0L;
+    this.size -= 1;
+  }
+
+  /**
+   * Consumes the entries of a {@link Decimal96ToLongMap}.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /**
+     * Consumes an entry.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     */
+    void accept(BigDecimal96 key, long value);
+
+  }
+
+}
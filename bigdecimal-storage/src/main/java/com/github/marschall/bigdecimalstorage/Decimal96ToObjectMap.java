@@ -0,0 +1,313 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A hash map from {@link BigDecimal96} keys to object values.
+ *
+ * <p>Unlike a {@code HashMap<BigDecimal96, V>} there is neither a node nor
+ * a key object per entry. Keys are stored inline as their packed bits in
+ * parallel arrays, collisions are resolved with linear probing. The hash
+ * is a strong mix of all key bits. {@code null} values are not
+ * supported.</p>
+ *
+ * <p>Keys are compared like {@link BigDecimal96#equals(Object)}, so
+ * {@code 1.0} and {@code 1.00} are different keys. To group by numeric
+ * value use {@link BigDecimal96#canonical()} keys.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ *
+ * @param <V> the type of the values
+ */
+public final class Decimal96ToObjectMap<V> {
+
+  // no valid value has high bits of 0 because the array length is at least 8
+  private static final int EMPTY = 0;
+
+  private static final int MIN_CAPACITY = 16;
+
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private int[] highBits;
+  private long[] lowBits;
+  private Object[] values;
+  private int size;
+
+  /**
+   * Creates an empty map.
+   */
+  public Decimal96ToObjectMap() {
+    this(0);
+  }
+
+  /**
+   * Creates an empty map that can hold the given number of entries
+   * without resizing.
+   *
+   * @param expectedSize the number of entries expected
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   *                                  or too large
+   */
+  public Decimal96ToObjectMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("negative expected size");
+    }
+    this.allocate(capacityFor(expectedSize));
+  }
+
+  private static int capacityFor(int size) {
+    // load factor of 0.5
+    long needed = Math.max(MIN_CAPACITY, (long) size * 2L);
+    if (needed > MAX_CAPACITY) {
+      throw new IllegalArgumentException("too many entries: " + size);
+    }
+    int capacity = Integer.highestOneBit((int) needed);
+    return capacity == needed ? capacity : capacity << 1;
+  }
+
+  private void allocate(int capacity) {
+    this.highBits = new int[capacity];
+    this.lowBits = new long[capacity];
+    this.values = new Object[capacity];
+  }
+
+  /**
+   * Returns the number of entries in this map.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks whether this map has no entries.
+   *
+   * @return whether this map has no entries
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Checks whether this map has an entry for a key.
+   *
+   * @param key the key to look up, not {@code null}
+   * @return whether there is an entry for {@code key}
+   */
+  public boolean containsKey(BigDecimal96 key) {
+    return this.indexOf(key.getHighBits(), key.getLowBits()) >= 0;
+  }
+
+  /**
+   * Returns the value for a key.
+   *
+   * @param key the key to look up, not {@code null}
+   * @return the value for {@code key}, {@code null} if there is no entry
+   */
+  public V get(BigDecimal96 key) {
+    return this.get(key.getHighBits(), key.getLowBits());
+  }
+
+  /**
+   * Returns the value for the key stored in an array without creating
+   * a key object.
+   *
+   * @param keys the array containing the key, not {@code null}
+   * @param index the index of the key in {@code keys}
+   * @return the value for the key, {@code null} if there is no entry
+   * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+   */
+  public V get(BigDecimal96Array keys, int index) {
+    return this.get(keys.getHighBits(index), keys.getLowBits(index));
+  }
+
+  V get(int keyHighBits, long keyLowBits) {
+    int slot = this.indexOf(keyHighBits, keyLowBits);
+    if (slot < 0) {
+      return null;
+    }
+    return this.valueAt(slot);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int slot) {
+    return (V) this.values[slot];
+  }
+
+  /**
+   * Sets the value for a key, replacing the previous value if any.
+   *
+   * @param key the key, not {@code null}
+   * @param value the new value, not {@code null}
+   * @return the previous value, {@code null} if there was no entry
+   */
+  public V put(BigDecimal96 key, V value) {
+    return this.put(key.getHighBits(), key.getLowBits(), value);
+  }
+
+  V put(int keyHighBits, long keyLowBits, V value) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    int slot = this.findSlot(keyHighBits, keyLowBits);
+    V previous = this.valueAt(slot);
+    this.values[slot] = value;
+    return previous;
+  }
+
+  /**
+   * Returns the value for a key, computes and adds it if there is no entry.
+   *
+   * @param key the key, not {@code null}
+   * @param mappingFunction the function to compute the value, must not
+   *                        return {@code null} and must not modify
+   *                        this map
+   * @return the existing or computed value
+   */
+  public V computeIfAbsent(BigDecimal96 key, Function<? super BigDecimal96, ? extends V> mappingFunction) {
+    int slot = this.indexOf(key.getHighBits(), key.getLowBits());
+    if (slot >= 0) {
+      return this.valueAt(slot);
+    }
+    V value = mappingFunction.apply(key);
+    this.put(key.getHighBits(), key.getLowBits(), value);
+    return value;
+  }
+
+  /**
+   * Removes the entry for a key.
+   *
+   * @param key the key, not {@code null}
+   * @return the removed value, {@code null} if there was no entry
+   */
+  public V remove(BigDecimal96 key) {
+    int slot = this.indexOf(key.getHighBits(), key.getLowBits());
+    if (slot < 0) {
+      return null;
+    }
+    V previous = this.valueAt(slot);
+    this.removeAt(slot);
+    return previous;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    Arrays.fill(this.highBits, EMPTY);
+    Arrays.fill(this.lowBits, 0L);
+    Arrays.fill(this.values, null);
+    this.size = 0;
+  }
+
+  /**
+   * Calls a consumer for every entry in no particular order.
+   *
+   * <p>The map must not be modified by the consumer.</p>
+   *
+   * @param consumer the consumer to call, not {@code null}
+   */
+  public void forEach(BiConsumer<? super BigDecimal96, ? super V> consumer) {
+    for (int i = 0; i < this.highBits.length; i++) {
+      if (this.highBits[i] != EMPTY) {
+        consumer.accept(BigDecimal96.valueOf(this.highBits[i], this.lowBits[i]), this.valueAt(i));
+      }
+    }
+  }
+
+  private int slot(int keyHighBits, long keyLowBits) {
+    return DecimalMath.mix(keyHighBits, keyLowBits) & (this.highBits.length - 1);
+  }
+
+  /**
+   * Returns the slot of a key, -1 if there is no entry.
+   */
+  private int indexOf(int keyHighBits, long keyLowBits) {
+    int mask = this.highBits.length - 1;
+    int slot = this.slot(keyHighBits, keyLowBits);
+    while (true) {
+      int slotHighBits = this.highBits[slot];
+      if (slotHighBits == EMPTY) {
+        return -1;
+      }
+      if ((slotHighBits == keyHighBits) && (this.lowBits[slot] == keyLowBits)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Returns the slot of a key, inserts an entry without a value if there
+   * is none.
+   */
+  private int findSlot(int keyHighBits, long keyLowBits) {
+    int mask = this.highBits.length - 1;
+    int slot = this.slot(keyHighBits, keyLowBits);
+    while (true) {
+      int slotHighBits = this.highBits[slot];
+      if (slotHighBits == EMPTY) {
+        break;
+      }
+      if ((slotHighBits == keyHighBits) && (this.lowBits[slot] == keyLowBits)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if ((this.size + 1) > (this.highBits.length >>> 1)) {
+      this.resize();
+      return this.findSlot(keyHighBits, keyLowBits);
+    }
+    this.highBits[slot] = keyHighBits;
+    this.lowBits[slot] = keyLowBits;
+    this.size += 1;
+    return slot;
+  }
+
+  private void resize() {
+    int[] oldHighBits = this.highBits;
+    long[] oldLowBits = this.lowBits;
+    Object[] oldValues = this.values;
+    if (oldHighBits.length == MAX_CAPACITY) {
+      throw new IllegalStateException("map too large");
+    }
+    this.allocate(oldHighBits.length << 1);
+    int mask = this.highBits.length - 1;
+    for (int i = 0; i < oldHighBits.length; i++) {
+      if (oldHighBits[i] != EMPTY) {
+        int slot = this.slot(oldHighBits[i], oldLowBits[i]);
+        while (this.highBits[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        this.highBits[slot] = oldHighBits[i];
+        this.lowBits[slot] = oldLowBits[i];
+        this.values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void removeAt(int slot) {
+    // backward shift deletion, keeps the probe sequences intact without tombstones
+    int mask = this.highBits.length - 1;
+    int hole = slot;
+    int i = (slot + 1) & mask;
+    while (this.highBits[i] != EMPTY) {
+      int home = this.slot(this.highBits[i], this.lowBits[i]);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        this.highBits[hole] = this.highBits[i];
+        this.lowBits[hole] = this.lowBits[i];
+        this.values[hole] = this.values[i];
+        hole = i;
+      }
+      i = (i + 1) & mask;
+    }
+    this.highBits[hole] = EMPTY;
+    this.lowBits[hole] = 0L;
+    this.values[hole] = null;
+    this.size -= 1;
+  }
+
+}
@@ -0,0 +1,347 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Converts ranges of {@link BigDecimal} arrays to and from the packed
+ * representations in bulk, for example a column of a query result or a
+ * batch of messages.
+ *
+ * <p>Unlike converting element by element with
+ * {@link BigDecimal64#toLongValue(BigDecimal)} or
+ * {@link BigDecimal96#valueOf(BigDecimal)} no intermediate
+ * {@link BigDecimal96} or {@link BigDecimal128} objects are created and
+ * elements that can not be converted do not cause an exception. Instead
+ * the number of such elements is returned and their indices are marked
+ * in an optional error bitmap, the corresponding elements of the
+ * destination are left unchanged. Elements can not be converted if they
+ * are {@code null}, have a scale larger than 6 or are out of range.</p>
+ *
+ * <p>The error bitmap has one bit per index of the source array, bit
+ * {@code i % 64} of {@code errors[i / 64]} is the bit for index
+ * {@code i}. Only the bits of the converted range are changed, they are
+ * set for elements that could not be converted and cleared for all
+ * others. This is the same layout as {@link java.util.BitSet#valueOf(long[])}.</p>
+ */
+public final class DecimalArrays {
+
+  private static final int SCALE = 6;
+
+  // values with more digits before the decimal point are out of range for BigDecimal64
+  private static final int MAX_INTEGER_DIGITS_64 = 12;
+
+  // any BigDecimal with at most this many digits is compact
+  private static final int MAX_LONG_DIGITS = 18;
+
+  // the unscaled values are signed two's complements of at most 88 and 120 bits
+  private static final int MAX_BIT_LENGTH_96 = 87;
+
+  private static final int MAX_BIT_LENGTH_128 = 119;
+
+  private DecimalArrays() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Converts a range of an array into the long representation of
+   * {@link BigDecimal64}.
+   *
+   * @param source the values to convert, not {@code null}, may contain
+   *               {@code null}
+   * @param destination where to store the converted values, not
+   *                    {@code null}, uses the same indices as
+   *                    {@code source}
+   * @param offset the index of the first element to convert
+   * @param length the number of elements to convert
+   * @param errors the error bitmap, may be {@code null}
+   * @return the number of elements that could not be converted
+   * @throws IndexOutOfBoundsException if the range is outside of one of
+   *                                   the arrays or the error bitmap
+   * @see BigDecimal64#toLongValue(BigDecimal)
+   */
+  public static int encode(BigDecimal[] source, long[] destination, int offset, int length, long[] errors) {
+    checkRange(offset, length, source.length);
+    checkRange(offset, length, destination.length);
+    checkErrors(offset, length, errors);
+    int invalid = 0;
+    int end = offset + length;
+    int i = offset;
+    while (i < end) {
+      // collect the error bits of one word so that the bitmap is only written once per 64 elements
+      int wordStart = i;
+      int wordEnd = i + Math.min(end - i, 64 - (i & 63));
+      long bits = 0L;
+      for (; i < wordEnd; i++) {
+        if (!encode64(source[i], destination, i)) {
+          bits |= 1L << i;
+        }
+      }
+      invalid += markErrors(errors, wordStart, wordEnd, bits);
+    }
+    return invalid;
+  }
+
+  private static boolean encode64(BigDecimal value, long[] destination, int index) {
+    if (value == null) {
+      return false;
+    }
+    int scale = value.scale();
+    // precision does not allocate, unlike a comparison with a BigDecimal
+    // the precision of zero is 1 for every scale, 0E+13 is in range
+    int integerDigits = value.precision() - scale;
+    if ((value.signum() != 0) && (integerDigits > MAX_INTEGER_DIGITS_64)) {
+      return false;
+    }
+    if ((scale >= 0) && (scale <= SCALE)) {
+      // at most 18 digits, movePointRight(0) returns this, otherwise the result is compact
+      destination[index] = value.movePointRight(scale).longValueExact() * DecimalMath.POWERS_OF_TEN[SCALE - scale];
+      return true;
+    }
+    if (scale < 0) {
+      // rare, we do not care about the allocation
+      destination[index] = value.setScale(0).longValueExact() * DecimalMath.POWERS_OF_TEN[SCALE];
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Converts a range of an array in the long representation of
+   * {@link BigDecimal64} to {@link BigDecimal}s.
+   *
+   * @param source the values to convert, not {@code null}
+   * @param destination where to store the converted values, not
+   *                    {@code null}, uses the same indices as
+   *                    {@code source}
+   * @param offset the index of the first element to convert
+   * @param length the number of elements to convert
+   * @throws IndexOutOfBoundsException if the range is outside of one of
+   *                                   the arrays
+   * @see BigDecimal64#toBigDecimal(long)
+   */
+  public static void decode(long[] source, BigDecimal[] destination, int offset, int length) {
+    checkRange(offset, length, source.length);
+    checkRange(offset, length, destination.length);
+    for (int i = offset; i < (offset + length); i++) {
+      destination[i] = BigDecimal64.toBigDecimal(source[i]);
+    }
+  }
+
+  /**
+   * Converts a range of an array into a {@link BigDecimal96Array}.
+   *
+   * @param source the values to convert, not {@code null}, may contain
+   *               {@code null}
+   * @param destination where to store the converted values, not
+   *                    {@code null}, uses the same indices as
+   *                    {@code source}
+   * @param offset the index of the first element to convert
+   * @param length the number of elements to convert
+   * @param errors the error bitmap, may be {@code null}
+   * @return the number of elements that could not be converted
+   * @throws IndexOutOfBoundsException if the range is outside of one of
+   *                                   the arrays or the error bitmap
+   * @see BigDecimal96#valueOf(BigDecimal)
+   */
+  public static int encode(BigDecimal[] source, BigDecimal96Array destination, int offset, int length, long[] errors) {
+    checkRange(offset, length, source.length);
+    checkRange(offset, length, destination.length());
+    checkErrors(offset, length, errors);
+    int invalid = 0;
+    int end = offset + length;
+    int i = offset;
+    while (i < end) {
+      int wordStart = i;
+      int wordEnd = i + Math.min(end - i, 64 - (i & 63));
+      long bits = 0L;
+      for (; i < wordEnd; i++) {
+        if (!encode96(source[i], destination, i)) {
+          bits |= 1L << i;
+        }
+      }
+      invalid += markErrors(errors, wordStart, wordEnd, bits);
+    }
+    return invalid;
+  }
+
+  private static boolean encode96(BigDecimal value, BigDecimal96Array destination, int index) {
+    if (value == null) {
+      return false;
+    }
+    int scale = value.scale();
+    if (scale > SCALE) {
+      return false;
+    }
+    if ((scale >= 0) && (value.precision() <= MAX_LONG_DIGITS)) {
+      // the common case, see BigDecimal96#fromLongValue
+      long lowBits = value.movePointRight(scale).longValueExact();
+      destination.setBits(index, BigDecimal96.getHighByte(scale, BigDecimal96.COMPACT_ARRAY_LENGTH), lowBits);
+      return true;
+    }
+    BigInteger unscaled = unscaledValue(value, scale);
+    if (unscaled.bitLength() > MAX_BIT_LENGTH_96) {
+      return false;
+    }
+    long lowBits = unscaled.longValue();
+    int highBits = BigDecimal96.toHighBits(Math.max(0, scale), unscaled.shiftRight(64).longValue(), lowBits);
+    destination.setBits(index, highBits, lowBits);
+    return true;
+  }
+
+  /**
+   * Converts a range of a {@link BigDecimal96Array} to
+   * {@link BigDecimal}s.
+   *
+   * @param source the values to convert, not {@code null}
+   * @param destination where to store the converted values, not
+   *                    {@code null}, uses the same indices as
+   *                    {@code source}
+   * @param offset the index of the first element to convert
+   * @param length the number of elements to convert
+   * @throws IndexOutOfBoundsException if the range is outside of one of
+   *                                   the arrays
+   * @see BigDecimal96Array#toBigDecimal(int)
+   */
+  public static void decode(BigDecimal96Array source, BigDecimal[] destination, int offset, int length) {
+    checkRange(offset, length, source.length());
+    checkRange(offset, length, destination.length);
+    for (int i = offset; i < (offset + length); i++) {
+      int highBits = source.getHighBits(i);
+      long lowBits = source.getLowBits(i);
+      int scale = BigDecimal96.getScale(highBits);
+      if (BigDecimal96.isCompact(highBits)) {
+        destination[i] = BigDecimal.valueOf(lowBits, scale);
+      } else {
+        destination[i] = DecimalMath.toBigDecimal(BigDecimal96.unscaledHigh(highBits, lowBits), lowBits, scale);
+      }
+    }
+  }
+
+  /**
+   * Converts a range of an array into a {@link BigDecimal128Array}.
+   *
+   * @param source the values to convert, not {@code null}, may contain
+   *               {@code null}
+   * @param destination where to store the converted values, not
+   *                    {@code null}, uses the same indices as
+   *                    {@code source}
+   * @param offset the index of the first element to convert
+   * @param length the number of elements to convert
+   * @param errors the error bitmap, may be {@code null}
+   * @return the number of elements that could not be converted
+   * @throws IndexOutOfBoundsException if the range is outside of one of
+   *                                   the arrays or the error bitmap
+   * @see BigDecimal128#valueOf(BigDecimal)
+   */
+  public static int encode(BigDecimal[] source, BigDecimal128Array destination, int offset, int length, long[] errors) {
+    checkRange(offset, length, source.length);
+    checkRange(offset, length, destination.length());
+    checkErrors(offset, length, errors);
+    int invalid = 0;
+    int end = offset + length;
+    int i = offset;
+    while (i < end) {
+      int wordStart = i;
+      int wordEnd = i + Math.min(end - i, 64 - (i & 63));
+      long bits = 0L;
+      for (; i < wordEnd; i++) {
+        if (!encode128(source[i], destination, i)) {
+          bits |= 1L << i;
+        }
+      }
+      invalid += markErrors(errors, wordStart, wordEnd, bits);
+    }
+    return invalid;
+  }
+
+  private static boolean encode128(BigDecimal value, BigDecimal128Array destination, int index) {
+    if (value == null) {
+      return false;
+    }
+    int scale = value.scale();
+    if (scale > SCALE) {
+      return false;
+    }
+    if ((scale >= 0) && (value.precision() <= MAX_LONG_DIGITS)) {
+      // the common case, see BigDecimal128#fromLongValue
+      long lowBits = value.movePointRight(scale).longValueExact();
+      destination.setBits(index, BigDecimal128.getHighByte(scale, BigDecimal128.COMPACT_ARRAY_LENGTH), lowBits);
+      return true;
+    }
+    BigInteger unscaled = unscaledValue(value, scale);
+    if (unscaled.bitLength() > MAX_BIT_LENGTH_128) {
+      return false;
+    }
+    long lowBits = unscaled.longValue();
+    long highBits = BigDecimal128.toHighBits(Math.max(0, scale), unscaled.shiftRight(64).longValue(), lowBits);
+    destination.setBits(index, highBits, lowBits);
+    return true;
+  }
+
+  /**
+   * Converts a range of a {@link BigDecimal128Array} to
+   * {@link BigDecimal}s.
+   *
+   * @param source the values to convert, not {@code null}
+   * @param destination where to store the converted values, not
+   *                    {@code null}, uses the same indices as
+   *                    {@code source}
+   * @param offset the index of the first element to convert
+   * @param length the number of elements to convert
+   * @throws IndexOutOfBoundsException if the range is outside of one of
+   *                                   the arrays
+   * @see BigDecimal128Array#toBigDecimal(int)
+   */
+  public static void decode(BigDecimal128Array source, BigDecimal[] destination, int offset, int length) {
+    checkRange(offset, length, source.length());
+    checkRange(offset, length, destination.length);
+    for (int i = offset; i < (offset + length); i++) {
+      long highBits = source.getHighBits(i);
+      long lowBits = source.getLowBits(i);
+      int scale = BigDecimal128.getScale(highBits);
+      if (BigDecimal128.isCompact(highBits)) {
+        destination[i] = BigDecimal.valueOf(lowBits, scale);
+      } else {
+        destination[i] = DecimalMath.toBigDecimal(BigDecimal128.unscaledHigh(highBits, lowBits), lowBits, scale);
+      }
+    }
+  }
+
+  private static BigInteger unscaledValue(BigDecimal value, int scale) {
+    if (scale >= 0) {
+      return value.unscaledValue();
+    }
+    // rare, we do not support negative scales
+    return value.setScale(0).unscaledValue();
+  }
+
+  /**
+   * Updates the error bits of a range within one word of the bitmap.
+   *
+   * @param bits the error bits of the range
+   * @return the number of errors
+   */
+  private static int markErrors(long[] errors, int start, int end, long bits) {
+    if (errors != null) {
+      // shifts only use the low 6 bits
+      long mask = (-1L << start) & (-1L >>> (63 - ((end - 1) & 63)));
+      int word = start >>> 6;
+      errors[word] = (errors[word] & ~mask) | bits;
+    }
+    return Long.bitCount(bits);
+  }
+
+  private static void checkRange(int offset, int length, int arrayLength) {
+    if ((offset < 0) || (length < 0) || (offset > (arrayLength - length))) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + arrayLength);
+    }
+  }
+
+  private static void checkErrors(int offset, int length, long[] errors) {
+    if ((errors != null) && (length > 0) && ((((offset + length) - 1) >>> 6) >= errors.length)) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", error bitmap length: " + errors.length);
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * Helpers for the optional caches of {@link BigDecimal96} and
+ * {@link BigDecimal128} instances.
+ *
+ * <p>The caches are direct mapped: every value maps to exactly one slot,
+ * a new value replaces whatever is in its slot. There is no locking,
+ * slots are read and written with plain array accesses. This is safe
+ * because the cached classes only have final fields, a racing thread
+ * sees either the old instance, the new instance or {@code null}. In the
+ * worst case a value is not found and an equal instance is created.</p>
+ *
+ * <p>The capacity is read from a system property when the class is
+ * initialized. It is rounded up to a power of two and limited to
+ * {@value #MAX_CAPACITY}. If the property is not set or 0 the cache is
+ * disabled and instances are created as before.</p>
+ */
+final class DecimalCache {
+
+  static final int MAX_CAPACITY = 1 << 20;
+
+  private DecimalCache() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Reads the capacity of a cache from a system property.
+   *
+   * @param propertyName the name of the system property
+   * @return the capacity, a power of two, 0 if disabled
+   */
+  static int capacity(String propertyName) {
+    int requested;
+    try {
+      requested = Integer.getInteger(propertyName, 0);
+    } catch (SecurityException e) {
+      return 0;
+    }
+    if (requested <= 0) {
+      return 0;
+    }
+    if (requested >= MAX_CAPACITY) {
+      return MAX_CAPACITY;
+    }
+    int capacity = Integer.highestOneBit(requested);
+    return capacity == requested ? capacity : capacity << 1;
+  }
+
+  /**
+   * Computes the slot of a value in a cache.
+   *
+   * @param highBits the high bits of the value
+   * @param lowBits the low bits of the value
+   * @param mask the capacity of the cache minus one
+   * @return the slot index
+   */
+  static int index(long highBits, long lowBits, int mask) {
+    return DecimalMath.mix(highBits, lowBits) & mask;
+  }
+
+}
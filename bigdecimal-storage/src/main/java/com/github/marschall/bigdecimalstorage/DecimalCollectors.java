@@ -0,0 +1,99 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Collector}s for streams of {@link BigDecimal96} values, similar
+ * to {@link Collectors#summingLong(java.util.function.ToLongFunction)}
+ * and friends.
+ *
+ * <p>The collectors accumulate into a
+ * {@link BigDecimal96SummaryStatistics} and do therefore not allocate
+ * per element, the elements of the stream may be allocated however, for
+ * example by {@link BigDecimal96Array#stream()}. Use
+ * {@link BigDecimal96Aggregations} for arrays instead. The results are
+ * exact and the same for sequential and parallel streams. To collect
+ * values of other types combine them with
+ * {@link Collectors#mapping(java.util.function.Function, Collector)}.</p>
+ */
+public final class DecimalCollectors {
+
+  private DecimalCollectors() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Returns a collector that computes the exact sum.
+   *
+   * @return a collector that returns the sum, zero for no values
+   */
+  public static Collector<BigDecimal96, ?, BigDecimal> summing() {
+    return Collector.of(BigDecimal96SummaryStatistics::new,
+            BigDecimal96SummaryStatistics::accept,
+            DecimalCollectors::combine,
+            BigDecimal96SummaryStatistics::getSum);
+  }
+
+  /**
+   * Returns a collector that computes the arithmetic mean.
+   *
+   * @param scale the scale of the result
+   * @param roundingMode the rounding mode to apply, not {@code null}
+   * @return a collector that returns the average, {@code null} for no
+   *         values
+   * @see BigDecimal96SummaryStatistics#getAverage(int, RoundingMode)
+   */
+  public static Collector<BigDecimal96, ?, BigDecimal> averaging(int scale, RoundingMode roundingMode) {
+    if (roundingMode == null) {
+      throw new NullPointerException("roundingMode");
+    }
+    return Collector.of(BigDecimal96SummaryStatistics::new,
+            BigDecimal96SummaryStatistics::accept,
+            DecimalCollectors::combine,
+            statistics -> statistics.getAverage(scale, roundingMode));
+  }
+
+  /**
+   * Returns a collector that finds the smallest value in
+   * {@link BigDecimal96#NUMERIC_ORDER}.
+   *
+   * @return a collector that returns the smallest value, empty for no
+   *         values
+   */
+  public static Collector<BigDecimal96, ?, Optional<BigDecimal96>> minimum() {
+    return Collectors.minBy(BigDecimal96.NUMERIC_ORDER);
+  }
+
+  /**
+   * Returns a collector that finds the largest value in
+   * {@link BigDecimal96#NUMERIC_ORDER}.
+   *
+   * @return a collector that returns the largest value, empty for no
+   *         values
+   */
+  public static Collector<BigDecimal96, ?, Optional<BigDecimal96>> maximum() {
+    return Collectors.maxBy(BigDecimal96.NUMERIC_ORDER);
+  }
+
+  /**
+   * Returns a collector that computes count, sum, minimum, maximum and
+   * average.
+   *
+   * @return a collector that returns the statistics
+   */
+  public static Collector<BigDecimal96, ?, BigDecimal96SummaryStatistics> summarizing() {
+    return Collector.of(BigDecimal96SummaryStatistics::new,
+            BigDecimal96SummaryStatistics::accept,
+            DecimalCollectors::combine);
+  }
+
+  private static BigDecimal96SummaryStatistics combine(BigDecimal96SummaryStatistics left, BigDecimal96SummaryStatistics right) {
+    left.combine(right);
+    return left;
+  }
+
+}
@@ -0,0 +1,482 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Scans over {@code long[]} columns of decimal values, for example in the
+ * long representation of {@link BigDecimal64} or unscaled values that
+ * share a scale, and over ranges of a {@link BigDecimal96Array}.
+ *
+ * <p>On Java 17 and later the loops use the Vector API if the
+ * {@code jdk.incubator.vector} module is added with
+ * {@code --add-modules jdk.incubator.vector}, otherwise and on older Java
+ * versions they are plain loops. The results are the same in both
+ * cases.</p>
+ *
+ * <p>For a {@link BigDecimal96Array} the loops are only used for ranges in
+ * which all elements fit into a long and have the same scale. Then the
+ * low bits column holds the unscaled values and the high bits column the
+ * same value for every element. Other ranges are processed element by
+ * element with the same results.</p>
+ *
+ * <p>Comparisons produce a bitmap with one bit per index of the column,
+ * in the same layout as the error bitmap of {@link DecimalArrays}.</p>
+ */
+public final class DecimalColumns {
+
+  private static final ColumnKernels KERNELS = ColumnKernelsLoader.load();
+
+  private static final int MAX_EXPONENT = DecimalMath.POWERS_OF_TEN.length - 1;
+
+  // all bits 0 is not valid high bits, the array length would be 0
+  private static final int NOT_UNIFORM = 0;
+
+  private DecimalColumns() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Computes the sum of a range of values in the long representation of
+   * {@link BigDecimal64}.
+   *
+   * <p>Intermediate sums can not overflow, only the final result has to
+   * be in range.</p>
+   *
+   * @param values the values to sum, not {@code null}
+   * @param offset the index of the first value
+   * @param length the number of values
+   * @return the sum in the long representation, 0 for an empty range
+   * @throws ArithmeticException if the result is out of range
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static long sum(long[] values, int offset, int length) {
+    checkRange(offset, length, values.length);
+    long[] halves = new long[2];
+    KERNELS.sumHalves(values, offset, offset + length, halves);
+    long hi = sumHigh(halves);
+    long lo = sumLow(halves);
+    if ((hi != (lo >> 63)) || (lo > BigDecimal64.MAX_VALUE) || (lo < BigDecimal64.MIN_VALUE)) {
+      throw new ArithmeticException("overflow");
+    }
+    return lo;
+  }
+
+  /**
+   * Computes the exact sum of a range of elements.
+   *
+   * @param array the elements to sum, not {@code null}
+   * @param offset the index of the first element
+   * @param length the number of elements
+   * @return the sum, zero for an empty range
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   * @see BigDecimal96Aggregations#sum(BigDecimal96Array)
+   */
+  public static BigDecimal sum(BigDecimal96Array array, int offset, int length) {
+    checkRange(offset, length, array.length());
+    int end = offset + length;
+    int highBits = uniformCompactHighBits(array, offset, end);
+    if (highBits == NOT_UNIFORM) {
+      return BigDecimal96Aggregations.summarizeEach(array, offset, end).getSum();
+    }
+    long[] halves = new long[2];
+    KERNELS.sumHalves(array.getLowBitsColumn(), offset, end, halves);
+    return DecimalMath.toBigDecimal(sumHigh(halves), sumLow(halves), BigDecimal96.getScale(highBits));
+  }
+
+  /**
+   * Returns the high 64 bits of the 128 bit sum of the values whose
+   * halves were summed by {@link ColumnKernels#sumHalves(long[], int, int, long[])}.
+   */
+  private static long sumHigh(long[] halves) {
+    long upper = halves[0];
+    return DecimalMath.addHigh(upper >> 32, upper << 32, 0L, halves[1]);
+  }
+
+  /**
+   * Returns the low 64 bits of the 128 bit sum of the values whose
+   * halves were summed by {@link ColumnKernels#sumHalves(long[], int, int, long[])}.
+   */
+  private static long sumLow(long[] halves) {
+    return (halves[0] << 32) + halves[1];
+  }
+
+  /**
+   * Summarizes a range of elements that all fit into a long and have the
+   * same scale.
+   *
+   * @return the statistics, {@code null} if the range is empty or not all
+   *         elements fit into a long and have the same scale
+   */
+  static BigDecimal96SummaryStatistics summarizeCompact(BigDecimal96Array array, int from, int to) {
+    int highBits = uniformCompactHighBits(array, from, to);
+    if (highBits == NOT_UNIFORM) {
+      return null;
+    }
+    long[] lowBits = array.getLowBitsColumn();
+    long[] halves = new long[2];
+    KERNELS.sumHalves(lowBits, from, to, halves);
+    return BigDecimal96SummaryStatistics.ofCompact(highBits, to - from, sumHigh(halves), sumLow(halves),
+            KERNELS.min(lowBits, from, to), KERNELS.max(lowBits, from, to));
+  }
+
+  /**
+   * Returns the smallest value of a range.
+   *
+   * @param values the values to search, not {@code null}
+   * @param offset the index of the first value
+   * @param length the number of values
+   * @return the smallest value, {@link Long#MAX_VALUE} for an empty range
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static long min(long[] values, int offset, int length) {
+    checkRange(offset, length, values.length);
+    return KERNELS.min(values, offset, offset + length);
+  }
+
+  /**
+   * Returns the smallest element of a range.
+   *
+   * @param array the elements to search, not {@code null}
+   * @param offset the index of the first element
+   * @param length the number of elements
+   * @return the first of the smallest elements, {@code null} for an
+   *         empty range
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static BigDecimal96 min(BigDecimal96Array array, int offset, int length) {
+    checkRange(offset, length, array.length());
+    if (length == 0) {
+      return null;
+    }
+    int end = offset + length;
+    int highBits = uniformCompactHighBits(array, offset, end);
+    if (highBits != NOT_UNIFORM) {
+      return BigDecimal96.valueOf(highBits, KERNELS.min(array.getLowBitsColumn(), offset, end));
+    }
+    int min = offset;
+    for (int i = offset + 1; i < end; i++) {
+      if (array.compare(i, min) < 0) {
+        min = i;
+      }
+    }
+    return array.get(min);
+  }
+
+  /**
+   * Returns the largest value of a range.
+   *
+   * @param values the values to search, not {@code null}
+   * @param offset the index of the first value
+   * @param length the number of values
+   * @return the largest value, {@link Long#MIN_VALUE} for an empty range
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static long max(long[] values, int offset, int length) {
+    checkRange(offset, length, values.length);
+    return KERNELS.max(values, offset, offset + length);
+  }
+
+  /**
+   * Returns the largest element of a range.
+   *
+   * @param array the elements to search, not {@code null}
+   * @param offset the index of the first element
+   * @param length the number of elements
+   * @return the first of the largest elements, {@code null} for an empty
+   *         range
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static BigDecimal96 max(BigDecimal96Array array, int offset, int length) {
+    checkRange(offset, length, array.length());
+    if (length == 0) {
+      return null;
+    }
+    int end = offset + length;
+    int highBits = uniformCompactHighBits(array, offset, end);
+    if (highBits != NOT_UNIFORM) {
+      return BigDecimal96.valueOf(highBits, KERNELS.max(array.getLowBitsColumn(), offset, end));
+    }
+    int max = offset;
+    for (int i = offset + 1; i < end; i++) {
+      if (array.compare(i, max) > 0) {
+        max = i;
+      }
+    }
+    return array.get(max);
+  }
+
+  /**
+   * Finds the values of a range that are greater than a threshold.
+   *
+   * @param values the values to compare, not {@code null}
+   * @param offset the index of the first value
+   * @param length the number of values
+   * @param threshold the threshold to compare to
+   * @param result the bitmap in which to set the bits of the values
+   *               greater than the threshold and clear all other bits of
+   *               the range, not {@code null}
+   * @return the number of values greater than the threshold
+   * @throws IndexOutOfBoundsException if the range is outside of the
+   *                                   array or the bitmap
+   */
+  public static int greaterThan(long[] values, int offset, int length, long threshold, long[] result) {
+    checkRange(offset, length, values.length);
+    checkBitmap(offset, length, result);
+    return compare(values, offset, offset + length, threshold, true, result);
+  }
+
+  /**
+   * Finds the elements of a range that are numerically greater than a
+   * threshold.
+   *
+   * @param array the elements to compare, not {@code null}
+   * @param offset the index of the first element
+   * @param length the number of elements
+   * @param threshold the threshold to compare to, not {@code null}
+   * @param result the bitmap in which to set the bits of the elements
+   *               greater than the threshold and clear all other bits of
+   *               the range, not {@code null}
+   * @return the number of elements greater than the threshold
+   * @throws IndexOutOfBoundsException if the range is outside of the
+   *                                   array or the bitmap
+   */
+  public static int greaterThan(BigDecimal96Array array, int offset, int length, BigDecimal96 threshold, long[] result) {
+    return compare(array, offset, length, threshold, true, result);
+  }
+
+  /**
+   * Finds the values of a range that are less than a threshold.
+   *
+   * @param values the values to compare, not {@code null}
+   * @param offset the index of the first value
+   * @param length the number of values
+   * @param threshold the threshold to compare to
+   * @param result the bitmap in which to set the bits of the values less
+   *               than the threshold and clear all other bits of the
+   *               range, not {@code null}
+   * @return the number of values less than the threshold
+   * @throws IndexOutOfBoundsException if the range is outside of the
+   *                                   array or the bitmap
+   */
+  public static int lessThan(long[] values, int offset, int length, long threshold, long[] result) {
+    checkRange(offset, length, values.length);
+    checkBitmap(offset, length, result);
+    return compare(values, offset, offset + length, threshold, false, result);
+  }
+
+  /**
+   * Finds the elements of a range that are numerically less than a
+   * threshold.
+   *
+   * @param array the elements to compare, not {@code null}
+   * @param offset the index of the first element
+   * @param length the number of elements
+   * @param threshold the threshold to compare to, not {@code null}
+   * @param result the bitmap in which to set the bits of the elements
+   *               less than the threshold and clear all other bits of the
+   *               range, not {@code null}
+   * @return the number of elements less than the threshold
+   * @throws IndexOutOfBoundsException if the range is outside of the
+   *                                   array or the bitmap
+   */
+  public static int lessThan(BigDecimal96Array array, int offset, int length, BigDecimal96 threshold, long[] result) {
+    return compare(array, offset, length, threshold, false, result);
+  }
+
+  private static int compare(long[] values, int from, int to, long threshold, boolean greater, long[] result) {
+    int count = 0;
+    int i = from;
+    while (i < to) {
+      int wordEnd = i + Math.min(to - i, 64 - (i & 63));
+      long bits = greater
+              ? KERNELS.greaterThan(values, i, wordEnd, threshold)
+              : KERNELS.lessThan(values, i, wordEnd, threshold);
+      count += setBits(result, i, wordEnd, bits << i);
+      i = wordEnd;
+    }
+    return count;
+  }
+
+  private static int compare(BigDecimal96Array array, int offset, int length, BigDecimal96 threshold, boolean greater, long[] result) {
+    checkRange(offset, length, array.length());
+    checkBitmap(offset, length, result);
+    int end = offset + length;
+    int highBits = uniformCompactHighBits(array, offset, end);
+    if (highBits != NOT_UNIFORM) {
+      // for unscaled values v: v > t exactly if v > floor(t) and v < t exactly if v < ceiling(t)
+      BigInteger unscaledThreshold = threshold.toBigDecimal()
+              .setScale(BigDecimal96.getScale(highBits), greater ? RoundingMode.FLOOR : RoundingMode.CEILING)
+              .unscaledValue();
+      if (unscaledThreshold.bitLength() < 64) {
+        return compare(array.getLowBitsColumn(), offset, end, unscaledThreshold.longValue(), greater, result);
+      }
+      // beyond the range of long, either all or no values match
+      boolean all = (unscaledThreshold.signum() < 0) == greater;
+      return fillBits(result, offset, end, all);
+    }
+    int thresholdHighBits = threshold.getHighBits();
+    long thresholdLowBits = threshold.getLowBits();
+    int count = 0;
+    int i = offset;
+    while (i < end) {
+      int wordEnd = i + Math.min(end - i, 64 - (i & 63));
+      long bits = 0L;
+      for (int j = i; j < wordEnd; j++) {
+        int comparison = BigDecimal96.compare(array.getHighBits(j), array.getLowBits(j), thresholdHighBits, thresholdLowBits);
+        if (greater ? comparison > 0 : comparison < 0) {
+          bits |= 1L << j;
+        }
+      }
+      count += setBits(result, i, wordEnd, bits);
+      i = wordEnd;
+    }
+    return count;
+  }
+
+  private static int fillBits(long[] bitmap, int from, int to, boolean value) {
+    int count = 0;
+    int i = from;
+    while (i < to) {
+      int wordEnd = i + Math.min(to - i, 64 - (i & 63));
+      count += setBits(bitmap, i, wordEnd, value ? -1L : 0L);
+      i = wordEnd;
+    }
+    return count;
+  }
+
+  /**
+   * Multiplies a range of values in place with a power of ten, for
+   * example to align unscaled values with a scale of 2 to the scale of 6
+   * of {@link BigDecimal64}.
+   *
+   * @param values the unscaled values to multiply, not {@code null}
+   * @param offset the index of the first value
+   * @param length the number of values
+   * @param exponent the exponent of the power of ten, from 0 to 18
+   * @throws IllegalArgumentException if the exponent is not supported
+   * @throws ArithmeticException if any result does not fit into a long,
+   *                             in this case no value is changed
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static void multiplyPow10(long[] values, int offset, int length, int exponent) {
+    if ((exponent < 0) || (exponent > MAX_EXPONENT)) {
+      throw new IllegalArgumentException("invalid exponent");
+    }
+    checkRange(offset, length, values.length);
+    if ((exponent == 0) || (length == 0)) {
+      return;
+    }
+    if (!multiplyPow10IfFits(values, offset, offset + length, exponent)) {
+      throw new ArithmeticException("overflow");
+    }
+  }
+
+  /**
+   * Multiplies a range of values with a power of ten if all results fit
+   * into a long.
+   *
+   * @return whether the values were multiplied, if not no value is changed
+   */
+  private static boolean multiplyPow10IfFits(long[] values, int from, int to, int exponent) {
+    long factor = DecimalMath.POWERS_OF_TEN[exponent];
+    // check first so that the values are not changed on overflow
+    if ((KERNELS.max(values, from, to) > (Long.MAX_VALUE / factor))
+            || (KERNELS.min(values, from, to) < (Long.MIN_VALUE / factor))) {
+      return false;
+    }
+    KERNELS.multiply(values, from, to, factor);
+    return true;
+  }
+
+  /**
+   * Changes the scale of a range of elements in place, like
+   * {@link BigDecimal96#withScale(int)} for every element.
+   *
+   * <p>Ranges in which all elements fit into a long and have the same
+   * scale are scaled up without allocating as long as all results still
+   * fit into a long.</p>
+   *
+   * @param array the elements to change, not {@code null}
+   * @param offset the index of the first element
+   * @param length the number of elements
+   * @param newScale the new scale, from 0 to {@value BigDecimal96#MAX_SCALE}
+   * @throws IllegalArgumentException if the scale is not supported
+   * @throws ArithmeticException if any result does not fit or rounding
+   *                             would be necessary, in this case no
+   *                             element is changed
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public static void withScale(BigDecimal96Array array, int offset, int length, int newScale) {
+    if ((newScale < 0) || (newScale > BigDecimal96.MAX_SCALE)) {
+      throw new IllegalArgumentException("invalid scale");
+    }
+    checkRange(offset, length, array.length());
+    int end = offset + length;
+    int highBits = uniformCompactHighBits(array, offset, end);
+    if (highBits != NOT_UNIFORM) {
+      int scale = BigDecimal96.getScale(highBits);
+      if (scale == newScale) {
+        return;
+      }
+      if ((newScale > scale) && multiplyPow10IfFits(array.getLowBitsColumn(), offset, end, newScale - scale)) {
+        Arrays.fill(array.getHighBitsColumn(), offset, end, BigDecimal96.getHighByte(newScale, BigDecimal96.COMPACT_ARRAY_LENGTH));
+        return;
+      }
+    }
+    // compute all results first so that no element is changed if one fails
+    BigDecimal96[] results = new BigDecimal96[length];
+    for (int i = 0; i < length; i++) {
+      results[i] = array.get(offset + i).withScale(newScale);
+    }
+    for (int i = 0; i < length; i++) {
+      array.set(offset + i, results[i]);
+    }
+  }
+
+  /**
+   * Returns the high bits shared by all elements of a range if they fit
+   * into a long.
+   *
+   * @return the high bits, {@link #NOT_UNIFORM} if the range is empty or
+   *         not all elements fit into a long and have the same scale
+   */
+  private static int uniformCompactHighBits(BigDecimal96Array array, int from, int to) {
+    if (from == to) {
+      return NOT_UNIFORM;
+    }
+    int highBits = array.getHighBits(from);
+    if (!BigDecimal96.isCompact(highBits) || !KERNELS.allEqual(array.getHighBitsColumn(), from + 1, to, highBits)) {
+      return NOT_UNIFORM;
+    }
+    return highBits;
+  }
+
+  /**
+   * Updates the bits of a range within one word of a bitmap.
+   *
+   * @return the number of bits set
+   */
+  private static int setBits(long[] bitmap, int start, int end, long bits) {
+    // shifts only use the low 6 bits
+    long mask = (-1L << start) & (-1L >>> (63 - ((end - 1) & 63)));
+    int word = start >>> 6;
+    bitmap[word] = (bitmap[word] & ~mask) | (bits & mask);
+    return Long.bitCount(bits & mask);
+  }
+
+  private static void checkRange(int offset, int length, int arrayLength) {
+    if ((offset < 0) || (length < 0) || (offset > (arrayLength - length))) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + arrayLength);
+    }
+  }
+
+  private static void checkBitmap(int offset, int length, long[] bitmap) {
+    if ((length > 0) && ((((offset + length) - 1) >>> 6) >= bitmap.length)) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", bitmap length: " + bitmap.length);
+    }
+  }
+
+}
@@ -0,0 +1,199 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * Fixed width binary keys for decimal values where comparing the keys
+ * byte by byte as unsigned values gives the same order as comparing the
+ * values numerically.
+ *
+ * <p>A key consists of the unscaled value rescaled to
+ * {@value #KEY_SCALE} in big endian two's complement with the sign bit
+ * flipped, followed by one byte with the original scale. Values that are
+ * numerically equal but have different scales, like {@code 1.0} and
+ * {@code 1.00}, therefore differ only in the last byte and are ordered by
+ * scale.</p>
+ *
+ * <p>The rescaled value is computed in 192 bit arithmetic in three
+ * longs, {@code top}, {@code hi} and {@code lo}, because the 120 bit
+ * values of {@link BigDecimal128} times 10^6 do not fit into 128 bits.</p>
+ *
+ * <p>Decoding is split into multiple methods so that no intermediate
+ * object has to be allocated.</p>
+ */
+final class DecimalKey {
+
+  /**
+   * The scale all values are aligned to, the largest scale supported.
+   */
+  static final int KEY_SCALE = 6;
+
+  private static final long KEY_SCALE_FACTOR = DecimalMath.POWERS_OF_TEN[KEY_SCALE];
+
+  private DecimalKey() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Writes a key.
+   *
+   * @param key the array to write to
+   * @param offset the index of the first byte to write
+   * @param valueBytes the number of bytes used for the rescaled value,
+   *                   from 9 to 24, the key is one byte longer
+   * @param hi the high 64 bits of the unscaled value
+   * @param lo the low 64 bits of the unscaled value
+   * @param scale the scale, from 0 to {@value #KEY_SCALE}
+   * @throws IndexOutOfBoundsException if the key does not fit into the
+   *                                   array
+   */
+  static void encode(byte[] key, int offset, int valueBytes, long hi, long lo, int scale) {
+    checkBounds(key, offset, valueBytes);
+    boolean negative = hi < 0L;
+    long magnitudeHi = negative ? DecimalMath.negateHigh(hi, lo) : hi;
+    long magnitudeLo = negative ? -lo : lo;
+
+    // 192 bit product of the 128 bit magnitude and 10^(6 - scale)
+    long factor = DecimalMath.POWERS_OF_TEN[KEY_SCALE - scale];
+    long productLo = magnitudeLo * factor;
+    long carry = DecimalMath.unsignedMultiplyHigh(magnitudeLo, factor);
+    long productHi = (magnitudeHi * factor) + carry;
+    long productTop = DecimalMath.unsignedMultiplyHigh(magnitudeHi, factor);
+    if (Long.compareUnsigned(productHi, carry) < 0) {
+      productTop += 1L;
+    }
+
+    if (negative) {
+      // two's complement is ~x + 1
+      productTop = ~productTop;
+      productHi = ~productHi;
+      productLo = -productLo;
+      if (productLo == 0L) {
+        productHi += 1L;
+        if (productHi == 0L) {
+          productTop += 1L;
+        }
+      }
+    }
+
+    for (int i = 0; i < valueBytes; i++) {
+      int bit = (valueBytes - 1 - i) * 8;
+      long limb;
+      if (bit >= 128) {
+        limb = productTop;
+      } else if (bit >= 64) {
+        limb = productHi;
+      } else {
+        limb = productLo;
+      }
+      key[offset + i] = (byte) (limb >>> (bit & 63));
+    }
+    // flipping the sign bit makes negative values sort before positive ones
+    key[offset] ^= (byte) 0x80;
+    key[offset + valueBytes] = (byte) scale;
+  }
+
+  /**
+   * Reads the scale of a key.
+   *
+   * @param key the array to read from
+   * @param offset the index of the first byte of the key
+   * @param valueBytes the number of bytes used for the rescaled value
+   * @return the scale, from 0 to {@value #KEY_SCALE}
+   * @throws IllegalArgumentException if the key is not valid
+   * @throws IndexOutOfBoundsException if the key is not in the array
+   */
+  static int decodeScale(byte[] key, int offset, int valueBytes) {
+    checkBounds(key, offset, valueBytes);
+    int scale = key[offset + valueBytes];
+    if ((scale < 0) || (scale > KEY_SCALE)) {
+      throw new IllegalArgumentException("invalid key");
+    }
+    return scale;
+  }
+
+  /**
+   * Computes the high 64 bits of the unscaled value of a key. The key has
+   * to have been validated with {@link #decodeScale(byte[], int, int)}.
+   *
+   * @param key the array to read from
+   * @param offset the index of the first byte of the key
+   * @param valueBytes the number of bytes used for the rescaled value
+   * @return the high 64 bits of the two's complement of the unscaled value
+   * @throws IllegalArgumentException if the key is not valid
+   */
+  static long decodeHigh(byte[] key, int offset, int valueBytes) {
+    return decode(key, offset, valueBytes, true);
+  }
+
+  /**
+   * Computes the low 64 bits of the unscaled value of a key. The key has
+   * to have been validated with {@link #decodeScale(byte[], int, int)}.
+   *
+   * @param key the array to read from
+   * @param offset the index of the first byte of the key
+   * @param valueBytes the number of bytes used for the rescaled value
+   * @return the low 64 bits of the two's complement of the unscaled value
+   * @throws IllegalArgumentException if the key is not valid
+   */
+  static long decodeLow(byte[] key, int offset, int valueBytes) {
+    return decode(key, offset, valueBytes, false);
+  }
+
+  private static long decode(byte[] key, int offset, int valueBytes, boolean high) {
+    long top = 0L;
+    long hi = 0L;
+    long lo = 0L;
+    for (int i = 0; i < valueBytes; i++) {
+      long value = key[offset + i] & 0xFF;
+      if (i == 0) {
+        value ^= 0x80;
+      }
+      top = (top << 8) | (hi >>> 56);
+      hi = (hi << 8) | (lo >>> 56);
+      lo = (lo << 8) | value;
+    }
+    // sign extend to 192 bits
+    int bits = valueBytes * 8;
+    if (bits > 128) {
+      top = (top << (192 - bits)) >> (192 - bits);
+    } else {
+      hi = (hi << (128 - bits)) >> (128 - bits);
+      top = hi >> 63;
+    }
+
+    boolean negative = top < 0L;
+    if (negative) {
+      top = ~top;
+      hi = ~hi;
+      lo = -lo;
+      if (lo == 0L) {
+        hi += 1L;
+        if (hi == 0L) {
+          top += 1L;
+        }
+      }
+    }
+
+    long divisor = KEY_SCALE_FACTOR / DecimalMath.POWERS_OF_TEN[key[offset + valueBytes]];
+    long quotientTop = top / divisor;
+    long remainder = top % divisor;
+    long quotientHi = DecimalMath.divideUnsignedLow(remainder, hi, divisor);
+    remainder = DecimalMath.remainderUnsigned(remainder, hi, divisor);
+    long quotientLo = DecimalMath.divideUnsignedLow(remainder, lo, divisor);
+    remainder = DecimalMath.remainderUnsigned(remainder, lo, divisor);
+    if ((remainder != 0L) || (quotientTop != 0L) || (quotientHi < 0L)) {
+      throw new IllegalArgumentException("invalid key");
+    }
+
+    if (high) {
+      return negative ? DecimalMath.negateHigh(quotientHi, quotientLo) : quotientHi;
+    }
+    return negative ? -quotientLo : quotientLo;
+  }
+
+  private static void checkBounds(byte[] key, int offset, int valueBytes) {
+    if ((offset < 0) || (offset > (key.length - valueBytes - 1))) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + key.length);
+    }
+  }
+
+}
@@ -0,0 +1,360 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Shared integer math helpers for the packed decimal representations.
+ */
+final class DecimalMath {
+
+  /**
+   * Powers of ten that fit into a long, indexed by exponent.
+   */
+  static final long[] POWERS_OF_TEN = {
+      1L,
+      10L,
+      100L,
+      1_000L,
+      10_000L,
+      100_000L,
+      1_000_000L,
+      10_000_000L,
+      100_000_000L,
+      1_000_000_000L,
+      10_000_000_000L,
+      100_000_000_000L,
+      1_000_000_000_000L,
+      10_000_000_000_000L,
+      100_000_000_000_000L,
+      1_000_000_000_000_000L,
+      10_000_000_000_000_000L,
+      100_000_000_000_000_000L,
+      1_000_000_000_000_000_000L
+  };
+
+  private DecimalMath() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Multiplies a value with a power of ten.
+   *
+   * @param l the value to multiply
+   * @param exponent the exponent of the power of ten, not negative
+   * @return {@code l * 10^exponent}
+   * @throws ArithmeticException if the result overflows a long
+   */
+  static long pow10(long l, int exponent) {
+    long result = l;
+    for (int i = 0; i < exponent; i++) {
+      result = Math.multiplyExact(result, 10L);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the high 64 bits of the signed 128 bit product of two longs.
+   *
+   * @implNote equivalent to {@code Math.multiplyHigh} which is only
+   *           available on Java 9 and later
+   * @param x the first value
+   * @param y the second value
+   * @return the high 64 bits of {@code x * y}
+   */
+  static long multiplyHigh(long x, long y) {
+    // Hacker's Delight (2nd ed.) section 8-2
+    long x1 = x >> 32;
+    long x2 = x & 0xFFFFFFFFL;
+    long y1 = y >> 32;
+    long y2 = y & 0xFFFFFFFFL;
+
+    long z2 = x2 * y2;
+    long t = (x1 * y2) + (z2 >>> 32);
+    long z1 = t & 0xFFFFFFFFL;
+    long z0 = t >> 32;
+    z1 += x2 * y1;
+
+    return (x1 * y1) + z0 + (z1 >> 32);
+  }
+
+  /**
+   * Returns the high 64 bits of the unsigned 128 bit product of two longs.
+   *
+   * @param x the first value, interpreted as unsigned
+   * @param y the second value, interpreted as unsigned
+   * @return the high 64 bits of {@code x * y}
+   */
+  static long unsignedMultiplyHigh(long x, long y) {
+    return multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+
+  /**
+   * Returns the high 64 bits of a signed 128 bit value multiplied with
+   * a power of ten. The low 64 bits are simply {@code lo * 10^exponent}.
+   *
+   * @param hi the high 64 bits of the value
+   * @param lo the low 64 bits of the value
+   * @param exponent the exponent of the power of ten, from 0 to 18
+   * @return the high 64 bits of the product
+   * @throws ArithmeticException if the product overflows 128 bits
+   */
+  static long multiplyPow10High(long hi, long lo, int exponent) {
+    if (exponent == 0) {
+      return hi;
+    }
+    long power = POWERS_OF_TEN[exponent];
+    long carry = unsignedMultiplyHigh(lo, power);
+    long middle = (hi * power) + carry;
+    long top = multiplyHigh(hi, power);
+    if (Long.compareUnsigned(middle, carry) < 0) {
+      top += 1L;
+    }
+    if (top != (middle >> 63)) {
+      throw new ArithmeticException("overflow");
+    }
+    return middle;
+  }
+
+  /**
+   * Returns the high 64 bits of the sum of two signed 128 bit values.
+   * The low 64 bits are simply {@code lo1 + lo2}.
+   *
+   * <p>Overflow is not detected, all callers have operands that are
+   * small enough for this not to happen.</p>
+   *
+   * @param hi1 the high 64 bits of the first value
+   * @param lo1 the low 64 bits of the first value
+   * @param hi2 the high 64 bits of the second value
+   * @param lo2 the low 64 bits of the second value
+   * @return the high 64 bits of the sum
+   */
+  static long addHigh(long hi1, long lo1, long hi2, long lo2) {
+    long lo = lo1 + lo2;
+    long carry = Long.compareUnsigned(lo, lo1) < 0 ? 1L : 0L;
+    return hi1 + hi2 + carry;
+  }
+
+  /**
+   * Returns the high 64 bits of the difference of two signed 128 bit
+   * values. The low 64 bits are simply {@code lo1 - lo2}.
+   *
+   * <p>Overflow is not detected, all callers have operands that are
+   * small enough for this not to happen.</p>
+   *
+   * @param hi1 the high 64 bits of the minuend
+   * @param lo1 the low 64 bits of the minuend
+   * @param hi2 the high 64 bits of the subtrahend
+   * @param lo2 the low 64 bits of the subtrahend
+   * @return the high 64 bits of the difference
+   */
+  static long subtractHigh(long hi1, long lo1, long hi2, long lo2) {
+    long borrow = Long.compareUnsigned(lo1, lo2) < 0 ? 1L : 0L;
+    return hi1 - hi2 - borrow;
+  }
+
+  /**
+   * Returns the high 64 bits of the negation of a signed 128 bit value.
+   * The low 64 bits are simply {@code -lo}.
+   *
+   * @param hi the high 64 bits of the value
+   * @param lo the low 64 bits of the value
+   * @return the high 64 bits of the negation
+   */
+  static long negateHigh(long hi, long lo) {
+    return lo == 0L ? -hi : ~hi;
+  }
+
+  /**
+   * Compares two signed 128 bit values.
+   *
+   * @param hi1 the high 64 bits of the first value
+   * @param lo1 the low 64 bits of the first value
+   * @param hi2 the high 64 bits of the second value
+   * @param lo2 the low 64 bits of the second value
+   * @return the comparison result as defined by {@link Comparable#compareTo(Object)}
+   */
+  static int compare(long hi1, long lo1, long hi2, long lo2) {
+    if (hi1 != hi2) {
+      return Long.compare(hi1, hi2);
+    }
+    return Long.compareUnsigned(lo1, lo2);
+  }
+
+  /**
+   * Returns the low 64 bits of the quotient of an unsigned 128 bit
+   * value and a small divisor. The high 64 bits are simply
+   * {@code Long.divideUnsigned(hi, divisor)}.
+   *
+   * @param hi the high 64 bits of the dividend, interpreted as unsigned
+   * @param lo the low 64 bits of the dividend, interpreted as unsigned
+   * @param divisor the divisor, positive and less than 2^31
+   * @return the low 64 bits of the quotient
+   */
+  static long divideUnsignedLow(long hi, long lo, long divisor) {
+    long remainder = Long.remainderUnsigned(hi, divisor);
+    long upper = (remainder << 32) | (lo >>> 32);
+    long upperQuotient = upper / divisor;
+    long lower = ((upper % divisor) << 32) | (lo & 0xFFFFFFFFL);
+    return (upperQuotient << 32) | (lower / divisor);
+  }
+
+  /**
+   * Returns the remainder of an unsigned 128 bit value and a small divisor.
+   *
+   * @param hi the high 64 bits of the dividend, interpreted as unsigned
+   * @param lo the low 64 bits of the dividend, interpreted as unsigned
+   * @param divisor the divisor, positive and less than 2^31
+   * @return the remainder
+   */
+  static long remainderUnsigned(long hi, long lo, long divisor) {
+    long remainder = Long.remainderUnsigned(hi, divisor);
+    long upper = (remainder << 32) | (lo >>> 32);
+    long lower = ((upper % divisor) << 32) | (lo & 0xFFFFFFFFL);
+    return lower % divisor;
+  }
+
+  /**
+   * Divides an unsigned 128 bit value by an unsigned 64 bit value where
+   * the quotient fits into 64 bits. The remainder is
+   * {@code lo - quotient * divisor}.
+   *
+   * @param hi the high 64 bits of the dividend, interpreted as unsigned,
+   *           has to be less than {@code divisor}
+   * @param lo the low 64 bits of the dividend, interpreted as unsigned
+   * @param divisor the divisor, interpreted as unsigned, not 0
+   * @return the quotient, interpreted as unsigned
+   */
+  static long divideUnsigned(long hi, long lo, long divisor) {
+    // Hacker's Delight (2nd ed.) section 9-4, divlu
+    long base = 1L << 32;
+    int shift = Long.numberOfLeadingZeros(divisor);
+    long v = divisor << shift;
+    long vn1 = v >>> 32;
+    long vn0 = v & 0xFFFFFFFFL;
+
+    long un32 = hi << shift;
+    if (shift != 0) {
+      un32 |= lo >>> (64 - shift);
+    }
+    long un10 = lo << shift;
+    long un1 = un10 >>> 32;
+    long un0 = un10 & 0xFFFFFFFFL;
+
+    long q1 = Long.divideUnsigned(un32, vn1);
+    long rhat = Long.remainderUnsigned(un32, vn1);
+    while ((q1 >= base) || (Long.compareUnsigned(q1 * vn0, (rhat << 32) + un1) > 0)) {
+      q1 -= 1L;
+      rhat += vn1;
+      if (rhat >= base) {
+        break;
+      }
+    }
+
+    long un21 = ((un32 << 32) + un1) - (q1 * v);
+    long q0 = Long.divideUnsigned(un21, vn1);
+    rhat = Long.remainderUnsigned(un21, vn1);
+    while ((q0 >= base) || (Long.compareUnsigned(q0 * vn0, (rhat << 32) + un0) > 0)) {
+      q0 -= 1L;
+      rhat += vn1;
+      if (rhat >= base) {
+        break;
+      }
+    }
+    return (q1 << 32) + q0;
+  }
+
+  /**
+   * Decides whether the magnitude of a truncated quotient has to be
+   * incremented to implement a rounding mode.
+   *
+   * @param quotient the low bits of the truncated magnitude of the quotient
+   * @param remainder the remainder of the division, interpreted as unsigned
+   * @param divisor the divisor, interpreted as unsigned
+   * @param negative whether the quotient is negative
+   * @param roundingMode the rounding mode
+   * @return whether the magnitude has to be incremented
+   * @throws ArithmeticException if {@code roundingMode} is
+   *                             {@link RoundingMode#UNNECESSARY}
+   *                             and the remainder is not zero
+   */
+  static boolean needsIncrement(long quotient, long remainder, long divisor,
+          boolean negative, RoundingMode roundingMode) {
+    if (remainder == 0L) {
+      return false;
+    }
+    switch (roundingMode) {
+      case UNNECESSARY:
+        throw new ArithmeticException("Rounding necessary");
+      case UP:
+        return true;
+      case DOWN:
+        return false;
+      case CEILING:
+        return !negative;
+      case FLOOR:
+        return negative;
+      default:
+        int halfComparison = Long.compareUnsigned(remainder, divisor - remainder);
+        if (halfComparison != 0) {
+          return halfComparison > 0;
+        }
+        switch (roundingMode) {
+          case HALF_UP:
+            return true;
+          case HALF_DOWN:
+            return false;
+          case HALF_EVEN:
+            return (quotient & 1L) != 0L;
+          default:
+            throw new AssertionError("unknown rounding mode: " + roundingMode);
+        }
+    }
+  }
+
+  /**
+   * Converts a signed 128 bit unscaled value to a {@link BigDecimal}.
+   *
+   * @param hi the high 64 bits of the unscaled value
+   * @param lo the low 64 bits of the unscaled value
+   * @param scale the scale
+   * @return the value as {@link BigDecimal}
+   */
+  static BigDecimal toBigDecimal(long hi, long lo, int scale) {
+    if (hi == (lo >> 63)) {
+      return BigDecimal.valueOf(lo, scale);
+    }
+    byte[] twosComplement = new byte[16];
+    for (int i = 0; i < 8; i++) {
+      twosComplement[i] = (byte) (hi >>> (56 - (i * 8)));
+      twosComplement[i + 8] = (byte) (lo >>> (56 - (i * 8)));
+    }
+    return new BigDecimal(new BigInteger(twosComplement), scale);
+  }
+
+  /**
+   * Computes a well distributed hash of the packed bits of a value.
+   *
+   * <p>The packed bits of similar values differ mostly in the low bits
+   * and all compact values share the same high byte. Unlike
+   * {@code highBits ^ Long.hashCode(lowBits)} every input bit affects
+   * all bits of the result so any subset of them can be used as index
+   * into a hash table.</p>
+   *
+   * @param highBits the high bits of the value
+   * @param lowBits the low bits of the value
+   * @return the hash
+   */
+  static int mix(long highBits, long lowBits) {
+    // finalizer of MurmurHash3
+    long h = lowBits ^ (highBits * 0x9E3779B97F4A7C15L);
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+}
@@ -0,0 +1,128 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Reads decimal values written by a {@link DecimalStreamWriter}.
+ *
+ * <p>The reader does not buffer and does not own the input, closing the
+ * input is the responsibility of the caller.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ *
+ * @see DecimalStreamWriter
+ */
+public final class DecimalStreamReader {
+
+  private final DataInput in;
+
+  private final byte[] buffer;
+
+  /**
+   * Creates a new reader and reads the header.
+   *
+   * @param in where to read from, not {@code null}
+   * @throws IOException if reading the header fails
+   * @throws StreamCorruptedException if the header is not valid
+   */
+  public DecimalStreamReader(DataInput in) throws IOException {
+    this.in = in;
+    this.buffer = new byte[DecimalVarint.MAX_BYTES];
+    int header = in.readInt();
+    if (header != DecimalStreamWriter.HEADER) {
+      throw new StreamCorruptedException("invalid header: " + Integer.toHexString(header));
+    }
+  }
+
+  /**
+   * Reads a value.
+   *
+   * @return the value read, may be {@code null}
+   * @throws IOException if reading fails
+   * @throws StreamCorruptedException if the input does not contain a
+   *                                  valid value or the value does not
+   *                                  fit into a {@link BigDecimal96}
+   */
+  public BigDecimal96 readBigDecimal96() throws IOException {
+    int tag = this.in.readUnsignedByte();
+    if (tag == DecimalVarint.NULL_TAG) {
+      return null;
+    }
+    DecimalVarint.readValue(this.in, tag, BigDecimal96.MAX_SCALE, this.buffer);
+    return BigDecimal96.valueOf(BigDecimal96.readHighBits(tag, this.buffer), DecimalVarint.decodeLow(this.buffer));
+  }
+
+  /**
+   * Reads a value.
+   *
+   * @return the value read, may be {@code null}
+   * @throws IOException if reading fails
+   * @throws StreamCorruptedException if the input does not contain a
+   *                                  valid value or the value does not
+   *                                  fit into a {@link BigDecimal128}
+   */
+  public BigDecimal128 readBigDecimal128() throws IOException {
+    int tag = this.in.readUnsignedByte();
+    if (tag == DecimalVarint.NULL_TAG) {
+      return null;
+    }
+    DecimalVarint.readValue(this.in, tag, BigDecimal128.MAX_SCALE, this.buffer);
+    return BigDecimal128.valueOf(BigDecimal128.readHighBits(tag, this.buffer), DecimalVarint.decodeLow(this.buffer));
+  }
+
+  /**
+   * Reads values into a range of elements of an array without creating
+   * an object per element.
+   *
+   * @param array the array to read into, not {@code null}
+   * @param index the index of the first element to read into
+   * @param length the number of elements to read
+   * @throws IOException if reading fails
+   * @throws StreamCorruptedException if the input does not contain a
+   *                                  valid value, contains {@code null}
+   *                                  or a value does not fit into a
+   *                                  {@link BigDecimal96}
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public void read(BigDecimal96Array array, int index, int length) throws IOException {
+    DecimalStreamWriter.checkRange(index, length, array.length());
+    for (int i = index; i < (index + length); i++) {
+      int tag = this.readNonNullValue(BigDecimal96.MAX_SCALE);
+      array.setBits(i, BigDecimal96.readHighBits(tag, this.buffer), DecimalVarint.decodeLow(this.buffer));
+    }
+  }
+
+  /**
+   * Reads values into a range of elements of an array without creating
+   * an object per element.
+   *
+   * @param array the array to read into, not {@code null}
+   * @param index the index of the first element to read into
+   * @param length the number of elements to read
+   * @throws IOException if reading fails
+   * @throws StreamCorruptedException if the input does not contain a
+   *                                  valid value, contains {@code null}
+   *                                  or a value does not fit into a
+   *                                  {@link BigDecimal128}
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public void read(BigDecimal128Array array, int index, int length) throws IOException {
+    DecimalStreamWriter.checkRange(index, length, array.length());
+    for (int i = index; i < (index + length); i++) {
+      int tag = this.readNonNullValue(BigDecimal128.MAX_SCALE);
+      array.setBits(i, BigDecimal128.readHighBits(tag, this.buffer), DecimalVarint.decodeLow(this.buffer));
+    }
+  }
+
+  private int readNonNullValue(int maxScale) throws IOException {
+    int tag = this.in.readUnsignedByte();
+    if (tag == DecimalVarint.NULL_TAG) {
+      throw new StreamCorruptedException("unexpected null");
+    }
+    DecimalVarint.readValue(this.in, tag, maxScale, this.buffer);
+    return tag;
+  }
+
+}
@@ -0,0 +1,116 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes many decimal values to a {@link DataOutput} in the compact
+ * variable length format of {@link BigDecimal96#writeTo(DataOutput)}.
+ *
+ * <p>Unlike Java serialization, which writes a class descriptor and a
+ * handle per object, the stream starts with a single four byte header
+ * after which each value takes between one and
+ * {@value BigDecimal128#BYTES} bytes. {@code null} values take one byte.
+ * {@link BigDecimal96} and {@link BigDecimal128} values share the same
+ * format and can be mixed, a value written as one type can be read as
+ * the other as long as it fits.</p>
+ *
+ * <p>The writer does not buffer and does not own the output, flushing
+ * and closing the output is the responsibility of the caller.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ *
+ * @see DecimalStreamReader
+ */
+public final class DecimalStreamWriter {
+
+  /**
+   * {@code "BDS"} followed by the format version.
+   */
+  static final int HEADER = 0x42_44_53_01;
+
+  private final DataOutput out;
+
+  private final byte[] buffer;
+
+  /**
+   * Creates a new writer and writes the header.
+   *
+   * @param out where to write to, not {@code null}
+   * @throws IOException if writing the header fails
+   */
+  public DecimalStreamWriter(DataOutput out) throws IOException {
+    this.out = out;
+    this.buffer = new byte[DecimalVarint.MAX_BYTES];
+    out.writeInt(HEADER);
+  }
+
+  /**
+   * Writes a value.
+   *
+   * @param value the value to write, may be {@code null}
+   * @throws IOException if writing fails
+   */
+  public void write(BigDecimal96 value) throws IOException {
+    if (value == null) {
+      this.out.writeByte(DecimalVarint.NULL_TAG);
+    } else {
+      BigDecimal96.writeTo(this.out, value.getHighBits(), value.getLowBits(), this.buffer);
+    }
+  }
+
+  /**
+   * Writes a value.
+   *
+   * @param value the value to write, may be {@code null}
+   * @throws IOException if writing fails
+   */
+  public void write(BigDecimal128 value) throws IOException {
+    if (value == null) {
+      this.out.writeByte(DecimalVarint.NULL_TAG);
+    } else {
+      BigDecimal128.writeTo(this.out, value.getHighBits(), value.getLowBits(), this.buffer);
+    }
+  }
+
+  /**
+   * Writes a range of elements of an array without creating an object
+   * per element.
+   *
+   * @param array the array to write, not {@code null}
+   * @param index the index of the first element to write
+   * @param length the number of elements to write
+   * @throws IOException if writing fails
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public void write(BigDecimal96Array array, int index, int length) throws IOException {
+    checkRange(index, length, array.length());
+    for (int i = index; i < (index + length); i++) {
+      BigDecimal96.writeTo(this.out, array.getHighBits(i), array.getLowBits(i), this.buffer);
+    }
+  }
+
+  /**
+   * Writes a range of elements of an array without creating an object
+   * per element.
+   *
+   * @param array the array to write, not {@code null}
+   * @param index the index of the first element to write
+   * @param length the number of elements to write
+   * @throws IOException if writing fails
+   * @throws IndexOutOfBoundsException if the range is outside of the array
+   */
+  public void write(BigDecimal128Array array, int index, int length) throws IOException {
+    checkRange(index, length, array.length());
+    for (int i = index; i < (index + length); i++) {
+      BigDecimal128.writeTo(this.out, array.getHighBits(i), array.getLowBits(i), this.buffer);
+    }
+  }
+
+  static void checkRange(int index, int length, int arrayLength) {
+    if ((index < 0) || (length < 0) || (index > (arrayLength - length))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", array length: " + arrayLength);
+    }
+  }
+
+}
@@ -0,0 +1,269 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.io.IOException;
+
+/**
+ * Conversion between decimal text and signed 128 bit unscaled values
+ * without going through {@link java.math.BigDecimal}.
+ *
+ * <p>The accepted syntax is an optional sign followed by digits with an
+ * optional decimal point, at least one digit is required. Exponents are
+ * not supported. The text produced is the same as
+ * {@link java.math.BigDecimal#toString()} for scales from 0 to 6.</p>
+ *
+ * <p>Parsing is split into multiple passes over the text so that no
+ * intermediate object has to be allocated.</p>
+ */
+final class DecimalText {
+
+  /**
+   * Text of at most this length always has an unscaled value that fits
+   * into a long.
+   */
+  private static final int MAX_LONG_LENGTH = 18;
+
+  private static final long CHUNK = DecimalMath.POWERS_OF_TEN[18];
+
+  private DecimalText() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Validates the syntax of a decimal number.
+   *
+   * @param text the text to parse
+   * @param start the index of the first character
+   * @param end the index after the last character
+   * @return the number of digits after the decimal point
+   * @throws NumberFormatException if the text is not a valid decimal number
+   * @throws IndexOutOfBoundsException if {@code start} or {@code end}
+   *                                   are out of bounds
+   */
+  static int parseScale(CharSequence text, int start, int end) {
+    if ((start < 0) || (end > text.length()) || (start > end)) {
+      throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + text.length());
+    }
+    int index = start;
+    if ((index < end) && isSign(text.charAt(index))) {
+      index += 1;
+    }
+    int digits = 0;
+    int point = -1;
+    for (; index < end; index++) {
+      char c = text.charAt(index);
+      if ((c >= '0') && (c <= '9')) {
+        digits += 1;
+      } else if ((c == '.') && (point == -1)) {
+        point = index;
+      } else {
+        throw new NumberFormatException("invalid character at index: " + index + " in: " + text.subSequence(start, end));
+      }
+    }
+    if (digits == 0) {
+      throw new NumberFormatException("no digits in: " + text.subSequence(start, end));
+    }
+    return point == -1 ? 0 : end - point - 1;
+  }
+
+  /**
+   * Computes the low 64 bits of the unscaled value of a decimal number.
+   * The text has to have been validated with
+   * {@link #parseScale(CharSequence, int, int)}.
+   *
+   * @param text the text to parse
+   * @param start the index of the first character
+   * @param end the index after the last character
+   * @return the low 64 bits of the two's complement of the unscaled value
+   */
+  static long parseLow(CharSequence text, int start, int end) {
+    boolean negative = text.charAt(start) == '-';
+    long value = 0L;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if ((c >= '0') && (c <= '9')) {
+        value = (value * 10L) + (c - '0');
+      }
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Computes the high 64 bits of the unscaled value of a decimal number.
+   * The text has to have been validated with
+   * {@link #parseScale(CharSequence, int, int)}.
+   *
+   * @param text the text to parse
+   * @param start the index of the first character
+   * @param end the index after the last character
+   * @param low the low 64 bits as computed by
+   *            {@link #parseLow(CharSequence, int, int)}
+   * @return the high 64 bits of the two's complement of the unscaled value
+   * @throws ArithmeticException if the unscaled value does not fit into
+   *                             128 bits
+   */
+  static long parseHigh(CharSequence text, int start, int end, long low) {
+    if ((end - start) <= MAX_LONG_LENGTH) {
+      // common case, no need to look at the text again
+      return low >> 63;
+    }
+    boolean negative = text.charAt(start) == '-';
+    long hi = 0L;
+    long lo = 0L;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if ((c >= '0') && (c <= '9')) {
+        hi = DecimalMath.multiplyPow10High(hi, lo, 1);
+        lo *= 10L;
+        long digit = c - '0';
+        hi = DecimalMath.addHigh(hi, lo, 0L, digit);
+        lo += digit;
+        if (hi < 0L) {
+          throw new ArithmeticException("overflow");
+        }
+      }
+    }
+    return negative ? DecimalMath.negateHigh(hi, lo) : hi;
+  }
+
+  private static boolean isSign(char c) {
+    return (c == '-') || (c == '+');
+  }
+
+  /**
+   * Appends the text of a decimal number.
+   *
+   * @param out where to append the text
+   * @param hi the high 64 bits of the unscaled value, the magnitude
+   *           has to be less than 2^120
+   * @param lo the low 64 bits of the unscaled value
+   * @param scale the scale, from 0 to 18
+   */
+  static void appendTo(StringBuilder out, long hi, long lo, int scale) {
+    try {
+      appendTo((Appendable) out, hi, lo, scale);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder should not throw IOException", e);
+    }
+  }
+
+  /**
+   * Appends the text of a decimal number.
+   *
+   * @param out where to append the text
+   * @param hi the high 64 bits of the unscaled value, the magnitude
+   *           has to be less than 2^120
+   * @param lo the low 64 bits of the unscaled value
+   * @param scale the scale, from 0 to 18
+   * @throws IOException if appending fails
+   */
+  static void appendTo(Appendable out, long hi, long lo, int scale) throws IOException {
+    long magnitudeHi = hi;
+    long magnitudeLo = lo;
+    if (hi < 0L) {
+      out.append('-');
+      magnitudeHi = DecimalMath.negateHigh(hi, lo);
+      magnitudeLo = -lo;
+    }
+    if ((magnitudeHi == 0L) && (magnitudeLo >= 0L)) {
+      appendDigits(out, magnitudeLo, 0, scale);
+    } else {
+      // split into an upper part and 18 lower digits, the upper part
+      // fits into a long because the magnitude is less than 10^18 * 2^63
+      long upper = DecimalMath.divideUnsigned(magnitudeHi, magnitudeLo, CHUNK);
+      long lower = magnitudeLo - (upper * CHUNK);
+      appendDigits(out, upper, 0, 0);
+      appendDigits(out, lower, 18, scale);
+    }
+  }
+
+  /**
+   * Appends the digits of a non-negative value, padded with leading
+   * zeros to at least the given width and so that there is a digit
+   * before the decimal point.
+   */
+  private static void appendDigits(Appendable out, long value, int width, int scale) throws IOException {
+    int length = Math.max(Math.max(width, scale + 1), digitCount(value));
+    long remaining = value;
+    for (int i = length - 1; i >= 0; i--) {
+      if (i == (scale - 1)) {
+        out.append('.');
+      }
+      long digit = remaining / DecimalMath.POWERS_OF_TEN[i];
+      remaining -= digit * DecimalMath.POWERS_OF_TEN[i];
+      out.append((char) ('0' + digit));
+    }
+  }
+
+  /**
+   * Writes the text of a decimal number into an array, the same text as
+   * {@link #appendTo(Appendable, long, long, int)}.
+   *
+   * @param hi the high 64 bits of the unscaled value, the magnitude
+   *           has to be less than 2^120
+   * @param lo the low 64 bits of the unscaled value
+   * @param scale the scale, from 0 to 18
+   * @param destination the array to write to
+   * @param offset the index of the first character to write
+   * @return the number of characters written
+   * @throws IndexOutOfBoundsException if the text does not fit into
+   *                                   the array, in this case some
+   *                                   characters may have been written
+   */
+  static int getChars(long hi, long lo, int scale, char[] destination, int offset) {
+    if (offset < 0) {
+      throw new IndexOutOfBoundsException("offset: " + offset);
+    }
+    long magnitudeHi = hi;
+    long magnitudeLo = lo;
+    int index = offset;
+    if (hi < 0L) {
+      destination[index++] = '-';
+      magnitudeHi = DecimalMath.negateHigh(hi, lo);
+      magnitudeLo = -lo;
+    }
+    if ((magnitudeHi == 0L) && (magnitudeLo >= 0L)) {
+      index = putDigits(magnitudeLo, 0, scale, destination, index);
+    } else {
+      long upper = DecimalMath.divideUnsigned(magnitudeHi, magnitudeLo, CHUNK);
+      long lower = magnitudeLo - (upper * CHUNK);
+      index = putDigits(upper, 0, 0, destination, index);
+      index = putDigits(lower, 18, scale, destination, index);
+    }
+    return index - offset;
+  }
+
+  /**
+   * Writes the digits of a non-negative value from right to left, with
+   * the same padding as {@link #appendDigits(Appendable, long, int, int)}.
+   *
+   * @return the index after the last character written
+   */
+  private static int putDigits(long value, int width, int scale, char[] destination, int offset) {
+    int length = Math.max(Math.max(width, scale + 1), digitCount(value));
+    int end = offset + length + (scale > 0 ? 1 : 0);
+    if (end > destination.length) {
+      throw new IndexOutOfBoundsException("end: " + end + ", length: " + destination.length);
+    }
+    long remaining = value;
+    int index = end;
+    for (int i = 0; i < length; i++) {
+      if ((i == scale) && (scale > 0)) {
+        destination[--index] = '.';
+      }
+      long quotient = remaining / 10L;
+      destination[--index] = (char) ('0' + (remaining - (quotient * 10L)));
+      remaining = quotient;
+    }
+    return end;
+  }
+
+  private static int digitCount(long value) {
+    for (int i = 1; i < DecimalMath.POWERS_OF_TEN.length; i++) {
+      if (value < DecimalMath.POWERS_OF_TEN[i]) {
+        return i;
+      }
+    }
+    return DecimalMath.POWERS_OF_TEN.length;
+  }
+
+}
@@ -0,0 +1,148 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Variable length encoding of decimal values for streams.
+ *
+ * <p>A value is encoded as one tag byte followed by the zigzag encoded
+ * unscaled value in little endian with leading zero bytes removed. The
+ * low three bits of the tag hold the scale, the upper five bits the
+ * number of value bytes that follow, from 0 to 16. Zigzag encoding maps
+ * values of small magnitude, positive or negative, to small unsigned
+ * values so that for example {@code 1234.56} needs four bytes in total
+ * and {@code 0} only the tag byte.</p>
+ *
+ * <p>The length is stored in the tag instead of a continuation bit in
+ * every byte so that decoding does not need a branch per byte and an
+ * encoded value is never longer than the fixed width formats,
+ * {@value BigDecimal96#BYTES} bytes for {@link BigDecimal96} and
+ * {@value BigDecimal128#BYTES} bytes for {@link BigDecimal128}.</p>
+ *
+ * <p>The tag {@value #NULL_TAG} with the otherwise unused scale 7
+ * represents {@code null}.</p>
+ *
+ * <p>Decoding is split into multiple methods so that no intermediate
+ * object has to be allocated.</p>
+ */
+final class DecimalVarint {
+
+  /**
+   * The maximum number of bytes of an encoded value including the tag.
+   */
+  static final int MAX_BYTES = 17;
+
+  /**
+   * The tag representing {@code null}.
+   */
+  static final int NULL_TAG = 0b111;
+
+  private static final int SCALE_MASK = 0b111;
+
+  private static final int MAX_VALUE_BYTES = MAX_BYTES - 1;
+
+  private DecimalVarint() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Encodes a value.
+   *
+   * @param buffer the array to write to, at least {@value #MAX_BYTES}
+   *               long
+   * @param scale the scale, from 0 to 6
+   * @param hi the high 64 bits of the unscaled value
+   * @param lo the low 64 bits of the unscaled value
+   * @return the number of bytes written including the tag
+   */
+  static int encode(byte[] buffer, int scale, long hi, long lo) {
+    long sign = hi >> 63;
+    long zigzagHi = ((hi << 1) | (lo >>> 63)) ^ sign;
+    long zigzagLo = (lo << 1) ^ sign;
+    int valueBytes;
+    if (zigzagHi == 0L) {
+      valueBytes = (71 - Long.numberOfLeadingZeros(zigzagLo)) / 8;
+    } else {
+      valueBytes = 8 + ((71 - Long.numberOfLeadingZeros(zigzagHi)) / 8);
+    }
+    buffer[0] = (byte) ((valueBytes << 3) | scale);
+    putLong(buffer, 1, zigzagLo, Math.min(valueBytes, 8));
+    putLong(buffer, 9, zigzagHi, valueBytes - 8);
+    return valueBytes + 1;
+  }
+
+  private static void putLong(byte[] buffer, int offset, long value, int length) {
+    for (int i = 0; i < length; i++) {
+      buffer[offset + i] = (byte) (value >>> (i * 8));
+    }
+  }
+
+  /**
+   * Returns the scale of a tag that is not {@link #NULL_TAG}.
+   *
+   * @param tag the tag as read by {@link DataInput#readUnsignedByte()}
+   * @return the scale
+   */
+  static int scale(int tag) {
+    return tag & SCALE_MASK;
+  }
+
+  /**
+   * Reads the value bytes of a tag into a buffer.
+   *
+   * @param in the input to read from
+   * @param tag the tag as read by {@link DataInput#readUnsignedByte()},
+   *            not {@link #NULL_TAG}
+   * @param maxScale the maximum valid scale
+   * @param buffer the array to read into, at least {@value #MAX_BYTES}
+   *               long, bytes not read are set to zero
+   * @throws IOException if reading fails
+   * @throws StreamCorruptedException if the tag is not valid
+   */
+  static void readValue(DataInput in, int tag, int maxScale, byte[] buffer) throws IOException {
+    int valueBytes = tag >>> 3;
+    if ((scale(tag) > maxScale) || (valueBytes > MAX_VALUE_BYTES)) {
+      throw new StreamCorruptedException("invalid tag: " + tag);
+    }
+    in.readFully(buffer, 0, valueBytes);
+    for (int i = valueBytes; i < MAX_VALUE_BYTES; i++) {
+      buffer[i] = 0;
+    }
+  }
+
+  /**
+   * Decodes the low 64 bits of the unscaled value from a buffer filled
+   * by {@link #readValue(DataInput, int, int, byte[])}.
+   *
+   * @param buffer the value bytes
+   * @return the low 64 bits of the two's complement of the unscaled value
+   */
+  static long decodeLow(byte[] buffer) {
+    long zigzagLo = getLong(buffer, 0);
+    long zigzagHi = getLong(buffer, 8);
+    return ((zigzagLo >>> 1) | (zigzagHi << 63)) ^ -(zigzagLo & 1L);
+  }
+
+  /**
+   * Decodes the high 64 bits of the unscaled value from a buffer filled
+   * by {@link #readValue(DataInput, int, int, byte[])}.
+   *
+   * @param buffer the value bytes
+   * @return the high 64 bits of the two's complement of the unscaled value
+   */
+  static long decodeHigh(byte[] buffer) {
+    long zigzagHi = getLong(buffer, 8);
+    return (zigzagHi >>> 1) ^ -(buffer[0] & 1L);
+  }
+
+  private static long getLong(byte[] buffer, int offset) {
+    long value = 0L;
+    for (int i = 7; i >= 0; i--) {
+      value = (value << 8) | (buffer[offset + i] & 0xFFL);
+    }
+    return value;
+  }
+
+}
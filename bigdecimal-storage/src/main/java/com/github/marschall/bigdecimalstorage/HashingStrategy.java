@@ -0,0 +1,34 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * Defines equality and hash codes of objects independent of
+ * {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ *
+ * <p>Implementations have to follow the same contract, objects that are
+ * equal according to {@link #equals(Object, Object)} must have the same
+ * {@link #computeHashCode(Object)}.</p>
+ *
+ * @param <T> the type of objects compared
+ * @see BigDecimal96#NUMERIC_EQUALITY
+ * @see BigDecimal128#NUMERIC_EQUALITY
+ */
+public interface HashingStrategy<T> {
+
+  /**
+   * Computes the hash code of an object.
+   *
+   * @param object the object, not {@code null}
+   * @return the hash code
+   */
+  int computeHashCode(T object);
+
+  /**
+   * Checks whether two objects are equal.
+   *
+   * @param object1 the first object, not {@code null}
+   * @param object2 the second object, not {@code null}
+   * @return whether the objects are equal
+   */
+  boolean equals(T object1, T object2);
+
+}
@@ -0,0 +1,89 @@
+package com.github.marschall.bigdecimalstorage;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A {@link Spliterator} over a range of indices of an array like
+ * structure that creates the elements on demand.
+ *
+ * <p>Splits in half so that fork join tasks get ranges of equal size
+ * down to single elements. Like the spliterators of
+ * {@link java.util.Arrays} it is not late binding and not fail fast,
+ * changes to the array while traversing are visible or not.</p>
+ *
+ * @param <T> the type of elements
+ */
+final class IndexSpliterator<T> implements Spliterator<T> {
+
+  private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL;
+
+  private final IntFunction<T> elements;
+
+  private int index;
+
+  private final int fence;
+
+  /**
+   * Creates a new spliterator.
+   *
+   * @param elements creates the element at an index, never returns
+   *                 {@code null}
+   * @param index the first index, inclusive
+   * @param fence the last index, exclusive
+   */
+  IndexSpliterator(IntFunction<T> elements, int index, int fence) {
+    this.elements = elements;
+    this.index = index;
+    this.fence = fence;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (action == null) {
+      throw new NullPointerException("action");
+    }
+    if (this.index < this.fence) {
+      action.accept(this.elements.apply(this.index++));
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    if (action == null) {
+      throw new NullPointerException("action");
+    }
+    int i = this.index;
+    int hi = this.fence;
+    // update the index first in case the action throws
+    this.index = hi;
+    for (; i < hi; i++) {
+      action.accept(this.elements.apply(i));
+    }
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    int lo = this.index;
+    int mid = (lo + this.fence) >>> 1;
+    if (lo >= mid) {
+      return null;
+    }
+    this.index = mid;
+    return new IndexSpliterator<>(this.elements, lo, mid);
+  }
+
+  @Override
+  public long estimateSize() {
+    return this.fence - this.index;
+  }
+
+  @Override
+  public int characteristics() {
+    return CHARACTERISTICS;
+  }
+
+}
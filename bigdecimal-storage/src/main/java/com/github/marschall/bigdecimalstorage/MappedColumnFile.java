@@ -0,0 +1,226 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A file of fixed size slots that is accessed through memory mapping.
+ *
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes:</p>
+ * <ol>
+ *  <li>4 bytes magic number</li>
+ *  <li>4 bytes slot size in bytes, identifies the type</li>
+ *  <li>8 bytes number of slots in use</li>
+ * </ol>
+ * <p>followed by the slots without any gaps. All values are big endian.
+ * The file may be longer than the slots in use.</p>
+ *
+ * <p>The slots are mapped in segments because a single mapping is
+ * limited to 2 GB. A slot never spans two segments. When writing, the
+ * mapping of a segment and therefore the file grows in steps that double
+ * up to the segment size, the file is truncated to the slots in use when
+ * it is closed.</p>
+ */
+final class MappedColumnFile implements Closeable {
+
+  static final int HEADER_SIZE = 16;
+
+  static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final int MAGIC = 0x42444346; // BDCF
+
+  private static final int SLOT_SIZE_OFFSET = 4;
+
+  private static final int SIZE_OFFSET = 8;
+
+  private final FileChannel channel;
+  private final boolean readOnly;
+  private final int slotSize;
+  private final int segmentSlots;
+  private final MappedByteBuffer header;
+  private MappedByteBuffer[] segments;
+  private long size;
+
+  private MappedColumnFile(FileChannel channel, boolean readOnly, int slotSize, int segmentSize, MappedByteBuffer header) {
+    this.channel = channel;
+    this.readOnly = readOnly;
+    this.slotSize = slotSize;
+    this.segmentSlots = segmentSize / slotSize;
+    this.header = header;
+    this.size = header.getLong(SIZE_OFFSET);
+    this.segments = new MappedByteBuffer[0];
+  }
+
+  static MappedColumnFile create(Path path, int slotSize, int segmentSize) throws IOException {
+    FileChannel channel = FileChannel.open(path, CREATE_NEW, READ, WRITE);
+    try {
+      MappedByteBuffer header = channel.map(READ_WRITE, 0L, HEADER_SIZE);
+      header.putInt(0, MAGIC);
+      header.putInt(SLOT_SIZE_OFFSET, slotSize);
+      header.putLong(SIZE_OFFSET, 0L);
+      return new MappedColumnFile(channel, false, slotSize, segmentSize, header);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  static MappedColumnFile open(Path path, int slotSize, boolean readOnly, int segmentSize) throws IOException {
+    FileChannel channel = readOnly ? FileChannel.open(path, READ) : FileChannel.open(path, READ, WRITE);
+    try {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        throw new IOException("not a decimal column file: " + path);
+      }
+      MappedByteBuffer header = channel.map(readOnly ? READ_ONLY : READ_WRITE, 0L, HEADER_SIZE);
+      if (header.getInt(0) != MAGIC) {
+        throw new IOException("not a decimal column file: " + path);
+      }
+      int actualSlotSize = header.getInt(SLOT_SIZE_OFFSET);
+      if (actualSlotSize != slotSize) {
+        throw new IOException("expected slot size: " + slotSize + " but was: " + actualSlotSize);
+      }
+      long size = header.getLong(SIZE_OFFSET);
+      if ((size < 0L) || (size > ((fileSize - HEADER_SIZE) / slotSize))) {
+        throw new IOException("corrupt size: " + size);
+      }
+      return new MappedColumnFile(channel, readOnly, slotSize, segmentSize, header);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  long size() {
+    return this.size;
+  }
+
+  void checkIndex(long index) {
+    if ((index < 0L) || (index >= this.size)) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+    }
+  }
+
+  void checkRange(long index, int length) {
+    if ((index < 0L) || (length < 0) || (index > (this.size - length))) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", size: " + this.size);
+    }
+  }
+
+  void checkWritable() {
+    if (this.readOnly) {
+      throw new ReadOnlyBufferException();
+    }
+  }
+
+  /**
+   * Returns the segment containing the slot with the given index,
+   * maps it or a larger part of it if needed.
+   *
+   * @param length the number of slots starting at {@code index} that
+   *               have to be mapped, at most {@link #chunkLength(long, int)}
+   */
+  ByteBuffer segment(long index, int length) throws IOException {
+    int segmentIndex = (int) (index / this.segmentSlots);
+    if (segmentIndex >= this.segments.length) {
+      this.segments = Arrays.copyOf(this.segments, segmentIndex + 1);
+    }
+    MappedByteBuffer segment = this.segments[segmentIndex];
+    int requiredBytes = this.offset(index) + (length * this.slotSize);
+    if ((segment == null) || (segment.capacity() < requiredBytes)) {
+      int currentBytes = segment == null ? 0 : segment.capacity();
+      segment = this.mapSegment(segmentIndex, requiredBytes, currentBytes);
+      this.segments[segmentIndex] = segment;
+    }
+    return segment;
+  }
+
+  private MappedByteBuffer mapSegment(int segmentIndex, int requiredBytes, int currentBytes) throws IOException {
+    int segmentBytes = this.segmentSlots * this.slotSize;
+    long position = HEADER_SIZE + ((long) segmentIndex * segmentBytes);
+    if (this.readOnly) {
+      // we can not extend the file
+      long length = Math.min(segmentBytes, this.channel.size() - position);
+      return this.channel.map(READ_ONLY, position, length);
+    } else {
+      // extends the file if needed, doubling avoids remapping for every append
+      long doubled = Math.max((long) requiredBytes, 2L * currentBytes);
+      int slots = (int) ((Math.min(doubled, segmentBytes) + this.slotSize - 1) / this.slotSize);
+      return this.channel.map(READ_WRITE, position, (long) slots * this.slotSize);
+    }
+  }
+
+  /**
+   * Returns the offset of the slot with the given index in its segment.
+   */
+  int offset(long index) {
+    return (int) (index % this.segmentSlots) * this.slotSize;
+  }
+
+  /**
+   * Returns how many slots starting at the given index can be accessed
+   * in the same segment.
+   */
+  int chunkLength(long index, int remaining) {
+    return (int) Math.min(remaining, this.segmentSlots - (index % this.segmentSlots));
+  }
+
+  /**
+   * Updates the number of slots in use, has to be called after the
+   * slots have been written.
+   */
+  void setSize(long size) {
+    this.size = size;
+    this.header.putLong(SIZE_OFFSET, size);
+  }
+
+  void force() {
+    if (this.readOnly) {
+      return;
+    }
+    for (MappedByteBuffer segment : this.segments) {
+      if (segment != null) {
+        segment.force();
+      }
+    }
+    this.header.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.force();
+      if (!this.readOnly) {
+        this.truncate();
+      }
+    } finally {
+      this.segments = new MappedByteBuffer[0];
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Truncates the file to the slots in use, mappings may have grown it
+   * further.
+   */
+  private void truncate() {
+    try {
+      this.channel.truncate(HEADER_SIZE + (this.size * this.slotSize));
+    } catch (IOException e) {
+      // fails on some platforms while regions are still mapped, a longer file is still valid
+    }
+  }
+
+}
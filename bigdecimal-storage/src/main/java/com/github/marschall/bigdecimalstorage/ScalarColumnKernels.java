@@ -0,0 +1,87 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * The implementation of {@link ColumnKernels} with plain loops for any
+ * Java version.
+ */
+final class ScalarColumnKernels implements ColumnKernels {
+
+  static final ColumnKernels INSTANCE = new ScalarColumnKernels();
+
+  private static final long LOWER_HALF = 0xFFFF_FFFFL;
+
+  private ScalarColumnKernels() {
+    super();
+  }
+
+  @Override
+  public void sumHalves(long[] values, int from, int to, long[] result) {
+    long upper = 0L;
+    long lower = 0L;
+    for (int i = from; i < to; i++) {
+      long value = values[i];
+      upper += value >> 32;
+      lower += value & LOWER_HALF;
+    }
+    result[0] = upper;
+    result[1] = lower;
+  }
+
+  @Override
+  public long min(long[] values, int from, int to) {
+    long min = Long.MAX_VALUE;
+    for (int i = from; i < to; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return min;
+  }
+
+  @Override
+  public long max(long[] values, int from, int to) {
+    long max = Long.MIN_VALUE;
+    for (int i = from; i < to; i++) {
+      max = Math.max(max, values[i]);
+    }
+    return max;
+  }
+
+  @Override
+  public long greaterThan(long[] values, int from, int to, long threshold) {
+    long bits = 0L;
+    for (int i = from; i < to; i++) {
+      if (values[i] > threshold) {
+        bits |= 1L << (i - from);
+      }
+    }
+    return bits;
+  }
+
+  @Override
+  public long lessThan(long[] values, int from, int to, long threshold) {
+    long bits = 0L;
+    for (int i = from; i < to; i++) {
+      if (values[i] < threshold) {
+        bits |= 1L << (i - from);
+      }
+    }
+    return bits;
+  }
+
+  @Override
+  public void multiply(long[] values, int from, int to, long factor) {
+    for (int i = from; i < to; i++) {
+      values[i] *= factor;
+    }
+  }
+
+  @Override
+  public boolean allEqual(int[] values, int from, int to, int value) {
+    for (int i = from; i < to; i++) {
+      if (values[i] != value) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
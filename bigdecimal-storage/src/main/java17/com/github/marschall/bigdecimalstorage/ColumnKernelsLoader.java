@@ -0,0 +1,27 @@
+package com.github.marschall.bigdecimalstorage;
+
+/**
+ * Chooses the implementation of {@link ColumnKernels}.
+ *
+ * <p>This version is used on Java 17 and later. The Vector API is an
+ * incubator module that has to be added explicitly with
+ * {@code --add-modules jdk.incubator.vector}, if it is not present the
+ * scalar implementation is used. {@link VectorColumnKernels} is only
+ * loaded once the module has been found.</p>
+ */
+final class ColumnKernelsLoader {
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+  private ColumnKernelsLoader() {
+    throw new AssertionError("not instantiable");
+  }
+
+  static ColumnKernels load() {
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+      return new VectorColumnKernels();
+    }
+    return ScalarColumnKernels.INSTANCE;
+  }
+
+}
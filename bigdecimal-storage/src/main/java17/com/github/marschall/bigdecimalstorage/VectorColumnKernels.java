@@ -0,0 +1,136 @@
+package com.github.marschall.bigdecimalstorage;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The implementation of {@link ColumnKernels} with the Vector API.
+ *
+ * <p>Every method processes as many full vectors of the preferred
+ * species as possible and the remaining values with the same scalar loop
+ * as {@link ScalarColumnKernels}.</p>
+ */
+final class VectorColumnKernels implements ColumnKernels {
+
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+  private static final long LOWER_HALF = 0xFFFF_FFFFL;
+
+  @Override
+  public void sumHalves(long[] values, int from, int to, long[] result) {
+    LongVector upperLanes = LongVector.zero(LONGS);
+    LongVector lowerLanes = LongVector.zero(LONGS);
+    int i = from;
+    int bound = from + LONGS.loopBound(to - from);
+    for (; i < bound; i += LONGS.length()) {
+      LongVector vector = LongVector.fromArray(LONGS, values, i);
+      upperLanes = upperLanes.add(vector.lanewise(VectorOperators.ASHR, 32));
+      lowerLanes = lowerLanes.add(vector.and(LOWER_HALF));
+    }
+    long upper = upperLanes.reduceLanes(VectorOperators.ADD);
+    long lower = lowerLanes.reduceLanes(VectorOperators.ADD);
+    for (; i < to; i++) {
+      long value = values[i];
+      upper += value >> 32;
+      lower += value & LOWER_HALF;
+    }
+    result[0] = upper;
+    result[1] = lower;
+  }
+
+  @Override
+  public long min(long[] values, int from, int to) {
+    LongVector lanes = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+    int i = from;
+    int bound = from + LONGS.loopBound(to - from);
+    for (; i < bound; i += LONGS.length()) {
+      lanes = lanes.min(LongVector.fromArray(LONGS, values, i));
+    }
+    long min = lanes.reduceLanes(VectorOperators.MIN);
+    for (; i < to; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return min;
+  }
+
+  @Override
+  public long max(long[] values, int from, int to) {
+    LongVector lanes = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+    int i = from;
+    int bound = from + LONGS.loopBound(to - from);
+    for (; i < bound; i += LONGS.length()) {
+      lanes = lanes.max(LongVector.fromArray(LONGS, values, i));
+    }
+    long max = lanes.reduceLanes(VectorOperators.MAX);
+    for (; i < to; i++) {
+      max = Math.max(max, values[i]);
+    }
+    return max;
+  }
+
+  @Override
+  public long greaterThan(long[] values, int from, int to, long threshold) {
+    long bits = 0L;
+    int i = from;
+    int bound = from + LONGS.loopBound(to - from);
+    for (; i < bound; i += LONGS.length()) {
+      bits |= LongVector.fromArray(LONGS, values, i).compare(VectorOperators.GT, threshold).toLong() << (i - from);
+    }
+    for (; i < to; i++) {
+      if (values[i] > threshold) {
+        bits |= 1L << (i - from);
+      }
+    }
+    return bits;
+  }
+
+  @Override
+  public long lessThan(long[] values, int from, int to, long threshold) {
+    long bits = 0L;
+    int i = from;
+    int bound = from + LONGS.loopBound(to - from);
+    for (; i < bound; i += LONGS.length()) {
+      bits |= LongVector.fromArray(LONGS, values, i).compare(VectorOperators.LT, threshold).toLong() << (i - from);
+    }
+    for (; i < to; i++) {
+      if (values[i] < threshold) {
+        bits |= 1L << (i - from);
+      }
+    }
+    return bits;
+  }
+
+  @Override
+  public void multiply(long[] values, int from, int to, long factor) {
+    int i = from;
+    int bound = from + LONGS.loopBound(to - from);
+    for (; i < bound; i += LONGS.length()) {
+      LongVector.fromArray(LONGS, values, i).mul(factor).intoArray(values, i);
+    }
+    for (; i < to; i++) {
+      values[i] *= factor;
+    }
+  }
+
+  @Override
+  public boolean allEqual(int[] values, int from, int to, int value) {
+    int i = from;
+    int bound = from + INTS.loopBound(to - from);
+    for (; i < bound; i += INTS.length()) {
+      if (IntVector.fromArray(INTS, values, i).compare(VectorOperators.NE, value).anyTrue()) {
+        return false;
+      }
+    }
+    for (; i < to; i++) {
+      if (values[i] != value) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
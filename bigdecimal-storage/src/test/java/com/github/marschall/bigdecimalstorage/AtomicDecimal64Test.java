@@ -0,0 +1,95 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class AtomicDecimal64Test {
+
+  @Test
+  void getAndSet() {
+    AtomicDecimal64 balance = new AtomicDecimal64();
+    assertEquals(0L, balance.get());
+    balance.set(1_500_000L);
+    assertEquals(1_500_000L, balance.get());
+    assertEquals(1_500_000L, balance.getAndSet(2_000_000L));
+    assertEquals(new BigDecimal("2.000000"), balance.toBigDecimal());
+    assertEquals("2.000000", balance.toString());
+  }
+
+  @Test
+  void compareAndSet() {
+    AtomicDecimal64 balance = new AtomicDecimal64(1_000_000L);
+    assertFalse(balance.compareAndSet(2_000_000L, 3_000_000L));
+    assertEquals(1_000_000L, balance.get());
+    assertTrue(balance.compareAndSet(1_000_000L, 3_000_000L));
+    assertEquals(3_000_000L, balance.get());
+  }
+
+  @Test
+  void add() {
+    AtomicDecimal64 balance = new AtomicDecimal64(1_000_000L);
+    assertEquals(1_250_000L, balance.addAndGet(250_000L));
+    assertEquals(1_250_000L, balance.getAndAdd(-2_000_000L));
+    assertEquals(-750_000L, balance.get());
+  }
+
+  @Test
+  void accumulateAndGet() {
+    AtomicDecimal64 balance = new AtomicDecimal64(10_000_000L);
+    long next = balance.accumulateAndGet(1_050_000L, (x, y) -> BigDecimal64.multiply(x, y, RoundingMode.HALF_EVEN));
+    assertEquals(10_500_000L, next);
+    assertEquals(10_500_000L, balance.get());
+  }
+
+  @Test
+  void overflow() {
+    AtomicDecimal64 balance = new AtomicDecimal64(BigDecimal64.MAX_VALUE);
+    assertThrows(ArithmeticException.class, () -> balance.addAndGet(1L));
+    assertThrows(ArithmeticException.class, () -> balance.getAndAdd(1L));
+    assertEquals(BigDecimal64.MAX_VALUE, balance.get());
+  }
+
+  @Test
+  void concurrent() throws Exception {
+    int threads = 8;
+    int iterations = 100_000;
+    AtomicDecimal64 balance = new AtomicDecimal64();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        long delta = (t % 2) == 0 ? 10_000L : -20_000L;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < iterations; i++) {
+            balance.addAndGet(delta);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // 4 * 0.01 - 4 * 0.02 per iteration
+    assertEquals(-40_000L * iterations, balance.get());
+  }
+
+}
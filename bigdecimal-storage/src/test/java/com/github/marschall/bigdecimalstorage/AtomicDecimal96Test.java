@@ -0,0 +1,137 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class AtomicDecimal96Test {
+
+  private static BigDecimal96 decimal(String s) {
+    return BigDecimal96.valueOf(new BigDecimal(s));
+  }
+
+  @Test
+  void getAndSet() {
+    AtomicDecimal96 balance = new AtomicDecimal96();
+    assertEquals(decimal("0.000000"), balance.get());
+    balance.set(decimal("1.5"));
+    assertEquals(decimal("1.500000"), balance.get());
+    assertEquals("1.500000", balance.toString());
+
+    BigDecimal96 large = decimal("123456789012345678901.5");
+    balance.set(large);
+    assertEquals(large, balance.get());
+    balance.set(decimal("2"));
+    assertTrue(decimal("2").numericEquals(balance.get()));
+  }
+
+  @Test
+  void compareAndSet() {
+    AtomicDecimal96 balance = new AtomicDecimal96(decimal("1.0"));
+    assertFalse(balance.compareAndSet(decimal("2"), decimal("3")));
+    assertFalse(balance.compareAndSet(decimal("123456789012345678901.5"), decimal("3")));
+    assertTrue(balance.compareAndSet(decimal("1.00"), decimal("3")));
+    assertEquals(decimal("3.000000"), balance.get());
+
+    BigDecimal96 large = decimal("123456789012345678901.5");
+    assertTrue(balance.compareAndSet(decimal("3"), large));
+    assertEquals(large, balance.get());
+    assertFalse(balance.compareAndSet(decimal("3"), decimal("4")));
+    assertTrue(balance.compareAndSet(decimal("123456789012345678901.50"), decimal("4")));
+    assertTrue(decimal("4").numericEquals(balance.get()));
+  }
+
+  @Test
+  void add() {
+    AtomicDecimal96 balance = new AtomicDecimal96(decimal("1"));
+    balance.add(decimal("0.25"));
+    assertEquals(decimal("1.250000"), balance.get());
+    assertEquals(decimal("3.250000"), balance.addAndGet(decimal("2")));
+    assertEquals(decimal("3.250000"), balance.getAndAdd(decimal("-5")));
+    assertEquals(decimal("-1.750000"), balance.get());
+  }
+
+  @Test
+  void inflate() {
+    // the largest value that fits into a long at scale 6
+    BigDecimal96 max = decimal("9223372036854.775807");
+    AtomicDecimal96 balance = new AtomicDecimal96(max);
+    assertEquals(max, balance.get());
+    balance.add(decimal("0.000001"));
+    assertEquals(0, new BigDecimal("9223372036854.775808").compareTo(balance.get().toBigDecimal()));
+    balance.add(decimal("-1"));
+    assertEquals(0, new BigDecimal("9223372036853.775808").compareTo(balance.get().toBigDecimal()));
+    assertEquals(0, new BigDecimal("9223372036853.775808").compareTo(balance.getAndAdd(decimal("1")).toBigDecimal()));
+  }
+
+  @Test
+  void accumulateAndGet() {
+    AtomicDecimal96 balance = new AtomicDecimal96(decimal("10"));
+    BigDecimal96 next = balance.accumulateAndGet(decimal("1.05"), (x, y) -> x.multiply(y, 2, RoundingMode.HALF_EVEN));
+    assertEquals(decimal("10.50"), next);
+    assertEquals(decimal("10.500000"), balance.get());
+  }
+
+  @Test
+  void overflow() {
+    BigDecimal96 max = BigDecimal96.valueOf(BigDecimal96.MAX_VALUE);
+    AtomicDecimal96 balance = new AtomicDecimal96(max);
+    assertThrows(ArithmeticException.class, () -> balance.add(max));
+    assertThrows(ArithmeticException.class, () -> balance.addAndGet(max));
+    assertThrows(ArithmeticException.class, () -> balance.getAndAdd(max));
+    assertEquals(max, balance.get());
+  }
+
+  @Test
+  void concurrent() throws Exception {
+    int threads = 8;
+    int iterations = 100_000;
+    AtomicDecimal96 balance = new AtomicDecimal96(decimal("9223372036000"));
+    BigDecimal96 up = decimal("0.01");
+    BigDecimal96 down = decimal("-0.02");
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        boolean increment = (t % 2) == 0;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < iterations; i++) {
+            if (increment) {
+              // crosses the long range and forces inflation
+              for (int j = 0; j < 5; j++) {
+                balance.add(up);
+              }
+            } else {
+              balance.getAndAdd(down);
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // 4 * 5 * 0.01 - 4 * 0.02 per iteration
+    BigDecimal expected = new BigDecimal("9223372036000").add(BigDecimal.valueOf(12L * iterations, 2));
+    assertEquals(0, expected.compareTo(balance.get().toBigDecimal()));
+  }
+
+}
@@ -0,0 +1,161 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class BigDecimal128ArrayTest {
+
+  static Stream<BigDecimal> bigDecimals() {
+    return BigDecimal128Test.bigDecimals();
+  }
+
+  @Test
+  void initializedToZero() {
+    BigDecimal128Array array = new BigDecimal128Array(3);
+
+    assertEquals(3, array.length());
+    for (int i = 0; i < array.length(); i++) {
+      assertThat(array.toBigDecimal(i)).isEqualByComparingTo(BigDecimal.ZERO);
+      assertEquals(BigDecimal128.valueOf(BigDecimal.ZERO), array.get(i));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void setGet(BigDecimal bigDecimal) {
+    BigDecimal128Array array = new BigDecimal128Array(2);
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(bigDecimal);
+    array.set(1, bigDecimal128);
+
+    assertEquals(bigDecimal128, array.get(1));
+    assertThat(array.toBigDecimal(1)).isEqualByComparingTo(bigDecimal);
+    assertEquals(BigDecimal128.valueOf(BigDecimal.ZERO), array.get(0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void compare(BigDecimal bigDecimal) {
+    BigDecimal128Array array = new BigDecimal128Array(2);
+    array.set(0, BigDecimal128.valueOf(bigDecimal));
+
+    int expected = Integer.signum(bigDecimal.signum());
+    assertEquals(expected, Integer.signum(array.compare(0, 1)));
+    assertEquals(-expected, Integer.signum(array.compare(1, 0)));
+    assertEquals(0, array.compare(0, BigDecimal128.valueOf(bigDecimal)));
+  }
+
+  @Test
+  void addDifferentScale() {
+    BigDecimal128Array array = new BigDecimal128Array(1);
+    array.set(0, BigDecimal128.valueOf(new BigDecimal("0.1")));
+    array.add(0, BigDecimal128.valueOf(new BigDecimal("0.01")));
+
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("0.11")), array.get(0));
+  }
+
+  @Test
+  void addOtherArray() {
+    BigDecimal128Array array = new BigDecimal128Array(2);
+    BigDecimal128Array augends = new BigDecimal128Array(2);
+    array.set(1, BigDecimal128.valueOf(new BigDecimal("-3")));
+    augends.set(0, BigDecimal128.valueOf(new BigDecimal("1.5")));
+    array.add(1, augends, 0);
+
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-1.5")), array.get(1));
+  }
+
+  @Test
+  void addNoLongerCompact() {
+    BigDecimal128Array array = new BigDecimal128Array(1);
+    BigDecimal128 a = BigDecimal128.valueOf(new BigDecimal("5000000000000000000"));
+    array.set(0, a);
+    array.add(0, a);
+
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("10000000000000000000")), array.get(0));
+  }
+
+  @Test
+  void addOverflowLeavesElementUnchanged() {
+    BigDecimal128Array array = new BigDecimal128Array(1);
+    BigDecimal128 max = BigDecimal128.valueOf(BigDecimal128.MAX_VALUE);
+    array.set(0, max);
+
+    assertThrows(ArithmeticException.class, () -> array.add(0, BigDecimal128.valueOf(BigDecimal.ONE)));
+    assertEquals(max, array.get(0));
+  }
+
+  @Test
+  void putToGetFrom() {
+    BigDecimal128Array array = new BigDecimal128Array(4);
+    array.set(1, BigDecimal128.valueOf(new BigDecimal("1.5")));
+    array.set(2, BigDecimal128.valueOf(new BigDecimal("-10000000000000000000")));
+    array.set(3, BigDecimal128.valueOf(new BigDecimal("0.000001")));
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(2 + (3 * BigDecimal128.BYTES));
+    array.putTo(1, buffer, 2, 3);
+    assertEquals(array.get(2), BigDecimal128.getFrom(buffer, 2 + BigDecimal128.BYTES));
+
+    BigDecimal128Array readBack = new BigDecimal128Array(5);
+    readBack.getFrom(buffer, 2, 2, 3);
+    assertEquals(BigDecimal128.valueOf(BigDecimal.ZERO), readBack.get(1));
+    for (int i = 1; i < 4; i++) {
+      assertEquals(array.get(i), readBack.get(i + 1));
+    }
+  }
+
+  @Test
+  void putToGetFromOutOfBounds() {
+    BigDecimal128Array array = new BigDecimal128Array(4);
+    ByteBuffer buffer = ByteBuffer.allocate(2 * BigDecimal128.BYTES);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> array.putTo(0, buffer, 0, 3));
+    assertThrows(IndexOutOfBoundsException.class, () -> array.putTo(3, buffer, 0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> array.getFrom(buffer, 1, 0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> array.getFrom(buffer, 0, -1, 2));
+  }
+
+  @Test
+  void stream() {
+    BigDecimal128Array array = new BigDecimal128Array(3);
+    array.set(0, BigDecimal128.valueOf(new BigDecimal("1.5")));
+    array.set(2, BigDecimal128.valueOf(new BigDecimal("-2")));
+
+    List<BigDecimal128> elements = array.stream().collect(Collectors.toList());
+    assertEquals(3, elements.size());
+    for (int i = 0; i < array.length(); i++) {
+      assertEquals(array.get(i), elements.get(i));
+    }
+    assertEquals(elements, array.stream().parallel().collect(Collectors.toList()));
+  }
+
+  @Test
+  void spliteratorSplitsEvenly() {
+    BigDecimal128Array array = new BigDecimal128Array(5);
+    Spliterator<BigDecimal128> spliterator = array.spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+    assertEquals(5L, spliterator.estimateSize());
+
+    Spliterator<BigDecimal128> prefix = spliterator.trySplit();
+    assertEquals(2L, prefix.estimateSize());
+    assertEquals(3L, spliterator.estimateSize());
+    assertNull(prefix.trySplit().trySplit());
+
+    assertTrue(spliterator.tryAdvance(value -> assertEquals(array.get(2), value)));
+    assertEquals(2L, spliterator.estimateSize());
+  }
+
+}
@@ -1,18 +1,33 @@
 package com.github.marschall.bigdecimalstorage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -211,6 +226,223 @@ class BigDecimal128Test {
     assertEquals(0, bigDecimal.compareTo(readBack));
   }
 
+  @Test
+  void serialVersionUID() {
+    // streams written before the variable length format have a different one
+    assertEquals(2L, ObjectStreamClass.lookup(BigDecimal128.Ser128.class).getSerialVersionUID());
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void writeToReadFrom(BigDecimal bigDecimal) throws IOException {
+    BigDecimal128 value = BigDecimal128.valueOf(bigDecimal);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      value.writeTo(out);
+    }
+    byte[] written = bos.toByteArray();
+    assertTrue(written.length <= BigDecimal128.BYTES);
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(written))) {
+      assertEquals(value, BigDecimal128.readFrom(in));
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  void writeToSize() throws IOException {
+    assertEquals(1, writtenLength(BigDecimal128.ZERO));
+    assertEquals(2, writtenLength(BigDecimal128.valueOf(new BigDecimal("-0.01"))));
+    assertEquals(4, writtenLength(BigDecimal128.valueOf(new BigDecimal("1234.56"))));
+    assertEquals(4, writtenLength(BigDecimal128.valueOf(new BigDecimal("-1234.56"))));
+  }
+
+  private static int writtenLength(BigDecimal128 value) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      value.writeTo(out);
+    }
+    return bos.size();
+  }
+
+  @Test
+  void readFromInvalid() {
+    for (byte[] invalid : new byte[][] {
+        // null
+        {0b111},
+        // scale 7
+        {0b1111, 1},
+        // 17 value bytes
+        {(byte) (17 << 3)},
+        // 129 bits
+        {(byte) (16 << 3), -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1}}) {
+      try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(invalid))) {
+        assertThrows(StreamCorruptedException.class, () -> BigDecimal128.readFrom(in));
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void putToGetFrom(BigDecimal bigDecimal) {
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(bigDecimal);
+    for (ByteBuffer buffer : new ByteBuffer[] {
+        ByteBuffer.allocate(BigDecimal128.BYTES + 3),
+        ByteBuffer.allocateDirect(BigDecimal128.BYTES + 3).order(ByteOrder.LITTLE_ENDIAN)}) {
+      bigDecimal128.putTo(buffer, 3);
+
+      assertEquals(0, buffer.position());
+      assertEquals(bigDecimal128, BigDecimal128.getFrom(buffer, 3));
+    }
+  }
+
+  @Test
+  void putToBigEndian() {
+    ByteBuffer bigEndian = ByteBuffer.allocate(BigDecimal128.BYTES);
+    ByteBuffer littleEndian = ByteBuffer.allocate(BigDecimal128.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(new BigDecimal("-1234.5"));
+
+    bigDecimal128.putTo(bigEndian, 0);
+    bigDecimal128.putTo(littleEndian, 0);
+
+    assertArrayEquals(bigEndian.array(), littleEndian.array());
+    assertEquals(-12345L, bigEndian.getLong(BigDecimal128.BYTES - 8));
+  }
+
+  @Test
+  void putToOutOfBounds() {
+    ByteBuffer buffer = ByteBuffer.allocate(BigDecimal128.BYTES);
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(BigDecimal.ONE);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> bigDecimal128.putTo(buffer, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal128.getFrom(buffer, 1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void keyRoundTrip(BigDecimal bigDecimal) {
+    BigDecimal128 value = BigDecimal128.valueOf(bigDecimal);
+    byte[] key = new byte[BigDecimal128.KEY_BYTES + 3];
+    value.putKeyTo(key, 3);
+
+    assertEquals(value, BigDecimal128.fromKey(key, 3));
+    assertArrayEquals(value.toKey(), Arrays.copyOfRange(key, 3, key.length));
+  }
+
+  @Test
+  void keyOrder() {
+    List<BigDecimal128> values = new ArrayList<>();
+    bigDecimals().forEach(bigDecimal -> {
+      values.add(BigDecimal128.valueOf(bigDecimal));
+      if ((bigDecimal.scale() < BigDecimal128.MAX_SCALE) && (bigDecimal.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0)) {
+        // same value with a different scale
+        values.add(BigDecimal128.valueOf(bigDecimal.setScale(BigDecimal128.MAX_SCALE)));
+      }
+    });
+    for (BigDecimal128 a : values) {
+      for (BigDecimal128 b : values) {
+        int keyComparison = compareUnsigned(a.toKey(), b.toKey());
+        int comparison = a.compareTo(b);
+        if (comparison != 0) {
+          assertEquals(Integer.signum(comparison), Integer.signum(keyComparison), () -> a + " <> " + b);
+        } else {
+          // ties are broken by scale
+          assertEquals(Integer.signum(a.toBigDecimal().scale() - b.toBigDecimal().scale()), Integer.signum(keyComparison), () -> a + " <> " + b);
+        }
+      }
+    }
+  }
+
+  @Test
+  void keyOrderAroundZero() {
+    byte[] minusOne = BigDecimal128.valueOf(new BigDecimal("-0.000001")).toKey();
+    byte[] zero = BigDecimal128.ZERO.toKey();
+    byte[] one = BigDecimal128.valueOf(new BigDecimal("0.000001")).toKey();
+
+    assertThat(compareUnsigned(minusOne, zero)).isNegative();
+    assertThat(compareUnsigned(zero, one)).isNegative();
+  }
+
+  @Test
+  void invalidKey() {
+    byte[] invalidScale = BigDecimal128.ONE.toKey();
+    invalidScale[BigDecimal128.KEY_BYTES - 1] = 7;
+    byte[] notExact = BigDecimal128.ONE.toKey();
+    notExact[BigDecimal128.KEY_BYTES - 2] += 1;
+    byte[] tooLarge = new byte[BigDecimal128.KEY_BYTES];
+    Arrays.fill(tooLarge, (byte) 0xFF);
+    tooLarge[BigDecimal128.KEY_BYTES - 1] = 6;
+
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal128.fromKey(invalidScale, 0));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal128.fromKey(notExact, 0));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal128.fromKey(tooLarge, 0));
+  }
+
+  @Test
+  void keyOutOfBounds() {
+    byte[] key = new byte[BigDecimal128.KEY_BYTES];
+
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal128.ONE.putKeyTo(key, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal128.fromKey(key, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal128.fromKey(key, -1));
+  }
+
+  private static int compareUnsigned(byte[] a, byte[] b) {
+    for (int i = 0; i < a.length; i++) {
+      int comparison = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void canonical(BigDecimal bigDecimal) {
+    BigDecimal stripped = bigDecimal.stripTrailingZeros();
+    if (stripped.scale() < 0) {
+      stripped = stripped.setScale(0);
+    }
+    BigDecimal128 value = BigDecimal128.valueOf(bigDecimal);
+
+    assertEquals(BigDecimal128.valueOf(stripped), value.canonical());
+    assertEquals(value.canonical().hashCode(), value.canonical().canonical().hashCode());
+    assertEquals(value.canonical().numericHashCode(), value.numericHashCode());
+    assertTrue(value.numericEquals(value.canonical()));
+  }
+
+  @Test
+  void canonicalCompact() {
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-1.2")), BigDecimal128.valueOf(new BigDecimal("-1.200000")).canonical());
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("100")), BigDecimal128.valueOf(new BigDecimal("100.00")).canonical());
+    assertSame(BigDecimal128.ZERO, BigDecimal128.ZERO.canonical());
+    assertEquals(BigDecimal128.ZERO, BigDecimal128.valueOf(new BigDecimal("0.000")).canonical());
+  }
+
+  @Test
+  void numericEquality() {
+    // non-compact with trailing zeros and compact
+    BigDecimal128 nonCompact = BigDecimal128.valueOf(new BigDecimal("-100000000000000.000000"));
+    BigDecimal128 compact = BigDecimal128.valueOf(new BigDecimal("-100000000000000.0"));
+    BigDecimal128 other = BigDecimal128.valueOf(new BigDecimal("-100000000000000.01"));
+
+    assertNotEquals(nonCompact, compact);
+    assertTrue(nonCompact.numericEquals(compact));
+    assertTrue(compact.numericEquals(nonCompact));
+    assertFalse(compact.numericEquals(other));
+    assertFalse(other.numericEquals(nonCompact));
+    assertEquals(nonCompact.numericHashCode(), compact.numericHashCode());
+    assertEquals(compact, nonCompact.canonical().withScale(1));
+
+    assertTrue(BigDecimal128.NUMERIC_EQUALITY.equals(nonCompact, compact));
+    assertEquals(BigDecimal128.NUMERIC_EQUALITY.computeHashCode(nonCompact), BigDecimal128.NUMERIC_EQUALITY.computeHashCode(compact));
+    assertEquals(0, BigDecimal128.NUMERIC_ORDER.compare(nonCompact, compact));
+    assertThat(BigDecimal128.NUMERIC_ORDER.compare(nonCompact, other)).isPositive();
+  }
+
   @Test
   void nullConstructor() {
     assertNull(BigDecimal128.valueOf(null));
@@ -222,4 +454,226 @@ class BigDecimal128Test {
     assertThrows(IllegalArgumentException.class, () -> BigDecimal128.valueOf(invalid));
   }
 
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void compareTo(BigDecimal bigDecimal) {
+    BigDecimal a = BigDecimal128.valueOf(bigDecimal).toBigDecimal();
+    bigDecimals().forEach(other -> {
+      BigDecimal b = BigDecimal128.valueOf(other).toBigDecimal();
+      int expected = Integer.signum(a.compareTo(b));
+      assertEquals(expected, Integer.signum(BigDecimal128.valueOf(a).compareTo(BigDecimal128.valueOf(b))), () -> a + " <=> " + b);
+    });
+  }
+
+  @Test
+  void compareToEqual() {
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(new BigDecimal("123.456"));
+    assertEquals(0, bigDecimal128.compareTo(bigDecimal128));
+
+    assertEquals(0, bigDecimal128.compareTo(BigDecimal128.valueOf(new BigDecimal("123.4560"))));
+    assertEquals(0, BigDecimal128.valueOf(new BigDecimal("123.4560")).compareTo(bigDecimal128));
+  }
+
+  @Test
+  void compareToScaleOverflows128Bit() {
+    BigDecimal128 bigger = BigDecimal128.valueOf(BigDecimal128.MAX_VALUE);
+    BigDecimal128 smaller = BigDecimal128.valueOf(new BigDecimal("0.000001"));
+
+    assertThat(bigger.compareTo(smaller)).isPositive();
+    assertThat(smaller.compareTo(bigger)).isNegative();
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void negate(BigDecimal bigDecimal) {
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(bigDecimal);
+    BigDecimal expected = bigDecimal128.toBigDecimal().negate();
+    assertResult(expected, bigDecimal128::negate);
+    if (!expected.unscaledValue().equals(BigDecimal128.MAX_VALUE.toBigInteger().add(BigInteger.ONE))) {
+      assertEquals(bigDecimal128, bigDecimal128.negate().negate());
+    }
+  }
+
+  @Test
+  void negateZero() {
+    BigDecimal128 zero = BigDecimal128.valueOf(BigDecimal.ZERO);
+    assertSame(zero, zero.negate());
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void addSubtract(BigDecimal bigDecimal) {
+    BigDecimal a = BigDecimal128.valueOf(bigDecimal).toBigDecimal();
+    bigDecimals().forEach(other -> {
+      BigDecimal b = BigDecimal128.valueOf(other).toBigDecimal();
+      BigDecimal128 a128 = BigDecimal128.valueOf(a);
+      BigDecimal128 b128 = BigDecimal128.valueOf(b);
+      assertResult(a.add(b), () -> a128.add(b128));
+      assertResult(a.subtract(b), () -> a128.subtract(b128));
+    });
+  }
+
+  @Test
+  void addSubtractDifferentScale() {
+    BigDecimal128 a = BigDecimal128.valueOf(new BigDecimal("0.1"));
+    BigDecimal128 b = BigDecimal128.valueOf(new BigDecimal("0.01"));
+    BigDecimal128 sum = BigDecimal128.valueOf(new BigDecimal("0.11"));
+
+    assertEquals(sum, a.add(b));
+    assertEquals(sum, b.add(a));
+
+    assertEquals(b, sum.subtract(a));
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("0.10")), sum.subtract(b));
+  }
+
+  @Test
+  void addSubtractOverflows() {
+    BigDecimal128 a = BigDecimal128.valueOf(BigDecimal128.MAX_VALUE);
+    BigDecimal128 b = BigDecimal128.valueOf(BigDecimal.ONE);
+
+    assertThrows(ArithmeticException.class, () -> a.add(b));
+    assertThrows(ArithmeticException.class, () -> a.subtract(b.negate()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void withScale(BigDecimal bigDecimal) {
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(bigDecimal);
+    BigDecimal value = bigDecimal128.toBigDecimal();
+    for (int scale = 0; scale <= BigDecimal128.MAX_SCALE; scale++) {
+      int newScale = scale;
+      BigDecimal expected;
+      try {
+        expected = value.setScale(newScale);
+      } catch (ArithmeticException e) {
+        assertThrows(ArithmeticException.class, () -> bigDecimal128.withScale(newScale));
+        continue;
+      }
+      assertResult(expected, () -> bigDecimal128.withScale(newScale));
+    }
+  }
+
+  @Test
+  void withScaleInvalid() {
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(BigDecimal.ONE);
+
+    assertThrows(IllegalArgumentException.class, () -> bigDecimal128.withScale(-1));
+    assertThrows(IllegalArgumentException.class, () -> bigDecimal128.withScale(BigDecimal128.MAX_SCALE + 1));
+  }
+
+  @Test
+  void withScaleSmallerRoundingNecessary() {
+    BigDecimal128 bigDecimal128 = BigDecimal128.valueOf(new BigDecimal("1.11"));
+
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("1.1")), BigDecimal128.valueOf(new BigDecimal("1.10")).withScale(1));
+    assertThrows(ArithmeticException.class, () -> bigDecimal128.withScale(1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void parse(BigDecimal bigDecimal) {
+    BigDecimal128 expected = BigDecimal128.valueOf(bigDecimal);
+    String text = expected.toString();
+
+    assertEquals(expected, BigDecimal128.parse(text, 0, text.length()));
+    assertEquals(expected, BigDecimal128.parse("x" + text + "y", 1, text.length() + 1));
+  }
+
+  @Test
+  void parseVariants() {
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("1.5")), BigDecimal128.parse("+1.5", 0, 4));
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-0.50")), BigDecimal128.parse("-0.50", 0, 5));
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("0.5")), BigDecimal128.parse(".5", 0, 2));
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("5")), BigDecimal128.parse("5.", 0, 2));
+    assertEquals(BigDecimal128.valueOf(BigDecimal.ZERO), BigDecimal128.parse("-0", 0, 2));
+    String leadingZeros = "-000000000000000000000000000000000000000001.5";
+    assertEquals(BigDecimal128.valueOf(new BigDecimal("-1.5")), BigDecimal128.parse(leadingZeros, 0, leadingZeros.length()));
+  }
+
+  @Test
+  void parseInvalid() {
+    for (String invalid : new String[] {"", "-", "+", ".", "-.", "1.2.3", "1e3", "abc", " 1", "1-"}) {
+      assertThrows(NumberFormatException.class, () -> BigDecimal128.parse(invalid, 0, invalid.length()), invalid);
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal128.parse("1", 0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal128.parse("1", -1, 1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidBigDecimals")
+  void parseIllegalArguments(BigDecimal invalid) {
+    String text = invalid.toPlainString();
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal128.parse(text, 0, text.length()));
+  }
+
+  @Test
+  void parseOverflows128Bits() {
+    String text = "1234567890123456789012345678901234567890123456789012345678901234567890";
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal128.parse(text, 0, text.length()));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal128.parse("-" + text, 0, text.length() + 1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void appendTo(BigDecimal bigDecimal) throws IOException {
+    BigDecimal128 value = BigDecimal128.valueOf(bigDecimal);
+    String expected = value.toBigDecimal().toString();
+
+    StringBuilder buffer = new StringBuilder("x");
+    value.appendTo(buffer);
+    assertEquals("x" + expected, buffer.toString());
+
+    Appendable appendable = new StringBuilder();
+    value.appendTo(appendable);
+    assertEquals(expected, appendable.toString());
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void getChars(BigDecimal bigDecimal) {
+    BigDecimal128 value = BigDecimal128.valueOf(bigDecimal);
+    String expected = value.toBigDecimal().toString();
+
+    char[] destination = new char[BigDecimal128.MAX_TEXT_LENGTH + 1];
+    int length = value.getChars(destination, 1);
+    assertEquals(expected, new String(destination, 1, length));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> value.getChars(new char[expected.length() - 1], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> value.getChars(destination, -1));
+  }
+
+  @Test
+  void maxTextLength() {
+    char[] destination = new char[BigDecimal128.MAX_TEXT_LENGTH];
+    assertEquals(BigDecimal128.MAX_TEXT_LENGTH, BigDecimal128.valueOf(BigDecimal128.MIN_VALUE.movePointLeft(BigDecimal128.MAX_SCALE)).getChars(destination, 0));
+  }
+
+  @Test
+  void constants() {
+    assertEquals(BigDecimal128.valueOf(BigDecimal.ZERO), BigDecimal128.ZERO);
+    assertEquals(BigDecimal128.valueOf(BigDecimal.ONE), BigDecimal128.ONE);
+    assertThat(BigDecimal128.ZERO.toBigDecimal()).isEqualByComparingTo(BigDecimal.ZERO);
+    assertThat(BigDecimal128.ONE.toBigDecimal()).isEqualByComparingTo(BigDecimal.ONE);
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void cache(BigDecimal bigDecimal) {
+    // the cache is enabled by the surefire configuration
+    assumeTrue(Integer.getInteger(BigDecimal128.CACHE_SIZE_PROPERTY, 0) > 0);
+    BigDecimal128 value = BigDecimal128.valueOf(bigDecimal);
+
+    assertSame(value, BigDecimal128.valueOf(bigDecimal));
+    assertSame(value, value.add(BigDecimal128.ZERO));
+  }
+
+  private static void assertResult(BigDecimal expected, Supplier<BigDecimal128> actual) {
+    // the unscaled value has to fit into 120 bits
+    if (expected.unscaledValue().bitLength() > 119) {
+      assertThrows(ArithmeticException.class, actual::get, () -> expected.toPlainString());
+    } else {
+      assertEquals(BigDecimal128.valueOf(expected), actual.get(), () -> expected.toPlainString());
+    }
+  }
+
 }
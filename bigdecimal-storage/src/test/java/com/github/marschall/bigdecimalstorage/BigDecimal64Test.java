@@ -2,14 +2,22 @@ package com.github.marschall.bigdecimalstorage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class BigDecimal64Test {
 
@@ -34,11 +42,29 @@ class BigDecimal64Test {
             new BigDecimal("-999999999999.000009"),
             new BigDecimal("100000000000.000001"),
             new BigDecimal("-100000000000.000001"),
+            new BigDecimal("0.0002"),
+            new BigDecimal("-0.0002"),
+            new BigDecimal("0.000128"),
+            new BigDecimal("-0.000128"),
             new BigDecimal(BigInteger.ONE, -2),
             new BigDecimal(BigInteger.ONE, -2).negate()
             );
 }
 
+  static Stream<BigDecimal> invalidBigDecimals() {
+    return Stream.of(
+            new BigDecimal("0.1234567"),
+            new BigDecimal("-0.1234567"),
+            new BigDecimal("999999999999.9999999"),
+            new BigDecimal("1000000000000"),
+            new BigDecimal("-1000000000000"),
+            new BigDecimal("1000000000000.000000"),
+            new BigDecimal(BigInteger.ONE, -12),
+            new BigDecimal(BigInteger.ONE, -12).negate(),
+            new BigDecimal("12345678901234567890123456789")
+            );
+  }
+
   @ParameterizedTest
   @MethodSource("bigDecimals")
   void identity(BigDecimal bigDecimal) {
@@ -46,6 +72,236 @@ class BigDecimal64Test {
     assertEquals(0, bigDecimal.compareTo(BigDecimal64.toBigDecimal(bigDecimal64)));
   }
 
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void parseToLong(BigDecimal bigDecimal) {
+    long expected = BigDecimal64.toLong(bigDecimal);
+    String text = bigDecimal.toPlainString();
+
+    assertEquals(expected, BigDecimal64.parseToLong(text, 0, text.length()));
+    assertEquals(expected, BigDecimal64.parseToLong("x" + text + "y", 1, text.length() + 1));
+  }
+
+  @Test
+  void parseToLongInvalid() {
+    for (String invalid : new String[] {"", "-", ".", "1.2.3", "1e3", "abc"}) {
+      assertThrows(NumberFormatException.class, () -> BigDecimal64.parseToLong(invalid, 0, invalid.length()), invalid);
+    }
+    for (String invalid : new String[] {"0.1234567", "1000000000000", "-1000000000000", "1000000000000.000000",
+        "123456789012345678901234567890123456789012345678901234567890"}) {
+      assertThrows(IllegalArgumentException.class, () -> BigDecimal64.parseToLong(invalid, 0, invalid.length()), invalid);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void appendTo(BigDecimal bigDecimal) throws IOException {
+    Long value = BigDecimal64.toLong(bigDecimal);
+    String expected = BigDecimal64.toBigDecimal(value).toString();
+
+    StringBuilder buffer = new StringBuilder("x");
+    BigDecimal64.appendTo(value, buffer);
+    assertEquals("x" + expected, buffer.toString());
+
+    Appendable appendable = new StringBuilder();
+    BigDecimal64.appendTo(value, appendable);
+    assertEquals(expected, appendable.toString());
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void getChars(BigDecimal bigDecimal) {
+    long value = BigDecimal64.toLongValue(bigDecimal);
+    String expected = BigDecimal64.toBigDecimal(value).toString();
+
+    char[] destination = new char[BigDecimal64.MAX_TEXT_LENGTH + 1];
+    int length = BigDecimal64.getChars(value, destination, 1);
+    assertEquals(expected, new String(destination, 1, length));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal64.getChars(value, new char[expected.length() - 1], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal64.getChars(value, destination, -1));
+  }
+
+  @Test
+  void maxTextLength() {
+    char[] destination = new char[BigDecimal64.MAX_TEXT_LENGTH];
+    assertEquals(BigDecimal64.MAX_TEXT_LENGTH, BigDecimal64.getChars(Long.MIN_VALUE, destination, 0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void unscaledValue(BigDecimal bigDecimal) {
+    long expected = bigDecimal.movePointRight(6).longValueExact();
+    assertEquals(expected, BigDecimal64.toLong(bigDecimal).longValue());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0E+2", "0E+13", "0E+20", "0E-6"})
+  void zeroWithScale(String zero) {
+    // the precision of zero is 1 for every scale
+    assertEquals(0L, BigDecimal64.toLongValue(new BigDecimal(zero)));
+    assertEquals(Long.valueOf(0L), BigDecimal64.toLong(new BigDecimal(zero)));
+  }
+
+  @Test
+  void storedFormat() {
+    assertEquals(200L, BigDecimal64.toLongValue(new BigDecimal("0.0002")));
+    assertEquals(new BigDecimal("0.000200"), BigDecimal64.toBigDecimal(200L));
+    assertEquals(-1_000_000L, BigDecimal64.toLongValue(BigDecimal.ONE.negate()));
+    assertEquals(new BigDecimal("-1.000000"), BigDecimal64.toBigDecimal(-1_000_000L));
+  }
+
+  @Test
+  void fromLegacyLong() {
+    assertEquals(BigDecimal.ZERO, BigDecimal64.fromLegacyLong(0L));
+    // -1 was stored without sign extension
+    assertEquals(new BigDecimal("-1.000000"), BigDecimal64.fromLegacyLong(0xF0BDC0L));
+    // 0.0002 was read as negative
+    assertEquals(new BigDecimal("-0.000056"), BigDecimal64.fromLegacyLong(0xC8L));
+
+    Random random = new Random(42L);
+    for (int i = 0; i < 10_000; i++) {
+      // all byte lengths
+      long value = random.nextLong() >>> random.nextInt(64);
+      assertEquals(legacyToBigDecimal(value), BigDecimal64.fromLegacyLong(value), Long.toHexString(value));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void fromLegacyLong(BigDecimal bigDecimal) {
+    // versions before 0.2.0 rejected the same values
+    assumeTrue((bigDecimal.scale() <= 6) && (bigDecimal.abs().compareTo(BigDecimal64.toBigDecimal(BigDecimal64.MAX_VALUE)) <= 0));
+    long stored = legacyToLong(bigDecimal);
+    assertEquals(legacyToBigDecimal(stored), BigDecimal64.fromLegacyLong(stored));
+  }
+
+  /**
+   * {@code toLong} of versions before 0.2.0.
+   */
+  private static long legacyToLong(BigDecimal bigDecimal) {
+    byte[] twosComplement = bigDecimal.movePointRight(6).toBigInteger().toByteArray();
+    long value = 0L;
+    for (int i = 0; i < twosComplement.length; i++) {
+      int shift = 56 - (i * 8) - (64 - (twosComplement.length * 8));
+      value |= ((long) (twosComplement[i] & 0xFF)) << shift;
+    }
+    return value;
+  }
+
+  /**
+   * {@code toBigDecimal} of versions before 0.2.0.
+   */
+  private static BigDecimal legacyToBigDecimal(long value) {
+    if (value == 0L) {
+      return BigDecimal.ZERO;
+    }
+    int bitsSet = 64 - Long.numberOfLeadingZeros(value);
+    int remainder = bitsSet % 8;
+    int arraySize = remainder == 0 ? bitsSet / 8 : ((bitsSet + 8) - remainder) / 8;
+    byte[] twosComplement = new byte[arraySize];
+    for (int i = 0; i < twosComplement.length; i++) {
+      int shift = 56 - (i * 8) - (64 - (twosComplement.length * 8));
+      twosComplement[i] = (byte) ((value >>> shift) & 0xFF);
+    }
+    return new BigDecimal(new BigInteger(twosComplement), 6);
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void primitive(BigDecimal bigDecimal) {
+    long value = BigDecimal64.toLongValue(bigDecimal);
+
+    assertEquals(BigDecimal64.toLong(bigDecimal).longValue(), value);
+    assertEquals(BigDecimal64.toBigDecimal(Long.valueOf(value)), BigDecimal64.toBigDecimal(value));
+    assertEquals(0, bigDecimal.compareTo(BigDecimal64.toBigDecimal(value)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidBigDecimals")
+  void illegalArguments(BigDecimal invalid) {
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal64.toLongValue(invalid));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal64.toLong(invalid));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void arithmetic(BigDecimal bigDecimal) {
+    long a = BigDecimal64.toLongValue(bigDecimal);
+    BigDecimal64Test.bigDecimals().forEach(other -> {
+      long b = BigDecimal64.toLongValue(other);
+      BigDecimal x = BigDecimal64.toBigDecimal(a);
+      BigDecimal y = BigDecimal64.toBigDecimal(b);
+
+      assertResult(x.add(y), () -> BigDecimal64.add(a, b));
+      assertResult(x.subtract(y), () -> BigDecimal64.subtract(a, b));
+      assertEquals(Integer.signum(x.compareTo(y)), Integer.signum(BigDecimal64.compare(a, b)));
+      assertEquals(x.compareTo(y) <= 0 ? a : b, BigDecimal64.min(a, b));
+      assertEquals(x.compareTo(y) >= 0 ? a : b, BigDecimal64.max(a, b));
+      for (RoundingMode roundingMode : RoundingMode.values()) {
+        assertResult(() -> x.multiply(y).setScale(6, roundingMode), () -> BigDecimal64.multiply(a, b, roundingMode));
+        if (b != 0L) {
+          assertResult(() -> x.divide(y, 6, roundingMode), () -> BigDecimal64.divide(a, b, roundingMode));
+        }
+      }
+    });
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void unaryArithmetic(BigDecimal bigDecimal) {
+    long value = BigDecimal64.toLongValue(bigDecimal);
+
+    assertEquals(BigDecimal64.toLongValue(bigDecimal.abs()), BigDecimal64.abs(value));
+    assertEquals(BigDecimal64.toLongValue(bigDecimal.negate()), BigDecimal64.negate(value));
+    for (int scale = 0; scale <= 6; scale++) {
+      int s = scale;
+      for (RoundingMode roundingMode : RoundingMode.values()) {
+        assertResult(() -> bigDecimal.setScale(s, roundingMode), () -> BigDecimal64.rescale(value, s, roundingMode));
+      }
+    }
+  }
+
+  @Test
+  void divideByZero() {
+    assertThrows(ArithmeticException.class, () -> BigDecimal64.divide(1L, 0L, RoundingMode.HALF_UP));
+  }
+
+  @Test
+  void rescaleInvalidScale() {
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal64.rescale(1L, -1, RoundingMode.HALF_UP));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal64.rescale(1L, 7, RoundingMode.HALF_UP));
+  }
+
+  @Test
+  void bounds() {
+    assertEquals(BigDecimal64.MAX_VALUE, BigDecimal64.toLongValue(new BigDecimal("999999999999.999999")));
+    assertEquals(BigDecimal64.MIN_VALUE, BigDecimal64.toLongValue(new BigDecimal("-999999999999.999999")));
+    assertThrows(ArithmeticException.class, () -> BigDecimal64.add(BigDecimal64.MAX_VALUE, 1L));
+    assertThrows(ArithmeticException.class, () -> BigDecimal64.subtract(BigDecimal64.MIN_VALUE, 1L));
+    assertThrows(ArithmeticException.class, () -> BigDecimal64.rescale(BigDecimal64.MAX_VALUE, 0, RoundingMode.UP));
+  }
+
+  private static void assertResult(BigDecimal expected, LongSupplier actual) {
+    assertResult(() -> expected, actual);
+  }
+
+  private static void assertResult(Supplier<BigDecimal> expected, LongSupplier actual) {
+    BigDecimal expectedValue;
+    try {
+      expectedValue = expected.get();
+    } catch (ArithmeticException e) {
+      // rounding necessary
+      assertThrows(ArithmeticException.class, actual::getAsLong);
+      return;
+    }
+    if (expectedValue.abs().compareTo(new BigDecimal("999999999999.999999")) > 0) {
+      assertThrows(ArithmeticException.class, actual::getAsLong, expectedValue::toPlainString);
+    } else {
+      assertEquals(BigDecimal64.toLongValue(expectedValue), actual.getAsLong(), expectedValue::toPlainString);
+    }
+  }
+
   @Test
   void testNulls() {
     assertNull(BigDecimal64.toBigDecimal(null));
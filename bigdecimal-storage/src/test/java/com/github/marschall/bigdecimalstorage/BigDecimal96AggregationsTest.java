@@ -0,0 +1,88 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class BigDecimal96AggregationsTest {
+
+  @Test
+  void empty() {
+    BigDecimal96Array array = new BigDecimal96Array(0);
+
+    assertThat(BigDecimal96Aggregations.sum(array)).isEqualByComparingTo(BigDecimal.ZERO);
+    assertNull(BigDecimal96Aggregations.min(array));
+    assertNull(BigDecimal96Aggregations.max(array));
+    assertNull(BigDecimal96Aggregations.average(array, 2, RoundingMode.HALF_UP));
+  }
+
+  @Test
+  void parallelMatchesBigDecimal() {
+    Random random = new Random(42L);
+    BigDecimal96Array array = new BigDecimal96Array(10_000);
+    BigDecimal sum = BigDecimal.ZERO;
+    BigDecimal min = null;
+    BigDecimal max = null;
+    for (int i = 0; i < array.length(); i++) {
+      // mix of compact and non-compact values with all scales
+      BigDecimal value = new BigDecimal(new BigInteger(1 + random.nextInt(87), random), random.nextInt(BigDecimal96.MAX_SCALE + 1));
+      if (random.nextBoolean()) {
+        value = value.negate();
+      }
+      array.set(i, BigDecimal96.valueOf(value));
+      sum = sum.add(value);
+      min = min == null ? value : min.min(value);
+      max = max == null ? value : max.max(value);
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BigDecimal96SummaryStatistics statistics = BigDecimal96Aggregations.summarize(array, pool, 100);
+      assertEquals(array.length(), statistics.getCount());
+      assertThat(statistics.getSum()).isEqualByComparingTo(sum);
+      assertThat(statistics.getMin().toBigDecimal()).isEqualByComparingTo(min);
+      assertThat(statistics.getMax().toBigDecimal()).isEqualByComparingTo(max);
+      assertThat(statistics.getAverage(6, RoundingMode.HALF_EVEN))
+        .isEqualByComparingTo(sum.divide(BigDecimal.valueOf(array.length()), 6, RoundingMode.HALF_EVEN));
+    } finally {
+      pool.shutdown();
+    }
+
+    assertThat(BigDecimal96Aggregations.sum(array)).isEqualByComparingTo(sum);
+    assertThat(BigDecimal96Aggregations.min(array).toBigDecimal()).isEqualByComparingTo(min);
+    assertThat(BigDecimal96Aggregations.max(array).toBigDecimal()).isEqualByComparingTo(max);
+  }
+
+  @Test
+  void compactBlocksMatchElementByElement() {
+    Random random = new Random(42L);
+    BigDecimal96Array array = new BigDecimal96Array(10_000);
+    for (int i = 0; i < array.length(); i++) {
+      array.set(i, random.nextLong(), 2);
+    }
+    // some blocks with a different scale or a value that does not fit into a long
+    array.set(150, 1L, 3);
+    array.set(5_000, BigDecimal96.valueOf(new BigDecimal("-123456789012345678901234.5")));
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BigDecimal96SummaryStatistics expected = BigDecimal96Aggregations.summarizeEach(array, 0, array.length());
+      BigDecimal96SummaryStatistics statistics = BigDecimal96Aggregations.summarize(array, pool, 100);
+      assertEquals(expected.getCount(), statistics.getCount());
+      assertEquals(expected.getSum(), statistics.getSum());
+      assertEquals(expected.getMin(), statistics.getMin());
+      assertEquals(expected.getMax(), statistics.getMax());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BigDecimal96ColumnFileTest {
+
+  // small segments so that the tests cross segment boundaries
+  private static final int SEGMENT_SIZE = 5 * BigDecimal96.BYTES;
+
+  private Path directory;
+  private Path path;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("column-file");
+    this.path = this.directory.resolve("values.bin");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(this.path);
+    Files.delete(this.directory);
+  }
+
+  private static BigDecimal96 value(int i) {
+    return BigDecimal96.valueOf(BigDecimal.valueOf(i * 1_000_000_007L, i % 7));
+  }
+
+  @Test
+  void appendAndGet() throws IOException {
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.create(this.path, SEGMENT_SIZE)) {
+      for (int i = 0; i < 12; i++) {
+        assertEquals(i, file.append(value(i)));
+      }
+      assertEquals(12L, file.size());
+      file.set(7L, BigDecimal96.valueOf(new BigDecimal("-10000000000000000000")));
+    }
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.open(this.path, true, SEGMENT_SIZE)) {
+      assertEquals(12L, file.size());
+      for (int i = 0; i < 12; i++) {
+        if (i == 7) {
+          assertEquals(BigDecimal96.valueOf(new BigDecimal("-10000000000000000000")), file.get(i));
+        } else {
+          assertEquals(value(i), file.get(i));
+        }
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> file.get(12L));
+      assertThrows(ReadOnlyBufferException.class, () -> file.append(value(1)));
+    }
+  }
+
+  @Test
+  void bulkAppendAndRead() throws IOException {
+    BigDecimal96Array values = new BigDecimal96Array(20);
+    for (int i = 0; i < values.length(); i++) {
+      values.set(i, value(i));
+    }
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.create(this.path, SEGMENT_SIZE)) {
+      file.append(value(-1));
+      file.append(values, 2, 17);
+      assertEquals(18L, file.size());
+    }
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.open(this.path, false, SEGMENT_SIZE)) {
+      BigDecimal96Array readBack = new BigDecimal96Array(18);
+      file.read(0L, readBack, 0, 18);
+      assertEquals(value(-1), readBack.get(0));
+      for (int i = 1; i < 18; i++) {
+        assertEquals(values.get(i + 1), readBack.get(i));
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> file.read(1L, readBack, 0, 18));
+      assertThrows(IndexOutOfBoundsException.class, () -> file.read(0L, readBack, 1, 18));
+    }
+  }
+
+  @Test
+  void defaultSegmentSize() throws IOException {
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.create(this.path)) {
+      file.append(value(3));
+    }
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.openReadOnly(this.path)) {
+      assertEquals(1L, file.size());
+      assertEquals(value(3), file.get(0L));
+    }
+  }
+
+  @Test
+  void fileSize() throws IOException {
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.create(this.path)) {
+      for (int i = 0; i < 3; i++) {
+        file.append(value(i));
+      }
+      // the mapping grows in steps instead of a whole segment
+      assertEquals(MappedColumnFile.HEADER_SIZE + (4L * BigDecimal96.BYTES), Files.size(this.path));
+    }
+    assertEquals(MappedColumnFile.HEADER_SIZE + (3L * BigDecimal96.BYTES), Files.size(this.path));
+
+    try (BigDecimal96ColumnFile file = BigDecimal96ColumnFile.open(this.path, false, MappedColumnFile.DEFAULT_SEGMENT_SIZE)) {
+      assertEquals(value(2), file.get(2L));
+    }
+    assertEquals(MappedColumnFile.HEADER_SIZE + (3L * BigDecimal96.BYTES), Files.size(this.path));
+  }
+
+  @Test
+  void wrongType() throws IOException {
+    BigDecimal128ColumnFile.create(this.path).close();
+
+    assertThrows(IOException.class, () -> BigDecimal96ColumnFile.openReadOnly(this.path));
+  }
+
+}
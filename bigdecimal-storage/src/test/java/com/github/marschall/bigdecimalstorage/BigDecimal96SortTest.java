@@ -0,0 +1,137 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class BigDecimal96SortTest {
+
+  @Test
+  void empty() {
+    BigDecimal96Array array = new BigDecimal96Array(0);
+
+    BigDecimal96Sort.sort(array);
+    assertArrayEquals(new int[0], BigDecimal96Sort.sortedIndices(array));
+  }
+
+  @Test
+  void singleElement() {
+    BigDecimal96Array array = new BigDecimal96Array(1);
+    array.set(0, BigDecimal96.ONE);
+
+    BigDecimal96Sort.sort(array);
+    assertEquals(BigDecimal96.ONE, array.get(0));
+    assertArrayEquals(new int[] {0}, BigDecimal96Sort.sortedIndices(array));
+  }
+
+  @Test
+  void extremeValues() {
+    BigDecimal96[] values = {
+        BigDecimal96.valueOf(BigDecimal96.MAX_VALUE),
+        BigDecimal96.valueOf(BigDecimal96.MIN_VALUE.movePointLeft(6)),
+        BigDecimal96.valueOf(BigDecimal96.MIN_VALUE),
+        BigDecimal96.valueOf(BigDecimal96.MAX_VALUE.movePointLeft(6)),
+        BigDecimal96.ZERO,
+        BigDecimal96.valueOf(new BigDecimal("-0.000001")),
+        BigDecimal96.valueOf(BigDecimal.valueOf(Long.MIN_VALUE)),
+        BigDecimal96.valueOf(BigDecimal.valueOf(Long.MAX_VALUE, 6))
+    };
+
+    assertSortsLikeCompareTo(values);
+  }
+
+  @Test
+  void sequential() {
+    Random random = new Random(42L);
+
+    assertSortsLikeCompareTo(randomValues(random, 10_000, 87));
+    assertSortsLikeCompareTo(randomValues(random, 10_000, 40));
+  }
+
+  @Test
+  void parallel() {
+    Random random = new Random(42L);
+    BigDecimal96[] values = randomValues(random, 10_000, 87);
+    int[] expected = expectedIndices(values);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BigDecimal96Array array = toArray(values);
+      assertArrayEquals(expected, BigDecimal96Sort.sortedIndices(array, pool, 100));
+
+      BigDecimal96Sort.parallelSort(array, pool, 100);
+      assertSorted(values, expected, array);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void assertSortsLikeCompareTo(BigDecimal96[] values) {
+    int[] expected = expectedIndices(values);
+    BigDecimal96Array array = toArray(values);
+
+    assertArrayEquals(expected, BigDecimal96Sort.sortedIndices(array));
+    BigDecimal96Sort.sort(array);
+    assertSorted(values, expected, array);
+  }
+
+  private static void assertSorted(BigDecimal96[] values, int[] expected, BigDecimal96Array array) {
+    for (int i = 0; i < expected.length; i++) {
+      // equals also checks the scale so this verifies stability
+      assertEquals(values[expected[i]], array.get(i));
+    }
+  }
+
+  private static int[] expectedIndices(BigDecimal96[] values) {
+    // Arrays.sort on objects is stable
+    Integer[] indices = new Integer[values.length];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = i;
+    }
+    Arrays.sort(indices, (a, b) -> values[a].compareTo(values[b]));
+    int[] expected = new int[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      expected[i] = indices[i];
+    }
+    return expected;
+  }
+
+  private static BigDecimal96Array toArray(BigDecimal96[] values) {
+    BigDecimal96Array array = new BigDecimal96Array(values.length);
+    for (int i = 0; i < values.length; i++) {
+      array.set(i, values[i]);
+    }
+    return array;
+  }
+
+  private static BigDecimal96[] randomValues(Random random, int length, int maxBits) {
+    BigDecimal96[] values = new BigDecimal96[length];
+    for (int i = 0; i < length; i++) {
+      BigDecimal value;
+      if ((i > 0) && (random.nextInt(4) == 0)) {
+        // the same value with a different scale
+        BigDecimal previous = values[random.nextInt(i)].toBigDecimal();
+        if ((previous.scale() < BigDecimal96.MAX_SCALE) && (previous.unscaledValue().bitLength() < 80)) {
+          value = previous.setScale(previous.scale() + 1);
+        } else {
+          value = previous;
+        }
+      } else {
+        value = new BigDecimal(new BigInteger(1 + random.nextInt(maxBits), random), random.nextInt(BigDecimal96.MAX_SCALE + 1));
+        if (random.nextBoolean()) {
+          value = value.negate();
+        }
+      }
+      values[i] = BigDecimal96.valueOf(value);
+    }
+    return values;
+  }
+
+}
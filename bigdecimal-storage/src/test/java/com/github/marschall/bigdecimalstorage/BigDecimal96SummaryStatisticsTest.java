@@ -0,0 +1,108 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class BigDecimal96SummaryStatisticsTest {
+
+  private static List<BigDecimal> values() {
+    return BigDecimal96Test.bigDecimals()
+            .filter(each -> each.unscaledValue().bitLength() <= 87)
+            .map(each -> BigDecimal96.valueOf(each).toBigDecimal())
+            .collect(Collectors.toList());
+  }
+
+  @Test
+  void empty() {
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+
+    assertEquals(0L, statistics.getCount());
+    assertThat(statistics.getSum()).isEqualByComparingTo(BigDecimal.ZERO);
+    assertNull(statistics.getMin());
+    assertNull(statistics.getMax());
+    assertNull(statistics.getAverage(2, RoundingMode.HALF_EVEN));
+  }
+
+  @Test
+  void accept() {
+    List<BigDecimal> values = values();
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+    for (BigDecimal value : values) {
+      statistics.accept(BigDecimal96.valueOf(value));
+    }
+
+    BigDecimal sum = values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    assertEquals(values.size(), statistics.getCount());
+    assertThat(statistics.getSum()).isEqualByComparingTo(sum);
+    assertThat(statistics.getMin().toBigDecimal()).isEqualByComparingTo(values.stream().min(BigDecimal::compareTo).get());
+    assertThat(statistics.getMax().toBigDecimal()).isEqualByComparingTo(values.stream().max(BigDecimal::compareTo).get());
+    assertThat(statistics.getAverage(6, RoundingMode.HALF_EVEN))
+      .isEqualByComparingTo(sum.divide(BigDecimal.valueOf(values.size()), 6, RoundingMode.HALF_EVEN));
+  }
+
+  @Test
+  void combine() {
+    List<BigDecimal> values = values();
+    BigDecimal96SummaryStatistics all = new BigDecimal96SummaryStatistics();
+    for (BigDecimal value : values) {
+      BigDecimal96SummaryStatistics single = new BigDecimal96SummaryStatistics();
+      single.accept(BigDecimal96.valueOf(value));
+      BigDecimal96SummaryStatistics empty = new BigDecimal96SummaryStatistics();
+      single.combine(empty);
+      empty.combine(all);
+      empty.combine(single);
+      all = empty;
+    }
+
+    BigDecimal sum = values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    assertEquals(values.size(), all.getCount());
+    assertThat(all.getSum()).isEqualByComparingTo(sum);
+    assertThat(all.getMin().toBigDecimal()).isEqualByComparingTo(values.stream().min(BigDecimal::compareTo).get());
+    assertThat(all.getMax().toBigDecimal()).isEqualByComparingTo(values.stream().max(BigDecimal::compareTo).get());
+  }
+
+  @Test
+  void sumOverflows128Bits() {
+    BigDecimal96 max = BigDecimal96.valueOf(BigDecimal96.MAX_VALUE);
+    BigDecimal96 small = BigDecimal96.valueOf(new BigDecimal("0.000001"));
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+    statistics.accept(small);
+    int count = 1 << 21;
+    for (int i = 0; i < count; i++) {
+      statistics.accept(max);
+    }
+
+    BigDecimal expected = BigDecimal96.MAX_VALUE.multiply(BigDecimal.valueOf(count)).add(small.toBigDecimal());
+    assertEquals(count + 1L, statistics.getCount());
+    assertThat(statistics.getSum()).isEqualByComparingTo(expected);
+
+    BigDecimal96SummaryStatistics other = new BigDecimal96SummaryStatistics();
+    other.accept(max);
+    other.combine(statistics);
+    assertThat(other.getSum()).isEqualByComparingTo(expected.add(BigDecimal96.MAX_VALUE));
+  }
+
+  @Test
+  void rescaleOverflows128Bits() {
+    BigDecimal96 max = BigDecimal96.valueOf(BigDecimal96.MAX_VALUE);
+    BigDecimal96SummaryStatistics statistics = new BigDecimal96SummaryStatistics();
+    int count = 1 << 21;
+    for (int i = 0; i < count; i++) {
+      statistics.accept(max);
+    }
+    BigDecimal96 small = BigDecimal96.valueOf(new BigDecimal("-0.000001"));
+    statistics.accept(small);
+
+    BigDecimal expected = BigDecimal96.MAX_VALUE.multiply(BigDecimal.valueOf(count)).add(small.toBigDecimal());
+    assertThat(statistics.getSum()).isEqualByComparingTo(expected);
+  }
+
+}
@@ -1,20 +1,35 @@
 package com.github.marschall.bigdecimalstorage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -243,6 +258,223 @@ class BigDecimal96Test {
     assertEquals(0, bigDecimal.compareTo(readBack));
   }
 
+  @Test
+  void serialVersionUID() {
+    // streams written before the variable length format have a different one
+    assertEquals(2L, ObjectStreamClass.lookup(BigDecimal96.Ser96.class).getSerialVersionUID());
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void writeToReadFrom(BigDecimal bigDecimal) throws IOException {
+    BigDecimal96 value = BigDecimal96.valueOf(bigDecimal);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      value.writeTo(out);
+    }
+    byte[] written = bos.toByteArray();
+    assertTrue(written.length <= BigDecimal96.BYTES);
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(written))) {
+      assertEquals(value, BigDecimal96.readFrom(in));
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  void writeToSize() throws IOException {
+    assertEquals(1, writtenLength(BigDecimal96.ZERO));
+    assertEquals(2, writtenLength(BigDecimal96.valueOf(new BigDecimal("-0.01"))));
+    assertEquals(4, writtenLength(BigDecimal96.valueOf(new BigDecimal("1234.56"))));
+    assertEquals(4, writtenLength(BigDecimal96.valueOf(new BigDecimal("-1234.56"))));
+  }
+
+  private static int writtenLength(BigDecimal96 value) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      value.writeTo(out);
+    }
+    return bos.size();
+  }
+
+  @Test
+  void readFromInvalid() {
+    for (byte[] invalid : new byte[][] {
+        // null
+        {0b111},
+        // scale 7
+        {0b1111, 1},
+        // 17 value bytes
+        {(byte) (17 << 3)},
+        // 129 bits
+        {(byte) (16 << 3), -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1}}) {
+      try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(invalid))) {
+        assertThrows(StreamCorruptedException.class, () -> BigDecimal96.readFrom(in));
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void putToGetFrom(BigDecimal bigDecimal) {
+    BigDecimal96 bigDecimal96 = BigDecimal96.valueOf(bigDecimal);
+    for (ByteBuffer buffer : new ByteBuffer[] {
+        ByteBuffer.allocate(BigDecimal96.BYTES + 3),
+        ByteBuffer.allocateDirect(BigDecimal96.BYTES + 3).order(ByteOrder.LITTLE_ENDIAN)}) {
+      bigDecimal96.putTo(buffer, 3);
+
+      assertEquals(0, buffer.position());
+      assertEquals(bigDecimal96, BigDecimal96.getFrom(buffer, 3));
+    }
+  }
+
+  @Test
+  void putToBigEndian() {
+    ByteBuffer bigEndian = ByteBuffer.allocate(BigDecimal96.BYTES);
+    ByteBuffer littleEndian = ByteBuffer.allocate(BigDecimal96.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    BigDecimal96 bigDecimal96 = BigDecimal96.valueOf(new BigDecimal("-1234.5"));
+
+    bigDecimal96.putTo(bigEndian, 0);
+    bigDecimal96.putTo(littleEndian, 0);
+
+    assertArrayEquals(bigEndian.array(), littleEndian.array());
+    assertEquals(-12345L, bigEndian.getLong(BigDecimal96.BYTES - 8));
+  }
+
+  @Test
+  void putToOutOfBounds() {
+    ByteBuffer buffer = ByteBuffer.allocate(BigDecimal96.BYTES);
+    BigDecimal96 bigDecimal96 = BigDecimal96.valueOf(BigDecimal.ONE);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> bigDecimal96.putTo(buffer, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal96.getFrom(buffer, 1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void keyRoundTrip(BigDecimal bigDecimal) {
+    BigDecimal96 value = BigDecimal96.valueOf(bigDecimal);
+    byte[] key = new byte[BigDecimal96.KEY_BYTES + 3];
+    value.putKeyTo(key, 3);
+
+    assertEquals(value, BigDecimal96.fromKey(key, 3));
+    assertArrayEquals(value.toKey(), Arrays.copyOfRange(key, 3, key.length));
+  }
+
+  @Test
+  void keyOrder() {
+    List<BigDecimal96> values = new ArrayList<>();
+    bigDecimals().forEach(bigDecimal -> {
+      values.add(BigDecimal96.valueOf(bigDecimal));
+      if ((bigDecimal.scale() < BigDecimal96.MAX_SCALE) && (bigDecimal.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0)) {
+        // same value with a different scale
+        values.add(BigDecimal96.valueOf(bigDecimal.setScale(BigDecimal96.MAX_SCALE)));
+      }
+    });
+    for (BigDecimal96 a : values) {
+      for (BigDecimal96 b : values) {
+        int keyComparison = compareUnsigned(a.toKey(), b.toKey());
+        int comparison = a.compareTo(b);
+        if (comparison != 0) {
+          assertEquals(Integer.signum(comparison), Integer.signum(keyComparison), () -> a + " <> " + b);
+        } else {
+          // ties are broken by scale
+          assertEquals(Integer.signum(a.toBigDecimal().scale() - b.toBigDecimal().scale()), Integer.signum(keyComparison), () -> a + " <> " + b);
+        }
+      }
+    }
+  }
+
+  @Test
+  void keyOrderAroundZero() {
+    byte[] minusOne = BigDecimal96.valueOf(new BigDecimal("-0.000001")).toKey();
+    byte[] zero = BigDecimal96.ZERO.toKey();
+    byte[] one = BigDecimal96.valueOf(new BigDecimal("0.000001")).toKey();
+
+    assertThat(compareUnsigned(minusOne, zero)).isNegative();
+    assertThat(compareUnsigned(zero, one)).isNegative();
+  }
+
+  @Test
+  void invalidKey() {
+    byte[] invalidScale = BigDecimal96.ONE.toKey();
+    invalidScale[BigDecimal96.KEY_BYTES - 1] = 7;
+    byte[] notExact = BigDecimal96.ONE.toKey();
+    notExact[BigDecimal96.KEY_BYTES - 2] += 1;
+    byte[] tooLarge = new byte[BigDecimal96.KEY_BYTES];
+    Arrays.fill(tooLarge, (byte) 0xFF);
+    tooLarge[BigDecimal96.KEY_BYTES - 1] = 6;
+
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal96.fromKey(invalidScale, 0));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal96.fromKey(notExact, 0));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal96.fromKey(tooLarge, 0));
+  }
+
+  @Test
+  void keyOutOfBounds() {
+    byte[] key = new byte[BigDecimal96.KEY_BYTES];
+
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal96.ONE.putKeyTo(key, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal96.fromKey(key, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal96.fromKey(key, -1));
+  }
+
+  private static int compareUnsigned(byte[] a, byte[] b) {
+    for (int i = 0; i < a.length; i++) {
+      int comparison = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void canonical(BigDecimal bigDecimal) {
+    BigDecimal stripped = bigDecimal.stripTrailingZeros();
+    if (stripped.scale() < 0) {
+      stripped = stripped.setScale(0);
+    }
+    BigDecimal96 value = BigDecimal96.valueOf(bigDecimal);
+
+    assertEquals(BigDecimal96.valueOf(stripped), value.canonical());
+    assertEquals(value.canonical().hashCode(), value.canonical().canonical().hashCode());
+    assertEquals(value.canonical().numericHashCode(), value.numericHashCode());
+    assertTrue(value.numericEquals(value.canonical()));
+  }
+
+  @Test
+  void canonicalCompact() {
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-1.2")), BigDecimal96.valueOf(new BigDecimal("-1.200000")).canonical());
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("100")), BigDecimal96.valueOf(new BigDecimal("100.00")).canonical());
+    assertSame(BigDecimal96.ZERO, BigDecimal96.ZERO.canonical());
+    assertEquals(BigDecimal96.ZERO, BigDecimal96.valueOf(new BigDecimal("0.000")).canonical());
+  }
+
+  @Test
+  void numericEquality() {
+    // non-compact with trailing zeros and compact
+    BigDecimal96 nonCompact = BigDecimal96.valueOf(new BigDecimal("-100000000000000.000000"));
+    BigDecimal96 compact = BigDecimal96.valueOf(new BigDecimal("-100000000000000.0"));
+    BigDecimal96 other = BigDecimal96.valueOf(new BigDecimal("-100000000000000.01"));
+
+    assertNotEquals(nonCompact, compact);
+    assertTrue(nonCompact.numericEquals(compact));
+    assertTrue(compact.numericEquals(nonCompact));
+    assertFalse(compact.numericEquals(other));
+    assertFalse(other.numericEquals(nonCompact));
+    assertEquals(nonCompact.numericHashCode(), compact.numericHashCode());
+    assertEquals(compact, nonCompact.canonical().withScale(1));
+
+    assertTrue(BigDecimal96.NUMERIC_EQUALITY.equals(nonCompact, compact));
+    assertEquals(BigDecimal96.NUMERIC_EQUALITY.computeHashCode(nonCompact), BigDecimal96.NUMERIC_EQUALITY.computeHashCode(compact));
+    assertEquals(0, BigDecimal96.NUMERIC_ORDER.compare(nonCompact, compact));
+    assertThat(BigDecimal96.NUMERIC_ORDER.compare(nonCompact, other)).isPositive();
+  }
+
   @Test
   void nullConstructor() {
     assertNull(BigDecimal96.valueOf(null));
@@ -405,6 +637,255 @@ class BigDecimal96Test {
     assertEquals(BigDecimal96.valueOf(new BigDecimal("12345678901234567890.000")), bigDecimal96.withScale(3));
   }
 
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void compareTo(BigDecimal bigDecimal) {
+    BigDecimal a = BigDecimal96.valueOf(bigDecimal).toBigDecimal();
+    bigDecimals().forEach(other -> {
+      BigDecimal b = BigDecimal96.valueOf(other).toBigDecimal();
+      int expected = Integer.signum(a.compareTo(b));
+      assertEquals(expected, Integer.signum(BigDecimal96.valueOf(a).compareTo(BigDecimal96.valueOf(b))), () -> a + " <=> " + b);
+    });
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void addSubtract(BigDecimal bigDecimal) {
+    BigDecimal a = BigDecimal96.valueOf(bigDecimal).toBigDecimal();
+    bigDecimals().forEach(other -> {
+      BigDecimal b = BigDecimal96.valueOf(other).toBigDecimal();
+      BigDecimal96 a96 = BigDecimal96.valueOf(a);
+      BigDecimal96 b96 = BigDecimal96.valueOf(b);
+      assertResult(a.add(b), () -> a96.add(b96));
+      assertResult(a.subtract(b), () -> a96.subtract(b96));
+    });
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void withScale(BigDecimal bigDecimal) {
+    BigDecimal96 bigDecimal96 = BigDecimal96.valueOf(bigDecimal);
+    BigDecimal value = bigDecimal96.toBigDecimal();
+    for (int scale = 0; scale <= BigDecimal96.MAX_SCALE; scale++) {
+      int newScale = scale;
+      BigDecimal expected;
+      try {
+        expected = value.setScale(newScale);
+      } catch (ArithmeticException e) {
+        assertThrows(ArithmeticException.class, () -> bigDecimal96.withScale(newScale));
+        continue;
+      }
+      assertResult(expected, () -> bigDecimal96.withScale(newScale));
+    }
+  }
+
+  @Test
+  void withScaleSmallerRoundingNecessary() {
+    BigDecimal96 bigDecimal96 = BigDecimal96.valueOf(new BigDecimal("1.11"));
+
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("1.1")), BigDecimal96.valueOf(new BigDecimal("1.10")).withScale(1));
+    assertThrows(ArithmeticException.class, () -> bigDecimal96.withScale(1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void multiplyWithScale(BigDecimal bigDecimal) {
+    BigDecimal a = BigDecimal96.valueOf(bigDecimal).toBigDecimal();
+    BigDecimal96 a96 = BigDecimal96.valueOf(a);
+    bigDecimals().forEach(other -> {
+      BigDecimal b = BigDecimal96.valueOf(other).toBigDecimal();
+      BigDecimal96 b96 = BigDecimal96.valueOf(b);
+      for (int scale = 0; scale <= BigDecimal96.MAX_SCALE; scale++) {
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+          int newScale = scale;
+          BigDecimal expected;
+          try {
+            expected = a.multiply(b).setScale(newScale, roundingMode);
+          } catch (ArithmeticException e) {
+            assertThrows(ArithmeticException.class, () -> a96.multiply(b96, newScale, roundingMode));
+            continue;
+          }
+          assertResult(expected, () -> a96.multiply(b96, newScale, roundingMode));
+        }
+      }
+    });
+  }
+
+  @Test
+  void multiply() {
+    BigDecimal96 price = BigDecimal96.valueOf(new BigDecimal("12.25"));
+    BigDecimal96 quantity = BigDecimal96.valueOf(new BigDecimal("-3.5"));
+
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-42.875")), price.multiply(quantity));
+  }
+
+  @Test
+  void multiplyScaleTooLarge() {
+    BigDecimal96 a = BigDecimal96.valueOf(new BigDecimal("0.0001"));
+    BigDecimal96 b = BigDecimal96.valueOf(new BigDecimal("0.0010"));
+
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.000001")), b.multiply(b));
+    assertThrows(ArithmeticException.class, () -> a.multiply(a));
+  }
+
+  @Test
+  void multiplyNoLongerCompact() {
+    BigDecimal96 a = BigDecimal96.valueOf(new BigDecimal("123456789012.345678"));
+    BigDecimal96 b = BigDecimal96.valueOf(new BigDecimal("1000"));
+
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("123456789012345.678000")), a.multiply(b));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void divide(BigDecimal bigDecimal) {
+    BigDecimal a = BigDecimal96.valueOf(bigDecimal).toBigDecimal();
+    BigDecimal96 a96 = BigDecimal96.valueOf(a);
+    bigDecimals().forEach(other -> {
+      BigDecimal b = BigDecimal96.valueOf(other).toBigDecimal();
+      BigDecimal96 b96 = BigDecimal96.valueOf(b);
+      for (int scale = 0; scale <= BigDecimal96.MAX_SCALE; scale++) {
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+          int newScale = scale;
+          BigDecimal expected;
+          try {
+            expected = a.divide(b, newScale, roundingMode);
+          } catch (ArithmeticException e) {
+            assertThrows(ArithmeticException.class, () -> a96.divide(b96, newScale, roundingMode));
+            continue;
+          }
+          assertResult(expected, () -> a96.divide(b96, newScale, roundingMode));
+        }
+      }
+    });
+  }
+
+  @Test
+  void divideRounding() {
+    BigDecimal96 a = BigDecimal96.valueOf(new BigDecimal("-2"));
+    BigDecimal96 b = BigDecimal96.valueOf(new BigDecimal("3"));
+
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-0.67")), a.divide(b, 2, RoundingMode.HALF_UP));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-0.66")), a.divide(b, 2, RoundingMode.DOWN));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-0.66")), a.divide(b, 2, RoundingMode.CEILING));
+    assertThrows(ArithmeticException.class, () -> a.divide(b, 2, RoundingMode.UNNECESSARY));
+  }
+
+  @Test
+  void divideByZero() {
+    BigDecimal96 a = BigDecimal96.valueOf(BigDecimal.ONE);
+    BigDecimal96 zero = BigDecimal96.valueOf(new BigDecimal("0.00"));
+
+    assertThrows(ArithmeticException.class, () -> a.divide(zero, 2, RoundingMode.HALF_UP));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void parse(BigDecimal bigDecimal) {
+    BigDecimal96 expected = BigDecimal96.valueOf(bigDecimal);
+    String text = expected.toString();
+
+    assertEquals(expected, BigDecimal96.parse(text, 0, text.length()));
+    assertEquals(expected, BigDecimal96.parse("x" + text + "y", 1, text.length() + 1));
+  }
+
+  @Test
+  void parseVariants() {
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("1.5")), BigDecimal96.parse("+1.5", 0, 4));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-0.50")), BigDecimal96.parse("-0.50", 0, 5));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.5")), BigDecimal96.parse(".5", 0, 2));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("5")), BigDecimal96.parse("5.", 0, 2));
+    assertEquals(BigDecimal96.valueOf(BigDecimal.ZERO), BigDecimal96.parse("-0", 0, 2));
+    String leadingZeros = "-000000000000000000000000000000000000000001.5";
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-1.5")), BigDecimal96.parse(leadingZeros, 0, leadingZeros.length()));
+  }
+
+  @Test
+  void parseInvalid() {
+    for (String invalid : new String[] {"", "-", "+", ".", "-.", "1.2.3", "1e3", "abc", " 1", "1-"}) {
+      assertThrows(NumberFormatException.class, () -> BigDecimal96.parse(invalid, 0, invalid.length()), invalid);
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal96.parse("1", 0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> BigDecimal96.parse("1", -1, 1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidBigDecimals")
+  void parseIllegalArguments(BigDecimal invalid) {
+    String text = invalid.toPlainString();
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal96.parse(text, 0, text.length()));
+  }
+
+  @Test
+  void parseOverflows128Bits() {
+    String text = "1234567890123456789012345678901234567890123456789012345678901234567890";
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal96.parse(text, 0, text.length()));
+    assertThrows(IllegalArgumentException.class, () -> BigDecimal96.parse("-" + text, 0, text.length() + 1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void appendTo(BigDecimal bigDecimal) throws IOException {
+    BigDecimal96 value = BigDecimal96.valueOf(bigDecimal);
+    String expected = value.toBigDecimal().toString();
+
+    StringBuilder buffer = new StringBuilder("x");
+    value.appendTo(buffer);
+    assertEquals("x" + expected, buffer.toString());
+
+    Appendable appendable = new StringBuilder();
+    value.appendTo(appendable);
+    assertEquals(expected, appendable.toString());
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void getChars(BigDecimal bigDecimal) {
+    BigDecimal96 value = BigDecimal96.valueOf(bigDecimal);
+    String expected = value.toBigDecimal().toString();
+
+    char[] destination = new char[BigDecimal96.MAX_TEXT_LENGTH + 1];
+    int length = value.getChars(destination, 1);
+    assertEquals(expected, new String(destination, 1, length));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> value.getChars(new char[expected.length() - 1], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> value.getChars(destination, -1));
+  }
+
+  @Test
+  void maxTextLength() {
+    char[] destination = new char[BigDecimal96.MAX_TEXT_LENGTH];
+    assertEquals(BigDecimal96.MAX_TEXT_LENGTH, BigDecimal96.valueOf(BigDecimal96.MIN_VALUE.movePointLeft(BigDecimal96.MAX_SCALE)).getChars(destination, 0));
+  }
+
+  @Test
+  void constants() {
+    assertEquals(BigDecimal96.valueOf(BigDecimal.ZERO), BigDecimal96.ZERO);
+    assertEquals(BigDecimal96.valueOf(BigDecimal.ONE), BigDecimal96.ONE);
+    assertThat(BigDecimal96.ZERO.toBigDecimal()).isEqualByComparingTo(BigDecimal.ZERO);
+    assertThat(BigDecimal96.ONE.toBigDecimal()).isEqualByComparingTo(BigDecimal.ONE);
+  }
+
+  @ParameterizedTest
+  @MethodSource("bigDecimals")
+  void cache(BigDecimal bigDecimal) {
+    // the cache is enabled by the surefire configuration
+    assumeTrue(Integer.getInteger(BigDecimal96.CACHE_SIZE_PROPERTY, 0) > 0);
+    BigDecimal96 value = BigDecimal96.valueOf(bigDecimal);
+
+    assertSame(value, BigDecimal96.valueOf(bigDecimal));
+    assertSame(value, value.add(BigDecimal96.ZERO));
+  }
+
+  private static void assertResult(BigDecimal expected, Supplier<BigDecimal96> actual) {
+    // the unscaled value has to fit into 88 bits
+    if (expected.unscaledValue().bitLength() > 87) {
+      assertThrows(ArithmeticException.class, actual::get, () -> expected.toPlainString());
+    } else {
+      assertEquals(BigDecimal96.valueOf(expected), actual.get(), () -> expected.toPlainString());
+    }
+  }
+
   @Test
   void objectSize() {
     ClassLayout classLayout96 = ClassLayout.parseClass(BigDecimal96.class);
@@ -0,0 +1,102 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+class CompressedDecimal64SeriesTest {
+
+  static Stream<long[]> series() {
+    Random random = new Random(42L);
+    long[] randomWalk = new long[10_000];
+    long price = 1_234_560_000L;
+    for (int i = 0; i < randomWalk.length; i++) {
+      price += (random.nextInt(11) - 5) * 10_000L;
+      randomWalk[i] = price;
+    }
+    long[] narrowRange = new long[1_000];
+    for (int i = 0; i < narrowRange.length; i++) {
+      narrowRange[i] = 99_000_000L + random.nextInt(1_000_000);
+    }
+    long[] extremes = new long[300];
+    for (int i = 0; i < extremes.length; i++) {
+      extremes[i] = (i % 3) == 0 ? Long.MIN_VALUE : (i % 3) == 1 ? Long.MAX_VALUE : random.nextLong();
+    }
+    long[] constant = new long[257];
+    java.util.Arrays.fill(constant, -5_000_000L);
+    return Stream.of(
+            new long[0],
+            new long[] {BigDecimal64.MAX_VALUE},
+            randomWalk,
+            narrowRange,
+            extremes,
+            constant);
+  }
+
+  @ParameterizedTest
+  @MethodSource("series")
+  void roundTrip(long[] values) {
+    CompressedDecimal64Series series = CompressedDecimal64Series.compress(values);
+    assertEquals(values.length, series.length());
+    assertEquals((values.length + 127) / 128, series.blockCount());
+
+    long[] decoded = new long[values.length + 2];
+    series.decode(decoded, 1);
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i], decoded[i + 1]);
+      assertEquals(values[i], series.get(i));
+    }
+
+    long[] block = new long[CompressedDecimal64Series.BLOCK_SIZE];
+    for (int i = 0; i < series.blockCount(); i++) {
+      int count = series.decodeBlock(i, block, 0);
+      for (int j = 0; j < count; j++) {
+        assertEquals(values[(i * CompressedDecimal64Series.BLOCK_SIZE) + j], block[j]);
+      }
+    }
+  }
+
+  @Test
+  void compressionRatio() {
+    long[] values = series().skip(2).findFirst().get();
+    CompressedDecimal64Series series = CompressedDecimal64Series.compress(values);
+    // 5 bits per delta
+    assertTrue(series.compressedSize() * 10 < (values.length * 8L), () -> "compressed size: " + series.compressedSize());
+
+    long[] constant = new long[1_280];
+    assertTrue(CompressedDecimal64Series.compress(constant).compressedSize() < 200);
+  }
+
+  @Test
+  void range() {
+    long[] values = {1L, 2L, 3L, 4L};
+    CompressedDecimal64Series series = CompressedDecimal64Series.compress(values, 1, 2);
+    long[] decoded = new long[2];
+    series.decode(decoded, 0);
+    assertArrayEquals(new long[] {2L, 3L}, decoded);
+  }
+
+  @Test
+  void invalidArguments() {
+    long[] values = new long[200];
+    assertThrows(IndexOutOfBoundsException.class, () -> CompressedDecimal64Series.compress(values, 1, 200));
+    assertThrows(IndexOutOfBoundsException.class, () -> CompressedDecimal64Series.compress(values, -1, 1));
+
+    CompressedDecimal64Series series = CompressedDecimal64Series.compress(values);
+    assertThrows(IndexOutOfBoundsException.class, () -> series.get(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.get(200));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.decodeBlock(2, new long[128], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.decodeBlock(0, new long[128], 1));
+    assertEquals(72, series.decodeBlock(1, new long[72], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.decode(new long[199], 0));
+  }
+
+}
@@ -0,0 +1,71 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedDecimal96SeriesTest {
+
+  @Test
+  void roundTrip() {
+    Random random = new Random(42L);
+    int length = 1_000;
+    BigDecimal96Array array = new BigDecimal96Array(length);
+    long price = 123_456L;
+    for (int i = 0; i < length; i++) {
+      price += random.nextInt(11) - 5;
+      if ((i / 128) == 3) {
+        // one block with mixed scales
+        array.set(i, BigDecimal96.valueOf(BigDecimal.valueOf(price, i % 7)));
+      } else if ((i / 128) == 5) {
+        // one block with values that do not fit into a long
+        array.set(i, BigDecimal96.valueOf(new BigDecimal(BigInteger.valueOf(price).shiftLeft(70), 2)));
+      } else {
+        array.set(i, BigDecimal96.valueOf(BigDecimal.valueOf(price, 2)));
+      }
+    }
+
+    CompressedDecimal96Series series = CompressedDecimal96Series.compress(array, 0, length);
+    assertEquals(length, series.length());
+    assertEquals(8, series.blockCount());
+    assertEquals(2, series.blockScale(0));
+    assertEquals(-1, series.blockScale(3));
+    assertEquals(-1, series.blockScale(5));
+    assertTrue(series.compressedSize() * 4 < (length * (long) BigDecimal96.BYTES), () -> "compressed size: " + series.compressedSize());
+
+    BigDecimal96Array decoded = new BigDecimal96Array(length + 1);
+    series.decode(decoded, 1);
+    for (int i = 0; i < length; i++) {
+      assertEquals(array.get(i), decoded.get(i + 1));
+      assertEquals(array.get(i), series.get(i));
+    }
+
+    BigDecimal96Array block = new BigDecimal96Array(128);
+    assertEquals(128, series.decodeBlock(5, block, 0));
+    assertEquals(array.get(5 * 128), block.get(0));
+
+    long[] unscaled = new long[128];
+    assertEquals(length - (7 * 128), series.decodeUnscaledBlock(7, unscaled, 0));
+    assertEquals(array.get(7 * 128).toBigDecimal().unscaledValue().longValueExact(), unscaled[0]);
+  }
+
+  @Test
+  void invalidArguments() {
+    BigDecimal96Array array = new BigDecimal96Array(200);
+    array.set(0, BigDecimal96.valueOf(new BigDecimal("1.5")));
+    assertThrows(IndexOutOfBoundsException.class, () -> CompressedDecimal96Series.compress(array, 1, 200));
+
+    CompressedDecimal96Series series = CompressedDecimal96Series.compress(array, 0, 200);
+    assertThrows(IllegalArgumentException.class, () -> series.decodeUnscaledBlock(0, new long[128], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.decodeBlock(0, new BigDecimal96Array(127), 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.decode(new BigDecimal96Array(199), 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> series.get(200));
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class Decimal96AdderTest {
+
+  @Test
+  void empty() {
+    Decimal96Adder adder = new Decimal96Adder();
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.000000")), adder.sum());
+    assertEquals("0.000000", adder.toString());
+  }
+
+  @Test
+  void add() {
+    Decimal96Adder adder = new Decimal96Adder();
+    adder.add(BigDecimal96.valueOf(new BigDecimal("1.5")));
+    adder.add(BigDecimal96.valueOf(new BigDecimal("-0.25")));
+    adder.add(1234L, 2);
+    adder.add(7L, 0);
+
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("20.590000")), adder.sum());
+    assertEquals(0, adder.sum().compareTo(BigDecimal96.valueOf(new BigDecimal("20.59"))));
+  }
+
+  @Test
+  void spill() {
+    Decimal96Adder adder = new Decimal96Adder();
+    BigDecimal expected = BigDecimal.ZERO;
+    // does not fit into a long at scale 6
+    adder.add(Long.MAX_VALUE, 0);
+    expected = expected.add(BigDecimal.valueOf(Long.MAX_VALUE));
+    // overflows the base
+    for (int i = 0; i < 3; i++) {
+      adder.add(Long.MAX_VALUE, 6);
+      expected = expected.add(BigDecimal.valueOf(Long.MAX_VALUE, 6));
+    }
+    adder.add(Long.MIN_VALUE, 6);
+    expected = expected.add(BigDecimal.valueOf(Long.MIN_VALUE, 6));
+    // not compact
+    BigDecimal large = new BigDecimal("-123456789012345678901.5");
+    adder.add(BigDecimal96.valueOf(large));
+    expected = expected.add(large);
+
+    assertEquals(0, expected.compareTo(adder.sum().toBigDecimal()));
+  }
+
+  @Test
+  void overflow() {
+    Decimal96Adder adder = new Decimal96Adder();
+    BigDecimal96 max = BigDecimal96.valueOf(BigDecimal96.MAX_VALUE);
+    adder.add(max);
+    adder.add(max);
+    assertEquals(BigDecimal96.MAX_VALUE.add(BigDecimal96.MAX_VALUE).setScale(6).toString(), adder.toString());
+    assertThrows(ArithmeticException.class, adder::sum);
+    assertThrows(ArithmeticException.class, adder::sumThenReset);
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.000000")), adder.sum());
+  }
+
+  @Test
+  void sumThenReset() {
+    Decimal96Adder adder = new Decimal96Adder();
+    adder.add(15L, 1);
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("1.500000")), adder.sumThenReset());
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.000000")), adder.sum());
+
+    adder.add(Long.MAX_VALUE, 0);
+    adder.reset();
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.000000")), adder.sum());
+  }
+
+  @Test
+  void invalidScale() {
+    Decimal96Adder adder = new Decimal96Adder();
+    assertThrows(IllegalArgumentException.class, () -> adder.add(1L, -1));
+    assertThrows(IllegalArgumentException.class, () -> adder.add(1L, 7));
+  }
+
+  @Test
+  void concurrent() throws Exception {
+    int threads = 8;
+    int iterations = 100_000;
+    Decimal96Adder adder = new Decimal96Adder();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < iterations; i++) {
+            adder.add(thread + 1L, 2);
+            if ((i % 10_000) == 0) {
+              // force the wide path
+              adder.add(Long.MAX_VALUE, 0);
+              adder.add(-Long.MAX_VALUE, 0);
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // (1 + 2 + ... + 8) * iterations / 100
+    BigDecimal expected = BigDecimal.valueOf(36L * iterations, 2);
+    assertEquals(0, expected.compareTo(adder.sum().toBigDecimal()));
+  }
+
+}
@@ -0,0 +1,102 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class Decimal96ToLongMapTest {
+
+  @Test
+  void empty() {
+    Decimal96ToLongMap map = new Decimal96ToLongMap();
+
+    assertTrue(map.isEmpty());
+    assertEquals(0, map.size());
+    assertFalse(map.containsKey(BigDecimal96.ONE));
+    assertEquals(-1L, map.getOrDefault(BigDecimal96.ONE, -1L));
+    assertFalse(map.remove(BigDecimal96.ONE));
+  }
+
+  @Test
+  void putGet() {
+    Decimal96ToLongMap map = new Decimal96ToLongMap();
+    map.put(BigDecimal96.ONE, 1L);
+    map.put(BigDecimal96.ZERO, 2L);
+    map.put(BigDecimal96.ONE, 3L);
+
+    assertEquals(2, map.size());
+    assertEquals(3L, map.getOrDefault(BigDecimal96.ONE, -1L));
+    assertEquals(2L, map.getOrDefault(BigDecimal96.ZERO, -1L));
+    // keys are compared like equals
+    assertFalse(map.containsKey(BigDecimal96.valueOf(new BigDecimal("1.0"))));
+  }
+
+  @Test
+  void addTo() {
+    Decimal96ToLongMap map = new Decimal96ToLongMap();
+
+    assertEquals(5L, map.addTo(BigDecimal96.ONE, 5L));
+    assertEquals(3L, map.addTo(BigDecimal96.ONE, -2L));
+    assertEquals(3L, map.getOrDefault(BigDecimal96.ONE, -1L));
+  }
+
+  @Test
+  void arrayKeys() {
+    BigDecimal96Array keys = new BigDecimal96Array(2);
+    keys.set(0, BigDecimal96.valueOf(new BigDecimal("123456789012345678901234.5")));
+    keys.set(1, BigDecimal96.valueOf(new BigDecimal("1.5")));
+    Decimal96ToLongMap map = new Decimal96ToLongMap(2);
+    map.addTo(keys, 0, 7L);
+    map.addTo(keys, 0, 1L);
+
+    assertEquals(8L, map.getOrDefault(keys, 0, -1L));
+    assertEquals(8L, map.getOrDefault(keys.get(0), -1L));
+    assertEquals(-1L, map.getOrDefault(keys, 1, -1L));
+  }
+
+  @Test
+  void randomOperations() {
+    // compare against HashMap including resizing and removal
+    Random random = new Random(42L);
+    Decimal96ToLongMap map = new Decimal96ToLongMap();
+    Map<BigDecimal96, Long> expected = new HashMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      // few distinct keys so that there are many updates and removals
+      BigDecimal96 key = BigDecimal96.valueOf(BigDecimal.valueOf(random.nextInt(5_000), random.nextInt(3)));
+      if (random.nextInt(4) == 0) {
+        assertEquals(expected.remove(key) != null, map.remove(key));
+      } else {
+        long value = random.nextLong();
+        expected.put(key, value);
+        map.put(key, value);
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (Map.Entry<BigDecimal96, Long> entry : expected.entrySet()) {
+      assertEquals(entry.getValue().longValue(), map.getOrDefault(entry.getKey(), 0L));
+    }
+    Map<BigDecimal96, Long> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertEquals(expected, actual);
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    map.forEach((key, value) -> {
+      throw new AssertionError("no entries expected");
+    });
+  }
+
+  @Test
+  void negativeExpectedSize() {
+    assertThrows(IllegalArgumentException.class, () -> new Decimal96ToLongMap(-1));
+  }
+
+}
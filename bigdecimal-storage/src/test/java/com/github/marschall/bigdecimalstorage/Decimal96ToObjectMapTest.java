@@ -0,0 +1,82 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class Decimal96ToObjectMapTest {
+
+  @Test
+  void empty() {
+    Decimal96ToObjectMap<String> map = new Decimal96ToObjectMap<>();
+
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(BigDecimal96.ONE));
+    assertNull(map.get(BigDecimal96.ONE));
+    assertNull(map.remove(BigDecimal96.ONE));
+  }
+
+  @Test
+  void putGet() {
+    Decimal96ToObjectMap<String> map = new Decimal96ToObjectMap<>();
+
+    assertNull(map.put(BigDecimal96.ONE, "a"));
+    assertEquals("a", map.put(BigDecimal96.ONE, "b"));
+    assertEquals("b", map.get(BigDecimal96.ONE));
+    assertEquals(1, map.size());
+    assertThrows(NullPointerException.class, () -> map.put(BigDecimal96.ZERO, null));
+  }
+
+  @Test
+  void computeIfAbsent() {
+    Decimal96ToObjectMap<String> map = new Decimal96ToObjectMap<>();
+
+    assertEquals("1", map.computeIfAbsent(BigDecimal96.ONE, BigDecimal96::toString));
+    assertEquals("1", map.computeIfAbsent(BigDecimal96.ONE, key -> "other"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void arrayKeys() {
+    BigDecimal96Array keys = new BigDecimal96Array(1);
+    keys.set(0, BigDecimal96.valueOf(new BigDecimal("-123456789012345678901234.5")));
+    Decimal96ToObjectMap<String> map = new Decimal96ToObjectMap<>();
+    map.put(keys.get(0), "a");
+
+    assertEquals("a", map.get(keys, 0));
+  }
+
+  @Test
+  void randomOperations() {
+    Random random = new Random(42L);
+    Decimal96ToObjectMap<Integer> map = new Decimal96ToObjectMap<>(10);
+    Map<BigDecimal96, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      BigDecimal96 key = BigDecimal96.valueOf(BigDecimal.valueOf(random.nextInt(5_000), random.nextInt(3)));
+      if (random.nextInt(4) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        Integer value = random.nextInt();
+        assertEquals(expected.put(key, value), map.put(key, value));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    Map<BigDecimal96, Integer> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertEquals(expected, actual);
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get(expected.keySet().iterator().next()));
+  }
+
+}
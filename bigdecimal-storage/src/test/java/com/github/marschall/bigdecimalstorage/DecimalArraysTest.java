@@ -0,0 +1,155 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalArraysTest {
+
+  private static final BigDecimal NEGATIVE_SCALE = new BigDecimal(BigInteger.valueOf(-15L), -3);
+
+  /**
+   * Valid values with {@code null} and invalid values mixed in at known positions.
+   */
+  private static BigDecimal[] mixed(Stream<BigDecimal> valid, Stream<BigDecimal> invalid, BitSet invalidIndices) {
+    List<BigDecimal> validValues = valid.collect(Collectors.toList());
+    List<BigDecimal> invalidValues = invalid.collect(Collectors.toList());
+    invalidValues.add(null);
+    List<BigDecimal> values = new ArrayList<>();
+    for (int i = 0; i < Math.max(validValues.size(), invalidValues.size()); i++) {
+      if (i < validValues.size()) {
+        values.add(validValues.get(i));
+      }
+      if (i < invalidValues.size()) {
+        invalidIndices.set(values.size());
+        values.add(invalidValues.get(i));
+      }
+    }
+    return values.toArray(new BigDecimal[0]);
+  }
+
+  @Test
+  void encodeDecode64() {
+    BitSet expectedErrors = new BitSet();
+    BigDecimal[] source = mixed(Stream.concat(BigDecimal64Test.bigDecimals(), Stream.of(NEGATIVE_SCALE)), BigDecimal64Test.invalidBigDecimals(), expectedErrors);
+    long[] destination = new long[source.length];
+    destination[expectedErrors.nextSetBit(0)] = 42L;
+    long[] errors = new long[(source.length + 63) / 64];
+    // cleared because the first element is valid
+    errors[0] = 1L;
+
+    int invalid = DecimalArrays.encode(source, destination, 0, source.length, errors);
+
+    assertEquals(expectedErrors.cardinality(), invalid);
+    assertEquals(expectedErrors, BitSet.valueOf(errors));
+    assertEquals(42L, destination[expectedErrors.nextSetBit(0)]);
+    for (int i = expectedErrors.nextClearBit(0); i < source.length; i = expectedErrors.nextClearBit(i + 1)) {
+      assertEquals(BigDecimal64.toLongValue(source[i]), destination[i]);
+    }
+
+    BigDecimal[] decoded = new BigDecimal[source.length];
+    DecimalArrays.decode(destination, decoded, 0, source.length);
+    for (int i = 0; i < source.length; i++) {
+      assertEquals(BigDecimal64.toBigDecimal(destination[i]), decoded[i]);
+    }
+  }
+
+  @Test
+  void encode64ZeroWithNegativeScale() {
+    BigDecimal[] source = {new BigDecimal("0E+13"), new BigDecimal("0E+20")};
+    long[] destination = {42L, 42L};
+    long[] errors = new long[1];
+
+    assertEquals(0, DecimalArrays.encode(source, destination, 0, source.length, errors));
+    assertArrayEquals(new long[] {0L, 0L}, destination);
+    assertEquals(0L, errors[0]);
+  }
+
+  @Test
+  void encodeDecode96() {
+    BitSet expectedErrors = new BitSet();
+    BigDecimal[] source = mixed(Stream.concat(BigDecimal96Test.bigDecimals(), Stream.of(NEGATIVE_SCALE)), BigDecimal96Test.invalidBigDecimals(), expectedErrors);
+    BigDecimal96Array destination = new BigDecimal96Array(source.length);
+    long[] errors = new long[(source.length + 63) / 64];
+
+    int invalid = DecimalArrays.encode(source, destination, 0, source.length, errors);
+
+    assertEquals(expectedErrors.cardinality(), invalid);
+    assertEquals(expectedErrors, BitSet.valueOf(errors));
+    BigDecimal[] decoded = new BigDecimal[source.length];
+    DecimalArrays.decode(destination, decoded, 0, source.length);
+    for (int i = 0; i < source.length; i++) {
+      if (expectedErrors.get(i)) {
+        assertEquals(BigDecimal96.ZERO, destination.get(i));
+      } else {
+        assertEquals(BigDecimal96.valueOf(source[i]), destination.get(i));
+      }
+      assertEquals(destination.toBigDecimal(i), decoded[i]);
+    }
+  }
+
+  @Test
+  void encodeDecode128() {
+    BitSet expectedErrors = new BitSet();
+    BigDecimal[] source = mixed(Stream.concat(BigDecimal128Test.bigDecimals(), Stream.of(NEGATIVE_SCALE)), BigDecimal128Test.invalidBigDecimals(), expectedErrors);
+    BigDecimal128Array destination = new BigDecimal128Array(source.length);
+    long[] errors = new long[(source.length + 63) / 64];
+
+    int invalid = DecimalArrays.encode(source, destination, 0, source.length, errors);
+
+    assertEquals(expectedErrors.cardinality(), invalid);
+    assertEquals(expectedErrors, BitSet.valueOf(errors));
+    BigDecimal[] decoded = new BigDecimal[source.length];
+    DecimalArrays.decode(destination, decoded, 0, source.length);
+    for (int i = 0; i < source.length; i++) {
+      if (!expectedErrors.get(i)) {
+        assertEquals(BigDecimal128.valueOf(source[i]), destination.get(i));
+      }
+      assertEquals(destination.toBigDecimal(i), decoded[i]);
+    }
+  }
+
+  @Test
+  void range() {
+    BigDecimal[] source = new BigDecimal[130];
+    for (int i = 0; i < source.length; i++) {
+      source[i] = BigDecimal.valueOf(i, 2);
+    }
+    source[0] = null;
+    source[129] = null;
+    long[] destination = new long[source.length];
+    long[] errors = new long[] {-1L, -1L, -1L};
+
+    assertEquals(0, DecimalArrays.encode(source, destination, 1, 128, errors));
+
+    // only the bits of the range are changed
+    assertArrayEquals(new long[] {1L, 0L, -2L}, errors);
+    assertEquals(0L, destination[0]);
+    assertEquals(10_000L, destination[1]);
+    assertEquals(1_280_000L, destination[128]);
+    assertEquals(0L, destination[129]);
+    assertEquals(1, DecimalArrays.encode(source, destination, 128, 2, null));
+  }
+
+  @Test
+  void outOfBounds() {
+    BigDecimal[] source = new BigDecimal[65];
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalArrays.encode(source, new long[64], 0, 65, null));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalArrays.encode(source, new long[65], -1, 1, null));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalArrays.encode(source, new long[65], 0, 65, new long[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalArrays.encode(source, new BigDecimal96Array(64), 0, 65, null));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalArrays.decode(new BigDecimal128Array(65), new BigDecimal[64], 0, 65));
+    assertEquals(0, DecimalArrays.encode(source, new long[65], 65, 0, new long[0]));
+  }
+
+}
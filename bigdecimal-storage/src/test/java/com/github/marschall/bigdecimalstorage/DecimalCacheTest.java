@@ -0,0 +1,54 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalCacheTest {
+
+  private static final String PROPERTY = DecimalCacheTest.class.getName() + ".size";
+
+  @Test
+  void capacity() {
+    assertEquals(0, capacity(null));
+    assertEquals(0, capacity("0"));
+    assertEquals(0, capacity("-1"));
+    assertEquals(0, capacity("invalid"));
+    assertEquals(1, capacity("1"));
+    assertEquals(64, capacity("64"));
+    assertEquals(128, capacity("65"));
+    assertEquals(DecimalCache.MAX_CAPACITY, capacity(Integer.toString(Integer.MAX_VALUE)));
+  }
+
+  private static int capacity(String value) {
+    if (value == null) {
+      System.clearProperty(PROPERTY);
+    } else {
+      System.setProperty(PROPERTY, value);
+    }
+    try {
+      return DecimalCache.capacity(PROPERTY);
+    } finally {
+      System.clearProperty(PROPERTY);
+    }
+  }
+
+  @Test
+  void indexSpreadsConsecutiveValues() {
+    int mask = 1023;
+    Set<Integer> indices = new HashSet<>();
+    int highBits = BigDecimal96.getHighByte(2, BigDecimal96.COMPACT_ARRAY_LENGTH);
+    for (long i = 0; i < 1024; i++) {
+      int index = DecimalCache.index(highBits, i, mask);
+      assertThat(index).isBetween(0, mask);
+      indices.add(index);
+    }
+    // a perfect hash would use all 1024, random about 647
+    assertThat(indices.size()).isGreaterThan(550);
+  }
+
+}
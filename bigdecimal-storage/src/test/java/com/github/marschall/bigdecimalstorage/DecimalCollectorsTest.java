@@ -0,0 +1,81 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalCollectorsTest {
+
+  private static BigDecimal96 decimal(String s) {
+    return BigDecimal96.valueOf(new BigDecimal(s));
+  }
+
+  private static Stream<BigDecimal96> values() {
+    return Stream.of(decimal("1.5"), decimal("-0.25"), decimal("123456789012345678901.5"), decimal("2"));
+  }
+
+  private static BigDecimal96Array largeArray() {
+    BigDecimal96Array array = new BigDecimal96Array(100_000);
+    for (int i = 0; i < array.length(); i++) {
+      array.set(i, (i * 7L) - 30_000L, i % 7);
+    }
+    return array;
+  }
+
+  @Test
+  void summing() {
+    assertEquals(0, new BigDecimal("123456789012345678904.75").compareTo(values().collect(DecimalCollectors.summing())));
+    assertEquals(0, BigDecimal.ZERO.compareTo(Stream.<BigDecimal96>empty().collect(DecimalCollectors.summing())));
+  }
+
+  @Test
+  void averaging() {
+    assertEquals(new BigDecimal("30864197253086419726.19"), values().collect(DecimalCollectors.averaging(2, RoundingMode.HALF_EVEN)));
+    assertNull(Stream.<BigDecimal96>empty().collect(DecimalCollectors.averaging(2, RoundingMode.HALF_EVEN)));
+  }
+
+  @Test
+  void minimumMaximum() {
+    assertEquals(Optional.of(decimal("-0.25")), values().collect(DecimalCollectors.minimum()));
+    assertEquals(Optional.of(decimal("123456789012345678901.5")), values().collect(DecimalCollectors.maximum()));
+    assertFalse(Stream.<BigDecimal96>empty().collect(DecimalCollectors.minimum()).isPresent());
+  }
+
+  @Test
+  void summarizing() {
+    BigDecimal96SummaryStatistics statistics = values().collect(DecimalCollectors.summarizing());
+    assertEquals(4L, statistics.getCount());
+    assertEquals(decimal("-0.25"), statistics.getMin());
+    assertEquals(decimal("123456789012345678901.5"), statistics.getMax());
+  }
+
+  @Test
+  void mapping() {
+    BigDecimal sum = Stream.of("1.5", "2.25")
+            .collect(Collectors.mapping(s -> decimal(s), DecimalCollectors.summing()));
+    assertEquals(0, new BigDecimal("3.75").compareTo(sum));
+  }
+
+  @Test
+  void parallel() {
+    BigDecimal96Array array = largeArray();
+    BigDecimal96SummaryStatistics sequential = array.stream().collect(DecimalCollectors.summarizing());
+    BigDecimal96SummaryStatistics parallel = array.stream().parallel().collect(DecimalCollectors.summarizing());
+
+    assertEquals(array.length(), parallel.getCount());
+    assertEquals(sequential.getSum(), parallel.getSum());
+    assertEquals(sequential.getMin(), parallel.getMin());
+    assertEquals(sequential.getMax(), parallel.getMax());
+    assertEquals(BigDecimal96Aggregations.sum(array), parallel.getSum());
+    assertEquals(sequential.getAverage(4, RoundingMode.HALF_EVEN), array.stream().parallel().collect(DecimalCollectors.averaging(4, RoundingMode.HALF_EVEN)));
+  }
+
+}
@@ -0,0 +1,297 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalColumnsTest {
+
+  private static long[] randomValues(int length, long bound) {
+    Random random = new Random(42L);
+    long[] values = new long[length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextLong() % bound;
+    }
+    return values;
+  }
+
+  @Test
+  void sum() {
+    long[] values = {BigDecimal64.MAX_VALUE, 1L, -1L, BigDecimal64.MIN_VALUE, -1L, 2L};
+    assertEquals(BigDecimal64.MAX_VALUE, DecimalColumns.sum(values, 0, 3));
+    assertEquals(1L, DecimalColumns.sum(values, 0, 6));
+    assertEquals(-1L, DecimalColumns.sum(values, 2, 1));
+    assertEquals(0L, DecimalColumns.sum(values, 6, 0));
+  }
+
+  @Test
+  void sumRandom() {
+    long[] values = randomValues(1000, BigDecimal64.MAX_VALUE / 100L);
+    for (int offset = 0; offset < 5; offset++) {
+      BigDecimal expected = BigDecimal.ZERO;
+      for (int i = offset; i < values.length; i++) {
+        expected = expected.add(BigDecimal.valueOf(values[i]));
+      }
+      if (expected.abs().compareTo(BigDecimal.valueOf(BigDecimal64.MAX_VALUE)) <= 0) {
+        assertEquals(expected.longValueExact(), DecimalColumns.sum(values, offset, values.length - offset));
+      } else {
+        int o = offset;
+        assertThrows(ArithmeticException.class, () -> DecimalColumns.sum(values, o, values.length - o));
+      }
+    }
+  }
+
+  @Test
+  void sumOverflow() {
+    long[] values = {BigDecimal64.MAX_VALUE, 1L};
+    assertThrows(ArithmeticException.class, () -> DecimalColumns.sum(values, 0, 2));
+
+    // intermediate sums overflow a long but the result is in range
+    long[] large = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, 1L, 1L};
+    assertEquals(0L, DecimalColumns.sum(large, 0, 6));
+    assertThrows(ArithmeticException.class, () -> DecimalColumns.sum(large, 0, 2));
+  }
+
+  @Test
+  void minMax() {
+    long[] values = randomValues(100, BigDecimal64.MAX_VALUE);
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 3; i < values.length; i++) {
+      min = Math.min(min, values[i]);
+      max = Math.max(max, values[i]);
+    }
+    assertEquals(min, DecimalColumns.min(values, 3, values.length - 3));
+    assertEquals(max, DecimalColumns.max(values, 3, values.length - 3));
+
+    assertEquals(Long.MAX_VALUE, DecimalColumns.min(values, 0, 0));
+    assertEquals(Long.MIN_VALUE, DecimalColumns.max(values, 0, 0));
+  }
+
+  @Test
+  void compare() {
+    long[] values = randomValues(300, BigDecimal64.MAX_VALUE);
+    long threshold = values[150];
+    for (int offset : new int[] {0, 1, 63, 64, 65}) {
+      for (int length : new int[] {0, 1, 63, 64, 65, 200}) {
+        BitSet greater = new BitSet();
+        BitSet less = new BitSet();
+        for (int i = offset; i < (offset + length); i++) {
+          if (values[i] > threshold) {
+            greater.set(i);
+          }
+          if (values[i] < threshold) {
+            less.set(i);
+          }
+        }
+        // bits outside of the range are unchanged, bits inside are cleared
+        long[] result = new long[5];
+        Arrays.fill(result, -1L);
+        int count = DecimalColumns.greaterThan(values, offset, length, threshold, result);
+        assertEquals(greater.cardinality(), count);
+        assertEquals(greater, withoutOutside(result, offset, length));
+
+        Arrays.fill(result, -1L);
+        count = DecimalColumns.lessThan(values, offset, length, threshold, result);
+        assertEquals(less.cardinality(), count);
+        assertEquals(less, withoutOutside(result, offset, length));
+      }
+    }
+  }
+
+  private static BitSet withoutOutside(long[] bitmap, int offset, int length) {
+    BitSet bits = BitSet.valueOf(bitmap);
+    assertEquals(offset, bits.get(0, offset).cardinality());
+    assertEquals(bitmap.length * 64 - offset - length, bits.get(offset + length, bitmap.length * 64).cardinality());
+    bits.clear(0, offset);
+    bits.clear(offset + length, bitmap.length * 64);
+    return bits;
+  }
+
+  @Test
+  void multiplyPow10() {
+    long[] values = {-1L, 12L, 3L, 4L};
+    DecimalColumns.multiplyPow10(values, 1, 2, 4);
+    assertArrayEquals(new long[] {-1L, 120_000L, 30_000L, 4L}, values);
+
+    DecimalColumns.multiplyPow10(values, 0, 4, 0);
+    assertArrayEquals(new long[] {-1L, 120_000L, 30_000L, 4L}, values);
+
+    long[] large = randomValues(100, BigDecimal64.MAX_VALUE);
+    long[] expected = large.clone();
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] /= 1_000L;
+      large[i] /= 1_000L;
+      expected[i] *= 1_000L;
+    }
+    DecimalColumns.multiplyPow10(large, 0, large.length, 3);
+    assertArrayEquals(expected, large);
+  }
+
+  @Test
+  void multiplyPow10Overflow() {
+    long[] values = {1L, Long.MAX_VALUE / 10L + 1L, 2L};
+    assertThrows(ArithmeticException.class, () -> DecimalColumns.multiplyPow10(values, 0, 3, 1));
+    assertArrayEquals(new long[] {1L, Long.MAX_VALUE / 10L + 1L, 2L}, values);
+    DecimalColumns.multiplyPow10(values, 2, 1, 18);
+    assertEquals(2_000_000_000_000_000_000L, values[2]);
+
+    long[] negative = {Long.MIN_VALUE / 100L - 1L};
+    assertThrows(ArithmeticException.class, () -> DecimalColumns.multiplyPow10(negative, 0, 1, 2));
+    assertEquals(Long.MIN_VALUE / 100L - 1L, negative[0]);
+  }
+
+  @Test
+  void invalidArguments() {
+    long[] values = new long[65];
+    assertThrows(IllegalArgumentException.class, () -> DecimalColumns.multiplyPow10(values, 0, 1, 19));
+    assertThrows(IllegalArgumentException.class, () -> DecimalColumns.multiplyPow10(values, 0, 1, -1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.sum(values, 0, 66));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.min(values, -1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.max(values, 65, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.multiplyPow10(values, 1, 65, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.greaterThan(values, 0, 65, 0L, new long[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.lessThan(values, 0, 66, 0L, new long[2]));
+    assertEquals(0, DecimalColumns.greaterThan(values, 65, 0, 0L, new long[0]));
+  }
+
+  /**
+   * Elements 0 to 199 fit into a long and have a scale of 2, the others
+   * have different scales and sizes but still fit into 96 bits at the
+   * largest scale.
+   */
+  private static BigDecimal96Array mixedArray() {
+    Random random = new Random(42L);
+    BigDecimal96Array array = new BigDecimal96Array(300);
+    for (int i = 0; i < 200; i++) {
+      array.set(i, random.nextLong() % 1_000_000_000L, 2);
+    }
+    for (int i = 200; i < array.length(); i++) {
+      BigDecimal value = new BigDecimal(new BigInteger(1 + random.nextInt(66), random), random.nextInt(BigDecimal96.MAX_SCALE + 1));
+      array.set(i, BigDecimal96.valueOf(random.nextBoolean() ? value : value.negate()));
+    }
+    return array;
+  }
+
+  private static final int[][] ARRAY_RANGES = {{0, 0}, {0, 1}, {3, 197}, {0, 200}, {130, 70}, {150, 100}, {0, 300}};
+
+  @Test
+  void sumArray() {
+    BigDecimal96Array array = mixedArray();
+    for (int[] range : ARRAY_RANGES) {
+      BigDecimal96SummaryStatistics expected = new BigDecimal96SummaryStatistics();
+      for (int i = range[0]; i < (range[0] + range[1]); i++) {
+        expected.accept(array.get(i));
+      }
+      assertEquals(expected.getSum(), DecimalColumns.sum(array, range[0], range[1]));
+    }
+  }
+
+  @Test
+  void minMaxArray() {
+    BigDecimal96Array array = mixedArray();
+    for (int[] range : ARRAY_RANGES) {
+      BigDecimal96SummaryStatistics expected = new BigDecimal96SummaryStatistics();
+      for (int i = range[0]; i < (range[0] + range[1]); i++) {
+        expected.accept(array.get(i));
+      }
+      assertEquals(expected.getMin(), DecimalColumns.min(array, range[0], range[1]));
+      assertEquals(expected.getMax(), DecimalColumns.max(array, range[0], range[1]));
+    }
+    assertNull(DecimalColumns.min(array, 10, 0));
+    assertNull(DecimalColumns.max(array, 10, 0));
+  }
+
+  @Test
+  void compareArray() {
+    BigDecimal96Array array = mixedArray();
+    BigDecimal96[] thresholds = {
+      array.get(100),
+      // needs rounding to the scale of the compact elements
+      BigDecimal96.valueOf(array.get(100).toBigDecimal().add(new BigDecimal("0.001"))),
+      BigDecimal96.valueOf(array.get(100).toBigDecimal().subtract(new BigDecimal("0.001"))),
+      // beyond the range of long at a scale of 2
+      BigDecimal96.valueOf(new BigDecimal("100000000000000000000")),
+      BigDecimal96.valueOf(new BigDecimal("-100000000000000000000")),
+      BigDecimal96.ZERO
+    };
+    for (BigDecimal96 threshold : thresholds) {
+      for (int[] range : ARRAY_RANGES) {
+        int offset = range[0];
+        int length = range[1];
+        BitSet greater = new BitSet();
+        BitSet less = new BitSet();
+        for (int i = offset; i < (offset + length); i++) {
+          int comparison = array.get(i).toBigDecimal().compareTo(threshold.toBigDecimal());
+          greater.set(i, comparison > 0);
+          less.set(i, comparison < 0);
+        }
+        long[] result = new long[5];
+        Arrays.fill(result, -1L);
+        assertEquals(greater.cardinality(), DecimalColumns.greaterThan(array, offset, length, threshold, result));
+        assertEquals(greater, withoutOutside(result, offset, length));
+
+        Arrays.fill(result, -1L);
+        assertEquals(less.cardinality(), DecimalColumns.lessThan(array, offset, length, threshold, result));
+        assertEquals(less, withoutOutside(result, offset, length));
+      }
+    }
+  }
+
+  @Test
+  void withScaleArray() {
+    for (int[] range : ARRAY_RANGES) {
+      BigDecimal96Array array = mixedArray();
+      BigDecimal96Array expected = mixedArray();
+      for (int i = range[0]; i < (range[0] + range[1]); i++) {
+        expected.set(i, expected.get(i).withScale(BigDecimal96.MAX_SCALE));
+      }
+      DecimalColumns.withScale(array, range[0], range[1], BigDecimal96.MAX_SCALE);
+      for (int i = 0; i < array.length(); i++) {
+        assertEquals(expected.get(i), array.get(i));
+      }
+    }
+  }
+
+  @Test
+  void withScaleArrayBeyondLong() {
+    BigDecimal96Array array = new BigDecimal96Array(3);
+    array.set(0, 1L, 0);
+    array.set(1, Long.MAX_VALUE, 0);
+    array.set(2, -1L, 0);
+
+    // the results do not fit into a long but into 96 bits
+    DecimalColumns.withScale(array, 0, 3, 2);
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("1.00")), array.get(0));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal(Long.MAX_VALUE).setScale(2)), array.get(1));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-1.00")), array.get(2));
+
+    // rounding necessary, nothing changes
+    array.set(0, 1L, 2);
+    assertThrows(ArithmeticException.class, () -> DecimalColumns.withScale(array, 0, 3, 1));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("0.01")), array.get(0));
+    assertEquals(BigDecimal96.valueOf(new BigDecimal("-1.00")), array.get(2));
+  }
+
+  @Test
+  void invalidArrayArguments() {
+    BigDecimal96Array array = new BigDecimal96Array(65);
+    assertThrows(IllegalArgumentException.class, () -> DecimalColumns.withScale(array, 0, 1, BigDecimal96.MAX_SCALE + 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.sum(array, 0, 66));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.min(array, -1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.max(array, 65, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.withScale(array, 1, 65, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.greaterThan(array, 0, 65, BigDecimal96.ZERO, new long[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> DecimalColumns.lessThan(array, 0, 66, BigDecimal96.ZERO, new long[2]));
+  }
+
+}
@@ -0,0 +1,87 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalMathTest {
+
+  private static final BigInteger TWO_64 = BigInteger.ONE.shiftLeft(64);
+
+  private static final long[] EDGE_CASES = {
+      0L, 1L, 2L, 3L, 10L, 0xFFFFFFFFL, 0x100000000L, 1_000_000_000_000L,
+      Long.MAX_VALUE, Long.MIN_VALUE, -1L, -2L, -10L, 0x8000_0000_0000_0001L
+  };
+
+  private static BigInteger unsigned(long l) {
+    BigInteger value = BigInteger.valueOf(l);
+    return l < 0L ? value.add(TWO_64) : value;
+  }
+
+  private static BigInteger unsigned(long hi, long lo) {
+    return unsigned(hi).shiftLeft(64).or(unsigned(lo));
+  }
+
+  @Test
+  void multiplyHigh() {
+    Random random = new Random(0L);
+    for (int i = 0; i < 100_000; i++) {
+      long x = i < EDGE_CASES.length * EDGE_CASES.length ? EDGE_CASES[i % EDGE_CASES.length] : random.nextLong();
+      long y = i < EDGE_CASES.length * EDGE_CASES.length ? EDGE_CASES[i / EDGE_CASES.length] : random.nextLong();
+
+      BigInteger signed = BigInteger.valueOf(x).multiply(BigInteger.valueOf(y));
+      assertEquals(signed.shiftRight(64).longValue(), DecimalMath.multiplyHigh(x, y));
+
+      BigInteger unsigned = unsigned(x).multiply(unsigned(y));
+      assertEquals(unsigned.shiftRight(64).longValue(), DecimalMath.unsignedMultiplyHigh(x, y));
+    }
+  }
+
+  @Test
+  void divideUnsigned() {
+    Random random = new Random(0L);
+    for (int i = 0; i < 100_000; i++) {
+      long divisor;
+      switch (i % 3) {
+        case 0:
+          divisor = random.nextLong();
+          break;
+        case 1:
+          divisor = random.nextInt() & 0x7FFFFFFF;
+          break;
+        default:
+          divisor = DecimalMath.POWERS_OF_TEN[random.nextInt(DecimalMath.POWERS_OF_TEN.length)];
+          break;
+      }
+      if (divisor == 0L) {
+        continue;
+      }
+      long hi = Long.remainderUnsigned(random.nextLong(), divisor);
+      long lo = random.nextLong();
+
+      BigInteger[] expected = unsigned(hi, lo).divideAndRemainder(unsigned(divisor));
+      long quotient = DecimalMath.divideUnsigned(hi, lo, divisor);
+      assertEquals(expected[0].longValue(), quotient);
+      assertEquals(expected[1].longValue(), lo - (quotient * divisor));
+    }
+  }
+
+  @Test
+  void divideUnsignedSmallDivisor() {
+    Random random = new Random(0L);
+    for (int i = 0; i < 100_000; i++) {
+      long divisor = DecimalMath.POWERS_OF_TEN[1 + random.nextInt(9)];
+      long hi = random.nextLong();
+      long lo = random.nextLong();
+
+      BigInteger[] expected = unsigned(hi, lo).divideAndRemainder(unsigned(divisor));
+      assertEquals(expected[0].longValue(), DecimalMath.divideUnsignedLow(hi, lo, divisor));
+      assertEquals(expected[0].shiftRight(64).longValue(), Long.divideUnsigned(hi, divisor));
+      assertEquals(expected[1].longValue(), DecimalMath.remainderUnsigned(hi, lo, divisor));
+    }
+  }
+
+}
@@ -0,0 +1,79 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalStreamReaderTest {
+
+  @Test
+  void invalidHeader() {
+    assertThrows(StreamCorruptedException.class, () -> new DecimalStreamReader(input(new byte[] {1, 2, 3, 4})));
+    assertThrows(EOFException.class, () -> new DecimalStreamReader(input(new byte[] {0x42, 0x44})));
+  }
+
+  @Test
+  void tooLargeFor96() throws IOException {
+    BigDecimal128 large = BigDecimal128.valueOf(new BigDecimal(BigDecimal96.MAX_VALUE.toBigInteger().shiftLeft(1)));
+    byte[] written = write(writer -> writer.write(large));
+
+    DecimalStreamReader reader = new DecimalStreamReader(input(written));
+    assertThrows(StreamCorruptedException.class, reader::readBigDecimal96);
+
+    reader = new DecimalStreamReader(input(written));
+    assertEquals(large, reader.readBigDecimal128());
+  }
+
+  @Test
+  void nullInArray() throws IOException {
+    byte[] written = write(writer -> {
+      writer.write(BigDecimal96.ONE);
+      writer.write((BigDecimal96) null);
+    });
+
+    BigDecimal96Array array = new BigDecimal96Array(2);
+    DecimalStreamReader reader = new DecimalStreamReader(input(written));
+    assertThrows(StreamCorruptedException.class, () -> reader.read(array, 0, 2));
+    assertEquals(BigDecimal96.ONE, array.get(0));
+  }
+
+  @Test
+  void truncated() throws IOException {
+    byte[] written = write(writer -> writer.write(BigDecimal96.valueOf(new BigDecimal("1234.56"))));
+    byte[] truncated = new byte[written.length - 1];
+    System.arraycopy(written, 0, truncated, 0, truncated.length);
+
+    DecimalStreamReader reader = new DecimalStreamReader(input(truncated));
+    assertThrows(EOFException.class, reader::readBigDecimal96);
+  }
+
+  private static DataInputStream input(byte[] bytes) {
+    return new DataInputStream(new ByteArrayInputStream(bytes));
+  }
+
+  private static byte[] write(WriterCallback callback) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      callback.write(new DecimalStreamWriter(out));
+    }
+    return bos.toByteArray();
+  }
+
+  @FunctionalInterface
+  interface WriterCallback {
+
+    void write(DecimalStreamWriter writer) throws IOException;
+
+  }
+
+}
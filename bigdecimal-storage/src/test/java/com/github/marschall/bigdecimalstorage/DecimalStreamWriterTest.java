@@ -0,0 +1,120 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class DecimalStreamWriterTest {
+
+  @Test
+  void roundTrip() throws IOException {
+    BigDecimal96 value96 = BigDecimal96.valueOf(new BigDecimal("-12345678901234567890.12"));
+    BigDecimal128 value128 = BigDecimal128.valueOf(new BigDecimal("123456789012345678901234567890.123456"));
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      DecimalStreamWriter writer = new DecimalStreamWriter(out);
+      writer.write(value96);
+      writer.write(value128);
+      writer.write((BigDecimal96) null);
+      writer.write((BigDecimal128) null);
+      // written as one type, read as the other
+      writer.write(BigDecimal96.ONE);
+      writer.write(BigDecimal128.ONE);
+    }
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      DecimalStreamReader reader = new DecimalStreamReader(in);
+      assertEquals(value96, reader.readBigDecimal96());
+      assertEquals(value128, reader.readBigDecimal128());
+      assertNull(reader.readBigDecimal96());
+      assertNull(reader.readBigDecimal128());
+      assertEquals(BigDecimal128.ONE, reader.readBigDecimal128());
+      assertEquals(BigDecimal96.ONE, reader.readBigDecimal96());
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  void arrays() throws IOException {
+    int length = 1_000;
+    BigDecimal96Array array96 = new BigDecimal96Array(length);
+    BigDecimal128Array array128 = new BigDecimal128Array(length);
+    for (int i = 0; i < length; i++) {
+      BigDecimal value = BigDecimal.valueOf((i - 500) * 12_345L, i % 7);
+      array96.set(i, BigDecimal96.valueOf(value));
+      array128.set(i, BigDecimal128.valueOf(value.multiply(new BigDecimal("1E+20"))));
+    }
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      DecimalStreamWriter writer = new DecimalStreamWriter(out);
+      writer.write(array96, 1, length - 1);
+      writer.write(array128, 0, length);
+    }
+
+    BigDecimal96Array read96 = new BigDecimal96Array(length);
+    BigDecimal128Array read128 = new BigDecimal128Array(length);
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      DecimalStreamReader reader = new DecimalStreamReader(in);
+      reader.read(read96, 1, length - 1);
+      reader.read(read128, 0, length);
+      assertEquals(-1, in.read());
+    }
+    assertEquals(BigDecimal96.ZERO, read96.get(0));
+    for (int i = 1; i < length; i++) {
+      assertEquals(array96.get(i), read96.get(i));
+    }
+    for (int i = 0; i < length; i++) {
+      assertEquals(array128.get(i), read128.get(i));
+    }
+  }
+
+  @Test
+  void smallerThanSerialization() throws IOException {
+    int length = 100;
+    BigDecimal96[] values = new BigDecimal96[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = BigDecimal96.valueOf(BigDecimal.valueOf(i * 101L, 2));
+    }
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(stream)) {
+      DecimalStreamWriter writer = new DecimalStreamWriter(out);
+      for (BigDecimal96 value : values) {
+        writer.write(value);
+      }
+    }
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+      for (BigDecimal96 value : values) {
+        out.writeObject(value);
+      }
+    }
+    // header plus at most 3 bytes per value
+    assertTrue(stream.size() <= (4 + (length * 3)));
+    assertTrue((stream.size() * 2) < serialized.size());
+  }
+
+  @Test
+  void invalidRange() throws IOException {
+    DecimalStreamWriter writer = new DecimalStreamWriter(new DataOutputStream(new ByteArrayOutputStream()));
+    BigDecimal96Array array = new BigDecimal96Array(2);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> writer.write(array, -1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> writer.write(array, 1, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> writer.write(array, 0, -1));
+  }
+
+}
@@ -0,0 +1,129 @@
+package com.github.marschall.bigdecimalstorage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the Vector API kernels in {@code META-INF/versions/17} to the
+ * scalar kernels. The {@code java17} profile puts them on the class path
+ * and adds the {@code jdk.incubator.vector} module, on older Java
+ * versions the tests are skipped.
+ */
+class VectorColumnKernelsTest {
+
+  private static final int MAX_FROM = 9;
+
+  // more than the longest vector of 16 ints so that there are full vectors and a tail
+  private static final int MAX_LENGTH = 70;
+
+  private static ColumnKernels vector;
+
+  private static final ColumnKernels SCALAR = ScalarColumnKernels.INSTANCE;
+
+  @BeforeAll
+  static void loadVectorKernels() throws ReflectiveOperationException {
+    Class<?> vectorClass;
+    try {
+      vectorClass = Class.forName("com.github.marschall.bigdecimalstorage.VectorColumnKernels");
+    } catch (ClassNotFoundException e) {
+      vectorClass = null;
+    }
+    assumeTrue(vectorClass != null, "vector kernels not on class path");
+    vector = (ColumnKernels) vectorClass.getDeclaredConstructor().newInstance();
+  }
+
+  private static long[] randomValues(Random random, int length) {
+    long[] values = new long[length];
+    for (int i = 0; i < values.length; i++) {
+      // small values and values that overflow when summed
+      values[i] = random.nextBoolean() ? random.nextLong() : random.nextInt(2_000) - 1_000L;
+    }
+    return values;
+  }
+
+  @Test
+  void sumHalves() {
+    Random random = new Random(42L);
+    for (int from = 0; from <= MAX_FROM; from++) {
+      for (int length = 0; length <= MAX_LENGTH; length++) {
+        long[] values = randomValues(random, from + length + 3);
+        long[] expected = new long[2];
+        long[] actual = new long[2];
+        SCALAR.sumHalves(values, from, from + length, expected);
+        vector.sumHalves(values, from, from + length, actual);
+        assertArrayEquals(expected, actual, "from: " + from + ", length: " + length);
+      }
+    }
+  }
+
+  @Test
+  void minMax() {
+    Random random = new Random(42L);
+    for (int from = 0; from <= MAX_FROM; from++) {
+      for (int length = 0; length <= MAX_LENGTH; length++) {
+        long[] values = randomValues(random, from + length + 3);
+        int to = from + length;
+        assertEquals(SCALAR.min(values, from, to), vector.min(values, from, to), "from: " + from + ", length: " + length);
+        assertEquals(SCALAR.max(values, from, to), vector.max(values, from, to), "from: " + from + ", length: " + length);
+      }
+    }
+  }
+
+  @Test
+  void compare() {
+    Random random = new Random(42L);
+    for (int from = 0; from <= MAX_FROM; from++) {
+      // the compare kernels work on at most 64 values
+      for (int length = 0; length <= 64; length++) {
+        long[] values = randomValues(random, from + length + 3);
+        int to = from + length;
+        long threshold = values[from + (length / 2)];
+        assertEquals(SCALAR.greaterThan(values, from, to, threshold), vector.greaterThan(values, from, to, threshold),
+                "from: " + from + ", length: " + length);
+        assertEquals(SCALAR.lessThan(values, from, to, threshold), vector.lessThan(values, from, to, threshold),
+                "from: " + from + ", length: " + length);
+      }
+    }
+  }
+
+  @Test
+  void multiply() {
+    Random random = new Random(42L);
+    for (int from = 0; from <= MAX_FROM; from++) {
+      for (int length = 0; length <= MAX_LENGTH; length++) {
+        long[] expected = randomValues(random, from + length + 3);
+        long[] actual = expected.clone();
+        SCALAR.multiply(expected, from, from + length, 1_000L);
+        vector.multiply(actual, from, from + length, 1_000L);
+        assertArrayEquals(expected, actual, "from: " + from + ", length: " + length);
+      }
+    }
+  }
+
+  @Test
+  void allEqual() {
+    Random random = new Random(42L);
+    for (int from = 0; from <= MAX_FROM; from++) {
+      for (int length = 0; length <= MAX_LENGTH; length++) {
+        int[] values = new int[from + length + 3];
+        // different values outside of the range
+        Arrays.fill(values, 1);
+        Arrays.fill(values, from, from + length, 7);
+        assertEquals(SCALAR.allEqual(values, from, from + length, 7), vector.allEqual(values, from, from + length, 7));
+        if (length > 0) {
+          values[from + random.nextInt(length)] = 8;
+          assertEquals(SCALAR.allEqual(values, from, from + length, 7), vector.allEqual(values, from, from + length, 7),
+                  "from: " + from + ", length: " + length);
+        }
+      }
+    }
+  }
+
+}